@@ -0,0 +1,212 @@
+package aeropuerto;
+
+import java.util.Arrays;
+
+/**
+ * Almacén de eventos aeroportuarios en arrays de primitivos paralelos.
+ * <p/>
+ * Cada evento ocupa un hueco (un índice) en los arrays: instante, aeronave,
+ * un byte que empaqueta tipo de operación y estado, y los instantes del primer
+ * intento de la operación y del fin del aterrizaje (ver EventoAeroportuario). Los huecos liberados
+ * se encadenan en una lista libre y se reutilizan, así que una vez que los
+ * arrays han alcanzado el número máximo de eventos pendientes, reservar y
+ * liberar eventos no crea ningún objeto.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.MotorPrimitivo
+ */
+public class AlmacenEventos {
+    /**
+     * Marca de fin de la lista libre
+     */
+    private static final int NINGUNO = -1;
+
+    /**
+     * Tipos de operación, indexados por ordinal
+     */
+    private static final TipoOperacion[] TIPOS = TipoOperacion.values();
+
+    /**
+     * Estados de operación, indexados por ordinal
+     */
+    private static final EstadoOperacion[] ESTADOS = EstadoOperacion.values();
+
+    /**
+     * Instante de cada evento
+     */
+    private long[] cuando;
+
+    /**
+     * Aeronave de cada evento
+     */
+    private int[] idAeronave;
+
+    /**
+     * Tipo (bits altos) y estado (2 bits bajos) de cada evento
+     */
+    private byte[] tipoEstado;
+
+    /**
+     * Instante del primer intento de la operación de cada evento
+     */
+    private long[] primerIntento;
+
+    /**
+     * Instante del fin del aterrizaje de la aeronave de cada evento
+     */
+    private long[] finAterrizaje;
+
+    /**
+     * Siguiente hueco libre de cada hueco libre
+     */
+    private int[] siguienteLibre;
+
+    /**
+     * Primer hueco de la lista libre
+     */
+    private int primeroLibre = NINGUNO;
+
+    /**
+     * Número de huecos usados alguna vez
+     */
+    private int usados = 0;
+
+    /**
+     * Crea un almacén con la capacidad inicial indicada.
+     *
+     * @param capacidad número inicial de huecos
+     */
+    public AlmacenEventos(int capacidad) {
+        capacidad = Math.max(capacidad, 1);
+        cuando = new long[capacidad];
+        idAeronave = new int[capacidad];
+        tipoEstado = new byte[capacidad];
+        primerIntento = new long[capacidad];
+        finAterrizaje = new long[capacidad];
+        siguienteLibre = new int[capacidad];
+    }
+
+    /**
+     * Reserva un hueco para el primer intento de una operación
+     *
+     * @param instante cuando ocurre el evento
+     * @param aeronave identificador de aeronave
+     * @param tipo     tipo de operación
+     * @param estado   estado de la operación
+     * @return hueco del evento
+     */
+    public int reserva(long instante, int aeronave, TipoOperacion tipo, EstadoOperacion estado) {
+        return reserva(instante, aeronave, tipo, estado, instante, -1);
+    }
+
+    /**
+     * Reserva un hueco para un evento
+     *
+     * @param instante   cuando ocurre el evento
+     * @param aeronave   identificador de aeronave
+     * @param tipo       tipo de operación
+     * @param estado     estado de la operación
+     * @param intento    instante del primer intento de la operación
+     * @param finAterriz instante del fin del aterrizaje de la aeronave
+     * @return hueco del evento
+     */
+    public int reserva(long instante, int aeronave, TipoOperacion tipo, EstadoOperacion estado,
+                       long intento, long finAterriz) {
+        int hueco;
+        if (primeroLibre != NINGUNO) {
+            hueco = primeroLibre;
+            primeroLibre = siguienteLibre[hueco];
+        } else {
+            if (usados == cuando.length)
+                crece();
+            hueco = usados++;
+        }
+        cuando[hueco] = instante;
+        idAeronave[hueco] = aeronave;
+        tipoEstado[hueco] = (byte) ((tipo.ordinal() << 2) | estado.ordinal());
+        primerIntento[hueco] = intento;
+        finAterrizaje[hueco] = finAterriz;
+        return hueco;
+    }
+
+    /**
+     * Devuelve un hueco a la lista libre
+     *
+     * @param hueco a liberar
+     */
+    public void libera(int hueco) {
+        siguienteLibre[hueco] = primeroLibre;
+        primeroLibre = hueco;
+    }
+
+    /**
+     * @param hueco del evento
+     * @return instante del evento
+     */
+    public long getCuando(int hueco) {
+        return cuando[hueco];
+    }
+
+    /**
+     * @param hueco del evento
+     * @return identificador de aeronave del evento
+     */
+    public int getIdAeronave(int hueco) {
+        return idAeronave[hueco];
+    }
+
+    /**
+     * @param hueco del evento
+     * @return tipo de operación del evento
+     */
+    public TipoOperacion getTipo(int hueco) {
+        return TIPOS[tipoEstado[hueco] >>> 2];
+    }
+
+    /**
+     * @param hueco del evento
+     * @return estado del evento
+     */
+    public EstadoOperacion getEstado(int hueco) {
+        return ESTADOS[tipoEstado[hueco] & 3];
+    }
+
+    /**
+     * @param hueco del evento
+     * @return instante del primer intento de la operación del evento
+     */
+    public long getPrimerIntento(int hueco) {
+        return primerIntento[hueco];
+    }
+
+    /**
+     * @param hueco del evento
+     * @return instante del fin del aterrizaje de la aeronave del evento
+     */
+    public long getFinAterrizaje(int hueco) {
+        return finAterrizaje[hueco];
+    }
+
+    /**
+     * Número de huecos que se han llegado a usar a la vez
+     *
+     * @return máximo de eventos simultáneos en el almacén
+     */
+    public int getHuecosUsados() {
+        return usados;
+    }
+
+    /**
+     * Duplica la capacidad de los arrays
+     */
+    private void crece() {
+        int capacidad = cuando.length * 2;
+        cuando = Arrays.copyOf(cuando, capacidad);
+        idAeronave = Arrays.copyOf(idAeronave, capacidad);
+        tipoEstado = Arrays.copyOf(tipoEstado, capacidad);
+        primerIntento = Arrays.copyOf(primerIntento, capacidad);
+        finAterrizaje = Arrays.copyOf(finAterrizaje, capacidad);
+        siguienteLibre = Arrays.copyOf(siguienteLibre, capacidad);
+    }
+}
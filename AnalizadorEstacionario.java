@@ -0,0 +1,394 @@
+package aeropuerto;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Simula hasta el régimen estacionario sin tener que adivinar el horizonte:
+ * detecta y descarta el calentamiento y para en cuanto un indicador tiene
+ * la precisión pedida.
+ * <p/>
+ * La simulación avanza por lotes de tiempo (ver IndicadorLotes). Para el
+ * calentamiento, una bifurcación piloto (ver Simulador.bifurca) aplica
+ * MSER-5 a las medias por lote de las aeronaves en el aeropuerto y de la
+ * demora: agrupa los lotes de cinco en cinco y elige el truncamiento d que
+ * minimiza la varianza de la media de los grupos que quedan, dividida por
+ * su número. Si d cae en la segunda mitad de los datos, la serie es aún
+ * demasiado corta y el piloto sigue. El simulador principal, que sigue la
+ * misma trayectoria que el piloto, avanza hasta d y borra ahí los
+ * acumuladores de su estadística (ver Simulador.reiniciaEstadistica); los
+ * lotes del piloto posteriores a d sirven de primeros lotes medidos.
+ * <p/>
+ * Después, regla de parada secuencial por medias de lotes: en cuanto hay
+ * MINIMO_LOTES lotes, se para si la semiamplitud del intervalo de confianza
+ * al 95% del indicador elegido es como mucho la precisión relativa pedida
+ * por su media. Si las medias de lotes consecutivos están correladas
+ * (autocorrelación de orden 1 mayor que AUTOCORRELACION_MAXIMA), los lotes
+ * se juntan de dos en dos, con el doble de duración, antes de evaluar.
+ * Nunca se simula más allá del horizonte máximo.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Estadistica#reinicia(long)
+ */
+public class AnalizadorEstacionario {
+    /**
+     * Logger
+     */
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.AnalizadorEstacionario");
+
+    /**
+     * Lotes por grupo en MSER-5
+     */
+    private static final int TAMANO_GRUPO = 5;
+
+    /**
+     * Grupos que necesita MSER-5 para dar un truncamiento
+     */
+    private static final int MINIMO_GRUPOS = 10;
+
+    /**
+     * Grupos que deben quedar tras el truncamiento para tenerlo en cuenta
+     */
+    private static final int MINIMO_RESTANTES = 5;
+
+    /**
+     * Lotes necesarios para evaluar la regla de parada
+     */
+    static final int MINIMO_LOTES = 10;
+
+    /**
+     * Autocorrelación de orden 1 de las medias de lotes a partir de la cual se juntan
+     */
+    private static final double AUTOCORRELACION_MAXIMA = 0.2;
+
+    /**
+     * Parámetros de la simulación
+     */
+    private final Parametros parametros;
+
+    /**
+     * Duración inicial de cada lote, en segundos
+     */
+    private final long lote;
+
+    /**
+     * Indicador que decide la parada
+     */
+    private final IndicadorLotes indicador;
+
+    /**
+     * Semiamplitud relativa que se quiere alcanzar
+     */
+    private final double precision;
+
+    /**
+     * Horizonte máximo de la simulación
+     */
+    private final long hastaMaximo;
+
+    /**
+     * Instante en que se truncó el calentamiento, o -1 si no se detectó
+     */
+    private long calentamiento = -1;
+
+    /**
+     * Instante hasta el que se simuló
+     */
+    private long fin = 0;
+
+    /**
+     * Duración final de cada lote, tras juntarlos
+     */
+    private long duracionLote;
+
+    /**
+     * Medias por lote del indicador, desde el calentamiento
+     */
+    private Serie lotes = new Serie();
+
+    /**
+     * Si se alcanzó la precisión antes del horizonte máximo
+     */
+    private boolean precisionAlcanzada = false;
+
+    /**
+     * Constructor
+     *
+     * @param parametros  de la simulación
+     * @param lote        duración de cada lote, en segundos (mayor que 0)
+     * @param indicador   indicador que decide la parada
+     * @param precision   semiamplitud relativa que se quiere alcanzar (mayor que 0)
+     * @param hastaMaximo horizonte máximo (al menos un lote)
+     * @throws IllegalArgumentException si algún argumento está fuera de rango
+     */
+    public AnalizadorEstacionario(Parametros parametros, long lote, IndicadorLotes indicador,
+                                  double precision, long hastaMaximo) {
+        if (parametros == null || indicador == null || lote <= 0 || !(precision > 0) || hastaMaximo < lote)
+            throw new IllegalArgumentException("AnalizadorEstacionario: lote=" + lote
+                    + " precision=" + precision + " hasta=" + hastaMaximo);
+        this.parametros = parametros;
+        this.lote = lote;
+        this.indicador = indicador;
+        this.precision = precision;
+        this.hastaMaximo = hastaMaximo;
+        duracionLote = lote;
+    }
+
+    /**
+     * Simula, descarta el calentamiento y sigue hasta alcanzar la precisión
+     * o el horizonte máximo. Si no se detecta el final del calentamiento
+     * antes del horizonte máximo, devuelve la estadística de toda la
+     * simulación, sin descartar nada (getCalentamiento vale -1). Cada
+     * llamada empieza una simulación nueva desde el instante 0, y los
+     * getters describen la última.
+     *
+     * @return estadística desde el final del calentamiento
+     */
+    public Estadistica ejecuta() {
+        calentamiento = -1;
+        fin = 0;
+        duracionLote = lote;
+        lotes = new Serie();
+        precisionAlcanzada = false;
+        Simulador principal = new Simulador(parametros);
+        try {
+            Simulador piloto = principal.bifurca(parametros.sinFicheros());
+            Serie ocupacion = new Serie();
+            Serie demora = new Serie();
+            Serie valores = new Serie();
+            int truncados = -1;
+            try {
+                Estadistica anterior = piloto.getInstantanea();
+                while (truncados < 0 && fin + lote <= hastaMaximo) {
+                    fin += lote;
+                    piloto.simulaHasta(fin);
+                    Estadistica actual = piloto.getInstantanea();
+                    ocupacion.pon(IndicadorLotes.EN_AEROPUERTO.getValor(anterior, actual, lote));
+                    demora.pon(IndicadorLotes.DEMORA.getValor(anterior, actual, lote));
+                    valores.pon(indicador.getValor(anterior, actual, lote));
+                    anterior = actual;
+                    int a = mser5(ocupacion.valores, ocupacion.nro);
+                    int b = mser5(demora.valores, demora.nro);
+                    if (a >= 0 && b >= 0)
+                        truncados = Math.max(a, b);
+                }
+                if (truncados < 0) {
+                    LOGGER.warning("No se ha detectado el final del calentamiento antes de {}", hastaMaximo);
+                    return piloto.calculaEstadistica(fin);
+                }
+            } finally {
+                piloto.close();
+            }
+
+            calentamiento = truncados * lote;
+            LOGGER.info("Calentamiento hasta {} ({} lotes)", calentamiento, truncados);
+            principal.simulaHasta(calentamiento);
+            principal.reiniciaEstadistica();
+            for (int i = truncados; i < valores.nro; i++)
+                lotes.pon(valores.valores[i]);
+            principal.simulaHasta(fin);
+            Estadistica anterior = principal.getInstantanea();
+            while (!evalua() && fin + duracionLote <= hastaMaximo) {
+                fin += duracionLote;
+                principal.simulaHasta(fin);
+                Estadistica actual = principal.getInstantanea();
+                lotes.pon(indicador.getValor(anterior, actual, duracionLote));
+                anterior = actual;
+            }
+            return principal.calculaEstadistica(fin);
+        } finally {
+            principal.close();
+        }
+    }
+
+    /**
+     * Regla de parada: junta los lotes si están correlados y, si no,
+     * comprueba la precisión
+     *
+     * @return si se puede parar
+     */
+    private boolean evalua() {
+        if (lotes.nro < MINIMO_LOTES)
+            return false;
+        if (autocorrelacion(lotes.valores, lotes.nro) > AUTOCORRELACION_MAXIMA) {
+            if (lotes.nro >= 2 * MINIMO_LOTES && lotes.nro % 2 == 0) {
+                lotes.junta();
+                duracionLote *= 2;
+            }
+            return false;
+        }
+        precisionAlcanzada = getSemiamplitud() <= precision * Math.abs(getMedia());
+        return precisionAlcanzada;
+    }
+
+    /**
+     * Truncamiento MSER-5 de una serie de medias por lote
+     *
+     * @param x serie
+     * @param n número de valores de la serie
+     * @return número de lotes que se descartan (múltiplo de 5), o -1 si la
+     * serie es demasiado corta para decidirlo
+     */
+    static int mser5(double[] x, int n) {
+        int k = n / TAMANO_GRUPO;
+        if (k < MINIMO_GRUPOS)
+            return -1;
+        double[] z = new double[k];
+        for (int i = 0; i < k * TAMANO_GRUPO; i++)
+            z[i / TAMANO_GRUPO] += x[i] / TAMANO_GRUPO;
+        // Sumas desde el final, para todos los truncamientos en una pasada
+        double suma = 0;
+        double cuadrados = 0;
+        double mejor = Double.POSITIVE_INFINITY;
+        int truncamiento = -1;
+        for (int d = k - 1; d >= 0; d--) {
+            suma += z[d];
+            cuadrados += z[d] * z[d];
+            int m = k - d;
+            if (m < MINIMO_RESTANTES)
+                continue;
+            double estadistico = (cuadrados - suma * suma / m) / ((double) m * m);
+            if (estadistico <= mejor) {
+                mejor = estadistico;
+                truncamiento = d;
+            }
+        }
+        return (truncamiento <= k / 2) ? truncamiento * TAMANO_GRUPO : -1;
+    }
+
+    /**
+     * Autocorrelación de orden 1 de una serie
+     *
+     * @param x serie
+     * @param n número de valores de la serie
+     * @return autocorrelación, 0 si la serie es constante
+     */
+    static double autocorrelacion(double[] x, int n) {
+        double media = 0;
+        for (int i = 0; i < n; i++)
+            media += x[i] / n;
+        double varianza = 0;
+        double covarianza = 0;
+        for (int i = 0; i < n; i++) {
+            varianza += (x[i] - media) * (x[i] - media);
+            if (i > 0)
+                covarianza += (x[i] - media) * (x[i - 1] - media);
+        }
+        return (varianza > 0) ? covarianza / varianza : 0;
+    }
+
+    /**
+     * @return instante en que se truncó el calentamiento, o -1 si no se detectó
+     */
+    public long getCalentamiento() {
+        return calentamiento;
+    }
+
+    /**
+     * @return instante hasta el que se simuló
+     */
+    public long getFin() {
+        return fin;
+    }
+
+    /**
+     * @return número de lotes medidos tras el calentamiento
+     */
+    public int getNroLotes() {
+        return lotes.nro;
+    }
+
+    /**
+     * @return duración de cada lote medido, tras juntarlos
+     */
+    public long getDuracionLote() {
+        return duracionLote;
+    }
+
+    /**
+     * @return media del indicador en los lotes medidos
+     */
+    public double getMedia() {
+        double media = 0;
+        for (int i = 0; i < lotes.nro; i++)
+            media += lotes.valores[i] / lotes.nro;
+        return media;
+    }
+
+    /**
+     * Semiamplitud del intervalo de confianza al 95% de la media del
+     * indicador, con las medias de lotes como observaciones independientes
+     *
+     * @return semiamplitud, infinito con menos de dos lotes
+     */
+    public double getSemiamplitud() {
+        int n = lotes.nro;
+        if (n < 2)
+            return Double.POSITIVE_INFINITY;
+        double media = getMedia();
+        double m2 = 0;
+        for (int i = 0; i < n; i++)
+            m2 += (lotes.valores[i] - media) * (lotes.valores[i] - media);
+        return ResumenReplicas.cuantilT(n - 1) * Math.sqrt(m2 / (n - 1) / n);
+    }
+
+    /**
+     * @return si se alcanzó la precisión antes del horizonte máximo
+     */
+    public boolean isPrecisionAlcanzada() {
+        return precisionAlcanzada;
+    }
+
+    /**
+     * Serie de medias por lote, que crece según hace falta
+     */
+    private static class Serie {
+        private double[] valores = new double[64];
+        private int nro = 0;
+
+        void pon(double valor) {
+            if (nro == valores.length)
+                valores = Arrays.copyOf(valores, nro * 2);
+            valores[nro++] = valor;
+        }
+
+        /**
+         * Junta los lotes de dos en dos (el número de lotes debe ser par)
+         */
+        void junta() {
+            nro /= 2;
+            for (int i = 0; i < nro; i++)
+                valores[i] = (valores[2 * i] + valores[2 * i + 1]) / 2;
+        }
+    }
+
+    /**
+     * Simula en régimen estacionario e imprime la estadística.
+     * Requiere como argumentos el horizonte máximo, el fichero de
+     * parámetros, la duración de los lotes, el indicador (ver
+     * IndicadorLotes) y la semiamplitud relativa (por ejemplo 0.05).
+     *
+     * @param argumentos [hasta_maximo] [fichero_de_parámetros] [lote] [indicador] [precision]
+     * @throws IOException              si hay problemas con el fichero de parámetros
+     * @throws IllegalArgumentException si algún argumento o parámetro está fuera de rango
+     */
+    public static void main(String[] argumentos)
+            throws IOException {
+        if (argumentos.length != 5) {
+            System.err.println("AnalizadorEstacionario [hasta_maximo] [fichero_parametros.ini] [lote] [indicador] [precision]");
+            System.exit(1);
+        }
+        AnalizadorEstacionario analizador = new AnalizadorEstacionario(new Parametros(argumentos[1]),
+                Long.parseLong(argumentos[2]), IndicadorLotes.valueOf(argumentos[3]),
+                Double.parseDouble(argumentos[4]), Long.parseLong(argumentos[0]));
+        Estadistica estadistica = analizador.ejecuta();
+        String a = "Calentamiento=" + analizador.getCalentamiento() + " Fin=" + analizador.getFin()
+                + " Lotes=" + analizador.getNroLotes() + "x" + analizador.getDuracionLote()
+                + " " + argumentos[3] + "=" + analizador.getMedia() + " +/- " + analizador.getSemiamplitud()
+                + (analizador.isPrecisionAlcanzada() ? "" : " (sin alcanzar la precision)");
+        LOGGER.info(a);
+        System.out.println(a);
+        System.out.println("Resultado " + estadistica);
+    }
+}
@@ -0,0 +1,81 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+/**
+ * Comprueba el descarte del calentamiento (MSER-5 y borrado de los
+ * acumuladores) y la regla de parada secuencial.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class AnalizadorEstacionarioTest extends TestCase {
+
+    private final Parametros parametros = new Parametros(7, 2, 120, 0.2, 600, 200, 100, 60, 10);
+
+    /**
+     * MSER-5 descarta el transitorio de una serie que converge,
+     * y no decide con una serie corta
+     */
+    public void testMser5() {
+        Random random = new Random(1);
+        double[] x = new double[200];
+        for (int i = 0; i < x.length; i++)
+            x[i] = 10 * Math.exp(-i / 10.0) + random.nextGaussian() * 0.5;
+        int d = AnalizadorEstacionario.mser5(x, x.length);
+        assertEquals(0, d % 5);
+        assertTrue("truncamiento " + d, d >= 20 && d <= 100);
+        assertEquals(-1, AnalizadorEstacionario.mser5(x, 40));
+    }
+
+    /**
+     * Borrar los acumuladores a mitad equivale a restar lo que había en ese instante
+     */
+    public void testReiniciaEstadistica() {
+        Simulador seguida = new Simulador(parametros);
+        seguida.simulaHasta(50000);
+        Estadistica mitad = seguida.getInstantanea();
+        seguida.simulaHasta(100000);
+        Estadistica total = seguida.calculaEstadistica(100000);
+
+        Simulador reiniciada = new Simulador(parametros);
+        reiniciada.simulaHasta(50000);
+        reiniciada.reiniciaEstadistica();
+        reiniciada.simulaHasta(100000);
+        Estadistica e = reiniciada.calculaEstadistica(100000);
+
+        assertEquals(50000, e.getInicio());
+        assertEquals(total.getFinAterrizajes() - mitad.getFinAterrizajes(), e.getFinAterrizajes());
+        assertEquals(total.getDemoraDespegues().getNroValores() - mitad.getDemoraDespegues().getNroValores(),
+                e.getDemoraDespegues().getNroValores());
+        assertEquals((double) (total.getEnAeropuertoPorTiempo() - mitad.getEnAeropuertoPorTiempo()) / 50000,
+                e.getMediaEnAeropuerto(), 0.01);
+    }
+
+    /**
+     * La regla de parada termina mucho antes del horizonte máximo
+     * con la precisión pedida, y la estadística cuenta desde el calentamiento
+     */
+    public void testParadaSecuencial() {
+        AnalizadorEstacionario analizador = new AnalizadorEstacionario(parametros, 600,
+                IndicadorLotes.EN_AEROPUERTO, 0.05, 5000000);
+        Estadistica e = analizador.ejecuta();
+        assertTrue(analizador.isPrecisionAlcanzada());
+        assertTrue(analizador.getFin() < 500000);
+        assertTrue(analizador.getNroLotes() >= AnalizadorEstacionario.MINIMO_LOTES);
+        assertTrue(analizador.getSemiamplitud() <= 0.05 * analizador.getMedia());
+        assertTrue(analizador.getCalentamiento() >= 0);
+        assertEquals(analizador.getCalentamiento(), e.getInicio());
+        assertEquals(analizador.getMedia(), e.getMediaEnAeropuerto(), 0.01);
+
+        // Una segunda llamada empieza de nuevo y da lo mismo
+        long fin = analizador.getFin();
+        int nroLotes = analizador.getNroLotes();
+        assertEquals(e.toString(), analizador.ejecuta().toString());
+        assertEquals(fin, analizador.getFin());
+        assertEquals(nroLotes, analizador.getNroLotes());
+        assertTrue(analizador.isPrecisionAlcanzada());
+    }
+}
@@ -0,0 +1,222 @@
+package aeropuerto;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bitácora asíncrona: los hilos de la simulación copian cada mensaje (su
+ * nivel, su formato y sus argumentos) a un buffer circular reservado al
+ * crearla, y un hilo escritor los compone y los escribe en el logger.
+ * <p/>
+ * Cada registro ocupa una posición de unos arrays de primitivos, como en
+ * FilaEspera: el nivel y el número de argumentos en bytes, los argumentos
+ * numéricos en un long[] y los demás en un Object[], así que anotar no crea
+ * objetos. Cada hilo que anota reserva su posición con un contador atómico
+ * y la publica escribiendo su número de secuencia, y el escritor las
+ * consume en orden. Si el buffer se llena, quien anota espera a que el
+ * escritor libere sitio; no se pierden mensajes.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Bitacora
+ */
+public class AnotadorAsincrono implements AutoCloseable {
+    /**
+     * Marca de un argumento numérico: su valor va en el array de long
+     */
+    static final Object NUMERO = new Object();
+
+    /**
+     * Argumentos por registro
+     */
+    private static final int MAXIMO_ARGUMENTOS = 3;
+
+    /**
+     * Nanosegundos que duerme el escritor cuando no hay registros
+     */
+    private static final long PAUSA = 100000;
+
+    /**
+     * Número de registros del buffer (potencia de 2)
+     */
+    private final int capacidad;
+
+    /**
+     * Número de secuencia del siguiente registro que se reserve; el bit
+     * de signo indica que la bitácora está cerrada
+     */
+    private final AtomicLong siguiente = new AtomicLong();
+
+    /**
+     * Número de secuencia del siguiente registro que escribirá el escritor
+     */
+    private volatile long consumidos = 0;
+
+    /**
+     * Número de secuencia más 1 del registro publicado en cada posición
+     */
+    private final AtomicLongArray publicados;
+
+    /**
+     * Fachada que anotó cada registro
+     */
+    private final Bitacora[] origenes;
+
+    /**
+     * Formato de cada registro
+     */
+    private final String[] formatos;
+
+    /**
+     * Nivel de cada registro
+     */
+    private final byte[] niveles;
+
+    /**
+     * Número de argumentos de cada registro
+     */
+    private final byte[] nroArgumentos;
+
+    /**
+     * Argumentos de cada registro (NUMERO si es numérico)
+     */
+    private final Object[] objetos;
+
+    /**
+     * Argumentos numéricos de cada registro
+     */
+    private final long[] numeros;
+
+    /**
+     * Veces que se ha esperado a que hubiera sitio en el buffer
+     */
+    private final AtomicLong esperas = new AtomicLong();
+
+    /**
+     * Hilo escritor
+     */
+    private final Thread escritor;
+
+    /**
+     * Crea la bitácora y arranca el hilo escritor
+     *
+     * @param capacidad número mínimo de registros del buffer (se redondea a potencia de 2)
+     * @throws IllegalArgumentException si la capacidad no es positiva
+     */
+    public AnotadorAsincrono(int capacidad) {
+        if (capacidad < 1 || capacidad > (1 << 24))
+            throw new IllegalArgumentException("AnotadorAsincrono: capacidad " + capacidad);
+        this.capacidad = (capacidad == 1) ? 1 : Integer.highestOneBit(capacidad - 1) << 1;
+        publicados = new AtomicLongArray(this.capacidad);
+        origenes = new Bitacora[this.capacidad];
+        formatos = new String[this.capacidad];
+        niveles = new byte[this.capacidad];
+        nroArgumentos = new byte[this.capacidad];
+        objetos = new Object[this.capacidad * MAXIMO_ARGUMENTOS];
+        numeros = new long[this.capacidad * MAXIMO_ARGUMENTOS];
+        escritor = new Thread(this::escribe, "AnotadorAsincrono");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Copia un registro al buffer, esperando si está lleno
+     *
+     * @return FALSE si la bitácora está cerrada y no se ha copiado
+     */
+    boolean anota(Bitacora origen, byte nivel, String formato, int n, Object a, long na, Object b, long nb,
+                  Object c, long nc) {
+        long secuencia;
+        do {
+            secuencia = siguiente.get();
+            if (secuencia < 0)
+                return false;
+        } while (!siguiente.compareAndSet(secuencia, secuencia + 1));
+        if (secuencia - consumidos >= capacidad) {
+            esperas.incrementAndGet();
+            while (secuencia - consumidos >= capacidad)
+                Thread.yield();
+        }
+        int i = (int) secuencia & (capacidad - 1);
+        int k = i * MAXIMO_ARGUMENTOS;
+        origenes[i] = origen;
+        formatos[i] = formato;
+        niveles[i] = nivel;
+        nroArgumentos[i] = (byte) n;
+        objetos[k] = a;
+        numeros[k] = na;
+        objetos[k + 1] = b;
+        numeros[k + 1] = nb;
+        objetos[k + 2] = c;
+        numeros[k + 2] = nc;
+        publicados.set(i, secuencia + 1);
+        return true;
+    }
+
+    /**
+     * Bucle del hilo escritor: escribe los registros en orden hasta que
+     * se cierra la bitácora y no queda ninguno
+     */
+    private void escribe() {
+        StringBuilder mensaje = new StringBuilder(256);
+        long secuencia = 0;
+        while (true) {
+            int i = (int) secuencia & (capacidad - 1);
+            if (publicados.get(i) == secuencia + 1) {
+                int k = i * MAXIMO_ARGUMENTOS;
+                mensaje.setLength(0);
+                Bitacora.compone(mensaje, formatos[i], objetos, numeros, k, nroArgumentos[i]);
+                Bitacora origen = origenes[i];
+                byte nivel = niveles[i];
+                origenes[i] = null;
+                formatos[i] = null;
+                objetos[k] = objetos[k + 1] = objetos[k + 2] = null;
+                consumidos = ++secuencia;
+                origen.escribe(nivel, mensaje.toString());
+            } else if (siguiente.get() == (secuencia | Long.MIN_VALUE)) {
+                return;
+            } else {
+                LockSupport.parkNanos(PAUSA);
+            }
+        }
+    }
+
+    /**
+     * @return número de registros del buffer
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * @return veces que se ha esperado a que hubiera sitio en el buffer
+     */
+    public long getEsperas() {
+        return esperas.get();
+    }
+
+    /**
+     * @return número de registros anotados
+     */
+    public long getNroRegistros() {
+        return siguiente.get() & Long.MAX_VALUE;
+    }
+
+    /**
+     * Deja de aceptar registros, espera a que el escritor escriba los
+     * pendientes y lo para. Los mensajes que se anoten después se escriben
+     * en el hilo que los genera.
+     */
+    public void close() {
+        long s;
+        do {
+            s = siguiente.get();
+        } while (s >= 0 && !siguiente.compareAndSet(s, s | Long.MIN_VALUE));
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
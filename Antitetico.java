@@ -0,0 +1,74 @@
+package aeropuerto;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Flujo antitético de otro flujo de números aleatorios: donde el original
+ * saca u, este saca 1-u, y donde el original saca una normal z, este saca -z.
+ * <p/>
+ * Dos réplicas, una con un flujo y otra con su antitético, tienen salidas
+ * correladas negativamente, y la media del par varía menos que la de dos
+ * réplicas independientes (ver Replicador). El flujo original debe ser una
+ * copia propia: el antitético lo consume.
+ * <p/>
+ * Los long se complementan bit a bit, así que nextDouble da exactamente
+ * 1-2^-53-u; nextGaussian cambia el signo de la normal del original. El
+ * método ziggurat del generador no usa nextGaussian: Generador saca sus
+ * normales del flujo original y les cambia el signo (ver getOriginal).
+ * La correlación solo se mantiene mientras las dos réplicas consumen sus
+ * flujos al mismo ritmo, por eso conviene usarlo con flujos separados
+ * (ver TipoFlujos) e intervalos entre llegadas por inversión (EXPONENCIAL).
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Replicador
+ */
+public class Antitetico implements RandomGenerator {
+    /**
+     * Flujo original
+     */
+    private final RandomGenerator original;
+
+    /**
+     * Constructor
+     *
+     * @param original flujo del que este es el antitético
+     * @throws IllegalArgumentException si original es null
+     */
+    public Antitetico(RandomGenerator original) {
+        if (original == null)
+            throw new IllegalArgumentException("Antitetico: sin flujo original");
+        this.original = original;
+    }
+
+    /**
+     * @return flujo original
+     */
+    public RandomGenerator getOriginal() {
+        return original;
+    }
+
+    /**
+     * @return complemento bit a bit del siguiente long del original
+     */
+    public long nextLong() {
+        return ~original.nextLong();
+    }
+
+    /**
+     * @return siguiente normal del original, cambiada de signo
+     */
+    public double nextGaussian() {
+        return -original.nextGaussian();
+    }
+
+    /**
+     * Subflujo antitético: el antitético del subflujo que sacaría el original
+     *
+     * @return subflujo antitético
+     * @see aeropuerto.Generador
+     */
+    Antitetico subflujo() {
+        return new Antitetico(Generador.subflujo(original));
+    }
+}
@@ -0,0 +1,217 @@
+package aeropuerto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Barrido de parámetros: simula todas las combinaciones de valores
+ * de varios parámetros (una rejilla) dentro de una misma JVM.
+ * <p/>
+ * Cada parámetro barrido se indica con un Rango, por su etiqueta en el fichero
+ * de parámetros; el resto de parámetros se toman de unos parámetros base.
+ * Todos los puntos usan la semilla base, de modo que las diferencias entre
+ * puntos se deben a los parámetros y no al azar.
+ * <p/>
+ * Los puntos de la rejilla se reparten en un ForkJoinPool, dividiendo el
+ * rango de puntos por la mitad, y cada resultado se guarda en una fila
+ * de una TablaResultados: una columna por parámetro barrido y una por Metrica.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class Barrido {
+    /**
+     * Logger
+     */
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.Barrido");
+
+    /**
+     * Parámetros base
+     */
+    private final Properties base;
+
+    /**
+     * Parámetros barridos
+     */
+    private final Rango[] rangos;
+
+    /**
+     * Instante fin de cada simulación
+     */
+    private final long hastaCuando;
+
+    /**
+     * Hilos que ejecutan las simulaciones
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Número de puntos de la rejilla
+     */
+    private final int nroPuntos;
+
+    /**
+     * Constructor. Ejecuta las simulaciones en el pool común.
+     *
+     * @param base        parámetros base
+     * @param rangos      parámetros barridos
+     * @param hastaCuando tiempo que se simula en cada punto
+     * @throws IllegalArgumentException si algún rango no corresponde a un parámetro
+     */
+    public Barrido(Parametros base, List<Rango> rangos, long hastaCuando) {
+        this(base, rangos, hastaCuando, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor con un pool de hilos propio.
+     *
+     * @param base        parámetros base
+     * @param rangos      parámetros barridos
+     * @param hastaCuando tiempo que se simula en cada punto
+     * @param pool        hilos que ejecutan las simulaciones
+     * @throws IllegalArgumentException si algún rango no corresponde a un parámetro
+     */
+    public Barrido(Parametros base, List<Rango> rangos, long hastaCuando, ForkJoinPool pool) {
+        this.base = base.getPropiedades();
+        this.rangos = rangos.toArray(new Rango[0]);
+        this.hastaCuando = hastaCuando;
+        this.pool = pool;
+        long n = 1;
+        for (Rango r : this.rangos) {
+            if (!this.base.containsKey(r.getClave()))
+                throw new IllegalArgumentException("Barrido: parametro desconocido " + r.getClave());
+            n *= r.getNroValores();
+        }
+        if (n > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Barrido: demasiados puntos " + n);
+        nroPuntos = (int) n;
+    }
+
+    /**
+     * @return número de puntos de la rejilla
+     */
+    public int getNroPuntos() {
+        return nroPuntos;
+    }
+
+    /**
+     * Parámetros de un punto de la rejilla. El último rango es el que
+     * varía más deprisa.
+     *
+     * @param punto índice del punto
+     * @return parámetros del punto
+     * @throws IllegalArgumentException si la combinación de valores no es válida
+     */
+    public Parametros getParametros(int punto) {
+        Properties p = new Properties();
+        p.putAll(base);
+        for (int r = rangos.length - 1; r >= 0; r--) {
+            int n = rangos[r].getNroValores();
+            p.setProperty(rangos[r].getClave(), rangos[r].getTexto(punto % n));
+            punto /= n;
+        }
+        return new Parametros(p);
+    }
+
+    /**
+     * Simula todos los puntos de la rejilla.
+     *
+     * @return tabla con una fila por punto, en orden de punto
+     */
+    public TablaResultados ejecuta() {
+        List<String> columnas = new ArrayList<String>();
+        for (Rango r : rangos)
+            columnas.add(r.getClave());
+        for (Metrica m : Metrica.values())
+            columnas.add(m.name());
+        TablaResultados tabla = new TablaResultados(columnas.toArray(new String[0]), nroPuntos);
+        pool.invoke(new Tramo(tabla, 0, nroPuntos));
+        return tabla;
+    }
+
+    /**
+     * Simula un punto y guarda su fila en la tabla.
+     * Cada punto escribe solo en su fila, así que no hace falta sincronizar,
+     * y en sus propios ficheros de salida (ver Parametros.conSufijo).
+     */
+    private void simulaPunto(TablaResultados tabla, int punto) {
+        Parametros parametros = getParametros(punto);
+        Estadistica estadistica;
+        try (Simulador simulador = new Simulador(parametros.conSufijo("punto" + punto))) {
+            simulador.simulaBucle(hastaCuando);
+            estadistica = simulador.calculaEstadistica(hastaCuando);
+        }
+        if (estadistica == null)
+            throw new IllegalStateException("Barrido: punto " + punto + " sin estadistica");
+        Properties p = parametros.getPropiedades();
+        for (Rango r : rangos)
+            tabla.pon(r.getClave(), punto, Double.parseDouble(p.getProperty(r.getClave())));
+        for (Metrica m : Metrica.values())
+            tabla.pon(m.name(), punto, m.getValor(estadistica));
+    }
+
+    /**
+     * Tarea que simula un rango de puntos, dividiéndolo por la mitad
+     * mientras tenga más de un punto.
+     */
+    private class Tramo extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final TablaResultados tabla;
+        private final int desde;
+        private final int hasta;
+
+        Tramo(TablaResultados tabla, int desde, int hasta) {
+            this.tabla = tabla;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        protected void compute() {
+            if (hasta - desde <= 1) {
+                if (hasta > desde)
+                    simulaPunto(tabla, desde);
+                return;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            invokeAll(new Tramo(tabla, desde, mitad), new Tramo(tabla, mitad, hasta));
+        }
+    }
+
+    /**
+     * Lanza un barrido y exporta la tabla de resultados a CSV.
+     * Requiere al menos cuatro argumentos de entrada:
+     * <ol>
+     * <li>tiempo que dura cada simulación (debe ser > 0)
+     * <li>fichero con los parámetros base
+     * <li>fichero CSV de resultados
+     * <li>uno o más rangos, como <code>clave=desde:hasta:paso</code>
+     * o <code>clave=valor1,valor2,...</code>
+     * </ol>
+     *
+     * @param argumentos [tiempo_de_simulación] [fichero_de_parámetros] [fichero_csv] [rango]...
+     * @throws IOException              si hay problemas con los ficheros
+     * @throws IllegalArgumentException si algún argumento o parámetro está fuera de rango
+     * @throws NumberFormatException    si el valor de algún parámetro está mal escrito
+     */
+    public static void main(String[] argumentos)
+            throws IOException {
+        if (argumentos.length < 4) {
+            System.err.println("Barrido [hasta_cuando] [fichero_parametros.ini] [resultados.csv] [clave=desde:hasta:paso]...");
+            System.exit(1);
+        }
+        long finSimulacion = Long.parseLong(argumentos[0]);
+        Parametros base = new Parametros(argumentos[1]);
+        List<Rango> rangos = new ArrayList<Rango>();
+        for (int i = 3; i < argumentos.length; i++)
+            rangos.add(Rango.lee(argumentos[i]));
+
+        Barrido barrido = new Barrido(base, rangos, finSimulacion);
+        LOGGER.info("Inicio de barrido. Puntos={} Rangos={}", barrido.getNroPuntos(), rangos);
+        barrido.ejecuta().exportaCsv(argumentos[2]);
+        LOGGER.info("Fin de barrido. Resultados en {}", argumentos[2]);
+    }
+}
@@ -0,0 +1,55 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+/**
+ * Pruebas del barrido de parámetros y de su tabla de resultados.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class BarridoTest extends TestCase {
+
+    private final Parametros base = new Parametros(3, 2, 120, 0.5, 600, 200, 100, 60, 10);
+
+    /**
+     * La rejilla tiene una combinación por cada valor de cada rango,
+     * y el último rango es el que varía más deprisa.
+     */
+    public void testRejilla() {
+        Barrido barrido = new Barrido(base, Arrays.asList(Rango.lee("numero.pistas=1:3:1"),
+                Rango.lee("frecuencia.llegadas=0.2,0.5")), 1000);
+        assertEquals(6, barrido.getNroPuntos());
+        assertEquals(1, barrido.getParametros(0).getNumeroPistas());
+        assertEquals(0.5, barrido.getParametros(1).getFrecuencia());
+        assertEquals(3, barrido.getParametros(5).getNumeroPistas());
+        assertEquals(base.getDuracionMedia(), barrido.getParametros(5).getDuracionMedia());
+    }
+
+    /**
+     * No se puede barrer un parámetro que no existe.
+     */
+    public void testParametroDesconocido() {
+        try {
+            new Barrido(base, Arrays.asList(Rango.lee("no.existe=1,2")), 1000);
+            fail("Debe rechazar un parametro desconocido");
+        } catch (IllegalArgumentException e) {
+            // esperado
+        }
+    }
+
+    /**
+     * Ejecuta un barrido pequeño, ordena y filtra sus resultados.
+     */
+    public void testEjecutaOrdenaYFiltra() {
+        TablaResultados tabla = new Barrido(base, Arrays.asList(Rango.lee("numero.pistas=1:3:1")), 20000).ejecuta();
+        assertEquals(3, tabla.getNroFilas());
+        TablaResultados ordenada = tabla.ordena(Metrica.PUNTUALIDAD.name(), false);
+        assertEquals(3.0, ordenada.getValor("numero.pistas", 0));
+        TablaResultados filtrada = tabla.filtra("numero.pistas", v -> v >= 2);
+        assertEquals(2, filtrada.getNroFilas());
+        assertEquals(2.0, filtrada.getValor("numero.pistas", 0));
+    }
+}
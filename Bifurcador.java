@@ -0,0 +1,127 @@
+package aeropuerto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Explora a la vez varias alternativas ("¿y si se cierra una pista a las
+ * 14:00?") a partir de una misma simulación a medias.
+ * <p/>
+ * La simulación base se ejecuta una sola vez hasta el instante de la
+ * bifurcación; de ella se sacan las bifurcaciones (ver Simulador.bifurca),
+ * una por cada juego de parámetros, y cada una continúa hasta el final en
+ * un hilo del pool. Si una bifurcación usa los mismos parámetros que la
+ * base, su resultado es el mismo que el de la base sin bifurcar.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Simulador#bifurca(Parametros)
+ */
+public class Bifurcador {
+    /**
+     * Simulación base
+     */
+    private final Simulador base;
+
+    /**
+     * Parámetros de cada bifurcación
+     */
+    private final Parametros[] alternativas;
+
+    /**
+     * Instante final de las bifurcaciones
+     */
+    private final long hastaCuando;
+
+    /**
+     * Pool donde se ejecutan las bifurcaciones
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor, con el pool común de ForkJoin
+     *
+     * @param base         simulación base, ya avanzada hasta el instante de la bifurcación
+     * @param alternativas parámetros de cada bifurcación
+     * @param hastaCuando  instante final de las bifurcaciones
+     * @throws IllegalArgumentException si no hay alternativas o el final es anterior a la base
+     */
+    public Bifurcador(Simulador base, Parametros[] alternativas, long hastaCuando) {
+        this(base, alternativas, hastaCuando, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param base         simulación base, ya avanzada hasta el instante de la bifurcación
+     * @param alternativas parámetros de cada bifurcación
+     * @param hastaCuando  instante final de las bifurcaciones
+     * @param pool         pool donde se ejecutan las bifurcaciones
+     * @throws IllegalArgumentException si no hay alternativas o el final es anterior a la base
+     */
+    public Bifurcador(Simulador base, Parametros[] alternativas, long hastaCuando, ForkJoinPool pool) {
+        if (base == null || pool == null || alternativas == null || alternativas.length < 1
+                || hastaCuando < base.getFinSimulacion())
+            throw new IllegalArgumentException("Bifurcador: " + hastaCuando);
+        this.base = base;
+        this.alternativas = alternativas.clone();
+        this.hastaCuando = hastaCuando;
+        this.pool = pool;
+    }
+
+    /**
+     * Crea las bifurcaciones y las simula en paralelo hasta el final.
+     * La simulación base no cambia. Antes de crear ninguna se comprueban
+     * todas las alternativas, y si falla la creación de una se cierran las
+     * ya creadas, para no dejar abiertos sus ficheros de salida.
+     *
+     * @return estadística de cada bifurcación, en el orden de las alternativas
+     * @throws IllegalArgumentException si alguna alternativa no es compatible con la base
+     * @throws IllegalStateException    si alguna bifurcación falla
+     */
+    public Estadistica[] simula() {
+        for (Parametros alternativa : alternativas)
+            base.compruebaBifurcacion(alternativa);
+        List<Simulador> bifurcaciones = new ArrayList<Simulador>(alternativas.length);
+        try {
+            for (Parametros alternativa : alternativas)
+                bifurcaciones.add(base.bifurca(alternativa));
+        } catch (RuntimeException e) {
+            for (Simulador bifurcacion : bifurcaciones)
+                bifurcacion.close();
+            throw e;
+        }
+        List<Callable<Estadistica>> tareas = new ArrayList<Callable<Estadistica>>(alternativas.length);
+        for (Simulador bifurcacion : bifurcaciones)
+            tareas.add(() -> simulaBifurcacion(bifurcacion));
+        Estadistica[] resultados = new Estadistica[alternativas.length];
+        List<Future<Estadistica>> futuros = pool.invokeAll(tareas);
+        try {
+            for (int i = 0; i < resultados.length; i++)
+                resultados[i] = futuros.get(i).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bifurcador: interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bifurcador: " + e.getCause(), e.getCause());
+        }
+        return resultados;
+    }
+
+    /**
+     * Simula una bifurcación hasta el final
+     *
+     * @param bifurcacion simulador de la bifurcación
+     * @return estadística de la bifurcación
+     */
+    private Estadistica simulaBifurcacion(Simulador bifurcacion) {
+        try (Simulador simulador = bifurcacion) {
+            simulador.simulaHasta(hastaCuando);
+            return simulador.calculaEstadistica(hastaCuando);
+        }
+    }
+}
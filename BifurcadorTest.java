@@ -0,0 +1,133 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Properties;
+
+/**
+ * Comprueba las bifurcaciones de una simulación: con los mismos parámetros
+ * continúan igual que la base, y con otros cambian solo desde la bifurcación.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class BifurcadorTest extends TestCase {
+
+    /**
+     * Dos bifurcaciones con los parámetros de la base, con los dos motores
+     */
+    public void testMismosParametrosMismoResultado() {
+        compara("OBJETOS");
+        compara("PRIMITIVO");
+    }
+
+    /**
+     * Cerrar una pista empeora la puntualidad y no afecta a la base
+     */
+    public void testMenosPistas() {
+        Properties p = propiedades("OBJETOS");
+        Simulador base = new Simulador(new Parametros(p));
+        base.simulaHasta(50000);
+        String antes = base.getInstantanea().toString();
+
+        p.setProperty("numero.pistas", "1");
+        Parametros unaPista = new Parametros(p);
+        p.setProperty("numero.pistas", "3");
+        Parametros tresPistas = new Parametros(p);
+        Estadistica[] r = new Bifurcador(base, new Parametros[]{unaPista, tresPistas}, 100000).simula();
+
+        assertTrue(r[0].getAterrizajesDemora() > r[1].getAterrizajesDemora());
+        assertTrue(r[0].getMaximoEnPistas() <= 2);
+        assertEquals(antes, base.getInstantanea().toString());
+    }
+
+    /**
+     * Si una alternativa no es compatible no se crea ninguna bifurcación,
+     * y si falla la copia del estado de una se cierran las ya creadas
+     */
+    public void testAlternativaIncorrecta() throws Exception {
+        File directorio = Files.createTempDirectory("bifurcador").toFile();
+        try {
+            Properties p = propiedades("OBJETOS");
+            p.setProperty("traza.fichero", new File(directorio, "traza").getPath());
+            Simulador base = new Simulador(new Parametros(p));
+            base.simulaHasta(20000);
+            Parametros igual = new Parametros(p);
+
+            p.setProperty("motor.simulacion", "PRIMITIVO");
+            try {
+                new Bifurcador(base, new Parametros[]{igual, new Parametros(p)}, 50000).simula();
+                fail("Debería rechazar otro motor");
+            } catch (IllegalArgumentException e) {
+                assertFalse(new File(TrazaEventos.nombreSegmento(new File(directorio, "traza.bifurcacion1").getPath(), 0)).exists());
+            }
+
+            p.setProperty("motor.simulacion", "OBJETOS");
+            p.setProperty("ventana.segundos", "3600");
+            try {
+                new Bifurcador(base, new Parametros[]{igual, new Parametros(p)}, 50000).simula();
+                fail("Debería fallar al copiar el estado sin serie de ventanas");
+            } catch (IllegalStateException e) {
+                // La primera bifurcación se cerró: su traza se lee entera
+                try (LectorTraza lector = new LectorTraza(new File(directorio, "traza.bifurcacion1").getPath())) {
+                    while (lector.siguiente())
+                        ;
+                }
+            }
+            base.close();
+        } finally {
+            for (File f : directorio.listFiles())
+                f.delete();
+            directorio.delete();
+        }
+    }
+
+    /**
+     * Con fila de espera, las pistas que se añaden al bifurcar se reservan
+     * enseguida para las aeronaves que esperan, con los dos motores
+     */
+    public void testMasPistasConFila() {
+        masPistasConFila("OBJETOS");
+        masPistasConFila("PRIMITIVO");
+    }
+
+    private void masPistasConFila(String motor) {
+        Properties p = new Parametros(7, 1, 120, 1, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("motor.simulacion", motor);
+        p.setProperty("espera.pistas", "FIFO");
+        Simulador base = new Simulador(new Parametros(p));
+        base.simulaHasta(50000);
+        assertEquals(motor, 1, base.getInstantanea().getMaximoEnPistas());
+
+        p.setProperty("numero.pistas", "4");
+        Simulador copia = base.bifurca(new Parametros(p));
+        copia.simulaHasta(50001);
+        assertEquals(motor, 4, copia.getInstantanea().getMaximoEnPistas());
+        copia.simulaHasta(100000);
+        assertEquals(motor, 4, copia.getInstantanea().getMaximoEnPistas());
+    }
+
+    private void compara(String motor) {
+        long hasta = 100000;
+        Parametros parametros = new Parametros(propiedades(motor));
+        Simulador seguida = new Simulador(parametros);
+        seguida.simulaBucle(hasta);
+        String esperado = seguida.calculaEstadistica(hasta).toString();
+
+        Simulador base = new Simulador(parametros);
+        base.simulaHasta(50000);
+        Estadistica[] r = new Bifurcador(base, new Parametros[]{parametros, parametros}, hasta).simula();
+        assertEquals(motor, esperado, r[0].toString());
+        assertEquals(motor, esperado, r[1].toString());
+        base.simulaHasta(hasta);
+        assertEquals(motor, esperado, base.calculaEstadistica(hasta).toString());
+    }
+
+    private Properties propiedades(String motor) {
+        Properties p = new Parametros(7, 2, 120, 0.2, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("motor.simulacion", motor);
+        return p;
+    }
+}
@@ -0,0 +1,223 @@
+package aeropuerto;
+
+import log.Logger;
+
+import java.util.logging.Level;
+
+/**
+ * Fachada sobre log.Logger con mensajes parametrizados.
+ * <p/>
+ * Los mensajes se escriben como un formato con huecos {} y sus argumentos,
+ * y solo se componen si el nivel está activo: con el nivel desactivado, un
+ * mensaje cuesta una comparación de enteros, sin crear cadenas ni llamar a
+ * toString de los argumentos. Los argumentos numéricos se pasan como long,
+ * sin envolverlos en objetos.
+ * <p/>
+ * Si hay una bitácora asíncrona (ver setAsincrona), los mensajes se copian
+ * a su buffer circular y los compone y escribe su hilo: los argumentos no
+ * deben cambiar después de anotarlos (las cadenas, los enumerados y los
+ * eventos ya generados no cambian). Si no, se escriben en el hilo que los
+ * genera, igual que con log.Logger.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.AnotadorAsincrono
+ */
+public final class Bitacora {
+    /**
+     * Niveles de los mensajes
+     */
+    static final byte FINE = 0, INFO = 1, WARNING = 2;
+
+    /**
+     * Bitácora asíncrona común a todas las fachadas (null si no hay)
+     */
+    private static volatile AnotadorAsincrono asincrona;
+
+    /**
+     * Logger al que se escriben los mensajes
+     */
+    private final Logger logger;
+
+    /**
+     * Logger de java.util.logging de log.Logger, para consultar el nivel
+     */
+    private final java.util.logging.Logger nivel;
+
+    private Bitacora(String nombre) {
+        logger = Logger.getLogger(nombre);
+        nivel = java.util.logging.Logger.getLogger(nombre);
+    }
+
+    /**
+     * Crea la fachada del logger indicado
+     *
+     * @param nombre del logger
+     * @return fachada
+     */
+    public static Bitacora getBitacora(String nombre) {
+        return new Bitacora(nombre);
+    }
+
+    /**
+     * Indica la bitácora asíncrona a la que se copian los mensajes de todas
+     * las fachadas. Al quitarla hay que cerrarla, para que escriba los que
+     * tenga pendientes.
+     *
+     * @param anotador bitácora asíncrona (null para escribir en el hilo que genera el mensaje)
+     */
+    public static void setAsincrona(AnotadorAsincrono anotador) {
+        asincrona = anotador;
+    }
+
+    /**
+     * @return bitácora asíncrona actual, o null si no hay
+     */
+    public static AnotadorAsincrono getAsincrona() {
+        return asincrona;
+    }
+
+    /**
+     * @return TRUE si se escriben los mensajes de nivel FINE
+     */
+    public boolean isFine() {
+        return nivel.isLoggable(Level.FINE);
+    }
+
+    /**
+     * @return TRUE si se escriben los mensajes de nivel INFO
+     */
+    public boolean isInfo() {
+        return nivel.isLoggable(Level.INFO);
+    }
+
+    /**
+     * @return TRUE si se escriben los mensajes de nivel WARNING
+     */
+    public boolean isWarning() {
+        return nivel.isLoggable(Level.WARNING);
+    }
+
+    public void fine(String formato, Object a) {
+        if (isFine())
+            anota(FINE, formato, 1, a, 0, null, 0, null, 0);
+    }
+
+    public void fine(String formato, long a) {
+        if (isFine())
+            anota(FINE, formato, 1, AnotadorAsincrono.NUMERO, a, null, 0, null, 0);
+    }
+
+    public void info(String mensaje) {
+        if (isInfo())
+            anota(INFO, mensaje, 0, null, 0, null, 0, null, 0);
+    }
+
+    public void info(String formato, Object a) {
+        if (isInfo())
+            anota(INFO, formato, 1, a, 0, null, 0, null, 0);
+    }
+
+    public void info(String formato, Object a, Object b) {
+        if (isInfo())
+            anota(INFO, formato, 2, a, 0, b, 0, null, 0);
+    }
+
+    public void info(String formato, Object a, Object b, Object c) {
+        if (isInfo())
+            anota(INFO, formato, 3, a, 0, b, 0, c, 0);
+    }
+
+    public void info(String formato, long a) {
+        if (isInfo())
+            anota(INFO, formato, 1, AnotadorAsincrono.NUMERO, a, null, 0, null, 0);
+    }
+
+    public void info(String formato, long a, long b) {
+        if (isInfo())
+            anota(INFO, formato, 2, AnotadorAsincrono.NUMERO, a, AnotadorAsincrono.NUMERO, b, null, 0);
+    }
+
+    public void warning(String mensaje) {
+        if (isWarning())
+            anota(WARNING, mensaje, 0, null, 0, null, 0, null, 0);
+    }
+
+    public void warning(String formato, Object a) {
+        if (isWarning())
+            anota(WARNING, formato, 1, a, 0, null, 0, null, 0);
+    }
+
+    public void warning(String formato, Object a, Object b) {
+        if (isWarning())
+            anota(WARNING, formato, 2, a, 0, b, 0, null, 0);
+    }
+
+    /**
+     * Copia el mensaje a la bitácora asíncrona o, si no hay o está
+     * cerrada, lo compone y lo escribe. Cada argumento es un objeto o,
+     * si es AnotadorAsincrono.NUMERO, el long que le sigue.
+     */
+    private void anota(byte nivelMensaje, String formato, int n, Object a, long na, Object b, long nb,
+                       Object c, long nc) {
+        AnotadorAsincrono anotador = asincrona;
+        if (anotador != null && anotador.anota(this, nivelMensaje, formato, n, a, na, b, nb, c, nc))
+            return;
+        StringBuilder mensaje = new StringBuilder(formato.length() + 32);
+        compone(mensaje, formato, new Object[]{a, b, c}, new long[]{na, nb, nc}, 0, n);
+        escribe(nivelMensaje, mensaje.toString());
+    }
+
+    /**
+     * Escribe un mensaje ya compuesto en el logger
+     *
+     * @param nivelMensaje nivel del mensaje
+     * @param mensaje      compuesto
+     */
+    void escribe(byte nivelMensaje, String mensaje) {
+        switch (nivelMensaje) {
+            case FINE:
+                logger.fine(mensaje);
+                break;
+            case INFO:
+                logger.info(mensaje);
+                break;
+            default:
+                logger.warning(mensaje);
+        }
+    }
+
+    /**
+     * Compone un mensaje: sustituye cada hueco {} del formato por el
+     * siguiente argumento. Los argumentos que sobran se añaden al final,
+     * separados por espacios.
+     *
+     * @param mensaje  donde se compone
+     * @param formato  con huecos {}
+     * @param objetos  argumentos (AnotadorAsincrono.NUMERO si es un número)
+     * @param numeros  argumentos numéricos
+     * @param desde    posición del primer argumento en los arrays
+     * @param n        número de argumentos
+     */
+    static void compone(StringBuilder mensaje, String formato, Object[] objetos, long[] numeros, int desde, int n) {
+        int k = 0;
+        int inicio = 0;
+        int hueco;
+        while (k < n && (hueco = formato.indexOf("{}", inicio)) >= 0) {
+            mensaje.append(formato, inicio, hueco);
+            anade(mensaje, objetos[desde + k], numeros[desde + k]);
+            k++;
+            inicio = hueco + 2;
+        }
+        mensaje.append(formato, inicio, formato.length());
+        for (; k < n; k++)
+            anade(mensaje.append(' '), objetos[desde + k], numeros[desde + k]);
+    }
+
+    private static void anade(StringBuilder mensaje, Object objeto, long numero) {
+        if (objeto == AnotadorAsincrono.NUMERO)
+            mensaje.append(numero);
+        else
+            mensaje.append(objeto);
+    }
+}
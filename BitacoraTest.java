@@ -0,0 +1,121 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Comprueba la bitácora: los mensajes de niveles desactivados no se
+ * componen, y la asíncrona escribe todos los mensajes en orden.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class BitacoraTest extends TestCase {
+
+    private final List<String> escritos = Collections.synchronizedList(new ArrayList<String>());
+
+    private Bitacora bitacora;
+
+    private Logger logger;
+
+    protected void setUp() {
+        bitacora = Bitacora.getBitacora("aeropuerto.BitacoraTest");
+        logger = Logger.getLogger("aeropuerto.BitacoraTest");
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            public void publish(LogRecord registro) {
+                escritos.add(registro.getMessage());
+            }
+
+            public void flush() {
+            }
+
+            public void close() {
+            }
+        });
+    }
+
+    /**
+     * Con el nivel desactivado no se llama a toString de los argumentos
+     */
+    public void testNivelDesactivado() {
+        final int[] llamadas = {0};
+        Object argumento = new Object() {
+            public String toString() {
+                llamadas[0]++;
+                return "argumento";
+            }
+        };
+        bitacora.info("no se escribe {}", argumento);
+        assertEquals(0, llamadas[0]);
+        assertTrue(escritos.isEmpty());
+        bitacora.warning("se escribe {}", argumento);
+        assertEquals(1, llamadas[0]);
+        assertEquals("se escribe argumento", escritos.get(0));
+    }
+
+    /**
+     * Huecos, argumentos numéricos y argumentos de más
+     */
+    public void testCompone() {
+        logger.setLevel(Level.INFO);
+        bitacora.info("de {} a {}", 3, -4);
+        bitacora.info("{}_{}", EstadoOperacion.FIN, TipoOperacion.DESPEGUE);
+        bitacora.info("sin huecos", "a", "b");
+        assertEquals("de 3 a -4", escritos.get(0));
+        assertEquals("FIN_DESPEGUE", escritos.get(1));
+        assertEquals("sin huecos a b", escritos.get(2));
+    }
+
+    /**
+     * Dos hilos con un buffer pequeño: se escriben todos los mensajes,
+     * los de cada hilo en el orden en que se anotaron
+     */
+    public void testAsincrona() throws InterruptedException {
+        logger.setLevel(Level.INFO);
+        AnotadorAsincrono anotador = new AnotadorAsincrono(4);
+        Bitacora.setAsincrona(anotador);
+        try {
+            Thread[] hilos = new Thread[2];
+            for (int h = 0; h < hilos.length; h++) {
+                final int hilo = h;
+                hilos[h] = new Thread(() -> {
+                    for (int i = 0; i < 500; i++)
+                        bitacora.info("{} {}", hilo, i);
+                });
+                hilos[h].start();
+            }
+            for (Thread hilo : hilos)
+                hilo.join();
+        } finally {
+            Bitacora.setAsincrona(null);
+            anotador.close();
+        }
+        assertEquals(4, anotador.getCapacidad());
+        assertEquals(1000, anotador.getNroRegistros());
+        assertEquals(1000, escritos.size());
+        int[] siguiente = new int[2];
+        for (String mensaje : escritos) {
+            String[] partes = mensaje.split(" ");
+            int hilo = Integer.parseInt(partes[0]);
+            assertEquals(siguiente[hilo]++, Integer.parseInt(partes[1]));
+        }
+        // Cerrada, se escribe en el hilo que anota
+        bitacora.info("tras cerrar");
+        assertEquals("tras cerrar", escritos.get(1000));
+    }
+
+    protected void tearDown() {
+        for (Handler h : logger.getHandlers())
+            logger.removeHandler(h);
+        logger.setUseParentHandlers(true);
+        logger.setLevel(Level.WARNING);
+    }
+}
@@ -1,7 +1,5 @@
 package aeropuerto;
 
-import log.Logger;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -9,25 +7,59 @@ import java.util.List;
  * Los eventos se insertan ordenadamente, tal y como explico en el método;
  * y se extrae el primer evento, ya que, ya están en orden.
  * Si dos eventos coinciden en el tiempo, saldrá antes el que antes haya ingresado.
+ * <p/>
+ * La ordenación la hace una implementación de ColaOrdenada, que se elige
+ * al crear la cola (ver TipoCola). Por defecto se usa un montículo.
  * 
  * @author Javier López Medina
  * @version 1.0
+ * @see aeropuerto.TipoCola
  */
 public class ColaEventos {
-	/**
-	 * Logger
-	 */
-    private static final Logger LOGGER = Logger.getLogger("aeropuerto.ColaEventos");
     /**
-     * Creo una cola donde insertar los eventos
+     * Tipo de cola por defecto
      */
-    private List<Evento> cola;
+    public static final TipoCola TIPO_DEFECTO = TipoCola.MONTICULO;
+    /**
+     * Implementación donde se insertan los eventos
+     */
+    private ColaOrdenada cola;
+
+    /**
+     * Nombre de la implementación, para los eventos JFR
+     */
+    private final String implementacion;
 
     /**
-     * Crea una cola de eventos, de tamaño ilimitado.
+     * Crea una cola de eventos, de tamaño ilimitado,
+     * con la implementación por defecto.
      */
     public ColaEventos() {
-        cola = new ArrayList<Evento>();
+        this(TIPO_DEFECTO);
+    }
+
+    /**
+     * Crea una cola de eventos, de tamaño ilimitado,
+     * con la implementación indicada.
+     *
+     * @param tipo implementación de la cola
+     * @throws IllegalArgumentException si tipo es NULL
+     */
+    public ColaEventos(TipoCola tipo) {
+        if (tipo == null)
+            throw new IllegalArgumentException("ColaEventos " + tipo);
+        implementacion = tipo.name();
+        switch (tipo) {
+            case LISTA:
+                cola = new ColaLista();
+                break;
+            case RADIX:
+                cola = new ColaRadix();
+                break;
+            default:
+                cola = new ColaMonticulo();
+                break;
+        }
     }
 
     /**
@@ -36,31 +68,17 @@ public class ColaEventos {
      * y si tiene el mismo tiempo que otro lo inserta después de todos
      * los que tengan su mismo tiempo.
      * Si evento fuera null, no hace nada.
-     * Este método funcionaba mal y lo he modificado para que inserte 
-     * los eventos de una manera ordenada.
-     * Lo he arreglado poniendo i+1 en cola.add(i+1,evento) en vez de i.
      *
      * @param evento - a insertar
      */
     public void inserta(Evento evento) {
         if (evento == null)
             return;
-        if (isVacia()) {
-            cola.add(0,evento);
-            return;
-        }
-        for (int i = (cola.size()-1) ; i >=0 ; i--) {
-            if (!(evento.antesQue(cola.get(i)))) {
-                cola.add(i+1, evento);
-                return;
-            }
-            if ( i == 0){
-                cola.add(0, evento);
-                return;
-            }
-        }
-        int a = cola.size()-1;
-        LOGGER.info("La cola tiene "+ a +" eventos.");
+        EventoJfrCola jfr = new EventoJfrCola();
+        jfr.begin();
+        int profundidad = cola.getNroEventos();
+        cola.inserta(evento);
+        jfr.graba(EventoJfrCola.INSERTA, implementacion, profundidad);
     }
 
     /**
@@ -74,8 +92,13 @@ public class ColaEventos {
     public Evento extrae() {
         if (isVacia())
             return null;
-        
-        return cola.remove(0);
+
+        EventoJfrCola jfr = new EventoJfrCola();
+        jfr.begin();
+        int profundidad = cola.getNroEventos();
+        Evento primero = cola.extrae();
+        jfr.graba(EventoJfrCola.EXTRAE, implementacion, profundidad);
+        return primero;
     }
 
     /**
@@ -86,7 +109,7 @@ public class ColaEventos {
      * @return TRUE si no hay eventos en la cola
      */
     public boolean isVacia() {
-        return (cola.size() == 0);
+        return (cola.getNroEventos() == 0);
     }
 
     /**
@@ -95,7 +118,16 @@ public class ColaEventos {
      * @return número de eventos en la cola
      */
     public int getNroEventos() {
-        return (cola.size());
+        return (cola.getNroEventos());
+    }
+
+    /**
+     * Eventos de la cola, en el orden en que se extraerían
+     *
+     * @return copia de los eventos en la cola
+     */
+    public List<Evento> getEventos() {
+        return cola.getEventos();
     }
 
     /**
@@ -107,8 +139,7 @@ public class ColaEventos {
         if (isVacia())
             return null;
         String todos = "";
-        for (int i = 0; i <= (cola.size() - 1); i++) {
-            Evento e = cola.get(i);
+        for (Evento e : cola.getEventos()) {
             todos = todos + e.toString() + "\n";
         }
         return todos;
@@ -0,0 +1,17 @@
+package aeropuerto;
+
+/**
+ * Repite las pruebas de ColaEventosTest con la cola sobre lista ordenada.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ColaEventosListaTest extends ColaEventosTest {
+
+    /**
+     * @return cola de eventos sobre lista ordenada
+     */
+    protected ColaEventos creaCola() {
+        return new ColaEventos(TipoCola.LISTA);
+    }
+}
@@ -0,0 +1,17 @@
+package aeropuerto;
+
+/**
+ * Repite las pruebas de ColaEventosTest con la cola sobre montículo.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ColaEventosMonticuloTest extends ColaEventosTest {
+
+    /**
+     * @return cola de eventos sobre montículo
+     */
+    protected ColaEventos creaCola() {
+        return new ColaEventos(TipoCola.MONTICULO);
+    }
+}
@@ -0,0 +1,70 @@
+package aeropuerto;
+
+/**
+ * Repite las pruebas de ColaEventosTest con la cola sobre montículo radix,
+ * y prueba su restricción de monotonía.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ColaEventosRadixTest extends ColaEventosTest {
+
+    /**
+     * @return cola de eventos sobre montículo radix
+     */
+    protected ColaEventos creaCola() {
+        return new ColaEventos(TipoCola.RADIX);
+    }
+
+    /**
+     * Prueba que intercalando inserciones y extracciones, como hace el simulador,
+     * los eventos siguen saliendo en orden.
+     */
+    public void testInsertaYExtraeIntercalados() {
+        ColaEventos a = creaCola();
+        a.inserta(EventoAeroportuario.generaCualquierEvento(10));
+        a.inserta(EventoAeroportuario.generaCualquierEvento(1000));
+        assertEquals(10, a.extrae().getCuando());
+        EventoAeroportuario b = EventoAeroportuario.generaCualquierEvento(10);
+        a.inserta(b);
+        a.inserta(EventoAeroportuario.generaCualquierEvento(500));
+        assertEquals(b, a.extrae());
+        assertEquals(500, a.extrae().getCuando());
+        assertEquals(1000, a.extrae().getCuando());
+        assertTrue(a.isVacia());
+    }
+
+    /**
+     * Con una desviación de la demora de reintento mayor que su media, muchas
+     * demoras saldrían negativas: se truncan en 0 y la simulación con la cola
+     * radix da lo mismo que con el montículo.
+     */
+    public void testReintentosConDemoraMuyDispersa() {
+        String[] resultados = new String[2];
+        String[] colas = {"MONTICULO", "RADIX"};
+        for (int i = 0; i < colas.length; i++) {
+            java.util.Properties p = new Parametros(3, 1, 120, 1, 600, 200, 100, 60, 120).getPropiedades();
+            p.setProperty("cola.eventos", colas[i]);
+            try (Simulador simulador = new Simulador(new Parametros(p))) {
+                simulador.simulaBucle(50000);
+                resultados[i] = simulador.calculaEstadistica(50000).toString();
+            }
+        }
+        assertEquals(resultados[0], resultados[1]);
+    }
+
+    /**
+     * Prueba que no se admite un evento anterior al último extraído.
+     */
+    public void testRechazaEventoAnteriorAlUltimoExtraido() {
+        ColaEventos a = creaCola();
+        a.inserta(EventoAeroportuario.generaCualquierEvento(10));
+        a.extrae();
+        try {
+            a.inserta(EventoAeroportuario.generaCualquierEvento(9));
+            fail("Debe rechazar un evento anterior al ultimo extraido");
+        } catch (IllegalArgumentException e) {
+            // esperado
+        }
+    }
+}
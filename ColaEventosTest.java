@@ -2,6 +2,8 @@ package aeropuerto;
 
 import junit.framework.TestCase;
 
+import java.util.Random;
+
 
 /**
  * Clase de prueba de la funcionalidad de la clase ColaEventos.
@@ -13,17 +15,29 @@ import junit.framework.TestCase;
  * los eventos en la cola, y aunque utilizo el método inserta() en algunas pruebas y no fallan es porque esas
  * pruebas no se basan en inserta() y solo lo utiliza para meter eventos en la cola sin tener en cuenta la 
  * ordenación. 
+ * <p/>
+ * Las pruebas crean la cola con el método creaCola(), para que las subclases
+ * puedan repetirlas con cada implementación de la cola (ver TipoCola).
  * @author Javier López Medina
  * @version 1.0
  */
 public class ColaEventosTest extends TestCase {
 
+    /**
+     * Crea la cola que se prueba. Por defecto, la de ColaEventos().
+     *
+     * @return cola de eventos vacía
+     */
+    protected ColaEventos creaCola() {
+        return new ColaEventos();
+    }
+
     /**
      * Prueba si al introducir dos eventos, el método getNroEventos
      * cuenta bien el número de eventos que hay en cola.
      */
     public void testCompruebaNumeroDeEventos() {
-        ColaEventos a =new ColaEventos();
+        ColaEventos a =creaCola();
         a.inserta(EventoAeroportuario.generaCualquierEvento(1));
         a.inserta(EventoAeroportuario.generaCualquierEvento(2));
         assertEquals(2, a.getNroEventos());
@@ -37,7 +51,7 @@ public class ColaEventosTest extends TestCase {
      * Después de arreglar isVacia() si pasa la prueba.
      */
     public void testCompruebaSiEstaVacia() {
-        ColaEventos a =new ColaEventos();
+        ColaEventos a =creaCola();
         assertTrue(a.isVacia());
     }
     /**
@@ -48,7 +62,7 @@ public class ColaEventosTest extends TestCase {
      * Después de arreglar inserta() si pasa la prueba.
      */
     public void testExtraeEventosConMismoTiempo() {
-        ColaEventos a =new ColaEventos();
+        ColaEventos a =creaCola();
         EventoAeroportuario b = EventoAeroportuario.generaCualquierEvento(1);
         EventoAeroportuario c = EventoAeroportuario.generaCualquierEvento(1);
         EventoAeroportuario d = EventoAeroportuario.generaCualquierEvento(1);
@@ -65,11 +79,34 @@ public class ColaEventosTest extends TestCase {
      * Después de arreglar inserta() si pasa la prueba.
      */
     public void testExtraeEventosConDistintoTiempo() {
-        ColaEventos a =new ColaEventos();
+        ColaEventos a =creaCola();
         EventoAeroportuario b = EventoAeroportuario.generaCualquierEvento(2);
         EventoAeroportuario c = EventoAeroportuario.generaCualquierEvento(1);
         a.inserta(b);
         a.inserta(c);
         assertEquals (c , a.extrae());
     } 
+    /**
+     * Prueba que, con muchos eventos insertados en desorden y con tiempos
+     * repetidos, la cola los devuelve ordenados por tiempo y, a igualdad
+     * de tiempo, en el orden en que se insertaron.
+     */
+    public void testExtraeMuchosEventosEnOrden() {
+        ColaEventos a = creaCola();
+        Random random = new Random(1);
+        int n = 2000;
+        for (int i = 0; i < n; i++)
+            a.inserta(EventoAeroportuario.generaCualquierEvento(random.nextInt(50)));
+        assertEquals(n, a.getNroEventos());
+        Evento anterior = a.extrae();
+        for (int i = 1; i < n; i++) {
+            Evento e = a.extrae();
+            assertFalse(e.antesQue(anterior));
+            if (e.getCuando() == anterior.getCuando())
+                assertTrue(e.getIdentificador() > anterior.getIdentificador());
+            anterior = e;
+        }
+        assertTrue(a.isVacia());
+        assertNull(a.extrae());
+    }
 }
@@ -0,0 +1,89 @@
+package aeropuerto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cola de eventos sobre una lista ordenada.
+ * Los eventos se insertan ordenadamente, recorriendo la lista desde el final;
+ * y se extrae el primer evento, ya que, ya están en orden.
+ * Es la implementación original de ColaEventos: la inserción y la extracción
+ * son lineales en el número de eventos de la cola.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ColaLista implements ColaOrdenada {
+    /**
+     * Logger
+     */
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.ColaLista");
+    /**
+     * Lista donde se insertan los eventos
+     */
+    private List<Evento> cola;
+
+    /**
+     * Crea una cola de eventos vacía, de tamaño ilimitado.
+     */
+    public ColaLista() {
+        cola = new ArrayList<Evento>();
+    }
+
+    /**
+     * Inserta un evento en la lista de una manera ordenada, es decir,
+     * los inserta teniendo en cuenta el tiempo en el que se producen
+     * y si tiene el mismo tiempo que otro lo inserta después de todos
+     * los que tengan su mismo tiempo.
+     *
+     * @param evento - a insertar
+     */
+    public void inserta(Evento evento) {
+        if (cola.size() == 0) {
+            cola.add(0,evento);
+            return;
+        }
+        for (int i = (cola.size()-1) ; i >=0 ; i--) {
+            if (!(evento.antesQue(cola.get(i)))) {
+                cola.add(i+1, evento);
+                return;
+            }
+            if ( i == 0){
+                cola.add(0, evento);
+                return;
+            }
+        }
+        int a = cola.size()-1;
+        LOGGER.info("La cola tiene {} eventos.", a);
+    }
+
+    /**
+     * Extrae el primer evento de la lista.
+     *
+     * @return primer evento en la cola; o NULL si la cola está vacía
+     */
+    public Evento extrae() {
+        if (cola.size() == 0)
+            return null;
+
+        return cola.remove(0);
+    }
+
+    /**
+     * Número de eventos en la lista
+     *
+     * @return número de eventos en la cola
+     */
+    public int getNroEventos() {
+        return (cola.size());
+    }
+
+    /**
+     * Copia de la lista, que ya está ordenada.
+     *
+     * @return lista con los eventos de la cola, ordenados
+     */
+    public List<Evento> getEventos() {
+        return new ArrayList<Evento>(cola);
+    }
+}
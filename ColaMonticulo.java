@@ -0,0 +1,212 @@
+package aeropuerto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cola de eventos sobre un montículo d-ario.
+ * <p/>
+ * Inserción y extracción cuestan O(log n), en lugar del coste lineal de
+ * la lista ordenada. El montículo no es estable por sí mismo, así que cada
+ * evento lleva un número de orden de inserción: a igualdad de tiempo sale
+ * antes el de menor número de orden, es decir, el que antes se insertó.
+ * <p/>
+ * Los tiempos y números de orden se guardan en arrays de primitivos paralelos
+ * al array de eventos, para comparar sin llamar a los métodos del evento.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ColaMonticulo implements ColaOrdenada {
+    /**
+     * Aridad por defecto del montículo
+     */
+    public static final int ARIDAD_DEFECTO = 4;
+
+    /**
+     * Capacidad inicial de los arrays
+     */
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    /**
+     * Número de hijos de cada nodo
+     */
+    private final int aridad;
+
+    /**
+     * Eventos del montículo
+     */
+    private Evento[] eventos;
+
+    /**
+     * Instante de cada evento del montículo
+     */
+    private long[] cuando;
+
+    /**
+     * Número de orden de inserción de cada evento del montículo
+     */
+    private long[] orden;
+
+    /**
+     * Número de eventos en el montículo
+     */
+    private int tamano = 0;
+
+    /**
+     * Siguiente número de orden de inserción
+     */
+    private long secuencia = 0;
+
+    /**
+     * Crea un montículo vacío con la aridad por defecto.
+     */
+    public ColaMonticulo() {
+        this(ARIDAD_DEFECTO);
+    }
+
+    /**
+     * Crea un montículo vacío con la aridad indicada.
+     *
+     * @param aridad número de hijos de cada nodo
+     * @throws IllegalArgumentException si aridad es menor que 2
+     */
+    public ColaMonticulo(int aridad) {
+        if (aridad < 2)
+            throw new IllegalArgumentException("ColaMonticulo: aridad= " + aridad);
+        this.aridad = aridad;
+        eventos = new Evento[CAPACIDAD_INICIAL];
+        cuando = new long[CAPACIDAD_INICIAL];
+        orden = new long[CAPACIDAD_INICIAL];
+    }
+
+    /**
+     * Inserta el evento en el hueco del final y lo hace subir
+     * mientras sea anterior a su padre.
+     *
+     * @param evento a insertar
+     */
+    public void inserta(Evento evento) {
+        if (tamano == eventos.length)
+            crece();
+        long t = evento.getCuando();
+        long o = secuencia++;
+        int hueco = tamano++;
+        while (hueco > 0) {
+            int padre = (hueco - 1) / aridad;
+            if (!anterior(t, o, padre))
+                break;
+            mueve(padre, hueco);
+            hueco = padre;
+        }
+        coloca(hueco, evento, t, o);
+    }
+
+    /**
+     * Extrae la raíz, lleva el último evento a la raíz
+     * y lo hace bajar mientras algún hijo sea anterior a él.
+     *
+     * @return primer evento en la cola; o NULL si la cola está vacía
+     */
+    public Evento extrae() {
+        if (tamano == 0)
+            return null;
+        Evento primero = eventos[0];
+        tamano--;
+        Evento ultimo = eventos[tamano];
+        long t = cuando[tamano];
+        long o = orden[tamano];
+        eventos[tamano] = null;
+        if (tamano > 0) {
+            int hueco = 0;
+            while (true) {
+                int hijo = hueco * aridad + 1;
+                if (hijo >= tamano)
+                    break;
+                int fin = Math.min(hijo + aridad, tamano);
+                int menor = hijo;
+                for (int i = hijo + 1; i < fin; i++)
+                    if (anterior(cuando[i], orden[i], menor))
+                        menor = i;
+                if (!anterior(cuando[menor], orden[menor], t, o))
+                    break;
+                mueve(menor, hueco);
+                hueco = menor;
+            }
+            coloca(hueco, ultimo, t, o);
+        }
+        return primero;
+    }
+
+    /**
+     * Número de eventos en el montículo
+     *
+     * @return número de eventos en la cola
+     */
+    public int getNroEventos() {
+        return tamano;
+    }
+
+    /**
+     * Copia ordenada de los eventos del montículo.
+     *
+     * @return lista con los eventos de la cola, ordenados
+     */
+    public List<Evento> getEventos() {
+        Integer[] indices = new Integer[tamano];
+        for (int i = 0; i < tamano; i++)
+            indices[i] = i;
+        Arrays.sort(indices, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                int c = Long.compare(cuando[a], cuando[b]);
+                return (c != 0) ? c : Long.compare(orden[a], orden[b]);
+            }
+        });
+        List<Evento> lista = new ArrayList<Evento>(tamano);
+        for (Integer i : indices)
+            lista.add(eventos[i]);
+        return lista;
+    }
+
+    /**
+     * @return TRUE si (t, o) sale antes que el evento de la posición i
+     */
+    private boolean anterior(long t, long o, int i) {
+        return anterior(t, o, cuando[i], orden[i]);
+    }
+
+    /**
+     * @return TRUE si (t1, o1) sale antes que (t2, o2)
+     */
+    private static boolean anterior(long t1, long o1, long t2, long o2) {
+        return t1 < t2 || (t1 == t2 && o1 < o2);
+    }
+
+    /**
+     * Mueve el evento de la posición desde a la posición hasta
+     */
+    private void mueve(int desde, int hasta) {
+        coloca(hasta, eventos[desde], cuando[desde], orden[desde]);
+    }
+
+    /**
+     * Coloca un evento en la posición i
+     */
+    private void coloca(int i, Evento evento, long t, long o) {
+        eventos[i] = evento;
+        cuando[i] = t;
+        orden[i] = o;
+    }
+
+    /**
+     * Duplica la capacidad de los arrays
+     */
+    private void crece() {
+        int capacidad = eventos.length * 2;
+        eventos = Arrays.copyOf(eventos, capacidad);
+        cuando = Arrays.copyOf(cuando, capacidad);
+        orden = Arrays.copyOf(orden, capacidad);
+    }
+}
@@ -0,0 +1,49 @@
+package aeropuerto;
+
+import java.util.List;
+
+/**
+ * Implementación interna de una cola de eventos ordenada por tiempo.
+ * ColaEventos delega en una implementación de esta interfaz, que se elige
+ * con el parámetro <code>cola.eventos</code>.
+ * <p/>
+ * Todas las implementaciones deben respetar el mismo contrato:
+ * sale antes el evento que antes ocurre y, si dos eventos coinciden
+ * en el tiempo, sale antes el que antes se haya insertado.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.ColaEventos
+ * @see aeropuerto.TipoCola
+ */
+public interface ColaOrdenada {
+
+    /**
+     * Inserta un evento en la cola. El evento nunca es null.
+     *
+     * @param evento a insertar
+     */
+    public void inserta(Evento evento);
+
+    /**
+     * Extrae el primer evento de la cola.
+     *
+     * @return primer evento en la cola; o NULL si la cola está vacía
+     */
+    public Evento extrae();
+
+    /**
+     * Número de eventos en la cola
+     *
+     * @return número de eventos en la cola
+     */
+    public int getNroEventos();
+
+    /**
+     * Eventos pendientes en el orden en que saldrían de la cola.
+     * No modifica la cola.
+     *
+     * @return lista con los eventos de la cola, ordenados
+     */
+    public List<Evento> getEventos();
+}
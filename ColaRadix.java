@@ -0,0 +1,185 @@
+package aeropuerto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cola de eventos sobre un montículo radix (radix heap) monótono.
+ * <p/>
+ * El tiempo de simulación es un número entero de segundos y el simulador
+ * nunca programa un evento anterior al último que ha extraído (las demoras
+ * del Generador no son negativas: ver Generador.demoraReintento). Con esa
+ * restricción los eventos se reparten en cubos según el bit más alto en que
+ * su tiempo difiere del último tiempo extraído: el cubo 0 guarda los eventos
+ * de ese mismo instante y el cubo i los que difieren en el bit i-1.
+ * Cada evento cambia de cubo a lo sumo 64 veces, así que el coste amortizado
+ * por evento es constante, y todas las comparaciones se hacen sobre los
+ * <code>long</code> guardados en la cola, sin llamar a antesQue.
+ * <p/>
+ * Los eventos con el mismo tiempo caen siempre en el mismo cubo y cada cubo
+ * conserva el orden en que recibe sus eventos, de modo que a igualdad de tiempo
+ * salen en orden de inserción sin necesidad de guardar un número de secuencia.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ColaRadix implements ColaOrdenada {
+    /**
+     * Número de cubos: uno por cada bit de un long, más el del instante actual
+     */
+    private static final int NRO_CUBOS = 65;
+
+    /**
+     * Capacidad inicial de cada cubo
+     */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /**
+     * Tiempos de los eventos de cada cubo
+     */
+    private final long[][] claves = new long[NRO_CUBOS][];
+
+    /**
+     * Eventos de cada cubo
+     */
+    private final Evento[][] eventos = new Evento[NRO_CUBOS][];
+
+    /**
+     * Número de posiciones ocupadas en cada cubo
+     */
+    private final int[] ocupados = new int[NRO_CUBOS];
+
+    /**
+     * Primer evento aún no extraído del cubo 0
+     */
+    private int cabeza = 0;
+
+    /**
+     * Número de eventos en la cola
+     */
+    private int tamano = 0;
+
+    /**
+     * Tiempo del último evento extraído
+     */
+    private long ultimo = 0;
+
+    /**
+     * Crea una cola vacía.
+     */
+    public ColaRadix() {
+        for (int i = 0; i < NRO_CUBOS; i++) {
+            claves[i] = new long[CAPACIDAD_INICIAL];
+            eventos[i] = new Evento[CAPACIDAD_INICIAL];
+        }
+    }
+
+    /**
+     * Inserta el evento al final de su cubo.
+     *
+     * @param evento a insertar
+     * @throws IllegalArgumentException si el evento es anterior al último extraído
+     */
+    public void inserta(Evento evento) {
+        long t = evento.getCuando();
+        if (t < ultimo)
+            throw new IllegalArgumentException("ColaRadix: evento en T=" + t
+                    + " anterior al ultimo extraido T=" + ultimo);
+        anade(cubo(t), t, evento);
+        tamano++;
+    }
+
+    /**
+     * Extrae el primer evento del cubo 0. Si está vacío, toma el primer
+     * cubo con eventos, avanza el último tiempo extraído hasta su mínimo
+     * y reparte sus eventos en los cubos inferiores.
+     *
+     * @return primer evento en la cola; o NULL si la cola está vacía
+     */
+    public Evento extrae() {
+        if (tamano == 0)
+            return null;
+        if (cabeza == ocupados[0]) {
+            cabeza = 0;
+            ocupados[0] = 0;
+            int i = 1;
+            while (ocupados[i] == 0)
+                i++;
+            long[] c = claves[i];
+            Evento[] e = eventos[i];
+            int n = ocupados[i];
+            long minimo = c[0];
+            for (int j = 1; j < n; j++)
+                if (c[j] < minimo)
+                    minimo = c[j];
+            ultimo = minimo;
+            ocupados[i] = 0;
+            for (int j = 0; j < n; j++) {
+                anade(cubo(c[j]), c[j], e[j]);
+                e[j] = null;
+            }
+        }
+        Evento primero = eventos[0][cabeza];
+        eventos[0][cabeza++] = null;
+        tamano--;
+        return primero;
+    }
+
+    /**
+     * Número de eventos en la cola
+     *
+     * @return número de eventos en la cola
+     */
+    public int getNroEventos() {
+        return tamano;
+    }
+
+    /**
+     * Copia ordenada de los eventos de la cola. Recorre los cubos en orden,
+     * ya que todos los eventos de un cubo son posteriores a los de los cubos
+     * inferiores, y ordena cada cubo de forma estable por tiempo.
+     *
+     * @return lista con los eventos de la cola, ordenados
+     */
+    public List<Evento> getEventos() {
+        List<Evento> lista = new ArrayList<Evento>(tamano);
+        for (int j = cabeza; j < ocupados[0]; j++)
+            lista.add(eventos[0][j]);
+        for (int i = 1; i < NRO_CUBOS; i++) {
+            List<Evento> cubo = new ArrayList<Evento>(Arrays.asList(eventos[i]).subList(0, ocupados[i]));
+            cubo.sort(new Comparator<Evento>() {
+                public int compare(Evento a, Evento b) {
+                    return Long.compare(a.getCuando(), b.getCuando());
+                }
+            });
+            lista.addAll(cubo);
+        }
+        return lista;
+    }
+
+    /**
+     * Cubo que corresponde a un tiempo, respecto al último tiempo extraído
+     *
+     * @param t tiempo del evento
+     * @return índice del cubo
+     */
+    private int cubo(long t) {
+        return 64 - Long.numberOfLeadingZeros(t ^ ultimo);
+    }
+
+    /**
+     * Añade un evento al final de un cubo
+     */
+    private void anade(int i, long t, Evento evento) {
+        int n = ocupados[i];
+        if (n == claves[i].length) {
+            claves[i] = Arrays.copyOf(claves[i], n * 2);
+            eventos[i] = Arrays.copyOf(eventos[i], n * 2);
+        }
+        claves[i][n] = t;
+        eventos[i][n] = evento;
+        ocupados[i] = n + 1;
+    }
+}
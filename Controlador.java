@@ -1,7 +1,17 @@
 package aeropuerto;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Controlador
+ * <p/>
+ * Si no hay pista libre para una solicitud, según el modo de espera
+ * (ver TipoEspera) la aeronave reintenta más tarde o se pone en una fila
+ * de espera. En el segundo caso, al liberarse una pista se reserva para una
+ * aeronave de la fila, elegida según la política de atención (ver
+ * PoliticaPistas), que la ocupa con su siguiente solicitud.
  *
  * @author Javier López Medina
  * @version 1.0
@@ -18,11 +28,63 @@ public class Controlador {
      */
     private int nroPistasLibres;
 
+    /**
+     * Pistas ocupadas que sobran porque el aeropuerto tiene ahora menos
+     * pistas (ver lee): al liberarse no quedan libres
+     */
+    private int nroPistasSobrantes = 0;
+
     /**
      * Duracion del slot aeroportuario
      */
     private int slotAeroportuario;
 
+    /**
+     * Modo de espera de las solicitudes sin pista libre
+     */
+    private final TipoEspera espera;
+
+    /**
+     * Orden de atención de la fila de espera
+     */
+    private final PoliticaPistas politica;
+
+    /**
+     * Despegues de cada lote, con la política LOTES_DESPEGUE
+     */
+    private final int loteDespegues;
+
+    /**
+     * Aterrizajes que esperan pista (solo en los modos con fila)
+     */
+    private final FilaEspera filaAterrizajes = new FilaEspera();
+
+    /**
+     * Despegues que esperan pista (solo en los modos con fila)
+     */
+    private final FilaEspera filaDespegues = new FilaEspera();
+
+    /**
+     * Siguiente número de orden de las solicitudes que esperan
+     */
+    private long secuencia = 0;
+
+    /**
+     * Despegues atendidos seguidos del lote en curso (0 si no hay lote)
+     */
+    private int despeguesSeguidos = 0;
+
+    /**
+     * Pistas reservadas a aeronaves de la fila que aún no las han ocupado
+     */
+    private int nroReservas = 0;
+
+    /**
+     * Datos de la última solicitud a la que se ha reservado pista
+     */
+    private TipoOperacion reservaTipo;
+    private long reservaPrimerIntento, reservaFinAterrizaje;
+
     /**
      * Estad�sticas del aeropuerto
      */
@@ -35,6 +97,33 @@ public class Controlador {
      * @param slot      duración del slot aeroportuario (en segundos)
      */
     public Controlador(int nroPistas, int slot) {
+        this(nroPistas, slot, TipoEspera.REINTENTO);
+    }
+
+    /**
+     * Constructor con modo de espera
+     *
+     * @param nroPistas número total de pistas
+     * @param slot      duración del slot aeroportuario (en segundos)
+     * @param espera    qué se hace con las solicitudes sin pista libre
+     */
+    public Controlador(int nroPistas, int slot, TipoEspera espera) {
+        this(nroPistas, slot, espera, PoliticaPistas.FIFO, 1);
+    }
+
+    /**
+     * Constructor con modo de espera y política de atención de la fila
+     *
+     * @param nroPistas     número total de pistas
+     * @param slot          duración del slot aeroportuario (en segundos)
+     * @param espera        qué se hace con las solicitudes sin pista libre
+     * @param politica      orden de atención de la fila de espera
+     * @param loteDespegues despegues de cada lote, con la política LOTES_DESPEGUE
+     */
+    public Controlador(int nroPistas, int slot, TipoEspera espera, PoliticaPistas politica, int loteDespegues) {
+        this.espera = espera;
+        this.politica = politica;
+        this.loteDespegues = loteDespegues;
         this.nroPistas = nroPistas;
         this.nroPistasLibres = nroPistas;
         this.slotAeroportuario = slot;
@@ -59,6 +148,131 @@ public class Controlador {
         return nroPistasLibres;
     }
 
+    /**
+     * @return modo de espera de las solicitudes sin pista libre
+     */
+    public TipoEspera getEspera() {
+        return espera;
+    }
+
+    /**
+     * @return número de aeronaves en la fila de espera
+     */
+    public int getNroEsperando() {
+        return filaAterrizajes.getNroEsperando() + filaDespegues.getNroEsperando();
+    }
+
+    /**
+     * @return orden de atención de la fila de espera
+     */
+    public PoliticaPistas getPolitica() {
+        return politica;
+    }
+
+    /**
+     * Pone una solicitud sin pista libre en la fila de espera
+     *
+     * @param aeronave      aeronave que solicita pista
+     * @param tipo          tipo de operación
+     * @param primerIntento instante del primer intento de la operación
+     * @param finAterrizaje instante del fin del aterrizaje de la aeronave
+     * @throws IllegalStateException si el modo de espera es REINTENTO
+     */
+    public void esperaPista(int aeronave, TipoOperacion tipo, long primerIntento, long finAterrizaje) {
+        if (espera == TipoEspera.REINTENTO)
+            throw new IllegalStateException("Controlador: sin fila de espera en modo " + espera);
+        FilaEspera fila = (tipo == TipoOperacion.ATERRIZAJE) ? filaAterrizajes : filaDespegues;
+        fila.pon(secuencia++, aeronave, tipo, primerIntento, finAterrizaje);
+    }
+
+    /**
+     * Si hay pista libre y aeronaves esperando, reserva la pista para la
+     * que toque según la política de atención y la quita de la fila. Los datos de la solicitud
+     * quedan en getReservaTipo, getReservaPrimerIntento y getReservaFinAterrizaje,
+     * para que el bucle programe su ocupación (ver ocupaPistaReservada).
+     *
+     * @return aeronave a la que se reserva pista, o 0 si no se reserva ninguna
+     */
+    public int reservaPista() {
+        if (nroPistasLibres <= 0)
+            return 0;
+        FilaEspera fila = eligeFila();
+        if (fila == null)
+            return 0;
+        despeguesSeguidos = (fila == filaDespegues) ? despeguesSeguidos + 1 : 0;
+        int aeronave = fila.getAeronave();
+        reservaTipo = fila.getTipo();
+        reservaPrimerIntento = fila.getPrimerIntento();
+        reservaFinAterrizaje = fila.getFinAterrizaje();
+        fila.quita();
+        nroPistasLibres--;
+        nroReservas++;
+        return aeronave;
+    }
+
+    /**
+     * Fila a la que toca atender, según la política de atención
+     *
+     * @return fila elegida, o null si no espera nadie
+     */
+    private FilaEspera eligeFila() {
+        boolean aterrizajes = filaAterrizajes.getNroEsperando() > 0;
+        boolean despegues = filaDespegues.getNroEsperando() > 0;
+        if (!aterrizajes)
+            return despegues ? filaDespegues : null;
+        if (!despegues)
+            return filaAterrizajes;
+        switch (politica) {
+            case ATERRIZAJES_PRIMERO:
+                return filaAterrizajes;
+            case LOTES_DESPEGUE:
+                boolean enLote = despeguesSeguidos > 0 && despeguesSeguidos < loteDespegues;
+                boolean nuevoLote = filaDespegues.getNroEsperando() >= loteDespegues;
+                return (enLote || nuevoLote) ? filaDespegues : filaAterrizajes;
+            default:
+                return (filaAterrizajes.getOrden() < filaDespegues.getOrden()) ? filaAterrizajes : filaDespegues;
+        }
+    }
+
+    /**
+     * @return tipo de operación de la última reserva
+     */
+    public TipoOperacion getReservaTipo() {
+        return reservaTipo;
+    }
+
+    /**
+     * @return instante del primer intento de la operación de la última reserva
+     */
+    public long getReservaPrimerIntento() {
+        return reservaPrimerIntento;
+    }
+
+    /**
+     * @return instante del fin del aterrizaje de la aeronave de la última reserva
+     */
+    public long getReservaFinAterrizaje() {
+        return reservaFinAterrizaje;
+    }
+
+    /**
+     * Ocupa una pista reservada antes con reservaPista. La operación se
+     * registra en la estadística como reintento (con demora).
+     *
+     * @param cuando        instante en que se ocupa la pista
+     * @param tipo          tipo de operación
+     * @param primerIntento instante del primer intento de la operación
+     * @throws IllegalStateException si no hay ninguna pista reservada
+     */
+    public void ocupaPistaReservada(long cuando, TipoOperacion tipo, long primerIntento) {
+        if (nroReservas == 0)
+            throw new IllegalStateException("Controlador: ninguna pista reservada");
+        nroReservas--;
+        EventoJfrPista jfr = new EventoJfrPista();
+        jfr.graba(true, tipo, cuando, nroPistasLibres);
+        estadistica.registra(cuando, tipo, EstadoOperacion.REINTENTO, primerIntento);
+    }
+
     /**
      * Devuelve la duración del slot aeroportuario
      *
@@ -78,7 +292,37 @@ public class Controlador {
      * @throws IndexOutOfBoundsException si todas las pistas ya están ocupadas
      */
     public void ocupaPista(EventoAeroportuario solicitud) {
-        if (solicitud.isIntento() || solicitud.isReintento()) {
+        ocupaPista(solicitud.getCuando(), solicitud.getTipo(), solicitud.getEstado(),
+                solicitud.getPrimerIntento());
+    }
+
+    /**
+     * Ocupa una pista, a partir de los datos de la solicitud
+     * en lugar del evento (ver MotorPrimitivo).
+     *
+     * @param cuando instante de la solicitud
+     * @param tipo   tipo de operación de la solicitud
+     * @param estado estado de la solicitud
+     * @throws IllegalArgumentException  si estado no es INTENTO o REINTENTO
+     * @throws IndexOutOfBoundsException si todas las pistas ya están ocupadas
+     */
+    public void ocupaPista(long cuando, TipoOperacion tipo, EstadoOperacion estado) {
+        ocupaPista(cuando, tipo, estado, -1);
+    }
+
+    /**
+     * Ocupa una pista, a partir de los datos de la solicitud, y registra
+     * la demora de la operación desde su primer intento.
+     *
+     * @param cuando        instante de la solicitud
+     * @param tipo          tipo de operación de la solicitud
+     * @param estado        estado de la solicitud
+     * @param primerIntento instante del primer intento de la operación (-1 si no se conoce)
+     * @throws IllegalArgumentException  si estado no es INTENTO o REINTENTO
+     * @throws IndexOutOfBoundsException si todas las pistas ya están ocupadas
+     */
+    public void ocupaPista(long cuando, TipoOperacion tipo, EstadoOperacion estado, long primerIntento) {
+        if (estado == EstadoOperacion.INTENTO || estado == EstadoOperacion.REINTENTO) {
             nroPistasLibres--;
             if (nroPistasLibres < 0)
                 throw new IndexOutOfBoundsException("Todas las pistas estan ocupadas");
@@ -86,7 +330,9 @@ public class Controlador {
             throw new IllegalArgumentException("Evento con estado incorrecto");
 
         // Registra estad�stica
-        estadistica.registraEvento(solicitud);
+        EventoJfrPista jfr = new EventoJfrPista();
+        jfr.graba(true, tipo, cuando, nroPistasLibres);
+        estadistica.registra(cuando, tipo, estado, primerIntento);
     }
 
     /**
@@ -99,15 +345,60 @@ public class Controlador {
      * @throws IndexOutOfBoundsException si todas las pistas ya están libres
      */
     public void liberaPista(EventoAeroportuario fin) {
-        if (fin.isFin()) {
-            nroPistasLibres++;
+        liberaPista(fin.getCuando(), fin.getTipo(), fin.getEstado(), fin.getFinAterrizaje());
+    }
+
+    /**
+     * Libera una pista, a partir de los datos del fin de operación
+     * en lugar del evento (ver MotorPrimitivo).
+     *
+     * @param cuando instante del fin de operación
+     * @param tipo   tipo de operación que finaliza
+     * @param estado estado del evento, que debe ser FIN
+     * @throws IllegalArgumentException  si estado no es FIN
+     * @throws IndexOutOfBoundsException si todas las pistas ya están libres
+     */
+    public void liberaPista(long cuando, TipoOperacion tipo, EstadoOperacion estado) {
+        liberaPista(cuando, tipo, estado, -1);
+    }
+
+    /**
+     * Libera una pista, a partir de los datos del fin de operación, y en el
+     * fin de un despegue registra la rotación de la aeronave.
+     *
+     * @param cuando        instante del fin de operación
+     * @param tipo          tipo de operación que finaliza
+     * @param estado        estado del evento, que debe ser FIN
+     * @param finAterrizaje instante del fin del aterrizaje de la aeronave (-1 si no se conoce)
+     * @throws IllegalArgumentException  si estado no es FIN
+     * @throws IndexOutOfBoundsException si todas las pistas ya están libres
+     */
+    public void liberaPista(long cuando, TipoOperacion tipo, EstadoOperacion estado, long finAterrizaje) {
+        if (estado == EstadoOperacion.FIN) {
+            if (nroPistasSobrantes > 0)
+                nroPistasSobrantes--;
+            else
+                nroPistasLibres++;
             if (nroPistasLibres > nroPistas)
                 throw new IndexOutOfBoundsException("Todas las pistas estan libres");
         } else
             throw new IllegalArgumentException("liberaPista requiere evento FIN");
 
         // Registra estadística
-        estadistica.registraEvento(fin);
+        EventoJfrPista jfr = new EventoJfrPista();
+        jfr.graba(false, tipo, cuando, nroPistasLibres);
+        estadistica.registra(cuando, tipo, estado, finAterrizaje);
+    }
+
+    /**
+     * Asocia una serie de ventanas de tiempo a la estadística del aeropuerto
+     *
+     * @param ventanas serie en la que se anotan las ventanas
+     * @throws IllegalStateException si ya se han registrado eventos
+     * @see aeropuerto.Estadistica#setVentanas(SerieVentanas)
+     */
+    public void setVentanas(SerieVentanas ventanas) {
+        estadistica.setVentanas(ventanas);
     }
 
     /**
@@ -123,6 +414,69 @@ public class Controlador {
         return estadistica;
     }
 
+    /**
+     * Instantánea de la estadística en el instante indicado, sin cerrarla
+     *
+     * @param tiempoE instante de la instantánea
+     * @return copia de la estadística
+     * @see aeropuerto.Estadistica#getInstantanea(long)
+     */
+    public Estadistica getInstantanea(long tiempoE) {
+        return estadistica.getInstantanea(tiempoE);
+    }
+
+    /**
+     * Borra los acumuladores de la estadística en el instante indicado
+     *
+     * @param tiempoE instante desde el que se vuelve a acumular
+     * @see aeropuerto.Estadistica#reinicia(long)
+     */
+    public void reiniciaEstadistica(long tiempoE) {
+        estadistica.reinicia(tiempoE);
+    }
+
+    /**
+     * Escribe el estado de las pistas y la estadística en un punto de control
+     *
+     * @param salida donde se escribe
+     * @throws IOException si hay problemas al escribir
+     */
+    void escribe(DataOutput salida) throws IOException {
+        salida.writeInt(nroPistas);
+        salida.writeInt(nroPistasLibres);
+        salida.writeInt(nroPistasSobrantes);
+        salida.writeInt(nroReservas);
+        salida.writeLong(secuencia);
+        salida.writeInt(despeguesSeguidos);
+        filaAterrizajes.escribe(salida);
+        filaDespegues.escribe(salida);
+        estadistica.escribe(salida);
+    }
+
+    /**
+     * Lee el estado de las pistas y la estadística de un punto de control.
+     * Si este controlador tiene otro número de pistas (ver Simulador.bifurca),
+     * se conservan las pistas ocupadas; con menos pistas que ocupadas no
+     * queda ninguna libre, y las que sobran no quedan libres al terminar
+     * sus operaciones. Con más pistas, las nuevas quedan libres: quien lee
+     * debe atender con ellas la fila de espera (ver reservaPista).
+     *
+     * @param entrada de donde se lee
+     * @throws IOException si hay problemas al leer
+     */
+    void lee(DataInput entrada) throws IOException {
+        int pistasGuardadas = entrada.readInt();
+        int ocupadas = pistasGuardadas - entrada.readInt() + entrada.readInt();
+        nroPistasLibres = Math.max(0, nroPistas - ocupadas);
+        nroPistasSobrantes = Math.max(0, ocupadas - nroPistas);
+        nroReservas = entrada.readInt();
+        secuencia = entrada.readLong();
+        despeguesSeguidos = entrada.readInt();
+        filaAterrizajes.lee(entrada);
+        filaDespegues.lee(entrada);
+        estadistica.lee(entrada);
+    }
+
     /**
      * Muestra estado actual de ocupación y puntualidad
      */
@@ -130,7 +484,7 @@ public class Controlador {
         int nroAterrizajesFinalizados = estadistica.getFinAterrizajes();
         int nroDespeguesIniciados = estadistica.getDespeguesEnHora() + estadistica.getDespeguesDemora();
         int nroAeronavesEnTierra = nroAterrizajesFinalizados - nroDespeguesIniciados;
-        int nroAeronavesEnPista = nroPistas - nroPistasLibres;
+        int nroAeronavesEnPista = nroPistas - nroPistasLibres + nroPistasSobrantes;
         int nroOpsOnTime = estadistica.getAterrizajesEnHora() + estadistica.getDespeguesEnHora();
         int nroOpsDelayed = estadistica.getAterrizajesDemora() + estadistica.getDespeguesDemora();
         int nroOpsTotal = (nroOpsOnTime + nroOpsDelayed);
@@ -0,0 +1,20 @@
+package aeropuerto;
+
+/**
+ * Recibe los despegues de un aeropuerto de una red, para convertirlos
+ * en llegadas a otro aeropuerto (ver RedAeropuertos).
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.MotorPrimitivo#setDestino(DestinoVuelos)
+ */
+public interface DestinoVuelos {
+
+    /**
+     * Una aeronave ha terminado de despegar
+     *
+     * @param cuando   instante del fin del despegue
+     * @param aeronave identificador de la aeronave en el aeropuerto de origen
+     */
+    public void despega(long cuando, int aeronave);
+}
@@ -0,0 +1,30 @@
+package aeropuerto;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribución aleatoria del intervalo entre dos llegadas consecutivas
+ * de aeronaves, en segundos. Generador usa la que indica el parámetro
+ * <code>distribucion.llegadas</code>.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.TipoDistribucion
+ */
+public interface DistribucionLlegadas {
+
+    /**
+     * Genera un intervalo entre llegadas
+     *
+     * @param random fuente de números aleatorios
+     * @return tiempo hasta la próxima llegada, en segundos
+     */
+    public int muestra(RandomGenerator random);
+
+    /**
+     * Esperanza de las muestras, tal como se generan (redondeadas al segundo)
+     *
+     * @return intervalo medio entre llegadas, en segundos
+     */
+    public double getMedia();
+}
@@ -0,0 +1,64 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.util.SplittableRandom;
+
+/**
+ * Comprueba la media y la varianza de las distribuciones del intervalo
+ * entre llegadas, con muestras grandes y tolerancias holgadas.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class DistribucionLlegadasTest extends TestCase {
+
+    private static final int N = 200000;
+
+    /**
+     * Las dos Poisson tienen media y varianza lambda, con medias grandes y pequeñas.
+     */
+    public void testPoisson() {
+        for (double lambda : new double[]{4, 30, 120}) {
+            compruebaMomentos(new PoissonKnuth(lambda), lambda, lambda);
+            compruebaMomentos(new PoissonPtrs(lambda), lambda, lambda);
+        }
+    }
+
+    /**
+     * La exponencial redondeada tiene media lambda y varianza lambda^2 + 1/12.
+     */
+    public void testExponencial() {
+        compruebaMomentos(new ExponencialInversa(120), 120, 120 * 120 + 1.0 / 12);
+    }
+
+    /**
+     * La tabla alias respeta los pesos de cada valor.
+     */
+    public void testTablaAlias() {
+        TablaAlias tabla = TablaAlias.lee("60:1,120:2,180:1,240:0");
+        SplittableRandom random = new SplittableRandom(1);
+        int[] cuenta = new int[5];
+        for (int i = 0; i < N; i++)
+            cuenta[tabla.muestra(random) / 60]++;
+        assertEquals(0.25, cuenta[1] / (double) N, 0.01);
+        assertEquals(0.50, cuenta[2] / (double) N, 0.01);
+        assertEquals(0.25, cuenta[3] / (double) N, 0.01);
+        assertEquals(0, cuenta[4]);
+    }
+
+    private void compruebaMomentos(DistribucionLlegadas d, double media, double varianza) {
+        SplittableRandom random = new SplittableRandom(1);
+        double suma = 0;
+        double suma2 = 0;
+        for (int i = 0; i < N; i++) {
+            double x = d.muestra(random);
+            suma += x;
+            suma2 += x * x;
+        }
+        double m = suma / N;
+        double v = suma2 / N - m * m;
+        assertEquals(d.getClass().getSimpleName() + " media", media, m, 0.02 * media);
+        assertEquals(d.getClass().getSimpleName() + " varianza", varianza, v, 0.05 * varianza);
+    }
+}
@@ -1,5 +1,9 @@
 package aeropuerto;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Acumula datos para un análisis estadístico de la simulacion.
  * <p/>
@@ -21,6 +25,14 @@ package aeropuerto;
  * Mientras que el tiempo total es desde 0 hasta el cierre.
  * <p/>
  * De modo similar se calcula el número medio de aeronaves en las pistas.
+ * <p/>
+ * Además guarda en histogramas (ver Histograma) la demora de cada aterrizaje
+ * y de cada despegue, desde su primer intento hasta que obtiene pista, y la
+ * rotación de cada aeronave, desde el fin del aterrizaje hasta el fin del
+ * despegue, para poder dar percentiles.
+ * <p/>
+ * Si se le asocia una SerieVentanas, cada vez que el tiempo de los eventos
+ * pasa el fin de una ventana, anota en ella los valores de esa ventana.
  *
  * @author Javier López Medina
  * @version 1.0
@@ -121,6 +133,130 @@ public class Estadistica {
      */
     private long tUltimoEvento = 0;
 
+    /**
+     * Instante desde el que se acumula (ver reinicia), para calcular medias
+     */
+    private long inicio = 0;
+
+    /**
+     * Demora de los aterrizajes, desde el primer intento hasta obtener pista
+     */
+    private final Histograma demoraAterrizajes = new Histograma();
+
+    /**
+     * Demora de los despegues, desde el primer intento hasta obtener pista
+     */
+    private final Histograma demoraDespegues = new Histograma();
+
+    /**
+     * Rotación de las aeronaves, desde el fin del aterrizaje hasta el fin del despegue
+     */
+    private final Histograma rotaciones = new Histograma();
+
+    /**
+     * Serie de ventanas de tiempo (null si no hay)
+     */
+    private SerieVentanas ventanas;
+
+    /**
+     * Número máximo de aeronaves en el aeropuerto en la ventana en curso
+     */
+    private int maximoVentanaAeropuerto = 0;
+
+    /**
+     * Número máximo de aeronaves en pistas en la ventana en curso
+     */
+    private int maximoVentanaPistas = 0;
+
+    /**
+     * Número de intervalos entre llegadas generados (ver setLlegadas)
+     */
+    private long nroLlegadas = 0;
+
+    /**
+     * Suma de los intervalos entre llegadas generados
+     */
+    private long sumaEntreLlegadas = 0;
+
+    /**
+     * Estadística vacía
+     */
+    public Estadistica() {
+    }
+
+    /**
+     * Copia de otra estadística, sin su serie de ventanas
+     *
+     * @param otra estadística que se copia
+     */
+    public Estadistica(Estadistica otra) {
+        totalAterrizajesEnHora = otra.totalAterrizajesEnHora;
+        totalDespeguesEnHora = otra.totalDespeguesEnHora;
+        totalAterrizajesDemora = otra.totalAterrizajesDemora;
+        totalDespeguesDemora = otra.totalDespeguesDemora;
+        totalFinAterrizajes = otra.totalFinAterrizajes;
+        totalFinDespegues = otra.totalFinDespegues;
+        cuentaEnAeropuerto = otra.cuentaEnAeropuerto;
+        maximoEnAeropuerto = otra.maximoEnAeropuerto;
+        enAeropuertoPorTiempo = otra.enAeropuertoPorTiempo;
+        cuentaEnPistas = otra.cuentaEnPistas;
+        maximoEnPistas = otra.maximoEnPistas;
+        enPistasPorTiempo = otra.enPistasPorTiempo;
+        ultimoCambioAeronaves = otra.ultimoCambioAeronaves;
+        tUltimoEvento = otra.tUltimoEvento;
+        inicio = otra.inicio;
+        demoraAterrizajes.suma(otra.demoraAterrizajes);
+        demoraDespegues.suma(otra.demoraDespegues);
+        rotaciones.suma(otra.rotaciones);
+        maximoVentanaAeropuerto = otra.maximoVentanaAeropuerto;
+        maximoVentanaPistas = otra.maximoVentanaPistas;
+        nroLlegadas = otra.nroLlegadas;
+        sumaEntreLlegadas = otra.sumaEntreLlegadas;
+    }
+
+    /**
+     * Anota los intervalos entre llegadas que generó la simulación.
+     * Los anota el simulador al calcular la estadística.
+     *
+     * @param nro  número de intervalos generados
+     * @param suma suma de los intervalos
+     */
+    void setLlegadas(long nro, long suma) {
+        nroLlegadas = nro;
+        sumaEntreLlegadas = suma;
+    }
+
+    /**
+     * Media de los intervalos entre llegadas generados. Su esperanza se
+     * conoce (ver Generador.esperanzaEntreLlegadas), así que sirve de
+     * variable de control al resumir réplicas.
+     *
+     * @return intervalo medio entre llegadas, o NaN si no se ha generado ninguno
+     */
+    public double getMediaEntreLlegadas() {
+        return (nroLlegadas > 0) ? (double) sumaEntreLlegadas / nroLlegadas : Double.NaN;
+    }
+
+    /**
+     * Asocia una serie de ventanas de tiempo a esta estadística.
+     * Debe hacerse antes de registrar ningún evento.
+     *
+     * @param ventanas serie en la que se anotan las ventanas
+     * @throws IllegalStateException si ya se han registrado eventos
+     */
+    public void setVentanas(SerieVentanas ventanas) {
+        if (ultimoCambioAeronaves > 0)
+            throw new IllegalStateException("Estadistica.setVentanas: ya hay eventos registrados");
+        this.ventanas = ventanas;
+    }
+
+    /**
+     * @return serie de ventanas de tiempo asociada, o null si no hay
+     */
+    public SerieVentanas getVentanas() {
+        return ventanas;
+    }
+
     /**
      * Se llama a este método para registrar un evento y
      * actualizar las estadísticas correspondientes
@@ -128,22 +264,60 @@ public class Estadistica {
      * @param evento que se registra
      */
     public void registraEvento(EventoAeroportuario evento) {
-        long tiempo = evento.getCuando();
-        enPistasPorTiempo += (long) cuentaEnPistas * (tiempo - ultimoCambioAeronaves);
-        enAeropuertoPorTiempo += (long) cuentaEnAeropuerto * (tiempo - ultimoCambioAeronaves);
-        ultimoCambioAeronaves = tiempo;
+        long desde = (evento.getEstado() == EstadoOperacion.FIN)
+                ? evento.getFinAterrizaje() : evento.getPrimerIntento();
+        registra(evento.getCuando(), evento.getTipo(), evento.getEstado(), desde);
+    }
+
+    /**
+     * Registra un evento y además su demora o la rotación de la aeronave:
+     * en los intentos y reintentos, desde es el instante del primer intento
+     * de la operación; en el fin de un despegue, el instante del fin del
+     * aterrizaje de la aeronave. En el fin de un aterrizaje no se usa.
+     * Si desde es negativo, no se conoce y solo se registra el evento.
+     *
+     * @param tiempo instante del evento
+     * @param tipo   tipo de operación del evento
+     * @param estado estado del evento
+     * @param desde  instante de referencia para la demora o la rotación
+     */
+    public void registra(long tiempo, TipoOperacion tipo, EstadoOperacion estado, long desde) {
+        registra(tiempo, tipo, estado);
+        if (desde < 0)
+            return;
+        if (estado != EstadoOperacion.FIN) {
+            if (tipo == TipoOperacion.ATERRIZAJE)
+                demoraAterrizajes.registra(tiempo - desde);
+            else
+                demoraDespegues.registra(tiempo - desde);
+        } else if (tipo == TipoOperacion.DESPEGUE)
+            rotaciones.registra(tiempo - desde);
+    }
+
+    /**
+     * Registra un evento a partir de sus datos, sin necesidad
+     * del objeto evento (ver MotorPrimitivo).
+     *
+     * @param tiempo instante del evento
+     * @param tipo   tipo de operación del evento
+     * @param estado estado del evento
+     */
+    public void registra(long tiempo, TipoOperacion tipo, EstadoOperacion estado) {
+        if (ventanas != null)
+            cierraVentanas(tiempo);
+        acumula(tiempo);
         tUltimoEvento = tiempo;
 
         /*
         * Fin de operación
         */
-        if (evento.isFin()) {
+        if (estado == EstadoOperacion.FIN) {
             cuentaEnPistas--;
-            if (evento.isAterrizaje()) {
+            if (tipo == TipoOperacion.ATERRIZAJE) {
                 totalFinAterrizajes++;
                 cuentaEnAeropuerto++;
                 maximoEnAeropuerto = Math.max(maximoEnAeropuerto, cuentaEnAeropuerto);
-            } else if (evento.isDespegue()) {
+            } else if (tipo == TipoOperacion.DESPEGUE) {
                 totalFinDespegues++;
             }
         } else {
@@ -152,10 +326,10 @@ public class Estadistica {
             /*
             * Intento = se inicia la operación en hora
             */
-            if (evento.isIntento()) {
-                if (evento.isAterrizaje())
+            if (estado == EstadoOperacion.INTENTO) {
+                if (tipo == TipoOperacion.ATERRIZAJE)
                     totalAterrizajesEnHora++;
-                else if (evento.isDespegue()) {
+                else if (tipo == TipoOperacion.DESPEGUE) {
                     totalDespeguesEnHora++;
                     cuentaEnAeropuerto--;
                 }
@@ -163,15 +337,54 @@ public class Estadistica {
             /*
             * Reintento = se inicia la operación con demora
             */
-            else if (evento.isReintento()) {
-                if (evento.isAterrizaje())
+            else if (estado == EstadoOperacion.REINTENTO) {
+                if (tipo == TipoOperacion.ATERRIZAJE)
                     totalAterrizajesDemora++;
-                else if (evento.isDespegue()) {
+                else if (tipo == TipoOperacion.DESPEGUE) {
                     totalDespeguesDemora++;
                     cuentaEnAeropuerto--;
                 }
             }
         }
+        maximoVentanaAeropuerto = Math.max(maximoVentanaAeropuerto, cuentaEnAeropuerto);
+        maximoVentanaPistas = Math.max(maximoVentanaPistas, cuentaEnPistas);
+    }
+
+    /**
+     * Acumula la ocupación desde el último cambio hasta el instante indicado
+     *
+     * @param tiempo instante hasta el que se acumula
+     */
+    private void acumula(long tiempo) {
+        enPistasPorTiempo += (long) cuentaEnPistas * (tiempo - ultimoCambioAeronaves);
+        enAeropuertoPorTiempo += (long) cuentaEnAeropuerto * (tiempo - ultimoCambioAeronaves);
+        ultimoCambioAeronaves = tiempo;
+    }
+
+    /**
+     * Anota en la serie todas las ventanas que terminan antes o en el instante indicado
+     *
+     * @param tiempo instante del evento que se va a registrar
+     */
+    private void cierraVentanas(long tiempo) {
+        while (tiempo >= ventanas.getFinVentana())
+            anotaVentana(ventanas.getFinVentana());
+    }
+
+    /**
+     * Anota en la serie la ventana en curso, terminando en el instante indicado,
+     * y empieza a contar los máximos de la siguiente
+     *
+     * @param fin instante final de la ventana
+     */
+    private void anotaVentana(long fin) {
+        acumula(fin);
+        ventanas.anota(fin, totalFinAterrizajes, totalFinDespegues,
+                totalAterrizajesEnHora + totalDespeguesEnHora,
+                totalAterrizajesDemora + totalDespeguesDemora,
+                enAeropuertoPorTiempo, maximoVentanaAeropuerto, enPistasPorTiempo, maximoVentanaPistas);
+        maximoVentanaAeropuerto = cuentaEnAeropuerto;
+        maximoVentanaPistas = cuentaEnPistas;
     }
 
     /**
@@ -245,7 +458,7 @@ public class Estadistica {
      * @return media de aeronaves en aeropuerto
      */
     public double getMediaEnAeropuerto() {
-        mediaEnAeropuerto = (double) enAeropuertoPorTiempo / ultimoCambioAeronaves;
+        mediaEnAeropuerto = (double) enAeropuertoPorTiempo / (ultimoCambioAeronaves - inicio);
         return Math.round(mediaEnAeropuerto * 100) / 100.0;
     }
 
@@ -274,7 +487,7 @@ public class Estadistica {
      * @return media de aeronaves en pistas
      */
     public double getMediaEnPistas() {
-        mediaEnPistas = (double) enPistasPorTiempo / ultimoCambioAeronaves;
+        mediaEnPistas = (double) enPistasPorTiempo / (ultimoCambioAeronaves - inicio);
         return Math.round(mediaEnPistas * 100) / 100.0;
     }
 
@@ -287,10 +500,69 @@ public class Estadistica {
         return cuentaEnPistas;
     }
 
+    /**
+     * Histograma de la demora de los aterrizajes, en segundos
+     *
+     * @return copia del histograma
+     */
+    public Histograma getDemoraAterrizajes() {
+        return new Histograma(demoraAterrizajes);
+    }
+
+    /**
+     * Histograma de la demora de los despegues, en segundos
+     *
+     * @return copia del histograma
+     */
+    public Histograma getDemoraDespegues() {
+        return new Histograma(demoraDespegues);
+    }
+
+    /**
+     * Histograma de la rotación de las aeronaves (del fin del aterrizaje
+     * al fin del despegue), en segundos
+     *
+     * @return copia del histograma
+     */
+    public Histograma getRotaciones() {
+        return new Histograma(rotaciones);
+    }
+
+    /**
+     * Percentil de la demora de los aterrizajes
+     *
+     * @param porcentaje entre 0 y 100
+     * @return demora en segundos
+     */
+    public long getPercentilDemoraAterrizajes(double porcentaje) {
+        return demoraAterrizajes.getPercentil(porcentaje);
+    }
+
+    /**
+     * Percentil de la demora de los despegues
+     *
+     * @param porcentaje entre 0 y 100
+     * @return demora en segundos
+     */
+    public long getPercentilDemoraDespegues(double porcentaje) {
+        return demoraDespegues.getPercentil(porcentaje);
+    }
+
+    /**
+     * Percentil de la rotación de las aeronaves
+     *
+     * @param porcentaje entre 0 y 100
+     * @return rotación en segundos
+     */
+    public long getPercentilRotaciones(double porcentaje) {
+        return rotaciones.getPercentil(porcentaje);
+    }
+
     /**
      * Se llama a este método cuando termina una simulación.
      * Si no se hace así, los valores estadísticos medios corresponden al
-     * instante del último evento registrado.
+     * instante del último evento registrado. Si hay serie de ventanas,
+     * anota las ventanas pendientes y la ventana parcial hasta el cierre.
      *
      * @param tiempoE instante de cierre de estadistica para calculo de medias
      * @throws IllegalArgumentException si tiempoE es anterior al último evento registrado
@@ -301,12 +573,170 @@ public class Estadistica {
                     + tiempoE + " (cierre estadistica) "
                     + " < " + tUltimoEvento + " (ultimo evento)");
 
-        enAeropuertoPorTiempo += (long) cuentaEnAeropuerto * (tiempoE - ultimoCambioAeronaves);
-        enPistasPorTiempo += (long) cuentaEnPistas * (tiempoE - ultimoCambioAeronaves);
-        ultimoCambioAeronaves = tiempoE;
+        if (ventanas != null) {
+            cierraVentanas(tiempoE);
+            // Ventana parcial, hasta el cierre
+            if (tiempoE > ventanas.getInicioVentana())
+                anotaVentana(tiempoE);
+        }
+        acumula(tiempoE);
         tUltimoEvento = tiempoE;
     }
 
+    /**
+     * Borra los acumuladores en el instante indicado, para descartar el
+     * periodo transitorio del principio de la simulación (ver
+     * AnalizadorEstacionario): a partir de aquí los totales, las demoras,
+     * las rotaciones y las medias cuentan solo desde ese instante. Se
+     * conservan las aeronaves que hay en el aeropuerto y en las pistas,
+     * que pasan a ser los máximos, y la serie de ventanas, si la hay: se
+     * anotan las ventanas pendientes y la parcial hasta el instante, y la
+     * siguiente parte de los acumuladores a cero.
+     *
+     * @param instante instante desde el que se vuelve a acumular
+     * @throws IllegalArgumentException si instante es anterior al último evento registrado
+     */
+    public void reinicia(long instante) {
+        if (instante < tUltimoEvento)
+            throw new IllegalArgumentException("Estadistica.reinicia: inconsistencia "
+                    + instante + " < " + tUltimoEvento + " (ultimo evento)");
+        if (ventanas != null) {
+            cierraVentanas(instante);
+            if (instante > ventanas.getInicioVentana())
+                anotaVentana(instante);
+        }
+        acumula(instante);
+        tUltimoEvento = instante;
+        inicio = instante;
+        totalAterrizajesEnHora = 0;
+        totalDespeguesEnHora = 0;
+        totalAterrizajesDemora = 0;
+        totalDespeguesDemora = 0;
+        totalFinAterrizajes = 0;
+        totalFinDespegues = 0;
+        maximoEnAeropuerto = cuentaEnAeropuerto;
+        enAeropuertoPorTiempo = 0;
+        maximoEnPistas = cuentaEnPistas;
+        enPistasPorTiempo = 0;
+        demoraAterrizajes.reinicia();
+        demoraDespegues.reinicia();
+        rotaciones.reinicia();
+        if (ventanas != null)
+            ventanas.reiniciaAcumulados();
+    }
+
+    /**
+     * @return instante desde el que se acumula: 0, o el del último reinicia
+     */
+    public long getInicio() {
+        return inicio;
+    }
+
+    /**
+     * Suma en el tiempo del número de aeronaves en el aeropuerto
+     * (aeronaves por segundo), desde el inicio hasta el último cambio
+     *
+     * @return aeronaves en el aeropuerto por tiempo
+     */
+    public long getEnAeropuertoPorTiempo() {
+        return enAeropuertoPorTiempo;
+    }
+
+    /**
+     * Suma en el tiempo del número de aeronaves en las pistas
+     *
+     * @return aeronaves en las pistas por tiempo
+     */
+    public long getEnPistasPorTiempo() {
+        return enPistasPorTiempo;
+    }
+
+    /**
+     * Instantánea de la estadística cerrada en el instante indicado, sin
+     * cerrar esta: se puede seguir registrando eventos y no se anota
+     * ninguna ventana parcial en la serie.
+     *
+     * @param instante instante de cierre de la copia para el cálculo de medias
+     * @return copia cerrada en el instante indicado, sin serie de ventanas
+     * @throws IllegalArgumentException si instante es anterior al último evento registrado
+     */
+    public Estadistica getInstantanea(long instante) {
+        if (instante < tUltimoEvento)
+            throw new IllegalArgumentException("Estadistica.getInstantanea: inconsistencia "
+                    + instante + " < " + tUltimoEvento + " (ultimo evento)");
+        Estadistica copia = new Estadistica(this);
+        copia.acumula(instante);
+        copia.tUltimoEvento = instante;
+        return copia;
+    }
+
+    /**
+     * Escribe los acumuladores en un punto de control
+     *
+     * @param salida donde se escribe
+     * @throws IOException si hay problemas al escribir
+     */
+    void escribe(DataOutput salida) throws IOException {
+        salida.writeInt(totalAterrizajesEnHora);
+        salida.writeInt(totalDespeguesEnHora);
+        salida.writeInt(totalAterrizajesDemora);
+        salida.writeInt(totalDespeguesDemora);
+        salida.writeInt(totalFinAterrizajes);
+        salida.writeInt(totalFinDespegues);
+        salida.writeInt(cuentaEnAeropuerto);
+        salida.writeInt(maximoEnAeropuerto);
+        salida.writeLong(enAeropuertoPorTiempo);
+        salida.writeInt(cuentaEnPistas);
+        salida.writeInt(maximoEnPistas);
+        salida.writeLong(enPistasPorTiempo);
+        salida.writeLong(ultimoCambioAeronaves);
+        salida.writeLong(tUltimoEvento);
+        salida.writeLong(inicio);
+        demoraAterrizajes.escribe(salida);
+        demoraDespegues.escribe(salida);
+        rotaciones.escribe(salida);
+        salida.writeInt(maximoVentanaAeropuerto);
+        salida.writeInt(maximoVentanaPistas);
+        salida.writeBoolean(ventanas != null);
+        if (ventanas != null)
+            ventanas.escribe(salida);
+    }
+
+    /**
+     * Lee los acumuladores de un punto de control, sustituyendo los actuales.
+     * Si el punto de control tiene serie de ventanas, esta estadística debe
+     * tener asociada una serie de la misma anchura.
+     *
+     * @param entrada de donde se lee
+     * @throws IOException si hay problemas al leer o las ventanas no coinciden
+     */
+    void lee(DataInput entrada) throws IOException {
+        totalAterrizajesEnHora = entrada.readInt();
+        totalDespeguesEnHora = entrada.readInt();
+        totalAterrizajesDemora = entrada.readInt();
+        totalDespeguesDemora = entrada.readInt();
+        totalFinAterrizajes = entrada.readInt();
+        totalFinDespegues = entrada.readInt();
+        cuentaEnAeropuerto = entrada.readInt();
+        maximoEnAeropuerto = entrada.readInt();
+        enAeropuertoPorTiempo = entrada.readLong();
+        cuentaEnPistas = entrada.readInt();
+        maximoEnPistas = entrada.readInt();
+        enPistasPorTiempo = entrada.readLong();
+        ultimoCambioAeronaves = entrada.readLong();
+        tUltimoEvento = entrada.readLong();
+        inicio = entrada.readLong();
+        demoraAterrizajes.lee(entrada);
+        demoraDespegues.lee(entrada);
+        rotaciones.lee(entrada);
+        maximoVentanaAeropuerto = entrada.readInt();
+        maximoVentanaPistas = entrada.readInt();
+        if (entrada.readBoolean() != (ventanas != null))
+            throw new IOException("Estadistica: serie de ventanas distinta en el punto de control");
+        if (ventanas != null)
+            ventanas.lee(entrada);
+    }
+
     /**
      * Devuelve instante del último evento registrado
      *
@@ -353,6 +783,9 @@ public class Estadistica {
         a += "\tActual: " + getNroEnPistas();
         a += "\tM�xima: " + getMaximoEnPistas();
         a += "\tMedia:  " + getMediaEnPistas() + "\n";
+        a += "\tDEMORA_ATERRIZAJES   \t" + demoraAterrizajes + "\n";
+        a += "\tDEMORA_DESPEGUES     \t" + demoraDespegues + "\n";
+        a += "\tROTACION             \t" + rotaciones + "\n";
         return a;
     }
 
@@ -0,0 +1,18 @@
+package aeropuerto;
+
+/**
+ * Estado de un trabajo del servicio de simulación:
+ * EN_COLA = recibido, sin réplicas empezadas;
+ * EJECUTANDO = con alguna réplica simulando o esperando procesador;
+ * TERMINADO = todas las réplicas acabadas, con resultado;
+ * CANCELADO = cancelado antes de acabar, sin resultado;
+ * FALLIDO = alguna réplica ha fallado, sin resultado.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.TrabajoSimulacion
+ */
+
+public enum EstadoTrabajo {
+    EN_COLA, EJECUTANDO, TERMINADO, CANCELADO, FALLIDO
+}
@@ -0,0 +1,174 @@
+package aeropuerto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Compara varias políticas del controlador (orden de atención de la fila,
+ * duración del slot, número de pistas...) con el mismo tráfico.
+ * <p/>
+ * Las llegadas y las asistencias en tierra se generan una sola vez (ver
+ * VariablesComunes) y todas las políticas las consumen a la par, cada una
+ * con su propio Controlador y su propia Estadistica: las simulaciones avanzan
+ * juntas por tramos de PASO segundos. Con números aleatorios comunes, la
+ * diferencia entre dos políticas tiene mucha menos varianza que comparando
+ * simulaciones independientes, y el tráfico no se genera N veces.
+ * <p/>
+ * Cada política es un juego de parámetros que solo puede cambiar lo que no
+ * afecta al tráfico: no puede cambiar semilla, llegadas ni asistencia en tierra.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.VariablesComunes
+ * @see aeropuerto.PoliticaPistas
+ */
+public class EvaluadorPoliticas {
+    /**
+     * Logger
+     */
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.EvaluadorPoliticas");
+
+    /**
+     * Parámetros que definen el tráfico, y que deben ser iguales en todas las políticas
+     */
+    private static final String[] CLAVES_TRAFICO = {"semilla", "frecuencia.llegadas",
+            "distribucion.llegadas", "empirica.llegadas", "generador.normal", "generador.flujos",
+            "duracion.media", "duracion.desviacion", "duracion.minima", "llegadas.fuente", "llegadas.fichero"};
+
+    /**
+     * Segundos simulados que avanza cada política antes de pasar a la siguiente
+     */
+    private static final long PASO = 3600;
+
+    /**
+     * Parámetros de cada política
+     */
+    private final Parametros[] politicas;
+
+    /**
+     * Instante final de las simulaciones
+     */
+    private final long hastaCuando;
+
+    /**
+     * Constructor
+     *
+     * @param politicas   parámetros de cada política
+     * @param hastaCuando instante final de las simulaciones
+     * @throws IllegalArgumentException si no hay políticas o alguna cambia el tráfico
+     */
+    public EvaluadorPoliticas(Parametros[] politicas, long hastaCuando) {
+        if (politicas == null || politicas.length < 1)
+            throw new IllegalArgumentException("EvaluadorPoliticas: sin politicas");
+        Properties primera = politicas[0].getPropiedades();
+        for (Parametros politica : politicas) {
+            Properties p = politica.getPropiedades();
+            for (String clave : CLAVES_TRAFICO)
+                if (!p.getProperty(clave).equals(primera.getProperty(clave)))
+                    throw new IllegalArgumentException("EvaluadorPoliticas: " + clave
+                            + " distinto en las politicas");
+        }
+        this.politicas = politicas.clone();
+        this.hastaCuando = hastaCuando;
+    }
+
+    /**
+     * Parámetros de una política: los de la base con los cambios indicados
+     *
+     * @param base    parámetros base
+     * @param cambios cambios, en forma clave=valor;clave=valor (vacío si no hay)
+     * @return parámetros de la política
+     * @throws IllegalArgumentException si algún cambio está mal escrito o es incorrecto
+     */
+    public static Parametros politica(Parametros base, String cambios) {
+        Properties p = base.getPropiedades();
+        for (String cambio : cambios.split(";")) {
+            if (cambio.trim().isEmpty())
+                continue;
+            int igual = cambio.indexOf('=');
+            if (igual < 1 || !p.containsKey(cambio.substring(0, igual).trim()))
+                throw new IllegalArgumentException("EvaluadorPoliticas: cambio incorrecto " + cambio);
+            p.setProperty(cambio.substring(0, igual).trim(), cambio.substring(igual + 1).trim());
+        }
+        return new Parametros(p);
+    }
+
+    /**
+     * Simula todas las políticas a la par con las mismas variables aleatorias
+     *
+     * @return estadística de cada política, en el orden de las políticas
+     */
+    public Estadistica[] simula() {
+        VariablesComunes comunes = new VariablesComunes(politicas[0]);
+        Simulador[] simuladores = new Simulador[politicas.length];
+        Estadistica[] resultados = new Estadistica[politicas.length];
+        try {
+            for (int i = 0; i < politicas.length; i++)
+                simuladores[i] = new Simulador(politicas[i].conSufijo("politica" + i),
+                        comunes.creaGenerador(politicas[i]));
+            long hasta = 0;
+            do {
+                hasta = Math.min(hasta + PASO, hastaCuando);
+                for (Simulador simulador : simuladores)
+                    simulador.simulaHasta(hasta);
+            } while (hasta < hastaCuando);
+            for (int i = 0; i < politicas.length; i++)
+                resultados[i] = simuladores[i].calculaEstadistica(hastaCuando);
+        } finally {
+            for (Simulador simulador : simuladores)
+                if (simulador != null)
+                    simulador.close();
+        }
+        return resultados;
+    }
+
+    /**
+     * Simula todas las políticas y devuelve una tabla con una fila por
+     * política: su número (desde 0) y las métricas (ver Metrica)
+     *
+     * @return tabla de resultados
+     */
+    public TablaResultados ejecuta() {
+        List<String> columnas = new ArrayList<String>();
+        columnas.add("politica");
+        for (Metrica m : Metrica.values())
+            columnas.add(m.name());
+        TablaResultados tabla = new TablaResultados(columnas.toArray(new String[0]), politicas.length);
+        Estadistica[] resultados = simula();
+        for (int i = 0; i < resultados.length; i++) {
+            tabla.pon("politica", i, i);
+            for (Metrica m : Metrica.values())
+                tabla.pon(m.name(), i, m.getValor(resultados[i]));
+        }
+        return tabla;
+    }
+
+    /**
+     * Compara políticas y guarda los resultados en un fichero CSV.
+     * Requiere como argumentos el tiempo de simulación, el fichero de
+     * parámetros base, el fichero CSV y una política por argumento,
+     * con sus cambios sobre la base (por ejemplo
+     * "espera.pistas=FIFO;politica.pistas=ATERRIZAJES_PRIMERO").
+     *
+     * @param argumentos [tiempo_de_simulación] [fichero_de_parámetros] [resultados.csv] [politica]...
+     * @throws IOException si hay problemas con los ficheros
+     */
+    public static void main(String[] argumentos)
+            throws IOException {
+        if (argumentos.length < 4) {
+            System.err.println("EvaluadorPoliticas [hasta_cuando] [fichero_parametros.ini] [resultados.csv] [clave=valor;...]...");
+            System.exit(1);
+        }
+        long finSimulacion = Long.parseLong(argumentos[0]);
+        Parametros base = new Parametros(argumentos[1]);
+        Parametros[] politicas = new Parametros[argumentos.length - 3];
+        for (int i = 3; i < argumentos.length; i++)
+            politicas[i - 3] = politica(base, argumentos[i]);
+
+        LOGGER.info("Inicio de evaluacion de {} politicas. Duracion={}", politicas.length, finSimulacion);
+        new EvaluadorPoliticas(politicas, finSimulacion).ejecuta().exportaCsv(argumentos[2]);
+        LOGGER.info("Fin de evaluacion. Resultados en {}", argumentos[2]);
+    }
+}
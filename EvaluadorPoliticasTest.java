@@ -0,0 +1,60 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+/**
+ * Comprueba la comparación de políticas con números aleatorios comunes.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class EvaluadorPoliticasTest extends TestCase {
+
+    private final Parametros base = EvaluadorPoliticas.politica(
+            new Parametros(7, 2, 120, 0.6, 600, 200, 100, 60, 10), "espera.pistas=FIFO");
+
+    /**
+     * Cada aeronave tiene siempre las mismas variables, se pidan en el orden que se pidan
+     */
+    public void testVariablesPorAeronave() {
+        VariablesComunes a = new VariablesComunes(base);
+        VariablesComunes b = new VariablesComunes(base);
+        int tierra = a.getDuracionEnTierra(50);
+        assertEquals(50, a.getNroAeronaves());
+        for (int i = 50; i >= 1; i--)
+            b.getEntreLlegadas(i);
+        assertEquals(tierra, b.getDuracionEnTierra(50));
+        assertEquals(a.getEntreLlegadas(17), b.getEntreLlegadas(17));
+    }
+
+    /**
+     * Dos políticas iguales dan lo mismo, y dar prioridad a los aterrizajes
+     * reduce su demora frente a atender por orden de llegada
+     */
+    public void testPoliticas() {
+        Parametros[] politicas = {
+                base,
+                EvaluadorPoliticas.politica(base, "politica.pistas=ATERRIZAJES_PRIMERO"),
+                EvaluadorPoliticas.politica(base, "politica.pistas=LOTES_DESPEGUE;lote.despegues=3"),
+                base};
+        Estadistica[] r = new EvaluadorPoliticas(politicas, 100000).simula();
+        assertEquals(r[0].toString(), r[3].toString());
+        assertTrue(r[1].getDemoraAterrizajes().getMedia() < r[0].getDemoraAterrizajes().getMedia());
+        assertTrue(r[1].getDemoraDespegues().getMedia() > r[0].getDemoraDespegues().getMedia());
+        // Mismo tráfico: las aeronaves que llegan a tiempo de aterrizar son casi las mismas
+        assertEquals(r[0].getFinAterrizajes(), r[2].getFinAterrizajes(), r[0].getFinAterrizajes() / 10);
+    }
+
+    /**
+     * Una política no puede cambiar el tráfico
+     */
+    public void testPoliticaConOtroTrafico() {
+        try {
+            new EvaluadorPoliticas(new Parametros[]{base,
+                    EvaluadorPoliticas.politica(base, "frecuencia.llegadas=0.3")}, 1000);
+            fail("Debería rechazar otra frecuencia de llegadas");
+        } catch (IllegalArgumentException e) {
+            // correcto
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package aeropuerto;
 
-import log.Logger;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Evento es un suceso que ocurre durante la simulacion.
@@ -19,12 +19,13 @@ public class EventoAeroportuario implements Evento {
     /**
      * Logger
      */
-    private static final Logger LOGGER = Logger.getLogger("aeropuerto.EventoAeroportuario");
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.EventoAeroportuario");
 
     /**
-     * Contador de identificadores
+     * Contador de identificadores, compartido por todas las simulaciones
+     * que se ejecuten a la vez (ver Replicador)
      */
-    private static int contadorEventos = 0;
+    private static final AtomicInteger contadorEventos = new AtomicInteger();
 
     /**
      * Identificador de evento
@@ -51,6 +52,17 @@ public class EventoAeroportuario implements Evento {
      */
     private EstadoOperacion estadoEvento;
 
+    /**
+     * Instante del primer intento de la operación, para medir su demora
+     */
+    private long primerIntento;
+
+    /**
+     * Instante del fin del aterrizaje de la aeronave, para medir su tiempo
+     * de rotación (solo en eventos de despegue)
+     */
+    private long finAterrizaje;
+
     /**
      * Constructor de EventoAeroportuario privado
      *
@@ -60,7 +72,7 @@ public class EventoAeroportuario implements Evento {
      * @param instante cuando ocurre el evento
      */
     private EventoAeroportuario(int idA, EstadoOperacion estado, TipoOperacion tipo, long instante) {
-        idEvento = contadorEventos++;
+        idEvento = contadorEventos.getAndIncrement();
         if (idA != 0)
             idAeronave = idA;
         else
@@ -68,6 +80,7 @@ public class EventoAeroportuario implements Evento {
         estadoEvento = estado;
         tipoOperacion = tipo;
         cuando = instante;
+        primerIntento = instante;
     }
 
     /**
@@ -80,26 +93,69 @@ public class EventoAeroportuario implements Evento {
      */
     public static EventoAeroportuario generaCualquierEvento(long instante) {
         EventoAeroportuario miEvento = new EventoAeroportuario(0, null, null, instante);
-        LOGGER.info("generaCualquierEvento " + miEvento);
+        LOGGER.info("generaCualquierEvento {}", miEvento);
         return miEvento;
     }
 
+    /**
+     * Factoría para rehacer un evento leído de un punto de control,
+     * con su identificador original
+     *
+     * @param idEvento      identificador del evento
+     * @param idAeronave    identificador de aeronave
+     * @param estado        estado del evento
+     * @param tipo          tipo de evento
+     * @param instante      cuando ocurre el evento
+     * @param primerIntento instante del primer intento de la operación
+     * @param finAterrizaje instante del fin del aterrizaje de la aeronave
+     * @return evento
+     * @see aeropuerto.PuntoControl
+     */
+    static EventoAeroportuario restaura(int idEvento, int idAeronave, EstadoOperacion estado,
+                                        TipoOperacion tipo, long instante,
+                                        long primerIntento, long finAterrizaje) {
+        EventoAeroportuario miEvento = new EventoAeroportuario(idAeronave, estado, tipo, instante);
+        miEvento.idEvento = idEvento;
+        miEvento.primerIntento = primerIntento;
+        miEvento.finAterrizaje = finAterrizaje;
+        return miEvento;
+    }
+
+    /**
+     * @return siguiente identificador de evento que se asignará
+     */
+    static int getContadorEventos() {
+        return contadorEventos.get();
+    }
+
+    /**
+     * Cambia el siguiente identificador de evento, al reanudar
+     * desde un punto de control
+     *
+     * @param siguiente identificador que se asignará al próximo evento
+     */
+    static void setContadorEventos(int siguiente) {
+        contadorEventos.set(siguiente);
+    }
+
     /**
      * Factoría para generar un evento de intento de aterrizaje (llegada
      * de aeronave al espacio aéreo del aeropuerto)
      *
      * @param ultimaLlegada ultimo evento de llegada ocurrido o null si no existe
      * @param generador     generador aleatorio
-     * @return evento
+     * @return evento, o null si no quedan llegadas
      */
     public static EventoAeroportuario generaLlegada(EventoAeroportuario ultimaLlegada,
                                                     Generador generador) {
         long instante = generador.entreLlegadas();
+        if (instante == Generador.SIN_LLEGADAS)
+            return null;
         if (ultimaLlegada != null) instante += ultimaLlegada.cuando;
         EventoAeroportuario miEvento =
-                new EventoAeroportuario(0,
+                new EventoAeroportuario(generador.nuevaAeronave(),
                         EstadoOperacion.INTENTO, TipoOperacion.ATERRIZAJE, instante);
-        LOGGER.info("generaLlegada " + miEvento);
+        LOGGER.info("generaLlegada {}", miEvento);
         return miEvento;
     }
 
@@ -116,7 +172,30 @@ public class EventoAeroportuario implements Evento {
         EventoAeroportuario miEvento =
                 new EventoAeroportuario(solicitud.idAeronave,
                         EstadoOperacion.REINTENTO, solicitud.tipoOperacion, instante);
-        LOGGER.info("generaReintento " + miEvento);
+        miEvento.primerIntento = solicitud.primerIntento;
+        miEvento.finAterrizaje = solicitud.finAterrizaje;
+        LOGGER.info("generaReintento {}", miEvento);
+        return miEvento;
+    }
+
+    /**
+     * Factoría para generar el reintento de una aeronave que esperaba en la
+     * fila del controlador y a la que se ha reservado pista (ver TipoEspera)
+     *
+     * @param idAeronave    identificador de aeronave
+     * @param tipo          tipo de operación
+     * @param instante      cuando ocupa la pista reservada
+     * @param primerIntento instante del primer intento de la operación
+     * @param finAterrizaje instante del fin del aterrizaje de la aeronave
+     * @return evento
+     */
+    public static EventoAeroportuario generaAtencion(int idAeronave, TipoOperacion tipo, long instante,
+                                                     long primerIntento, long finAterrizaje) {
+        EventoAeroportuario miEvento =
+                new EventoAeroportuario(idAeronave, EstadoOperacion.REINTENTO, tipo, instante);
+        miEvento.primerIntento = primerIntento;
+        miEvento.finAterrizaje = finAterrizaje;
+        LOGGER.info("generaAtencion {}", miEvento);
         return miEvento;
     }
 
@@ -132,7 +211,9 @@ public class EventoAeroportuario implements Evento {
         EventoAeroportuario miEvento =
                 new EventoAeroportuario(solicitud.idAeronave,
                         EstadoOperacion.FIN, solicitud.tipoOperacion, instante);
-        LOGGER.info("generaFin    " + miEvento);
+        miEvento.primerIntento = solicitud.primerIntento;
+        miEvento.finAterrizaje = solicitud.finAterrizaje;
+        LOGGER.info("generaFin    {}", miEvento);
         return miEvento;
     }
 
@@ -145,11 +226,12 @@ public class EventoAeroportuario implements Evento {
      * @return evento
      */
     public static EventoAeroportuario generaSalida(EventoAeroportuario finAterrizaje, Generador generador) {
-        long instante = finAterrizaje.cuando + generador.duracionEnTierra();
+        long instante = finAterrizaje.cuando + generador.duracionEnTierra(finAterrizaje.idAeronave);
         EventoAeroportuario miEvento =
                 new EventoAeroportuario(finAterrizaje.idAeronave,
                         EstadoOperacion.INTENTO, TipoOperacion.DESPEGUE, instante);
-        LOGGER.info("generaSalida " + miEvento);
+        miEvento.finAterrizaje = finAterrizaje.cuando;
+        LOGGER.info("generaSalida {}", miEvento);
         return miEvento;
     }
 
@@ -171,6 +253,26 @@ public class EventoAeroportuario implements Evento {
         return idAeronave;
     }
 
+    /**
+     * Instante del primer intento de la operación. En los eventos de intento
+     * coincide con getCuando(); los reintentos y el fin lo heredan.
+     *
+     * @return instante del primer intento de la operación
+     */
+    public long getPrimerIntento() {
+        return primerIntento;
+    }
+
+    /**
+     * Instante en que terminó el aterrizaje de la aeronave.
+     * Solo tiene sentido en los eventos de despegue.
+     *
+     * @return instante del fin del aterrizaje
+     */
+    public long getFinAterrizaje() {
+        return finAterrizaje;
+    }
+
     /**
      * Método que devuelve el tipo de operacion.
      *
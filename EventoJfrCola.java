@@ -0,0 +1,62 @@
+package aeropuerto;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder: inserción o extracción en la cola de
+ * eventos, con la profundidad de la cola en ese momento. Sirve para ver
+ * cómo crece el coste de la cola con su profundidad.
+ * <p/>
+ * Si la grabación no lo tiene activado, su coste es prácticamente nulo.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.ColaEventos
+ * @see aeropuerto.MotorPrimitivo
+ */
+@Name("aeropuerto.Cola")
+@Label("Operación de cola")
+@Category({"Aeropuerto", "Cola de eventos"})
+@Description("Inserción o extracción en la cola de eventos")
+@StackTrace(false)
+public class EventoJfrCola extends jdk.jfr.Event {
+    /**
+     * Operación de inserción
+     */
+    static final String INSERTA = "inserta";
+
+    /**
+     * Operación de extracción
+     */
+    static final String EXTRAE = "extrae";
+
+    @Label("Operación")
+    String operacion;
+
+    @Label("Implementación")
+    String implementacion;
+
+    @Label("Profundidad")
+    @Description("Eventos en la cola antes de la operación")
+    int profundidad;
+
+    /**
+     * Rellena los datos del evento y lo graba, si la grabación lo pide
+     *
+     * @param operacion      INSERTA o EXTRAE
+     * @param implementacion implementación de la cola
+     * @param profundidad    eventos en la cola antes de la operación
+     */
+    void graba(String operacion, String implementacion, int profundidad) {
+        if (!shouldCommit())
+            return;
+        this.operacion = operacion;
+        this.implementacion = implementacion;
+        this.profundidad = profundidad;
+        commit();
+    }
+}
@@ -0,0 +1,66 @@
+package aeropuerto;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder: despacho de un evento aeroportuario
+ * por la lógica del simulador. Su duración es lo que tarda la lógica en
+ * tratarlo, así que agrupando por tipo y estado se ve qué transiciones
+ * (reintentos de aterrizaje, concesiones de despegue, fines...) consumen
+ * más CPU.
+ * <p/>
+ * Si la grabación no lo tiene activado, su coste es prácticamente nulo.
+ * Se activa con el perfil aeropuerto.jfc.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Simulador
+ * @see aeropuerto.MotorPrimitivo
+ */
+@Name("aeropuerto.Despacho")
+@Label("Despacho de evento")
+@Category({"Aeropuerto", "Simulador"})
+@Description("Tratamiento de un evento aeroportuario por la lógica del simulador")
+@StackTrace(false)
+public class EventoJfrDespacho extends jdk.jfr.Event {
+
+    @Label("Tipo")
+    String tipo;
+
+    @Label("Estado")
+    String estado;
+
+    @Label("Aeronave")
+    int aeronave;
+
+    @Label("Instante simulado")
+    long instante;
+
+    @Label("Pista concedida")
+    @Description("La solicitud obtuvo pista (solo en intentos y reintentos)")
+    boolean concedida;
+
+    /**
+     * Rellena los datos del evento y lo graba, si la grabación lo pide
+     *
+     * @param tipo      tipo de operación
+     * @param estado    estado de la operación
+     * @param aeronave  identificador de aeronave
+     * @param instante  instante simulado
+     * @param concedida TRUE si la solicitud obtuvo pista
+     */
+    void graba(TipoOperacion tipo, EstadoOperacion estado, int aeronave, long instante, boolean concedida) {
+        if (!shouldCommit())
+            return;
+        this.tipo = tipo.name();
+        this.estado = estado.name();
+        this.aeronave = aeronave;
+        this.instante = instante;
+        this.concedida = concedida;
+        commit();
+    }
+}
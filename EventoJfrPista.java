@@ -0,0 +1,57 @@
+package aeropuerto;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder: ocupación o liberación de una pista
+ * en el Controlador, con las pistas libres que quedan.
+ * <p/>
+ * Si la grabación no lo tiene activado, su coste es prácticamente nulo.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Controlador
+ */
+@Name("aeropuerto.Pista")
+@Label("Ocupación de pista")
+@Category({"Aeropuerto", "Controlador"})
+@Description("Ocupación o liberación de una pista")
+@StackTrace(false)
+public class EventoJfrPista extends jdk.jfr.Event {
+
+    @Label("Ocupa")
+    @Description("TRUE si se ocupa la pista, FALSE si se libera")
+    boolean ocupa;
+
+    @Label("Tipo")
+    String tipo;
+
+    @Label("Instante simulado")
+    long instante;
+
+    @Label("Pistas libres")
+    @Description("Pistas libres después de la operación")
+    int pistasLibres;
+
+    /**
+     * Rellena los datos del evento y lo graba, si la grabación lo pide
+     *
+     * @param ocupa        TRUE si se ocupa la pista, FALSE si se libera
+     * @param tipo         tipo de operación
+     * @param instante     instante simulado
+     * @param pistasLibres pistas libres después de la operación
+     */
+    void graba(boolean ocupa, TipoOperacion tipo, long instante, int pistasLibres) {
+        if (!shouldCommit())
+            return;
+        this.ocupa = ocupa;
+        this.tipo = tipo.name();
+        this.instante = instante;
+        this.pistasLibres = pistasLibres;
+        commit();
+    }
+}
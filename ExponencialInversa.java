@@ -0,0 +1,48 @@
+package aeropuerto;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribución exponencial por inversión de su función de distribución:
+ * x = -media * ln(1 - u), redondeado al segundo. Una uniforme y un
+ * logaritmo por muestra, sea cual sea la media.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ExponencialInversa implements DistribucionLlegadas {
+    /**
+     * Media de la distribución
+     */
+    private final double media;
+
+    /**
+     * Constructor
+     *
+     * @param media media de la distribución
+     */
+    public ExponencialInversa(double media) {
+        this.media = media;
+    }
+
+    /**
+     * Genera una muestra de la distribución
+     *
+     * @param random fuente de números aleatorios
+     * @return muestra
+     */
+    public int muestra(RandomGenerator random) {
+        // 1 - u está en (0, 1], así que el logaritmo es finito
+        return (int) Math.round(-media * Math.log(1.0 - random.nextDouble()));
+    }
+
+    /**
+     * Media de la exponencial redondeada: la suma para k >= 1 de
+     * P(X >= k - 1/2) = e^(-(k - 1/2)/media), un poco mayor que media
+     *
+     * @return esperanza de las muestras
+     */
+    public double getMedia() {
+        return Math.exp(0.5 / media) / Math.expm1(1.0 / media);
+    }
+}
@@ -0,0 +1,191 @@
+package aeropuerto;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Fila de aeronaves que esperan pista, por orden de llegada.
+ * <p/>
+ * Guarda los datos de cada solicitud en arrays de primitivos usados como
+ * buffer circular, que crece si hace falta, así que no crea objetos al
+ * poner ni al quitar aeronaves.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Controlador
+ */
+public class FilaEspera {
+    /**
+     * Capacidad inicial
+     */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /**
+     * Número de orden de cada solicitud, para comparar filas entre sí
+     */
+    private long[] orden = new long[CAPACIDAD_INICIAL];
+
+    /**
+     * Aeronave de cada solicitud
+     */
+    private int[] aeronave = new int[CAPACIDAD_INICIAL];
+
+    /**
+     * Tipo de operación de cada solicitud
+     */
+    private TipoOperacion[] tipo = new TipoOperacion[CAPACIDAD_INICIAL];
+
+    /**
+     * Instante del primer intento de cada solicitud
+     */
+    private long[] primerIntento = new long[CAPACIDAD_INICIAL];
+
+    /**
+     * Instante del fin del aterrizaje de la aeronave de cada solicitud
+     */
+    private long[] finAterrizaje = new long[CAPACIDAD_INICIAL];
+
+    /**
+     * Posición de la primera solicitud
+     */
+    private int cabeza = 0;
+
+    /**
+     * Número de solicitudes en la fila
+     */
+    private int tamano = 0;
+
+    /**
+     * Pone una solicitud al final de la fila
+     *
+     * @param numero     número de orden de la solicitud
+     * @param idAeronave aeronave que solicita pista
+     * @param operacion  tipo de operación
+     * @param intento    instante del primer intento de la operación
+     * @param aterrizaje instante del fin del aterrizaje de la aeronave
+     */
+    public void pon(long numero, int idAeronave, TipoOperacion operacion, long intento, long aterrizaje) {
+        if (tamano == aeronave.length)
+            crece();
+        int i = (cabeza + tamano) % aeronave.length;
+        orden[i] = numero;
+        aeronave[i] = idAeronave;
+        tipo[i] = operacion;
+        primerIntento[i] = intento;
+        finAterrizaje[i] = aterrizaje;
+        tamano++;
+    }
+
+    /**
+     * Quita la primera solicitud de la fila
+     *
+     * @throws IllegalStateException si la fila está vacía
+     */
+    public void quita() {
+        if (tamano == 0)
+            throw new IllegalStateException("FilaEspera: fila vacia");
+        tipo[cabeza] = null;
+        cabeza = (cabeza + 1) % aeronave.length;
+        tamano--;
+    }
+
+    /**
+     * @return número de orden de la primera solicitud
+     */
+    public long getOrden() {
+        return orden[cabeza];
+    }
+
+    /**
+     * @return aeronave de la primera solicitud
+     */
+    public int getAeronave() {
+        return aeronave[cabeza];
+    }
+
+    /**
+     * @return tipo de operación de la primera solicitud
+     */
+    public TipoOperacion getTipo() {
+        return tipo[cabeza];
+    }
+
+    /**
+     * @return instante del primer intento de la primera solicitud
+     */
+    public long getPrimerIntento() {
+        return primerIntento[cabeza];
+    }
+
+    /**
+     * @return instante del fin del aterrizaje de la aeronave de la primera solicitud
+     */
+    public long getFinAterrizaje() {
+        return finAterrizaje[cabeza];
+    }
+
+    /**
+     * @return número de solicitudes en la fila
+     */
+    public int getNroEsperando() {
+        return tamano;
+    }
+
+    /**
+     * Escribe la fila en un punto de control, de la primera a la última solicitud
+     *
+     * @param salida donde se escribe
+     * @throws IOException si hay problemas al escribir
+     */
+    void escribe(DataOutput salida) throws IOException {
+        salida.writeInt(tamano);
+        for (int k = 0; k < tamano; k++) {
+            int i = (cabeza + k) % aeronave.length;
+            salida.writeLong(orden[i]);
+            salida.writeInt(aeronave[i]);
+            salida.writeByte(tipo[i].ordinal());
+            salida.writeLong(primerIntento[i]);
+            salida.writeLong(finAterrizaje[i]);
+        }
+    }
+
+    /**
+     * Lee la fila de un punto de control, detrás de las solicitudes que ya tenga
+     *
+     * @param entrada de donde se lee
+     * @throws IOException si hay problemas al leer
+     */
+    void lee(DataInput entrada) throws IOException {
+        int n = entrada.readInt();
+        for (int k = 0; k < n; k++)
+            pon(entrada.readLong(), entrada.readInt(), TipoOperacion.values()[entrada.readByte()],
+                    entrada.readLong(), entrada.readLong());
+    }
+
+    /**
+     * Duplica la capacidad, dejando la primera solicitud en la posición 0
+     */
+    private void crece() {
+        int capacidad = aeronave.length * 2;
+        long[] o = new long[capacidad];
+        int[] a = new int[capacidad];
+        TipoOperacion[] t = new TipoOperacion[capacidad];
+        long[] p = new long[capacidad];
+        long[] f = new long[capacidad];
+        for (int k = 0; k < tamano; k++) {
+            int i = (cabeza + k) % aeronave.length;
+            o[k] = orden[i];
+            a[k] = aeronave[i];
+            t[k] = tipo[i];
+            p[k] = primerIntento[i];
+            f[k] = finAterrizaje[i];
+        }
+        orden = o;
+        aeronave = a;
+        tipo = t;
+        primerIntento = p;
+        finAterrizaje = f;
+        cabeza = 0;
+    }
+}
@@ -0,0 +1,43 @@
+package aeropuerto;
+
+/**
+ * Fuente de los instantes de llegada de las aeronaves, cuando no se
+ * generan al azar sino que se reproducen de datos grabados o reales.
+ * <p/>
+ * Entrega los instantes de uno en uno y en orden no decreciente, leyéndolos
+ * a medida que se piden, así que una fuente de millones de llegadas ocupa
+ * la misma memoria que una de diez. El Generador convierte esos instantes
+ * en intervalos entre llegadas, y con ellos alimenta a cualquiera de los
+ * motores sin que el Controlador note la diferencia.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Generador
+ * @see aeropuerto.TipoFuenteLlegadas
+ */
+public interface FuenteLlegadas {
+    /**
+     * Marca de que no quedan llegadas
+     */
+    long FIN = -1;
+
+    /**
+     * Siguiente instante de llegada
+     *
+     * @return instante de la siguiente llegada, o FIN si no quedan
+     * @throws IllegalStateException si los datos no se pueden leer o no están en orden
+     */
+    long siguiente();
+
+    /**
+     * Descarta las n llegadas siguientes, para continuar donde se quedó
+     * una simulación restaurada de un punto de control
+     *
+     * @param n número de llegadas que se descartan
+     */
+    default void salta(long n) {
+        for (long i = 0; i < n; i++)
+            if (siguiente() == FIN)
+                return;
+    }
+}
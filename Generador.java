@@ -1,10 +1,25 @@
 package aeropuerto;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Generador aleatorio de tiempos, según los parametros definidos
  * para las distintas distribuciones aleatorias.
+ * <p/>
+ * Las variables salen de un solo flujo de números aleatorios o de un flujo
+ * por propósito (llegadas, asistencia en tierra y reintentos), según el
+ * parámetro generador.flujos (ver TipoFlujos). Cuenta también los
+ * intervalos entre llegadas que genera, cuya media tiene esperanza conocida
+ * y sirve de variable de control al resumir réplicas (ver ResumenReplicas).
  *
  * @author Javier López Medina
  * @version 1.0
@@ -17,10 +32,70 @@ public class Generador {
      */
     private Parametros parametros;
 
-    /*
-    * Generador de números aleatorios
-    */
-    private Random random;
+    /**
+     * Flujo del intervalo entre llegadas
+     */
+    private Flujo llegadas;
+
+    /**
+     * Flujo de la asistencia en tierra (el mismo que llegadas con un solo flujo)
+     */
+    private Flujo tierra;
+
+    /**
+     * Flujo de las demoras de reintento (el mismo que llegadas con un solo flujo)
+     */
+    private Flujo reintento;
+
+    /**
+     * Distribución del intervalo entre llegadas
+     */
+    private DistribucionLlegadas distribucionLlegadas;
+
+    /**
+     * Número de normales que se generan de una vez con el método ziggurat
+     */
+    private static final int BLOQUE_NORMALES = 256;
+
+    /**
+     * Contador de aeronaves generadas, para identificarlas
+     */
+    private int contadorAeronaves = 0;
+
+    /**
+     * Número de intervalos entre llegadas generados
+     */
+    private long nroLlegadas = 0;
+
+    /**
+     * Suma de los intervalos entre llegadas generados
+     */
+    private long sumaEntreLlegadas = 0;
+
+    /**
+     * Fuente de los instantes de llegada, o null si las llegadas se generan al azar
+     */
+    private FuenteLlegadas fuente;
+
+    /**
+     * Llegadas leídas de la fuente
+     */
+    private long leidas = 0;
+
+    /**
+     * Instante de la última llegada leída de la fuente
+     */
+    private long ultimaLlegada = 0;
+
+    /**
+     * Intervalo entre llegadas que indica que la fuente de llegadas se ha agotado
+     */
+    public static final int SIN_LLEGADAS = -1;
+
+    /**
+     * Marcas del tipo de flujo aleatorio en un punto de control
+     */
+    private static final byte FLUJO_XOROSHIRO = 0, FLUJO_RANDOM = 1;
 
     /**
      * Constructor. Inicializa el generador de eventos, con los parámetros indicados.
@@ -33,41 +108,384 @@ public class Generador {
         if (parametros == null)
             throw new IllegalArgumentException("Generador " + parametros);
         this.parametros = parametros;
+        distribucionLlegadas = creaDistribucion(parametros);
+        fuente = creaFuente(parametros);
         // Inicializa generador de números aleatorios
         long semilla = parametros.getSemilla();
-        if (semilla == 0)
-            random = new Random();
-        else
-            random = new Random(semilla);
+        if (parametros.getFlujos() == TipoFlujos.SEPARADOS) {
+            // Una semilla por flujo, sacada de la de los parámetros
+            SplittableRandom raiz = (semilla == 0) ? new SplittableRandom() : new SplittableRandom(semilla);
+            llegadas = new Flujo(creaFlujo(parametros, raiz.nextLong()), parametros);
+            tierra = new Flujo(creaFlujo(parametros, raiz.nextLong()), parametros);
+            reintento = new Flujo(creaFlujo(parametros, raiz.nextLong()), parametros);
+        } else {
+            RandomGenerator random;
+            if (parametros.getNormal() == TipoNormal.ZIGGURAT)
+                random = new Xoroshiro128((semilla == 0) ? System.nanoTime() : semilla);
+            else if (semilla == 0)
+                random = new Random();
+            else
+                random = new Random(semilla);
+            llegadas = tierra = reintento = new Flujo(random, parametros);
+        }
+    }
+
+    /**
+     * Constructor. Inicializa el generador de eventos, con los parámetros indicados
+     * y un flujo de números aleatorios propio, ignorando la semilla de los parámetros.
+     * Permite dar a cada réplica de una simulación un flujo independiente.
+     *
+     * @param parametros de las distribuciones aleatorias
+     * @param random     flujo de números aleatorios
+     * @throws IllegalArgumentException si parametros o random es NULL
+     * @see aeropuerto.Replicador
+     */
+    public Generador(Parametros parametros, RandomGenerator random) {
+        if (parametros == null || random == null)
+            throw new IllegalArgumentException("Generador " + parametros + " " + random);
+        this.parametros = parametros;
+        distribucionLlegadas = creaDistribucion(parametros);
+        fuente = creaFuente(parametros);
+        if (parametros.getFlujos() == TipoFlujos.SEPARADOS) {
+            llegadas = new Flujo(subflujo(random), parametros);
+            tierra = new Flujo(subflujo(random), parametros);
+            reintento = new Flujo(subflujo(random), parametros);
+        } else {
+            llegadas = tierra = reintento = new Flujo(random, parametros);
+        }
+    }
+
+    /**
+     * Crea el flujo aleatorio de un propósito con su semilla
+     *
+     * @param parametros de las distribuciones aleatorias
+     * @param semilla    semilla del flujo
+     * @return Xoroshiro128 con el método ziggurat y java.util.Random con el polar
+     */
+    private static RandomGenerator creaFlujo(Parametros parametros, long semilla) {
+        if (parametros.getNormal() == TipoNormal.ZIGGURAT)
+            return new Xoroshiro128(semilla);
+        return new Random(semilla);
+    }
+
+    /**
+     * Saca de un flujo aleatorio otro independiente: lo divide si es
+     * divisible (SplittableRandom), conserva el carácter antitético (ver
+     * Antitetico) y, si no, siembra un Xoroshiro128 con un long del flujo.
+     *
+     * @param random flujo del que se saca el subflujo
+     * @return subflujo
+     */
+    static RandomGenerator subflujo(RandomGenerator random) {
+        if (random instanceof Antitetico)
+            return ((Antitetico) random).subflujo();
+        if (random instanceof RandomGenerator.SplittableGenerator)
+            return ((RandomGenerator.SplittableGenerator) random).split();
+        return new Xoroshiro128(random.nextLong());
+    }
+
+    /**
+     * Escribe el estado del generador en un punto de control: contador de
+     * aeronaves, intervalos entre llegadas generados, llegadas leídas de la
+     * fuente y, por cada flujo, su bloque de normales pendientes y su estado.
+     * Solo se puede guardar el estado de Xoroshiro128 y java.util.Random
+     * (este último serializado, para conservar la normal que tenga guardada).
+     *
+     * @param salida donde se escribe
+     * @throws IOException si hay problemas al escribir o el flujo no se puede guardar
+     */
+    void escribe(DataOutput salida) throws IOException {
+        salida.writeInt(contadorAeronaves);
+        salida.writeLong(nroLlegadas);
+        salida.writeLong(sumaEntreLlegadas);
+        salida.writeLong(leidas);
+        salida.writeLong(ultimaLlegada);
+        salida.writeByte((llegadas == tierra) ? 1 : 3);
+        llegadas.escribe(salida);
+        if (llegadas != tierra) {
+            tierra.escribe(salida);
+            reintento.escribe(salida);
+        }
+    }
+
+    /**
+     * Lee el estado del generador de un punto de control, sustituyendo
+     * los flujos aleatorios actuales. La fuente de llegadas, si la hay, se
+     * vuelve a abrir y se lee hasta donde se había quedado.
+     *
+     * @param entrada de donde se lee
+     * @throws IOException si hay problemas al leer o el punto de control no corresponde
+     *                     a los flujos o al método de generación de normales de los parámetros
+     */
+    void lee(DataInput entrada) throws IOException {
+        contadorAeronaves = entrada.readInt();
+        nroLlegadas = entrada.readLong();
+        sumaEntreLlegadas = entrada.readLong();
+        leidas = entrada.readLong();
+        ultimaLlegada = entrada.readLong();
+        if (fuente != null) {
+            fuente = creaFuente(parametros);
+            fuente.salta(leidas);
+        }
+        int nroFlujos = entrada.readByte();
+        if (nroFlujos != ((llegadas == tierra) ? 1 : 3))
+            throw new IOException("Generador: " + nroFlujos + " flujos en el punto de control");
+        llegadas.lee(entrada);
+        if (llegadas != tierra) {
+            tierra.lee(entrada);
+            reintento.lee(entrada);
+        }
+    }
+
+    /**
+     * Flujo de números aleatorios, con su bloque de normales si se generan
+     * con el método ziggurat.
+     */
+    private static class Flujo {
+        /**
+         * Generador de números aleatorios
+         */
+        private RandomGenerator random;
+
+        /**
+         * Normales tipificadas generadas por adelantado (método ziggurat),
+         * o null si se generan una a una (método polar)
+         */
+        private final double[] normales;
+
+        /**
+         * Siguiente normal de normales que se entrega
+         */
+        private int siguienteNormal;
+
+        /**
+         * Reserva el bloque de normales, si los parámetros piden el método ziggurat.
+         * El bloque se llena la primera vez que se pide una normal.
+         *
+         * @param random     generador de números aleatorios
+         * @param parametros de las distribuciones aleatorias
+         */
+        Flujo(RandomGenerator random, Parametros parametros) {
+            this.random = random;
+            if (parametros.getNormal() == TipoNormal.ZIGGURAT) {
+                normales = new double[BLOQUE_NORMALES];
+                siguienteNormal = BLOQUE_NORMALES;
+            } else {
+                normales = null;
+            }
+        }
+
+        /**
+         * Siguiente normal tipificada, del bloque o del generador.
+         * Si el flujo es antitético, el bloque se llena con las normales
+         * del original cambiadas de signo.
+         *
+         * @return muestra de la normal N(0,1)
+         */
+        double normal() {
+            if (normales == null)
+                return random.nextGaussian();
+            if (siguienteNormal == normales.length) {
+                if (random instanceof Antitetico) {
+                    ZigguratNormal.llena(normales, ((Antitetico) random).getOriginal());
+                    for (int i = 0; i < normales.length; i++)
+                        normales[i] = -normales[i];
+                } else {
+                    ZigguratNormal.llena(normales, random);
+                }
+                siguienteNormal = 0;
+            }
+            return normales[siguienteNormal++];
+        }
+
+        /**
+         * Escribe el estado del flujo: bloque de normales pendientes y generador
+         *
+         * @param salida donde se escribe
+         * @throws IOException si hay problemas al escribir o el generador no se puede guardar
+         */
+        void escribe(DataOutput salida) throws IOException {
+            salida.writeInt(siguienteNormal);
+            salida.writeInt((normales == null) ? -1 : normales.length);
+            if (normales != null)
+                for (double n : normales)
+                    salida.writeDouble(n);
+            if (random instanceof Xoroshiro128) {
+                Xoroshiro128 x = (Xoroshiro128) random;
+                salida.writeByte(FLUJO_XOROSHIRO);
+                salida.writeLong(x.getEstado0());
+                salida.writeLong(x.getEstado1());
+            } else if (random.getClass() == Random.class) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ObjectOutputStream objetos = new ObjectOutputStream(bytes)) {
+                    objetos.writeObject(random);
+                }
+                salida.writeByte(FLUJO_RANDOM);
+                salida.writeInt(bytes.size());
+                salida.write(bytes.toByteArray());
+            } else {
+                throw new IOException("Generador: no se puede guardar el estado de "
+                        + random.getClass().getName());
+            }
+        }
+
+        /**
+         * Lee el estado del flujo, sustituyendo el generador actual
+         *
+         * @param entrada de donde se lee
+         * @throws IOException si hay problemas al leer o el bloque de normales no corresponde
+         */
+        void lee(DataInput entrada) throws IOException {
+            siguienteNormal = entrada.readInt();
+            int nroNormales = entrada.readInt();
+            if (nroNormales != ((normales == null) ? -1 : normales.length))
+                throw new IOException("Generador: bloque de normales distinto en el punto de control");
+            for (int i = 0; i < nroNormales; i++)
+                normales[i] = entrada.readDouble();
+            byte flujo = entrada.readByte();
+            if (flujo == FLUJO_XOROSHIRO) {
+                random = new Xoroshiro128(entrada.readLong(), entrada.readLong());
+            } else if (flujo == FLUJO_RANDOM) {
+                byte[] bytes = new byte[entrada.readInt()];
+                entrada.readFully(bytes);
+                try (ObjectInputStream objetos = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    random = (Random) objetos.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Generador: " + e);
+                }
+            } else {
+                throw new IOException("Generador: flujo aleatorio desconocido " + flujo);
+            }
+        }
+    }
+
+    /**
+     * Crea la distribución del intervalo entre llegadas que indican los parámetros
+     *
+     * @param parametros de las distribuciones aleatorias
+     * @return distribución del intervalo entre llegadas
+     */
+    private static DistribucionLlegadas creaDistribucion(Parametros parametros) {
+        double media = parametros.getEntreLlegadas();
+        switch (parametros.getDistribucionLlegadas()) {
+            case POISSON_PTRS:
+                return new PoissonPtrs(media);
+            case EXPONENCIAL:
+                return new ExponencialInversa(media);
+            case EMPIRICA:
+                return TablaAlias.lee(parametros.getEmpiricaLlegadas());
+            default:
+                return new PoissonKnuth(media);
+        }
+    }
+
+    /**
+     * Crea la fuente de llegadas que indican los parámetros
+     *
+     * @param parametros de las llegadas
+     * @return fuente de llegadas, o null si las llegadas se generan al azar
+     * @throws IllegalArgumentException si el fichero de llegadas no existe
+     */
+    private static FuenteLlegadas creaFuente(Parametros parametros) {
+        try {
+            switch (parametros.getFuenteLlegadas()) {
+                case TRAZA:
+                    return new LlegadasTraza(parametros.getFicheroLlegadas());
+                case CSV:
+                    return new LlegadasCsv(parametros.getFicheroLlegadas());
+                default:
+                    return null;
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Generador: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Asigna identificador a una nueva aeronave.
+     * Cada simulación numera sus aeronaves desde 1.
+     *
+     * @return identificador de la nueva aeronave
+     */
+    public int nuevaAeronave() {
+        return ++contadorAeronaves;
     }
 
     /**
      * Genera aleatoriamente el intervalo entre dos llegadas
      * consecutivas de aeronaves al aeropuerto.
-     * El intervalo entre llegadas sigue una distribución de Poisson.
+     * El intervalo entre llegadas sigue la distribución que indica el parámetro
+     * distribucion.llegadas; por defecto, una distribución de Poisson.
+     * Si las llegadas salen de una fuente (parámetro llegadas.fuente), el
+     * intervalo es el que hay desde la última llegada leída de ella.
      *
-     * @return tiempo hasta la próxima llegada
+     * @return tiempo hasta la próxima llegada, o SIN_LLEGADAS si la fuente se ha agotado
+     * @throws IllegalStateException si la fuente no se puede leer
+     * @see aeropuerto.TipoDistribucion
+     * @see aeropuerto.TipoFuenteLlegadas
      */
     public int entreLlegadas() {
-        double lambda = parametros.getEntreLlegadas();
-        double eLambda = Math.exp(-lambda);
-        double producto = 1.0;
-        int resultado = 0;
-        for (int contador = 0; producto >= eLambda; contador++) {
-            producto *= random.nextDouble();
-            resultado = contador;
+        int intervalo;
+        if (fuente == null) {
+            intervalo = distribucionLlegadas.muestra(llegadas.random);
+        } else {
+            long llegada = fuente.siguiente();
+            if (llegada == FuenteLlegadas.FIN)
+                return SIN_LLEGADAS;
+            if (llegada - ultimaLlegada > Integer.MAX_VALUE)
+                throw new IllegalStateException("Generador: intervalo entre llegadas demasiado largo hasta " + llegada);
+            intervalo = (int) (llegada - ultimaLlegada);
+            ultimaLlegada = llegada;
+            leidas++;
         }
-        return resultado;
+        nroLlegadas++;
+        sumaEntreLlegadas += intervalo;
+        return intervalo;
+    }
+
+    /**
+     * @return número de intervalos entre llegadas generados
+     */
+    public long getNroLlegadas() {
+        return nroLlegadas;
+    }
+
+    /**
+     * @return suma de los intervalos entre llegadas generados
+     */
+    public long getSumaEntreLlegadas() {
+        return sumaEntreLlegadas;
+    }
+
+    /**
+     * Vuelve a contar los intervalos entre llegadas desde cero,
+     * cuando se borran los acumuladores de la estadística
+     */
+    public void reiniciaLlegadas() {
+        nroLlegadas = 0;
+        sumaEntreLlegadas = 0;
+    }
+
+    /**
+     * Esperanza del intervalo entre llegadas con los parámetros indicados,
+     * según su distribución (ver DistribucionLlegadas.getMedia)
+     *
+     * @param parametros de las distribuciones aleatorias
+     * @return esperanza del intervalo entre llegadas
+     */
+    public static double esperanzaEntreLlegadas(Parametros parametros) {
+        return creaDistribucion(parametros).getMedia();
     }
 
     /**
      * Genera aleatoriamente la duración de una asistencia en tierra
-     * Responde a una distribución normal (campana de Gauss).
+     * Responde a una distribución normal (campana de Gauss),
+     * generada con el método que indica el parámetro generador.normal.
      *
      * @return duración de asistencia en tierra
      */
     public int duracionEnTierra() {
-        double duracion = random.nextGaussian();
+        double duracion = tierra.normal();
         duracion *= parametros.getDuracionDesviacion();
         duracion += parametros.getDuracionMedia();
         if (duracion < parametros.getDuracionMinima())
@@ -75,18 +493,45 @@ public class Generador {
         return (int) Math.round(duracion);
     }
 
+    /**
+     * Duración de la asistencia en tierra de una aeronave concreta.
+     * Aquí es una muestra nueva, como duracionEnTierra(); las variables
+     * comunes (ver VariablesComunes) dan a cada aeronave siempre la misma.
+     *
+     * @param aeronave identificador de la aeronave
+     * @return duración de asistencia en tierra
+     */
+    public int duracionEnTierra(int aeronave) {
+        return duracionEnTierra();
+    }
+
     /**
      * Genera aleatoriamente el tiempo de espera para
      * reintento de utilización de pista.
-     * Responde a una distribución normal (campana de Gauss).
+     * Responde a una distribución normal (campana de Gauss), truncada en 0:
+     * un reintento nunca se programa antes de la solicitud que lo provoca,
+     * que es lo que exigen las colas monótonas (ver TipoCola.RADIX).
      *
-     * @return demora
+     * @return demora, no negativa
      */
     public int demoraReintento() {
-        double demora = random.nextGaussian();
+        double demora = reintento.normal();
         demora *= parametros.getDemoraDesviacion();
         demora += parametros.getDemoraMedia();
-        return (int) Math.round(demora);
+        return (int) Math.max(0, Math.round(demora));
+    }
+
+    /**
+     * Genera aleatoriamente lo que le falta a una aeronave que espera
+     * pista para su siguiente reintento, cuando se libera una pista:
+     * una fracción uniforme de una demora de reintento.
+     * Emula la espera del modo REINTENTO en los modos con fila (ver TipoEspera).
+     *
+     * @return demora hasta ocupar la pista liberada
+     */
+    public int residuoReintento() {
+        double fraccion = reintento.random.nextDouble();
+        return (int) Math.round(fraccion * demoraReintento());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,279 @@
+package aeropuerto;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histograma de valores enteros no negativos (tiempos en segundos)
+ * con cubos de anchura logarítmica, al estilo de HdrHistogram.
+ * <p/>
+ * Los valores menores que 2^PRECISION tienen un cubo cada uno. Por encima,
+ * cada potencia de 2 se divide en 2^(PRECISION-1) cubos iguales, así que el
+ * error relativo de cualquier valor es menor que 1/2^(PRECISION-1) (<1%).
+ * La memoria es fija: solo depende del valor máximo que se quiere distinguir,
+ * no del número de valores registrados. Los valores mayores se cuentan en el
+ * último cubo, aunque el máximo exacto se conserva.
+ * <p/>
+ * Dos histogramas del mismo tamaño se pueden sumar, por ejemplo para juntar
+ * los resultados de varias réplicas.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Estadistica
+ */
+public class Histograma {
+    /**
+     * Bits de precisión de cada cubo
+     */
+    private static final int PRECISION = 7;
+
+    /**
+     * Número de cubos con un solo valor
+     */
+    private static final int EXACTOS = 1 << PRECISION;
+
+    /**
+     * Cubos en que se divide cada potencia de 2
+     */
+    private static final int MITAD = EXACTOS >> 1;
+
+    /**
+     * Mayor valor que se distingue por defecto: 2^31 segundos, unos 68 años
+     */
+    public static final long MAXIMO_DEFECTO = 1L << 31;
+
+    /**
+     * Cuenta de valores de cada cubo
+     */
+    private final long[] cuentas;
+
+    /**
+     * Número de valores registrados
+     */
+    private long nroValores = 0;
+
+    /**
+     * Suma de los valores registrados, para la media
+     */
+    private double suma = 0;
+
+    /**
+     * Menor valor registrado
+     */
+    private long minimo = Long.MAX_VALUE;
+
+    /**
+     * Mayor valor registrado
+     */
+    private long maximo = 0;
+
+    /**
+     * Histograma que distingue valores hasta MAXIMO_DEFECTO
+     */
+    public Histograma() {
+        this(MAXIMO_DEFECTO);
+    }
+
+    /**
+     * Histograma que distingue valores hasta el máximo indicado
+     *
+     * @param maximoDistinguible mayor valor con su propio cubo (mayor que 0)
+     * @throws IllegalArgumentException si el máximo no es positivo
+     */
+    public Histograma(long maximoDistinguible) {
+        if (maximoDistinguible < 1)
+            throw new IllegalArgumentException("Histograma: maximo " + maximoDistinguible);
+        cuentas = new long[indice(maximoDistinguible) + 1];
+    }
+
+    /**
+     * Copia de otro histograma
+     *
+     * @param otro histograma que se copia
+     */
+    public Histograma(Histograma otro) {
+        cuentas = otro.cuentas.clone();
+        nroValores = otro.nroValores;
+        suma = otro.suma;
+        minimo = otro.minimo;
+        maximo = otro.maximo;
+    }
+
+    /**
+     * Registra un valor
+     *
+     * @param valor a registrar (no negativo)
+     * @throws IllegalArgumentException si el valor es negativo
+     */
+    public void registra(long valor) {
+        if (valor < 0)
+            throw new IllegalArgumentException("Histograma: valor negativo " + valor);
+        cuentas[Math.min(indice(valor), cuentas.length - 1)]++;
+        nroValores++;
+        suma += valor;
+        if (valor < minimo) minimo = valor;
+        if (valor > maximo) maximo = valor;
+    }
+
+    /**
+     * Suma a este histograma los valores de otro
+     *
+     * @param otro histograma que se suma
+     * @throws IllegalArgumentException si los histogramas no tienen el mismo tamaño
+     */
+    public void suma(Histograma otro) {
+        if (otro.cuentas.length != cuentas.length)
+            throw new IllegalArgumentException("Histograma: tamanos distintos "
+                    + cuentas.length + " y " + otro.cuentas.length);
+        for (int i = 0; i < cuentas.length; i++)
+            cuentas[i] += otro.cuentas[i];
+        nroValores += otro.nroValores;
+        suma += otro.suma;
+        minimo = Math.min(minimo, otro.minimo);
+        maximo = Math.max(maximo, otro.maximo);
+    }
+
+    /**
+     * Borra todos los valores registrados
+     */
+    public void reinicia() {
+        Arrays.fill(cuentas, 0);
+        nroValores = 0;
+        suma = 0;
+        minimo = Long.MAX_VALUE;
+        maximo = 0;
+    }
+
+    /**
+     * @return número de valores registrados
+     */
+    public long getNroValores() {
+        return nroValores;
+    }
+
+    /**
+     * @return menor valor registrado, 0 si no hay ninguno
+     */
+    public long getMinimo() {
+        return (nroValores > 0) ? minimo : 0;
+    }
+
+    /**
+     * @return mayor valor registrado, 0 si no hay ninguno
+     */
+    public long getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * @return media de los valores registrados, 0 si no hay ninguno
+     */
+    public double getMedia() {
+        return (nroValores > 0) ? suma / nroValores : 0;
+    }
+
+    /**
+     * Percentil de los valores registrados: el menor valor tal que
+     * al menos ese porcentaje de valores es menor o igual. Se da el
+     * mayor valor del cubo, sin pasar del máximo registrado; en el último
+     * cubo, que recoge también los valores fuera de rango, el máximo.
+     *
+     * @param porcentaje entre 0 y 100
+     * @return percentil, 0 si no hay valores
+     * @throws IllegalArgumentException si el porcentaje no está entre 0 y 100
+     */
+    public long getPercentil(double porcentaje) {
+        if (!(porcentaje >= 0 && porcentaje <= 100))
+            throw new IllegalArgumentException("Histograma: percentil " + porcentaje);
+        if (nroValores == 0)
+            return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(porcentaje / 100 * nroValores));
+        long acumulado = 0;
+        for (int i = 0; i < cuentas.length; i++) {
+            acumulado += cuentas[i];
+            if (acumulado >= objetivo && i < cuentas.length - 1)
+                return Math.max(getMinimo(), Math.min(maximo, mayorDelCubo(i)));
+        }
+        return maximo;
+    }
+
+    /**
+     * Escribe el histograma en un punto de control. Solo se escriben
+     * los cubos con algún valor.
+     *
+     * @param salida donde se escribe
+     * @throws IOException si hay problemas al escribir
+     */
+    void escribe(DataOutput salida) throws IOException {
+        int usados = 0;
+        for (long c : cuentas)
+            if (c != 0) usados++;
+        salida.writeInt(cuentas.length);
+        salida.writeLong(nroValores);
+        salida.writeDouble(suma);
+        salida.writeLong(minimo);
+        salida.writeLong(maximo);
+        salida.writeInt(usados);
+        for (int i = 0; i < cuentas.length; i++)
+            if (cuentas[i] != 0) {
+                salida.writeInt(i);
+                salida.writeLong(cuentas[i]);
+            }
+    }
+
+    /**
+     * Lee el histograma de un punto de control, sustituyendo sus valores
+     *
+     * @param entrada de donde se lee
+     * @throws IOException si hay problemas al leer o el histograma no es de este tamaño
+     */
+    void lee(DataInput entrada) throws IOException {
+        if (entrada.readInt() != cuentas.length)
+            throw new IOException("Histograma: tamano distinto en el punto de control");
+        reinicia();
+        nroValores = entrada.readLong();
+        suma = entrada.readDouble();
+        minimo = entrada.readLong();
+        maximo = entrada.readLong();
+        int usados = entrada.readInt();
+        for (int u = 0; u < usados; u++) {
+            int i = entrada.readInt();
+            cuentas[i] = entrada.readLong();
+        }
+    }
+
+    /**
+     * Cubo de un valor
+     */
+    private static int indice(long valor) {
+        if (valor < EXACTOS)
+            return (int) valor;
+        int exponente = 63 - Long.numberOfLeadingZeros(valor) - (PRECISION - 1);
+        return exponente * MITAD + (int) (valor >>> exponente);
+    }
+
+    /**
+     * Mayor valor que cae en un cubo
+     */
+    private static long mayorDelCubo(int indice) {
+        if (indice < EXACTOS)
+            return indice;
+        int exponente = indice / MITAD - 1;
+        long sub = indice - (long) exponente * MITAD;
+        return ((sub + 1) << exponente) - 1;
+    }
+
+    /**
+     * @return resumen del histograma: valores, media y percentiles 50, 95 y 99
+     */
+    public String toString() {
+        return "N: " + nroValores
+                + "\tMedia: " + Math.round(getMedia() * 100) / 100.0
+                + "\tp50: " + getPercentil(50)
+                + "\tp95: " + getPercentil(95)
+                + "\tp99: " + getPercentil(99)
+                + "\tMax: " + maximo;
+    }
+}
@@ -0,0 +1,76 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+/**
+ * Pruebas de Histograma: percentiles con error acotado y suma de histogramas.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class HistogramaTest extends TestCase {
+
+    /**
+     * Los valores pequeños tienen cubo propio y sus percentiles son exactos
+     */
+    public void testPercentilesExactosEnValoresPequenos() {
+        Histograma h = new Histograma();
+        for (int v = 1; v <= 100; v++)
+            h.registra(v);
+        assertEquals(100, h.getNroValores());
+        assertEquals(50, h.getPercentil(50));
+        assertEquals(95, h.getPercentil(95));
+        assertEquals(1, h.getPercentil(0));
+        assertEquals(100, h.getPercentil(100));
+        assertEquals(50.5, h.getMedia(), 1e-9);
+    }
+
+    /**
+     * En valores grandes el error relativo es menor que el 1%
+     */
+    public void testErrorRelativoAcotado() {
+        Histograma h = new Histograma();
+        for (int v = 1; v <= 1000000; v++)
+            h.registra(v);
+        for (double p : new double[]{10, 50, 90, 99, 99.9}) {
+            double exacto = p * 10000;
+            assertEquals(exacto, h.getPercentil(p), exacto * 0.01);
+        }
+        assertEquals(1000000, h.getMaximo());
+        assertEquals(1, h.getMinimo());
+    }
+
+    /**
+     * Sumar dos histogramas es lo mismo que registrar todos los valores en uno
+     */
+    public void testSuma() {
+        Histograma a = new Histograma();
+        Histograma b = new Histograma();
+        Histograma todos = new Histograma();
+        for (int v = 0; v < 5000; v++) {
+            long valor = (v * 7919L) % 3001;
+            ((v % 2 == 0) ? a : b).registra(valor);
+            todos.registra(valor);
+        }
+        a.suma(b);
+        assertEquals(todos.toString(), a.toString());
+        try {
+            a.suma(new Histograma(1000));
+            fail("Sumar histogramas de distinto tamano deberia fallar");
+        } catch (IllegalArgumentException e) {
+            // esperado
+        }
+    }
+
+    /**
+     * Los valores mayores que el máximo distinguible se cuentan en el último cubo
+     */
+    public void testValoresFueraDeRango() {
+        Histograma h = new Histograma(1000);
+        h.registra(10);
+        h.registra(1000000);
+        assertEquals(2, h.getNroValores());
+        assertEquals(1000000, h.getMaximo());
+        assertEquals(1000000, h.getPercentil(100));
+    }
+}
@@ -0,0 +1,47 @@
+package aeropuerto;
+
+/**
+ * Indicadores que se miden por lotes de tiempo en una simulación
+ * estacionaria, a partir de dos instantáneas de la estadística, al
+ * principio y al final del lote:
+ * EN_AEROPUERTO = número medio de aeronaves en el aeropuerto durante el lote;
+ * EN_PISTAS = número medio de aeronaves en las pistas durante el lote;
+ * DEMORA = demora media de las operaciones (aterrizajes y despegues) que
+ * obtuvieron pista durante el lote, 0 si no hubo ninguna.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.AnalizadorEstacionario
+ */
+public enum IndicadorLotes {
+    EN_AEROPUERTO, EN_PISTAS, DEMORA;
+
+    /**
+     * Valor del indicador en un lote
+     *
+     * @param anterior instantánea al principio del lote
+     * @param actual   instantánea al final del lote
+     * @param duracion duración del lote, en segundos
+     * @return valor del indicador en el lote
+     */
+    public double getValor(Estadistica anterior, Estadistica actual, long duracion) {
+        switch (this) {
+            case EN_AEROPUERTO:
+                return (double) (actual.getEnAeropuertoPorTiempo() - anterior.getEnAeropuertoPorTiempo()) / duracion;
+            case EN_PISTAS:
+                return (double) (actual.getEnPistasPorTiempo() - anterior.getEnPistasPorTiempo()) / duracion;
+            default:
+                long nro = actual.getDemoraAterrizajes().getNroValores() + actual.getDemoraDespegues().getNroValores()
+                        - anterior.getDemoraAterrizajes().getNroValores() - anterior.getDemoraDespegues().getNroValores();
+                return (nro > 0) ? (suma(actual) - suma(anterior)) / nro : 0;
+        }
+    }
+
+    /**
+     * Suma de las demoras de aterrizajes y despegues de una estadística
+     */
+    private static double suma(Estadistica e) {
+        return e.getDemoraAterrizajes().getMedia() * e.getDemoraAterrizajes().getNroValores()
+                + e.getDemoraDespegues().getMedia() * e.getDemoraDespegues().getNroValores();
+    }
+}
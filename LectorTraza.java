@@ -0,0 +1,217 @@
+package aeropuerto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lector de una traza escrita por TrazaEventos.
+ * <p/>
+ * Recorre los eventos segmento a segmento sobre la proyección en memoria
+ * de cada fichero, sin copiarlos ni crear objetos por evento: siguiente
+ * decodifica el próximo evento y los getters devuelven sus campos. Se
+ * detiene en el segmento marcado como último en su cabecera, aunque haya
+ * más ficheros con el mismo nombre base.
+ * <pre>
+ * try (LectorTraza lector = new LectorTraza("traza")) {
+ *     while (lector.siguiente())
+ *         ... lector.getCuando(), lector.getAeronave() ...
+ * }
+ * </pre>
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.TrazaEventos
+ */
+public class LectorTraza implements Closeable {
+    /**
+     * Nombre base de los segmentos
+     */
+    private final String base;
+
+    /**
+     * Segmento en curso (null antes del primero y al acabar)
+     */
+    private MappedByteBuffer segmento;
+
+    /**
+     * Número del siguiente segmento que se abrirá
+     */
+    private int nroSegmento = 0;
+
+    /**
+     * Eventos que quedan por leer en el segmento en curso
+     */
+    private long quedan = 0;
+
+    /**
+     * Si el segmento en curso es el último de la traza
+     */
+    private boolean ultimo = false;
+
+    /*
+    * Campos del evento actual
+    */
+    private long cuando = 0;
+    private int aeronave = 0;
+    private int tipoEstado = 0;
+
+    /**
+     * Número de eventos leídos
+     */
+    private long nroLeidos = 0;
+
+    /**
+     * Crea el lector. Los segmentos se abren a medida que se leen.
+     *
+     * @param base nombre base de la traza
+     */
+    public LectorTraza(String base) {
+        this.base = base;
+    }
+
+    /**
+     * Avanza al siguiente evento
+     *
+     * @return FALSE si no quedan eventos
+     * @throws IOException si un segmento no se puede leer o no es de una traza
+     */
+    public boolean siguiente() throws IOException {
+        while (quedan == 0)
+            if (ultimo || !abreSegmento())
+                return false;
+        tipoEstado = segmento.get();
+        cuando += leeVarint();
+        long zigzag = leeVarint();
+        aeronave += (int) (zigzag >>> 1) ^ -(int) (zigzag & 1);
+        quedan--;
+        nroLeidos++;
+        return true;
+    }
+
+    /**
+     * Lee un valor escrito con TrazaEventos.escribeVarint
+     */
+    private long leeVarint() throws IOException {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 70; desplazamiento += 7) {
+            byte b = segmento.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if (b >= 0)
+                return valor;
+        }
+        throw new IOException("LectorTraza: varint incorrecto en " + TrazaEventos.nombreSegmento(base, nroSegmento - 1));
+    }
+
+    /**
+     * Proyecta el siguiente segmento, si existe, y lee su cabecera
+     *
+     * @return FALSE si la traza no tiene ningún segmento
+     * @throws IOException si falta un segmento antes del último, o no es de una traza
+     */
+    private boolean abreSegmento() throws IOException {
+        Path fichero = Paths.get(TrazaEventos.nombreSegmento(base, nroSegmento));
+        if (!Files.exists(fichero)) {
+            segmento = null;
+            if (nroSegmento > 0)
+                throw new IOException("LectorTraza: falta " + fichero);
+            return false;
+        }
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            segmento = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        nroSegmento++;
+        if (segmento.capacity() < TrazaEventos.CABECERA || segmento.getInt() != TrazaEventos.MAGICO)
+            throw new IOException("LectorTraza: " + fichero + " no es un segmento de traza");
+        cuando = segmento.getLong();
+        aeronave = segmento.getInt();
+        quedan = segmento.getLong();
+        long longitud = segmento.getLong();
+        ultimo = segmento.getInt() != 0;
+        if (longitud == 0)
+            throw new IOException("LectorTraza: " + fichero + " no se cerró");
+        segmento.limit((int) longitud);
+        return true;
+    }
+
+    /**
+     * @return instante del evento actual
+     */
+    public long getCuando() {
+        return cuando;
+    }
+
+    /**
+     * @return aeronave del evento actual
+     */
+    public int getAeronave() {
+        return aeronave;
+    }
+
+    /**
+     * @return tipo de operación del evento actual
+     */
+    public TipoOperacion getTipo() {
+        return TipoOperacion.values()[tipoEstado >> 3];
+    }
+
+    /**
+     * @return estado de la operación del evento actual
+     */
+    public EstadoOperacion getEstado() {
+        return EstadoOperacion.values()[(tipoEstado >> 1) & 3];
+    }
+
+    /**
+     * @return TRUE si el evento actual era una solicitud y obtuvo pista
+     */
+    public boolean isConcedida() {
+        return (tipoEstado & 1) != 0;
+    }
+
+    /**
+     * @return número de eventos leídos
+     */
+    public long getNroLeidos() {
+        return nroLeidos;
+    }
+
+    /**
+     * Suelta el segmento en curso
+     */
+    public void close() {
+        segmento = null;
+        quedan = 0;
+    }
+
+    /**
+     * Imprime los eventos de una traza, uno por línea: instante, aeronave,
+     * estado_tipo y, si obtuvo pista, un asterisco
+     *
+     * @param argumentos [nombre_base_de_la_traza]
+     * @throws IOException si hay problemas al leer la traza
+     */
+    public static void main(String[] argumentos)
+            throws IOException {
+        if (argumentos.length != 1) {
+            System.err.println("LectorTraza [nombre_base_traza]");
+            System.exit(1);
+        }
+        StringBuilder linea = new StringBuilder(64);
+        try (LectorTraza lector = new LectorTraza(argumentos[0])) {
+            while (lector.siguiente()) {
+                linea.setLength(0);
+                linea.append(lector.getCuando()).append('\t').append(lector.getAeronave()).append('\t')
+                        .append(lector.getEstado()).append('_').append(lector.getTipo());
+                if (lector.isConcedida())
+                    linea.append("\t*");
+                System.out.println(linea);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package aeropuerto;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Llegadas de un programa de vuelos en CSV: una línea por vuelo, con el
+ * instante de llegada en segundos desde el inicio de la simulación como
+ * primer campo (el resto de campos se ignora). El instante es un entero sin
+ * signo, entre comillas o no, seguido del fin de línea o de un separador
+ * (coma, punto y coma, tabulador, espacio o comillas); cualquier otra cosa
+ * (decimales, fechas, signos) es un error con el número de línea. Antes de
+ * la primera llegada se saltan las líneas que no empiezan por una cifra
+ * (cabecera, comentarios) y una marca de orden de bytes UTF-8 al principio
+ * del fichero; después, solo las líneas vacías. Las llegadas deben estar en
+ * orden no decreciente.
+ * <p/>
+ * El fichero no se lee entero: se proyecta en memoria por ventanas de
+ * VENTANA bytes y cada línea se analiza cuando se pide su llegada, sin
+ * crear objetos, así que un programa de un año con millones de vuelos se
+ * reproduce con memoria constante. Cada ventana empieza al principio de
+ * una línea; una línea no puede ser más larga que la ventana.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.FuenteLlegadas
+ */
+public class LlegadasCsv implements FuenteLlegadas {
+    /**
+     * Tamaño de la ventana del fichero proyectada en memoria
+     */
+    static final int VENTANA = 64 * 1024 * 1024;
+
+    /**
+     * Fichero CSV
+     */
+    private final Path fichero;
+
+    /**
+     * Tamaño del fichero
+     */
+    private final long tamano;
+
+    /**
+     * Tamaño de cada ventana
+     */
+    private final int ventana;
+
+    /**
+     * Ventana proyectada (null antes de la primera)
+     */
+    private MappedByteBuffer buffer;
+
+    /**
+     * Posición en el fichero del principio de la ventana
+     */
+    private long inicio = 0;
+
+    /**
+     * Número de líneas leídas, para los mensajes de error
+     */
+    private long nroLinea = 0;
+
+    /**
+     * Última llegada entregada
+     */
+    private long anterior = 0;
+
+    /**
+     * TRUE cuando ya se ha leído alguna llegada: a partir de ahí no hay cabeceras
+     */
+    private boolean datos = false;
+
+    /**
+     * Constructor
+     *
+     * @param fichero fichero CSV
+     * @throws IOException si el fichero no existe
+     */
+    public LlegadasCsv(String fichero) throws IOException {
+        this(fichero, VENTANA);
+    }
+
+    /**
+     * Constructor con otro tamaño de ventana
+     *
+     * @param fichero fichero CSV
+     * @param ventana tamaño de cada ventana, en bytes
+     * @throws IOException si el fichero no existe
+     */
+    LlegadasCsv(String fichero, int ventana) throws IOException {
+        this.fichero = Paths.get(fichero);
+        this.tamano = Files.size(this.fichero);
+        this.ventana = ventana;
+    }
+
+    public long siguiente() {
+        while (true) {
+            int fin = finLinea();
+            if (fin < 0)
+                return FIN;
+            nroLinea++;
+            int i = buffer.position();
+            if (inicio + i == 0 && fin >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB
+                    && buffer.get(2) == (byte) 0xBF)
+                i += 3;
+            while (i < fin && (buffer.get(i) == ' ' || buffer.get(i) == '\t' || buffer.get(i) == '"'))
+                i++;
+            long valor = 0;
+            int cifras = 0;
+            for (; i < fin; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9')
+                    break;
+                valor = valor * 10 + (b - '0');
+                cifras++;
+            }
+            byte siguiente = (i < fin) ? buffer.get(i) : (byte) '\n';
+            buffer.position(Math.min(fin + 1, buffer.limit()));
+            if (cifras == 0) {
+                if (siguiente == '\r' || siguiente == '\n' || (!datos && siguiente != '-' && siguiente != '+'))
+                    continue;
+                throw new IllegalStateException("LlegadasCsv: " + fichero + " la linea " + nroLinea
+                        + " no empieza por un instante");
+            }
+            if (!esSeparador(siguiente))
+                throw new IllegalStateException("LlegadasCsv: " + fichero + " instante no entero en la linea " + nroLinea);
+            if (cifras > 18)
+                throw new IllegalStateException("LlegadasCsv: " + fichero + " instante demasiado grande en la linea " + nroLinea);
+            if (valor < anterior)
+                throw new IllegalStateException("LlegadasCsv: " + fichero + " llegadas desordenadas en la linea " + nroLinea);
+            anterior = valor;
+            datos = true;
+            return valor;
+        }
+    }
+
+    /**
+     * @return TRUE si el carácter puede seguir al instante: fin de línea o separador de campos
+     */
+    private static boolean esSeparador(byte b) {
+        return b == '\n' || b == '\r' || b == ',' || b == ';' || b == '\t' || b == ' ' || b == '"';
+    }
+
+    /**
+     * Deja entera en la ventana la siguiente línea, proyectando una ventana
+     * nueva que empiece en ella si no cabe en la actual
+     *
+     * @return posición en la ventana del fin de la línea, o -1 si no quedan líneas
+     */
+    private int finLinea() {
+        if (buffer != null) {
+            int fin = buscaFin();
+            if (fin >= 0)
+                return fin;
+        }
+        long desde = (buffer == null) ? 0 : inicio + buffer.position();
+        if (desde >= tamano)
+            return -1;
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            buffer = canal.map(FileChannel.MapMode.READ_ONLY, desde, Math.min(ventana, tamano - desde));
+        } catch (IOException e) {
+            throw new IllegalStateException("LlegadasCsv: " + e.getMessage(), e);
+        }
+        inicio = desde;
+        int fin = buscaFin();
+        if (fin < 0)
+            throw new IllegalStateException("LlegadasCsv: " + fichero + " linea " + (nroLinea + 1)
+                    + " mas larga que la ventana");
+        return fin;
+    }
+
+    /**
+     * @return posición del '\n' que acaba la línea actual, el límite de la
+     * ventana si la línea acaba con el fichero, o -1 si no está entera en la ventana
+     */
+    private int buscaFin() {
+        int limite = buffer.limit();
+        for (int i = buffer.position(); i < limite; i++)
+            if (buffer.get(i) == '\n')
+                return i;
+        return (buffer.position() < limite && inicio + limite == tamano) ? limite : -1;
+    }
+}
@@ -0,0 +1,185 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Comprueba las fuentes de llegadas: el CSV se lee bien aunque las líneas
+ * crucen las ventanas, y una traza grabada o su programa en CSV reproducen
+ * las mismas llegadas con cualquier motor y cualquier controlador.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class LlegadasCsvTest extends TestCase {
+
+    private File directorio;
+
+    protected void setUp() throws Exception {
+        directorio = Files.createTempDirectory("llegadas").toFile();
+    }
+
+    protected void tearDown() {
+        File[] ficheros = directorio.listFiles();
+        if (ficheros != null)
+            for (File f : ficheros)
+                f.delete();
+        directorio.delete();
+    }
+
+    /**
+     * Cabecera con marca de orden de bytes, comentarios, comillas, líneas
+     * vacías y finales de línea de Windows, con ventanas más cortas que el fichero
+     */
+    public void testLectura() throws IOException {
+        File csv = new File(directorio, "vuelos.csv");
+        Files.write(csv.toPath(), ("\uFEFFllegada,vuelo,origen\r\n# comentario\r\n0,IB100,MAD\r\n"
+                + "  \"75\";VY200;BCN\r\n\r\n75\tUX300\tPMI\r\n123456,FR400,STN").getBytes("UTF-8"));
+        LlegadasCsv fuente = new LlegadasCsv(csv.getPath(), 32);
+        assertEquals(0, fuente.siguiente());
+        assertEquals(75, fuente.siguiente());
+        assertEquals(75, fuente.siguiente());
+        assertEquals(123456, fuente.siguiente());
+        assertEquals(FuenteLlegadas.FIN, fuente.siguiente());
+        assertEquals(FuenteLlegadas.FIN, fuente.siguiente());
+
+        fuente = new LlegadasCsv(csv.getPath(), 8);
+        try {
+            fuente.siguiente();
+            fail("Debería rechazar una línea más larga que la ventana");
+        } catch (IllegalStateException e) {
+            // correcto
+        }
+
+        Files.write(csv.toPath(), "10\n20\n15\n".getBytes("US-ASCII"));
+        fuente = new LlegadasCsv(csv.getPath());
+        fuente.salta(2);
+        try {
+            fuente.siguiente();
+            fail("Debería rechazar llegadas desordenadas");
+        } catch (IllegalStateException e) {
+            // correcto
+        }
+    }
+
+    /**
+     * Instantes con decimales, fechas o signo, y líneas sin instante
+     * después de la primera llegada, son errores con su número de línea
+     */
+    public void testLineasIncorrectas() throws IOException {
+        File csv = new File(directorio, "vuelos.csv");
+        String[] incorrectos = {"12.7,IB100", "2024-05-01T10:00,IB100", "-5,IB100", "10x", "IB100,12"};
+        for (String incorrecto : incorrectos) {
+            Files.write(csv.toPath(), ("llegada\n5\n" + incorrecto + "\n").getBytes("US-ASCII"));
+            LlegadasCsv fuente = new LlegadasCsv(csv.getPath());
+            assertEquals(5, fuente.siguiente());
+            try {
+                fuente.siguiente();
+                fail("Debería rechazar " + incorrecto);
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("linea 3"));
+            }
+        }
+        Files.write(csv.toPath(), "-5\n10\n".getBytes("US-ASCII"));
+        try {
+            new LlegadasCsv(csv.getPath()).siguiente();
+            fail("Debería rechazar un instante negativo antes de la primera llegada");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("linea 1"));
+        }
+    }
+
+    /**
+     * Las llegadas de una traza, reproducidas desde la traza o desde un CSV,
+     * con los dos motores y con otro número de pistas, son las grabadas
+     */
+    public void testReproduceTraza() throws IOException {
+        Properties p = propiedades("OBJETOS");
+        p.setProperty("traza.fichero", new File(directorio, "original").getPath());
+        List<Long> grabadas = simula(p, "original");
+        assertTrue(grabadas.size() > 500);
+
+        File csv = new File(directorio, "programa.csv");
+        try (PrintWriter salida = new PrintWriter(csv)) {
+            salida.println("llegada");
+            for (long llegada : grabadas)
+                salida.println(llegada);
+        }
+
+        String esperado = null;
+        for (String motor : new String[]{"OBJETOS", "PRIMITIVO"})
+            for (String fuente : new String[]{"TRAZA", "CSV"}) {
+                p = propiedades(motor);
+                p.setProperty("numero.pistas", "3");
+                p.setProperty("llegadas.fuente", fuente);
+                p.setProperty("llegadas.fichero", fuente.equals("TRAZA")
+                        ? new File(directorio, "original").getPath() : csv.getPath());
+                String nombre = motor + fuente;
+                p.setProperty("traza.fichero", new File(directorio, nombre).getPath());
+                assertEquals(nombre, grabadas, simula(p, nombre));
+                try (Simulador simulador = new Simulador(new Parametros(p))) {
+                    simulador.simulaBucle(HASTA);
+                    String estadistica = simulador.calculaEstadistica(HASTA).toString();
+                    if (esperado == null)
+                        esperado = estadistica;
+                    assertEquals(nombre, esperado, estadistica);
+                }
+            }
+    }
+
+    /**
+     * Una simulación con llegadas de un CSV se reanuda desde un punto de control
+     * y sigue leyendo el CSV donde lo dejó
+     */
+    public void testReanuda() throws IOException {
+        File csv = new File(directorio, "programa.csv");
+        try (PrintWriter salida = new PrintWriter(csv)) {
+            for (int i = 1; i <= 1000; i++)
+                salida.println(i * 97 + (i % 13) * 5 + ",vuelo" + i);
+        }
+        Properties p = propiedades("PRIMITIVO");
+        p.setProperty("llegadas.fuente", "CSV");
+        p.setProperty("llegadas.fichero", csv.getPath());
+        Simulador seguida = new Simulador(new Parametros(p));
+        seguida.simulaBucle(HASTA);
+        String esperado = seguida.calculaEstadistica(HASTA).toString();
+
+        File control = new File(directorio, "puntocontrol.bin");
+        p.setProperty("control.segundos", "30000");
+        p.setProperty("control.fichero", control.getPath());
+        new Simulador(new Parametros(p)).simulaBucle(40000);
+        Simulador reanudada = Simulador.reanuda(control.getPath());
+        reanudada.simulaBucle(HASTA);
+        assertEquals(esperado, reanudada.calculaEstadistica(HASTA).toString());
+        assertEquals(seguida.getEventosProcesados(), reanudada.getEventosProcesados());
+    }
+
+    private static final long HASTA = 100000;
+
+    /**
+     * Simula con traza y devuelve los instantes de llegada que quedan en ella
+     */
+    private List<Long> simula(Properties p, String nombre) throws IOException {
+        try (Simulador simulador = new Simulador(new Parametros(p))) {
+            simulador.simulaBucle(HASTA);
+        }
+        List<Long> llegadas = new ArrayList<Long>();
+        FuenteLlegadas fuente = new LlegadasTraza(new File(directorio, nombre).getPath());
+        for (long llegada = fuente.siguiente(); llegada != FuenteLlegadas.FIN; llegada = fuente.siguiente())
+            llegadas.add(llegada);
+        return llegadas;
+    }
+
+    private Properties propiedades(String motor) {
+        Properties p = new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("motor.simulacion", motor);
+        return p;
+    }
+}
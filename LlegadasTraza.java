@@ -0,0 +1,49 @@
+package aeropuerto;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Llegadas de una traza binaria de eventos grabada con TrazaEventos:
+ * los instantes de sus eventos de intento de aterrizaje (los reintentos
+ * no cuentan), en el orden en que se procesaron.
+ * <p/>
+ * Recorre la traza con un LectorTraza, segmento a segmento, así que no
+ * carga la traza en memoria. Reproducir la traza de una simulación con
+ * otro Controlador repite exactamente el mismo tráfico de llegadas.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.LectorTraza
+ */
+public class LlegadasTraza implements FuenteLlegadas {
+    /**
+     * Lector de la traza
+     */
+    private final LectorTraza lector;
+
+    /**
+     * Constructor
+     *
+     * @param base nombre base de los segmentos de la traza
+     * @throws IOException si la traza no existe
+     */
+    public LlegadasTraza(String base) throws IOException {
+        if (!Files.exists(Paths.get(TrazaEventos.nombreSegmento(base, 0))))
+            throw new IOException("LlegadasTraza: no existe la traza " + base);
+        lector = new LectorTraza(base);
+    }
+
+    public long siguiente() {
+        try {
+            while (lector.siguiente())
+                if (lector.getTipo() == TipoOperacion.ATERRIZAJE && lector.getEstado() == EstadoOperacion.INTENTO)
+                    return lector.getCuando();
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        lector.close();
+        return FIN;
+    }
+}
@@ -0,0 +1,63 @@
+package aeropuerto;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas que se pueden extraer de una Estadistica,
+ * para resumir los resultados de varias simulaciones.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.ResumenReplicas
+ */
+public enum Metrica {
+    ATERRIZAJES_EN_HORA(e -> e.getAterrizajesEnHora()),
+    ATERRIZAJES_DEMORA(e -> e.getAterrizajesDemora()),
+    DESPEGUES_EN_HORA(e -> e.getDespeguesEnHora()),
+    DESPEGUES_DEMORA(e -> e.getDespeguesDemora()),
+    FIN_ATERRIZAJES(e -> e.getFinAterrizajes()),
+    FIN_DESPEGUES(e -> e.getFinDespegues()),
+    PUNTUALIDAD(e -> puntualidad(e)),
+    MAXIMO_EN_AEROPUERTO(e -> e.getMaximoEnAeropuerto()),
+    MEDIA_EN_AEROPUERTO(e -> e.getMediaEnAeropuerto()),
+    MAXIMO_EN_PISTAS(e -> e.getMaximoEnPistas()),
+    MEDIA_EN_PISTAS(e -> e.getMediaEnPistas()),
+    DEMORA_ATERRIZAJES_P95(e -> e.getPercentilDemoraAterrizajes(95)),
+    DEMORA_DESPEGUES_P95(e -> e.getPercentilDemoraDespegues(95)),
+    ROTACION_P95(e -> e.getPercentilRotaciones(95)),
+    MEDIA_ENTRE_LLEGADAS(e -> e.getMediaEntreLlegadas());
+
+    /**
+     * Función que extrae el valor de la métrica
+     */
+    private final ToDoubleFunction<Estadistica> extractor;
+
+    /**
+     * @param extractor función que extrae el valor de la métrica
+     */
+    Metrica(ToDoubleFunction<Estadistica> extractor) {
+        this.extractor = extractor;
+    }
+
+    /**
+     * Valor de la métrica en una estadística
+     *
+     * @param estadistica de la que se extrae el valor
+     * @return valor de la métrica
+     */
+    public double getValor(Estadistica estadistica) {
+        return extractor.applyAsDouble(estadistica);
+    }
+
+    /**
+     * Porcentaje de operaciones iniciadas en hora, sin redondear
+     *
+     * @param e estadística
+     * @return puntualidad total (0-100)
+     */
+    private static double puntualidad(Estadistica e) {
+        int enHora = e.getAterrizajesEnHora() + e.getDespeguesEnHora();
+        int total = enHora + e.getAterrizajesDemora() + e.getDespeguesDemora();
+        return (total > 0) ? 100.0 * enHora / total : 100;
+    }
+}
@@ -0,0 +1,258 @@
+package aeropuerto;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Seguimiento y control de un Simulador mientras ejecuta su bucle,
+ * publicado como MBean JMX con nombre
+ * <code>aeropuerto:type=Simulador,id=N</code>.
+ * <p/>
+ * El bucle llama a sigue() antes de cada evento. Los indicadores se publican
+ * en campos volatile cada PERIODO eventos, para no frenar el bucle, y al
+ * pausar o terminar. Las órdenes de pausa y fin se comprueban en cada evento.
+ * Si el MBean no se puede registrar, se avisa en la bitácora y la
+ * simulación sigue sin él.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Simulador
+ */
+public class MonitorSimulador implements MonitorSimuladorMBean {
+    /**
+     * Logger
+     */
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.MonitorSimulador");
+
+    /**
+     * Cada cuántos eventos se publican los indicadores (potencia de 2)
+     */
+    private static final int PERIODO = 1024;
+
+    /**
+     * Contador para el nombre JMX de cada monitor
+     */
+    private static final AtomicInteger contador = new AtomicInteger();
+
+    /**
+     * Nombre JMX del monitor
+     */
+    private final ObjectName nombre;
+
+    /*
+    * Indicadores publicados por el hilo que simula
+    */
+    private volatile long ahora = 0;
+    private volatile long procesados = 0;
+    private volatile int enCola = 0;
+    private volatile int pistasLibres = 0;
+
+    /*
+    * Órdenes
+    */
+    private volatile boolean pausado = false;
+    private volatile boolean terminado = false;
+
+    /**
+     * Instante real (nanoTime) en que empezó el bucle
+     */
+    private volatile long inicioReal;
+
+    /**
+     * Hilo que simula, para medir sus reservas de memoria
+     */
+    private volatile long hilo = -1;
+
+    /**
+     * Bytes reservados por el hilo que simula al empezar el bucle
+     */
+    private volatile long bytesIniciales;
+
+    /**
+     * Crea un monitor con un nombre JMX nuevo
+     */
+    public MonitorSimulador() {
+        try {
+            nombre = new ObjectName("aeropuerto:type=Simulador,id=" + contador.incrementAndGet());
+        } catch (JMException e) {
+            throw new IllegalStateException("MonitorSimulador: " + e);
+        }
+    }
+
+    /**
+     * @return nombre JMX del monitor
+     */
+    public ObjectName getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Registra el monitor en el servidor JMX de la plataforma. Si no se
+     * puede, lo avisa en la bitácora.
+     *
+     * @return TRUE si se ha registrado
+     */
+    public boolean registra() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, nombre);
+            return true;
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warning("No se puede registrar el monitor {} en JMX.{}", nombre, e);
+            return false;
+        }
+    }
+
+    /**
+     * Quita el monitor del servidor JMX de la plataforma, si está
+     * registrado. Si no se puede, lo avisa en la bitácora.
+     */
+    public void desregistra() {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (servidor.isRegistered(nombre))
+                servidor.unregisterMBean(nombre);
+        } catch (JMException | RuntimeException e) {
+            LOGGER.warning("No se puede quitar el monitor {} de JMX.{}", nombre, e);
+        }
+    }
+
+    /**
+     * Lo llama el hilo que simula al empezar el bucle
+     */
+    void empieza() {
+        hilo = Thread.currentThread().getId();
+        bytesIniciales = bytesDelHilo();
+        inicioReal = System.nanoTime();
+    }
+
+    /**
+     * Lo llama el bucle antes de procesar cada evento. Publica los indicadores
+     * de vez en cuando y atiende las órdenes de pausa y fin.
+     *
+     * @param instante   instante del evento que se va a procesar
+     * @param eventos    eventos procesados hasta ahora
+     * @param pendientes eventos en la cola
+     * @param libres     pistas libres
+     * @return FALSE si se ha pedido terminar y el evento no se debe procesar
+     */
+    boolean sigue(long instante, long eventos, int pendientes, int libres) {
+        if ((eventos & (PERIODO - 1)) == 0)
+            publica(instante, eventos, pendientes, libres);
+        if (pausado || terminado)
+            return atiende(instante, eventos, pendientes, libres);
+        return true;
+    }
+
+    /**
+     * Lo llama el hilo que simula al acabar el bucle, para publicar el estado final
+     *
+     * @param instante   instante del último evento procesado
+     * @param eventos    eventos procesados
+     * @param pendientes eventos en la cola
+     * @param libres     pistas libres
+     */
+    void acaba(long instante, long eventos, int pendientes, int libres) {
+        publica(instante, eventos, pendientes, libres);
+    }
+
+    private void publica(long instante, long eventos, int pendientes, int libres) {
+        ahora = instante;
+        procesados = eventos;
+        enCola = pendientes;
+        pistasLibres = libres;
+    }
+
+    /**
+     * Espera mientras la simulación esté pausada
+     *
+     * @return FALSE si hay que terminar
+     */
+    private synchronized boolean atiende(long instante, long eventos, int pendientes, int libres) {
+        publica(instante, eventos, pendientes, libres);
+        try {
+            while (pausado && !terminado)
+                wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            terminado = true;
+        }
+        return !terminado;
+    }
+
+    public long getTiempoSimulado() {
+        return ahora;
+    }
+
+    public double getRatioTiempoReal() {
+        double segundos = segundosReales();
+        return (segundos > 0) ? ahora / segundos : 0;
+    }
+
+    public long getEventosProcesados() {
+        return procesados;
+    }
+
+    public double getEventosPorSegundo() {
+        double segundos = segundosReales();
+        return (segundos > 0) ? procesados / segundos : 0;
+    }
+
+    public int getEventosEnCola() {
+        return enCola;
+    }
+
+    public int getPistasLibres() {
+        return pistasLibres;
+    }
+
+    public double getBytesPorSegundo() {
+        long bytes = bytesDelHilo();
+        double segundos = segundosReales();
+        if (bytes < 0 || segundos <= 0)
+            return -1;
+        return (bytes - bytesIniciales) / segundos;
+    }
+
+    public boolean isPausado() {
+        return pausado;
+    }
+
+    public boolean isTerminado() {
+        return terminado;
+    }
+
+    public synchronized void pausa() {
+        pausado = true;
+    }
+
+    public synchronized void reanuda() {
+        pausado = false;
+        notifyAll();
+    }
+
+    public synchronized void termina() {
+        terminado = true;
+        notifyAll();
+    }
+
+    /**
+     * Segundos reales desde que empezó el bucle, 0 si no ha empezado
+     */
+    private double segundosReales() {
+        return (hilo < 0) ? 0 : (System.nanoTime() - inicioReal) / 1e9;
+    }
+
+    /**
+     * Bytes reservados por el hilo que simula, o -1 si no se pueden medir
+     */
+    private long bytesDelHilo() {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilo < 0 || !(hilos instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        return ((com.sun.management.ThreadMXBean) hilos).getThreadAllocatedBytes(hilo);
+    }
+}
@@ -0,0 +1,74 @@
+package aeropuerto;
+
+/**
+ * Interfaz JMX de MonitorSimulador: indicadores de una simulación en curso
+ * y operaciones para pausarla, reanudarla o terminarla.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.MonitorSimulador
+ */
+public interface MonitorSimuladorMBean {
+
+    /**
+     * @return instante de simulación del último evento procesado, en segundos
+     */
+    long getTiempoSimulado();
+
+    /**
+     * @return segundos simulados por segundo real desde que empezó el bucle
+     */
+    double getRatioTiempoReal();
+
+    /**
+     * @return número de eventos procesados
+     */
+    long getEventosProcesados();
+
+    /**
+     * @return eventos procesados por segundo real desde que empezó el bucle
+     */
+    double getEventosPorSegundo();
+
+    /**
+     * @return número de eventos pendientes en la cola
+     */
+    int getEventosEnCola();
+
+    /**
+     * @return número de pistas libres
+     */
+    int getPistasLibres();
+
+    /**
+     * @return bytes reservados por segundo real por el hilo que simula,
+     *         o -1 si la JVM no lo permite medir
+     */
+    double getBytesPorSegundo();
+
+    /**
+     * @return TRUE si la simulación está pausada
+     */
+    boolean isPausado();
+
+    /**
+     * @return TRUE si se ha pedido terminar la simulación
+     */
+    boolean isTerminado();
+
+    /**
+     * Detiene la simulación antes del siguiente evento, hasta que se reanude
+     */
+    void pausa();
+
+    /**
+     * Reanuda una simulación pausada
+     */
+    void reanuda();
+
+    /**
+     * Termina la simulación antes del siguiente evento. La estadística se
+     * cierra en el instante del último evento procesado.
+     */
+    void termina();
+}
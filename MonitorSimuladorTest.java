@@ -0,0 +1,98 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+
+/**
+ * Pruebas de MonitorSimulador: registro en JMX, pausa, reanudación
+ * y fin anticipado de una simulación.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class MonitorSimuladorTest extends TestCase {
+
+    /**
+     * Una simulación terminada antes de empezar no procesa eventos
+     * y cierra la estadística en el instante 0
+     */
+    public void testTerminaAntesDeEmpezar() {
+        Simulador simulador = new Simulador(new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10));
+        simulador.getMonitor().termina();
+        simulador.simulaBucle(100000);
+        assertEquals(0, simulador.getEventosProcesados());
+        assertEquals(0, simulador.getFinSimulacion());
+        assertEquals(0, simulador.calculaEstadistica(100000).getCuandoUltimoRegistro());
+    }
+
+    /**
+     * Al simular por tramos el monitor se registra una sola vez y sigue
+     * registrado entre tramos; si no se puede registrar, se simula igual
+     */
+    public void testRegistroPorTramos() throws Exception {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        Parametros parametros = new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10);
+        try (Simulador simulador = new Simulador(parametros)) {
+            MonitorSimulador monitor = simulador.getMonitor();
+            simulador.simulaBucle(10000);
+            assertTrue(servidor.isRegistered(monitor.getNombre()));
+            simulador.simulaBucle(20000);
+            assertTrue(servidor.isRegistered(monitor.getNombre()));
+            simulador.close();
+            assertFalse(servidor.isRegistered(monitor.getNombre()));
+        }
+
+        try (Simulador esperado = new Simulador(parametros); Simulador ocupado = new Simulador(parametros)) {
+            MonitorSimulador otro = new MonitorSimulador();
+            servidor.registerMBean(otro, ocupado.getMonitor().getNombre());
+            try {
+                ocupado.simulaBucle(20000);
+                esperado.simulaBucle(20000);
+                assertEquals(esperado.calculaEstadistica(20000).toString(), ocupado.calculaEstadistica(20000).toString());
+            } finally {
+                servidor.unregisterMBean(ocupado.getMonitor().getNombre());
+            }
+        }
+    }
+
+    /**
+     * Pausa una simulación larga desde otro hilo, lee sus indicadores por JMX,
+     * la reanuda y la termina; la estadística se cierra donde se detuvo
+     */
+    public void testPausaYTerminaPorJmx() throws Exception {
+        final Simulador simulador = new Simulador(new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10));
+        final MonitorSimulador monitor = simulador.getMonitor();
+        monitor.pausa();
+        Thread hilo = new Thread(new Runnable() {
+            public void run() {
+                simulador.simulaBucle(Long.MAX_VALUE / 2);
+            }
+        });
+        hilo.start();
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        while (!servidor.isRegistered(monitor.getNombre()) || monitor.getTiempoSimulado() == 0)
+            Thread.sleep(10);
+        // Pausada antes del primer evento
+        assertEquals(0L, servidor.getAttribute(monitor.getNombre(), "EventosProcesados"));
+        assertEquals(2, servidor.getAttribute(monitor.getNombre(), "PistasLibres"));
+
+        servidor.invoke(monitor.getNombre(), "reanuda", null, null);
+        while (monitor.getEventosProcesados() < 10000)
+            Thread.sleep(10);
+        servidor.invoke(monitor.getNombre(), "termina", null, null);
+        hilo.join(10000);
+        assertFalse(hilo.isAlive());
+        // Sigue registrado hasta close
+        assertTrue(servidor.isRegistered(monitor.getNombre()));
+        simulador.close();
+        assertFalse(servidor.isRegistered(monitor.getNombre()));
+
+        long fin = simulador.getFinSimulacion();
+        assertTrue(fin > 0 && fin == simulador.getAhora());
+        assertEquals(simulador.getEventosProcesados(), monitor.getEventosProcesados());
+        Estadistica estadistica = simulador.calculaEstadistica(Long.MAX_VALUE / 2);
+        assertEquals(fin, estadistica.getCuandoUltimoRegistro());
+    }
+}
@@ -0,0 +1,170 @@
+package aeropuerto;
+
+import java.util.Arrays;
+
+/**
+ * Montículo 4-ario de huecos de un AlmacenEventos, ordenado por instante
+ * y, a igualdad de instante, por orden de inserción.
+ * <p/>
+ * Es la versión con primitivos de ColaMonticulo: guarda índices de hueco
+ * en lugar de eventos, y no crea objetos al insertar ni al extraer.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.ColaMonticulo
+ */
+public class MonticuloHuecos {
+    /**
+     * Número de hijos de cada nodo
+     */
+    private static final int ARIDAD = 4;
+
+    /**
+     * Huecos del montículo
+     */
+    private int[] huecos;
+
+    /**
+     * Instante de cada hueco del montículo
+     */
+    private long[] cuando;
+
+    /**
+     * Número de orden de inserción de cada hueco del montículo
+     */
+    private long[] orden;
+
+    /**
+     * Número de huecos en el montículo
+     */
+    private int tamano = 0;
+
+    /**
+     * Siguiente número de orden de inserción
+     */
+    private long secuencia = 0;
+
+    /**
+     * Crea un montículo vacío con la capacidad inicial indicada.
+     *
+     * @param capacidad capacidad inicial
+     */
+    public MonticuloHuecos(int capacidad) {
+        capacidad = Math.max(capacidad, 1);
+        huecos = new int[capacidad];
+        cuando = new long[capacidad];
+        orden = new long[capacidad];
+    }
+
+    /**
+     * Inserta un hueco
+     *
+     * @param hueco    a insertar
+     * @param instante del evento del hueco
+     */
+    public void inserta(int hueco, long instante) {
+        if (tamano == huecos.length)
+            crece();
+        long o = secuencia++;
+        int i = tamano++;
+        while (i > 0) {
+            int padre = (i - 1) / ARIDAD;
+            if (!anterior(instante, o, cuando[padre], orden[padre]))
+                break;
+            coloca(i, huecos[padre], cuando[padre], orden[padre]);
+            i = padre;
+        }
+        coloca(i, hueco, instante, o);
+    }
+
+    /**
+     * Extrae el primer hueco
+     *
+     * @return primer hueco; o -1 si el montículo está vacío
+     */
+    public int extrae() {
+        if (tamano == 0)
+            return -1;
+        int primero = huecos[0];
+        tamano--;
+        int ultimo = huecos[tamano];
+        long t = cuando[tamano];
+        long o = orden[tamano];
+        if (tamano > 0) {
+            int i = 0;
+            while (true) {
+                int hijo = i * ARIDAD + 1;
+                if (hijo >= tamano)
+                    break;
+                int fin = Math.min(hijo + ARIDAD, tamano);
+                int menor = hijo;
+                for (int j = hijo + 1; j < fin; j++)
+                    if (anterior(cuando[j], orden[j], cuando[menor], orden[menor]))
+                        menor = j;
+                if (!anterior(cuando[menor], orden[menor], t, o))
+                    break;
+                coloca(i, huecos[menor], cuando[menor], orden[menor]);
+                i = menor;
+            }
+            coloca(i, ultimo, t, o);
+        }
+        return primero;
+    }
+
+    /**
+     * @return instante del primer hueco; Long.MAX_VALUE si el montículo está vacío
+     */
+    public long getCuandoPrimero() {
+        return (tamano == 0) ? Long.MAX_VALUE : cuando[0];
+    }
+
+    /**
+     * @return número de huecos en el montículo
+     */
+    public int getNroHuecos() {
+        return tamano;
+    }
+
+    /**
+     * Huecos del montículo, en el orden en que se extraerían
+     *
+     * @return copia de los huecos, ordenados por instante y orden de inserción
+     */
+    public int[] getHuecos() {
+        Integer[] indices = new Integer[tamano];
+        for (int i = 0; i < tamano; i++)
+            indices[i] = i;
+        Arrays.sort(indices, (a, b) -> anterior(cuando[a], orden[a], cuando[b], orden[b]) ? -1
+                : anterior(cuando[b], orden[b], cuando[a], orden[a]) ? 1 : 0);
+        int[] copia = new int[tamano];
+        for (int i = 0; i < tamano; i++)
+            copia[i] = huecos[indices[i]];
+        return copia;
+    }
+
+    /**
+     * @return TRUE si (t1, o1) sale antes que (t2, o2)
+     */
+    private static boolean anterior(long t1, long o1, long t2, long o2) {
+        return t1 < t2 || (t1 == t2 && o1 < o2);
+    }
+
+    /**
+     * Coloca un hueco en la posición i
+     */
+    private void coloca(int i, int hueco, long t, long o) {
+        huecos[i] = hueco;
+        cuando[i] = t;
+        orden[i] = o;
+    }
+
+    /**
+     * Duplica la capacidad de los arrays
+     */
+    private void crece() {
+        int capacidad = huecos.length * 2;
+        huecos = Arrays.copyOf(huecos, capacidad);
+        cuando = Arrays.copyOf(cuando, capacidad);
+        orden = Arrays.copyOf(orden, capacidad);
+    }
+}
@@ -0,0 +1,364 @@
+package aeropuerto;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Bucle de simulación sin objetos evento.
+ * <p/>
+ * Sigue la misma lógica que Simulador.simulaBucle, pero los eventos viven en
+ * un AlmacenEventos (arrays de primitivos con lista libre de huecos) y se
+ * ordenan en un MonticuloHuecos. Consume los números aleatorios del generador
+ * en el mismo orden que el bucle con objetos, así que con la misma semilla
+ * produce la misma estadística, y en régimen estacionario no crea objetos.
+ * <p/>
+ * En una red de aeropuertos (ver RedAeropuertos) cada aeropuerto tiene su
+ * motor: los fines de despegue se avisan a un DestinoVuelos, y los vuelos
+ * que llegan de otro aeropuerto se programan con programaLlegada.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Simulador
+ */
+public class MotorPrimitivo {
+    /**
+     * Capacidad inicial del almacén y del montículo
+     */
+    private static final int CAPACIDAD_INICIAL = 256;
+
+    /**
+     * Nombre de la cola, para los eventos JFR
+     */
+    private static final String IMPLEMENTACION = "HUECOS";
+
+    /**
+     * Fin de aterrizaje con que se marcan los vuelos que llegan de otro
+     * aeropuerto de la red: no encadenan la siguiente llegada del generador
+     */
+    static final long VUELO_RED = -2;
+
+    /**
+     * Generador aleatorio
+     */
+    private final Generador generador;
+
+    /**
+     * Controlador aeroportuario
+     */
+    private final Controlador controlador;
+
+    /**
+     * Eventos pendientes
+     */
+    private final AlmacenEventos almacen = new AlmacenEventos(CAPACIDAD_INICIAL);
+
+    /**
+     * Orden de los eventos pendientes
+     */
+    private final MonticuloHuecos cola = new MonticuloHuecos(CAPACIDAD_INICIAL);
+
+    /**
+     * Seguimiento y control del bucle
+     */
+    private final MonitorSimulador monitor;
+
+    /**
+     * Instante del último evento procesado
+     */
+    private long ahora = 0;
+
+    /**
+     * Número de eventos procesados desde el principio
+     */
+    private long procesados = 0;
+
+    /**
+     * TRUE si ya se ha programado la primera llegada
+     */
+    private boolean empezado = false;
+
+    /**
+     * A quién se avisan los despegues, en una red de aeropuertos (null si no hay red)
+     */
+    private DestinoVuelos destino;
+
+    /**
+     * Traza binaria de los eventos procesados (null si no hay)
+     */
+    private TrazaEventos traza;
+
+    /**
+     * Constructor
+     *
+     * @param generador   generador aleatorio
+     * @param controlador controlador aeroportuario
+     */
+    public MotorPrimitivo(Generador generador, Controlador controlador) {
+        this(generador, controlador, new MonitorSimulador());
+    }
+
+    /**
+     * Constructor con un monitor para seguir y controlar el bucle
+     *
+     * @param generador   generador aleatorio
+     * @param controlador controlador aeroportuario
+     * @param monitor     monitor del bucle
+     */
+    public MotorPrimitivo(Generador generador, Controlador controlador, MonitorSimulador monitor) {
+        this.generador = generador;
+        this.controlador = controlador;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Simula desde donde se quedó la llamada anterior (al principio,
+     * desde el instante 0) hasta el indicado.
+     *
+     * @param hastaCuando es el tiempo que vamos a simular
+     * @return número de eventos procesados en esta llamada
+     */
+    public long simula(long hastaCuando) {
+        long antes = procesados;
+        empieza();
+        while (cola.getNroHuecos() > 0 && cola.getCuandoPrimero() <= hastaCuando
+                && monitor.sigue(cola.getCuandoPrimero(), procesados, cola.getNroHuecos() - 1,
+                controlador.getPistasLibres())) {
+            int hueco = extrae();
+            long cuando = almacen.getCuando(hueco);
+            ahora = cuando;
+            int aeronave = almacen.getIdAeronave(hueco);
+            TipoOperacion tipo = almacen.getTipo(hueco);
+            EstadoOperacion estado = almacen.getEstado(hueco);
+            long intento = almacen.getPrimerIntento(hueco);
+            long finAterrizaje = almacen.getFinAterrizaje(hueco);
+            almacen.libera(hueco);
+
+            EventoJfrDespacho despacho = new EventoJfrDespacho();
+            despacho.begin();
+            boolean concedida = logica(cuando, aeronave, tipo, estado, intento, finAterrizaje);
+            despacho.graba(tipo, estado, aeronave, cuando, concedida);
+            if (traza != null)
+                traza.graba(cuando, aeronave, tipo, estado, concedida);
+            procesados++;
+            if (tipo == TipoOperacion.ATERRIZAJE && estado == EstadoOperacion.INTENTO
+                    && finAterrizaje != VUELO_RED)
+                programaSiguiente(cuando, generador.entreLlegadas());
+        }
+        return procesados - antes;
+    }
+
+    /**
+     * Programa la primera llegada del generador, si no se ha hecho ya
+     */
+    void empieza() {
+        if (!empezado) {
+            programaSiguiente(0, generador.entreLlegadas());
+            empezado = true;
+        }
+    }
+
+    /**
+     * Programa la siguiente llegada del generador, si le quedan llegadas
+     *
+     * @param anterior  instante de la llegada anterior
+     * @param intervalo intervalo entre llegadas del generador
+     */
+    private void programaSiguiente(long anterior, int intervalo) {
+        if (intervalo != Generador.SIN_LLEGADAS)
+            programa(anterior + intervalo, generador.nuevaAeronave(),
+                    TipoOperacion.ATERRIZAJE, EstadoOperacion.INTENTO);
+    }
+
+    /**
+     * Indica a quién se avisan los fines de despegue, en una red de aeropuertos
+     *
+     * @param destino de los despegues (null si no hay red)
+     */
+    public void setDestino(DestinoVuelos destino) {
+        this.destino = destino;
+    }
+
+    /**
+     * Indica la traza en la que se escribe cada evento procesado
+     *
+     * @param traza de los eventos (null si no hay)
+     */
+    public void setTraza(TrazaEventos traza) {
+        this.traza = traza;
+    }
+
+    /**
+     * Programa la llegada de un vuelo de otro aeropuerto de la red:
+     * una aeronave nueva que pide pista para aterrizar en el instante indicado
+     *
+     * @param cuando instante de llegada
+     */
+    public void programaLlegada(long cuando) {
+        programa(cuando, generador.nuevaAeronave(), TipoOperacion.ATERRIZAJE, EstadoOperacion.INTENTO,
+                cuando, VUELO_RED);
+    }
+
+    /**
+     * Escribe en un punto de control el instante actual y los eventos
+     * pendientes, en el orden en que se extraerían
+     *
+     * @param salida donde se escribe
+     * @throws IOException si hay problemas al escribir
+     */
+    void escribe(DataOutput salida) throws IOException {
+        salida.writeBoolean(empezado);
+        salida.writeLong(ahora);
+        salida.writeLong(procesados);
+        int[] pendientes = cola.getHuecos();
+        salida.writeInt(pendientes.length);
+        for (int hueco : pendientes)
+            PuntoControl.escribeEvento(salida, almacen.getCuando(hueco), -1, almacen.getIdAeronave(hueco),
+                    almacen.getTipo(hueco), almacen.getEstado(hueco),
+                    almacen.getPrimerIntento(hueco), almacen.getFinAterrizaje(hueco));
+    }
+
+    /**
+     * Lee de un punto de control el instante actual y los eventos pendientes.
+     * El motor debe estar recién creado.
+     *
+     * @param entrada de donde se lee
+     * @throws IOException si hay problemas al leer
+     */
+    void lee(DataInput entrada) throws IOException {
+        empezado = entrada.readBoolean();
+        ahora = entrada.readLong();
+        procesados = entrada.readLong();
+        int nroPendientes = entrada.readInt();
+        for (int i = 0; i < nroPendientes; i++) {
+            long cuando = entrada.readLong();
+            entrada.readInt();
+            int aeronave = entrada.readInt();
+            int tipoEstado = entrada.readByte();
+            programa(cuando, aeronave, TipoOperacion.values()[tipoEstado >> 2],
+                    EstadoOperacion.values()[tipoEstado & 3], entrada.readLong(), entrada.readLong());
+        }
+    }
+
+    /**
+     * Lógica de cada evento, la misma que Simulador.logica.
+     *
+     * @return TRUE si el evento era una solicitud y obtuvo pista
+     */
+    private boolean logica(long cuando, int aeronave, TipoOperacion tipo, EstadoOperacion estado,
+                        long intento, long finAterrizaje) {
+        if (estado == EstadoOperacion.REINTENTO && controlador.getEspera() != TipoEspera.REINTENTO) {
+            // Aeronave de la fila de espera, con pista reservada
+            controlador.ocupaPistaReservada(cuando, tipo, intento);
+            programa(cuando + controlador.getSlotAeroportuario(), aeronave, tipo, EstadoOperacion.FIN,
+                    intento, finAterrizaje);
+            return true;
+        } else if (estado == EstadoOperacion.FIN) {
+            controlador.liberaPista(cuando, tipo, estado, finAterrizaje);
+            if (tipo == TipoOperacion.DESPEGUE && destino != null)
+                destino.despega(cuando, aeronave);
+            long salida = (tipo == TipoOperacion.ATERRIZAJE) ? cuando + generador.duracionEnTierra(aeronave) : -1;
+            atiendeEspera(cuando);
+            if (tipo == TipoOperacion.ATERRIZAJE)
+                programa(salida, aeronave, TipoOperacion.DESPEGUE, EstadoOperacion.INTENTO, salida, cuando);
+        } else if (controlador.getPistasLibres() > 0) {
+            controlador.ocupaPista(cuando, tipo, estado, intento);
+            programa(cuando + controlador.getSlotAeroportuario(), aeronave, tipo, EstadoOperacion.FIN,
+                    intento, finAterrizaje);
+            return true;
+        } else if (controlador.getEspera() == TipoEspera.REINTENTO) {
+            programa(cuando + generador.demoraReintento(), aeronave, tipo, EstadoOperacion.REINTENTO,
+                    intento, finAterrizaje);
+        } else {
+            controlador.esperaPista(aeronave, tipo, intento, finAterrizaje);
+        }
+        return false;
+    }
+
+    /**
+     * Tras liberar una pista, la reserva para la primera aeronave de la fila
+     * de espera, si hay alguna, y programa cuándo la ocupa (como Simulador.atiendeEspera)
+     */
+    private void atiendeEspera(long cuando) {
+        int aeronave = controlador.reservaPista();
+        if (aeronave == 0)
+            return;
+        if (controlador.getEspera() == TipoEspera.FIFO_DEMORA)
+            cuando += generador.residuoReintento();
+        programa(cuando, aeronave, controlador.getReservaTipo(), EstadoOperacion.REINTENTO,
+                controlador.getReservaPrimerIntento(), controlador.getReservaFinAterrizaje());
+    }
+
+    /**
+     * Reserva todas las pistas libres para aeronaves de la fila de espera,
+     * como si se liberaran en el instante indicado. Tras cambiar el número
+     * de pistas (ver Simulador.bifurca) puede haber pistas libres y
+     * aeronaves esperando a la vez.
+     *
+     * @param cuando instante desde el que están libres las pistas
+     */
+    void atiendeFila(long cuando) {
+        while (controlador.getPistasLibres() > 0 && controlador.getNroEsperando() > 0)
+            atiendeEspera(cuando);
+    }
+
+    /**
+     * Guarda un nuevo evento y lo inserta en la cola
+     */
+    private void programa(long cuando, int aeronave, TipoOperacion tipo, EstadoOperacion estado) {
+        inserta(almacen.reserva(cuando, aeronave, tipo, estado), cuando);
+    }
+
+    /**
+     * Guarda un nuevo evento, con los instantes de su primer intento
+     * y del fin del aterrizaje, y lo inserta en la cola
+     */
+    private void programa(long cuando, int aeronave, TipoOperacion tipo, EstadoOperacion estado,
+                          long intento, long finAterrizaje) {
+        inserta(almacen.reserva(cuando, aeronave, tipo, estado, intento, finAterrizaje), cuando);
+    }
+
+    /**
+     * Inserta un hueco en el montículo, con su evento JFR
+     */
+    private void inserta(int hueco, long cuando) {
+        EventoJfrCola jfr = new EventoJfrCola();
+        jfr.begin();
+        int profundidad = cola.getNroHuecos();
+        cola.inserta(hueco, cuando);
+        jfr.graba(EventoJfrCola.INSERTA, IMPLEMENTACION, profundidad);
+    }
+
+    /**
+     * Extrae el primer hueco del montículo, con su evento JFR
+     */
+    private int extrae() {
+        EventoJfrCola jfr = new EventoJfrCola();
+        jfr.begin();
+        int profundidad = cola.getNroHuecos();
+        int hueco = cola.extrae();
+        jfr.graba(EventoJfrCola.EXTRAE, IMPLEMENTACION, profundidad);
+        return hueco;
+    }
+
+    /**
+     * @return instante del último evento procesado
+     */
+    public long getAhora() {
+        return ahora;
+    }
+
+    /**
+     * @return número de eventos pendientes
+     */
+    public int getNroEventos() {
+        return cola.getNroHuecos();
+    }
+
+    /**
+     * @return instante del siguiente evento pendiente, Long.MAX_VALUE si no hay
+     */
+    public long getCuandoSiguiente() {
+        return (cola.getNroHuecos() > 0) ? cola.getCuandoPrimero() : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,53 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.util.Properties;
+
+/**
+ * Comprueba que MotorPrimitivo produce la misma estadística que
+ * el bucle con objetos de Simulador, con los mismos parámetros.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class MotorPrimitivoTest extends TestCase {
+
+    /**
+     * Simula el mismo periodo con los dos motores y compara los resultados,
+     * con tráfico normal y con pistas saturadas.
+     */
+    public void testMismaEstadisticaQueMotorObjetos() {
+        compara(new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10), 500000);
+        compara(new Parametros(7, 3, 120, 0.2, 600, 200, 100, 60, 10), 500000);
+    }
+
+    private void compara(Parametros parametros, long hasta) {
+        Simulador simulador = new Simulador(parametros);
+        simulador.simulaBucle(hasta);
+        String esperado = simulador.calculaEstadistica(hasta).toString();
+
+        Controlador controlador = new Controlador(parametros.getNumeroPistas(),
+                (int) Math.round(parametros.getDuracionSlot()));
+        new MotorPrimitivo(new Generador(parametros), controlador).simula(hasta);
+        assertEquals(esperado, controlador.getEstadistica(hasta).toString());
+    }
+
+    /**
+     * Los dos motores también coinciden con la fila de espera de pistas
+     */
+    public void testMismaEstadisticaConFilaEspera() {
+        for (TipoEspera espera : TipoEspera.values()) {
+            Properties p = new Parametros(7, 2, 120, 0.2, 600, 200, 100, 60, 10).getPropiedades();
+            p.setProperty("espera.pistas", espera.name());
+            Simulador objetos = new Simulador(new Parametros(p));
+            objetos.simulaBucle(500000);
+            p.setProperty("motor.simulacion", "PRIMITIVO");
+            Simulador primitivo = new Simulador(new Parametros(p));
+            primitivo.simulaBucle(500000);
+            assertEquals(espera.name(), objetos.calculaEstadistica(500000).toString(),
+                    primitivo.calculaEstadistica(500000).toString());
+            assertEquals(objetos.getEventosProcesados(), primitivo.getEventosProcesados());
+        }
+    }
+}
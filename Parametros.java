@@ -26,6 +26,25 @@ public class Parametros {
     private final double duracionMinima;
     private final double demoraMedia;
     private final double demoraDesviacion;
+    private final TipoCola tipoCola;
+    private final TipoMotor tipoMotor;
+    private final TipoDistribucion distribucionLlegadas;
+    private final String empiricaLlegadas;
+    private final TipoNormal tipoNormal;
+    private final long ventana;
+    private final int capacidadVentanas;
+    private final String ficheroVentanas;
+    private final long puntoControl;
+    private final String ficheroControl;
+    private final TipoEspera tipoEspera;
+    private final PoliticaPistas politica;
+    private final int loteDespegues;
+    private final TipoFlujos flujos;
+    private final int capacidadBitacora;
+    private final String ficheroTraza;
+    private final int segmentoTraza;
+    private final TipoFuenteLlegadas fuenteLlegadas;
+    private final String ficheroLlegadas;
 
     /*
     * Valores por defecto de los parámetros
@@ -39,6 +58,25 @@ public class Parametros {
     private final double DURACION_MINIMA_DEFECTO = 100;
     private final double DEMORA_MEDIA_DEFECTO = 180;
     private final double DEMORA_DESVIACION_DEFECTO = 60;
+    private final TipoCola TIPO_COLA_DEFECTO = ColaEventos.TIPO_DEFECTO;
+    private final TipoMotor MOTOR_DEFECTO = TipoMotor.OBJETOS;
+    private final TipoDistribucion DISTRIBUCION_LLEGADAS_DEFECTO = TipoDistribucion.POISSON_KNUTH;
+    private final String EMPIRICA_LLEGADAS_DEFECTO = "";
+    private final TipoNormal NORMAL_DEFECTO = TipoNormal.POLAR;
+    private final long VENTANA_DEFECTO = 0;
+    private final int CAPACIDAD_VENTANAS_DEFECTO = 1024;
+    private final String FICHERO_VENTANAS_DEFECTO = "";
+    private final long PUNTO_CONTROL_DEFECTO = 0;
+    private final String FICHERO_CONTROL_DEFECTO = "puntocontrol.bin";
+    private final TipoEspera ESPERA_DEFECTO = TipoEspera.REINTENTO;
+    private final PoliticaPistas POLITICA_DEFECTO = PoliticaPistas.FIFO;
+    private final int LOTE_DESPEGUES_DEFECTO = 4;
+    private final TipoFlujos FLUJOS_DEFECTO = TipoFlujos.UNICO;
+    private final int BITACORA_DEFECTO = 0;
+    private final String FICHERO_TRAZA_DEFECTO = "";
+    private final int SEGMENTO_TRAZA_DEFECTO = 64 * 1024 * 1024;
+    private final TipoFuenteLlegadas FUENTE_LLEGADAS_DEFECTO = TipoFuenteLlegadas.GENERADOR;
+    private final String FICHERO_LLEGADAS_DEFECTO = "";
 
     /*
     * Etiquetas para lectura de parámetros desde fichero
@@ -52,6 +90,25 @@ public class Parametros {
     private static final String DURACION_MINIMA = "duracion.minima";
     private static final String DEMORA_MEDIA = "demora.media";
     private static final String DEMORA_DESVIACION = "demora.desviacion";
+    private static final String TIPO_COLA = "cola.eventos";
+    private static final String MOTOR = "motor.simulacion";
+    private static final String DISTRIBUCION_LLEGADAS = "distribucion.llegadas";
+    private static final String EMPIRICA_LLEGADAS = "empirica.llegadas";
+    private static final String NORMAL = "generador.normal";
+    private static final String VENTANA = "ventana.segundos";
+    private static final String CAPACIDAD_VENTANAS = "ventana.capacidad";
+    private static final String FICHERO_VENTANAS = "ventana.fichero";
+    private static final String PUNTO_CONTROL = "control.segundos";
+    private static final String FICHERO_CONTROL = "control.fichero";
+    private static final String ESPERA = "espera.pistas";
+    private static final String POLITICA = "politica.pistas";
+    private static final String LOTE_DESPEGUES = "lote.despegues";
+    private static final String FLUJOS = "generador.flujos";
+    private static final String BITACORA = "bitacora.asincrona";
+    private static final String FICHERO_TRAZA = "traza.fichero";
+    private static final String SEGMENTO_TRAZA = "traza.segmento";
+    private static final String FUENTE_LLEGADAS = "llegadas.fuente";
+    private static final String FICHERO_LLEGADAS = "llegadas.fichero";
     
     /**
      * Constructor con valores por defecto
@@ -66,6 +123,25 @@ public class Parametros {
         duracionMinima = DURACION_MINIMA_DEFECTO;
         demoraMedia = DEMORA_MEDIA_DEFECTO;
         demoraDesviacion = DEMORA_DESVIACION_DEFECTO;
+        tipoCola = TIPO_COLA_DEFECTO;
+        tipoMotor = MOTOR_DEFECTO;
+        distribucionLlegadas = DISTRIBUCION_LLEGADAS_DEFECTO;
+        empiricaLlegadas = EMPIRICA_LLEGADAS_DEFECTO;
+        tipoNormal = NORMAL_DEFECTO;
+        ventana = VENTANA_DEFECTO;
+        capacidadVentanas = CAPACIDAD_VENTANAS_DEFECTO;
+        ficheroVentanas = FICHERO_VENTANAS_DEFECTO;
+        puntoControl = PUNTO_CONTROL_DEFECTO;
+        ficheroControl = FICHERO_CONTROL_DEFECTO;
+        tipoEspera = ESPERA_DEFECTO;
+        politica = POLITICA_DEFECTO;
+        loteDespegues = LOTE_DESPEGUES_DEFECTO;
+        flujos = FLUJOS_DEFECTO;
+        capacidadBitacora = BITACORA_DEFECTO;
+        ficheroTraza = FICHERO_TRAZA_DEFECTO;
+        segmentoTraza = SEGMENTO_TRAZA_DEFECTO;
+        fuenteLlegadas = FUENTE_LLEGADAS_DEFECTO;
+        ficheroLlegadas = FICHERO_LLEGADAS_DEFECTO;
     }
     /**
      * Nombre del fichero de parámetros
@@ -74,9 +150,9 @@ public class Parametros {
     /**
      * Constructor a partir de fichero
      * <p/>
-     * Este método carga el fichero parametros.ini, y si salta alguna de las tres excepciones que
-     * lanza(IOException,IllegalArgumentException,NumberFormatException) este método, termina
-     * la simulación.
+     * Este método carga el fichero indicado (o parametros.ini, si es null), y si salta alguna
+     * de las tres excepciones que lanza(IOException,IllegalArgumentException,NumberFormatException)
+     * este método, termina la simulación.
      * @param fichero Este es el fichero que contiene los parámetros para el simulador
      * @throws java.io.IOException Salta si hay problemas con el fichero.
      * @throws IllegalArgumentException si algún valor está fuera de rango, según el método Parametros.compruebaParametros().
@@ -84,20 +160,64 @@ public class Parametros {
      */
     public Parametros(String fichero)
             throws IOException {
-        Properties configuracion;
-        	 FileInputStream f = new FileInputStream(FICHERO);
-        	 configuracion = new Properties ();
-        	 configuracion.load(f);
-        	 numeroPistas = Integer.parseInt(configuracion.getProperty(NUMERO_PISTAS));
-        	 duracionSlot = Double.parseDouble(configuracion.getProperty(DURACION_SLOT));
-        	 semilla = Long.parseLong(configuracion.getProperty(SEMILLA));
-        	 frecuencia = Double.parseDouble(configuracion.getProperty(FRECUENCIA_LLEGADAS));
-        	 duracionMedia = Double.parseDouble(configuracion.getProperty(DURACION_MEDIA));
-        	 duracionDesviacion = Double.parseDouble(configuracion.getProperty(DURACION_DESVIACION));
-        	 duracionMinima = Double.parseDouble(configuracion.getProperty(DURACION_MINIMA));
-        	 demoraMedia = Double.parseDouble(configuracion.getProperty(DEMORA_MEDIA));
-        	 demoraDesviacion = Double.parseDouble(configuracion.getProperty(DEMORA_DESVIACION));
-        	 compruebaParametros();
+        this(cargaFichero(fichero));
+    }
+
+    /**
+     * Constructor a partir de propiedades, con las mismas etiquetas que el fichero
+     * de parámetros. Los parámetros del aeropuerto y del generador son obligatorios;
+     * los del simulador toman su valor por defecto si no aparecen.
+     *
+     * @param configuracion propiedades con los parámetros
+     * @throws IllegalArgumentException si algún valor está fuera de rango, según el método Parametros.compruebaParametros().
+     * @throws NumberFormatException si algún valor está mal escrito o falta.
+     * @see #getPropiedades()
+     */
+    public Parametros(Properties configuracion) {
+        numeroPistas = Integer.parseInt(configuracion.getProperty(NUMERO_PISTAS).trim());
+        duracionSlot = Double.parseDouble(configuracion.getProperty(DURACION_SLOT));
+        semilla = Long.parseLong(configuracion.getProperty(SEMILLA).trim());
+        frecuencia = Double.parseDouble(configuracion.getProperty(FRECUENCIA_LLEGADAS));
+        duracionMedia = Double.parseDouble(configuracion.getProperty(DURACION_MEDIA));
+        duracionDesviacion = Double.parseDouble(configuracion.getProperty(DURACION_DESVIACION));
+        duracionMinima = Double.parseDouble(configuracion.getProperty(DURACION_MINIMA));
+        demoraMedia = Double.parseDouble(configuracion.getProperty(DEMORA_MEDIA));
+        demoraDesviacion = Double.parseDouble(configuracion.getProperty(DEMORA_DESVIACION));
+        tipoCola = TipoCola.valueOf(configuracion.getProperty(TIPO_COLA, TIPO_COLA_DEFECTO.name()).trim());
+        tipoMotor = TipoMotor.valueOf(configuracion.getProperty(MOTOR, MOTOR_DEFECTO.name()).trim());
+        distribucionLlegadas = TipoDistribucion.valueOf(configuracion.getProperty(DISTRIBUCION_LLEGADAS, DISTRIBUCION_LLEGADAS_DEFECTO.name()).trim());
+        empiricaLlegadas = configuracion.getProperty(EMPIRICA_LLEGADAS, EMPIRICA_LLEGADAS_DEFECTO).trim();
+        tipoNormal = TipoNormal.valueOf(configuracion.getProperty(NORMAL, NORMAL_DEFECTO.name()).trim());
+        ventana = Long.parseLong(configuracion.getProperty(VENTANA, String.valueOf(VENTANA_DEFECTO)).trim());
+        capacidadVentanas = Integer.parseInt(configuracion.getProperty(CAPACIDAD_VENTANAS, String.valueOf(CAPACIDAD_VENTANAS_DEFECTO)).trim());
+        ficheroVentanas = configuracion.getProperty(FICHERO_VENTANAS, FICHERO_VENTANAS_DEFECTO).trim();
+        puntoControl = Long.parseLong(configuracion.getProperty(PUNTO_CONTROL, String.valueOf(PUNTO_CONTROL_DEFECTO)).trim());
+        ficheroControl = configuracion.getProperty(FICHERO_CONTROL, FICHERO_CONTROL_DEFECTO).trim();
+        tipoEspera = TipoEspera.valueOf(configuracion.getProperty(ESPERA, ESPERA_DEFECTO.name()).trim());
+        politica = PoliticaPistas.valueOf(configuracion.getProperty(POLITICA, POLITICA_DEFECTO.name()).trim());
+        loteDespegues = Integer.parseInt(configuracion.getProperty(LOTE_DESPEGUES, String.valueOf(LOTE_DESPEGUES_DEFECTO)).trim());
+        flujos = TipoFlujos.valueOf(configuracion.getProperty(FLUJOS, FLUJOS_DEFECTO.name()).trim());
+        capacidadBitacora = Integer.parseInt(configuracion.getProperty(BITACORA, String.valueOf(BITACORA_DEFECTO)).trim());
+        ficheroTraza = configuracion.getProperty(FICHERO_TRAZA, FICHERO_TRAZA_DEFECTO).trim();
+        segmentoTraza = Integer.parseInt(configuracion.getProperty(SEGMENTO_TRAZA, String.valueOf(SEGMENTO_TRAZA_DEFECTO)).trim());
+        fuenteLlegadas = TipoFuenteLlegadas.valueOf(configuracion.getProperty(FUENTE_LLEGADAS, FUENTE_LLEGADAS_DEFECTO.name()).trim());
+        ficheroLlegadas = configuracion.getProperty(FICHERO_LLEGADAS, FICHERO_LLEGADAS_DEFECTO).trim();
+        compruebaParametros();
+    }
+
+    /**
+     * Carga un fichero de parámetros
+     *
+     * @param fichero nombre del fichero; si es null, parametros.ini
+     * @return propiedades del fichero
+     * @throws IOException si hay problemas con el fichero
+     */
+    private static Properties cargaFichero(String fichero) throws IOException {
+        Properties configuracion = new Properties();
+        try (FileInputStream f = new FileInputStream((fichero != null) ? fichero : FICHERO)) {
+            configuracion.load(f);
+        }
+        return configuracion;
     }
 
     /**
@@ -132,6 +252,25 @@ public class Parametros {
         this.duracionMinima = duracionMinima;
         this.demoraMedia = demoraMedia;
         this.demoraDesviacion = demoraDesviacion;
+        this.tipoCola = TIPO_COLA_DEFECTO;
+        this.tipoMotor = MOTOR_DEFECTO;
+        this.distribucionLlegadas = DISTRIBUCION_LLEGADAS_DEFECTO;
+        this.empiricaLlegadas = EMPIRICA_LLEGADAS_DEFECTO;
+        this.tipoNormal = NORMAL_DEFECTO;
+        this.ventana = VENTANA_DEFECTO;
+        this.capacidadVentanas = CAPACIDAD_VENTANAS_DEFECTO;
+        this.ficheroVentanas = FICHERO_VENTANAS_DEFECTO;
+        this.puntoControl = PUNTO_CONTROL_DEFECTO;
+        this.ficheroControl = FICHERO_CONTROL_DEFECTO;
+        this.tipoEspera = ESPERA_DEFECTO;
+        this.politica = POLITICA_DEFECTO;
+        this.loteDespegues = LOTE_DESPEGUES_DEFECTO;
+        this.flujos = FLUJOS_DEFECTO;
+        this.capacidadBitacora = BITACORA_DEFECTO;
+        this.ficheroTraza = FICHERO_TRAZA_DEFECTO;
+        this.segmentoTraza = SEGMENTO_TRAZA_DEFECTO;
+        this.fuenteLlegadas = FUENTE_LLEGADAS_DEFECTO;
+        this.ficheroLlegadas = FICHERO_LLEGADAS_DEFECTO;
         compruebaParametros();
     }
 
@@ -166,6 +305,38 @@ public class Parametros {
         if (demoraDesviacion < 1.0)
             parametroIncorrecto(Double.toString(demoraDesviacion), DEMORA_DESVIACION);
 
+        if (ventana < 0)
+            parametroIncorrecto(Long.toString(ventana), VENTANA);
+
+        if (capacidadVentanas < 1)
+            parametroIncorrecto(Integer.toString(capacidadVentanas), CAPACIDAD_VENTANAS);
+        if (capacidadBitacora < 0)
+            parametroIncorrecto(Integer.toString(capacidadBitacora), BITACORA);
+        if (segmentoTraza < TrazaEventos.SEGMENTO_MINIMO)
+            parametroIncorrecto(Integer.toString(segmentoTraza), SEGMENTO_TRAZA);
+        if (fuenteLlegadas != TipoFuenteLlegadas.GENERADOR && ficheroLlegadas.isEmpty())
+            parametroIncorrecto(ficheroLlegadas, FICHERO_LLEGADAS);
+
+        if (puntoControl < 0)
+            parametroIncorrecto(Long.toString(puntoControl), PUNTO_CONTROL);
+
+        if (puntoControl > 0 && ficheroControl.isEmpty())
+            parametroIncorrecto(ficheroControl, FICHERO_CONTROL);
+
+        if (politica != PoliticaPistas.FIFO && tipoEspera == TipoEspera.REINTENTO)
+            parametroIncorrecto(politica.name(), POLITICA);
+
+        if (loteDespegues < 1)
+            parametroIncorrecto(Integer.toString(loteDespegues), LOTE_DESPEGUES);
+
+        if (distribucionLlegadas == TipoDistribucion.EMPIRICA) {
+            try {
+                TablaAlias.lee(empiricaLlegadas);
+            } catch (IllegalArgumentException e) {
+                parametroIncorrecto(empiricaLlegadas, EMPIRICA_LLEGADAS);
+            }
+        }
+
     }
 
     /**
@@ -194,10 +365,111 @@ public class Parametros {
         a += "\t" + DURACION_DESVIACION + "=" + getDuracionDesviacion() + "\n";
         a += "\t" + DURACION_MINIMA + "=" + getDuracionMinima() + "\n";
         a += "\t" + DEMORA_MEDIA + "=" + getDemoraMedia() + "\n";
-        a += "\t" + DEMORA_DESVIACION + "=" + getDemoraDesviacion();
+        a += "\t" + DEMORA_DESVIACION + "=" + getDemoraDesviacion() + "\n";
+        a += "\t" + TIPO_COLA + "=" + getTipoCola() + "\n";
+        a += "\t" + MOTOR + "=" + getMotor() + "\n";
+        a += "\t" + DISTRIBUCION_LLEGADAS + "=" + getDistribucionLlegadas() + "\n";
+        a += "\t" + EMPIRICA_LLEGADAS + "=" + getEmpiricaLlegadas() + "\n";
+        a += "\t" + NORMAL + "=" + getNormal() + "\n";
+        a += "\t" + VENTANA + "=" + getVentana() + "\n";
+        a += "\t" + CAPACIDAD_VENTANAS + "=" + getCapacidadVentanas() + "\n";
+        a += "\t" + FICHERO_VENTANAS + "=" + getFicheroVentanas() + "\n";
+        a += "\t" + PUNTO_CONTROL + "=" + getPuntoControl() + "\n";
+        a += "\t" + FICHERO_CONTROL + "=" + getFicheroControl() + "\n";
+        a += "\t" + ESPERA + "=" + getEspera() + "\n";
+        a += "\t" + POLITICA + "=" + getPolitica() + "\n";
+        a += "\t" + LOTE_DESPEGUES + "=" + getLoteDespegues() + "\n";
+        a += "\t" + FLUJOS + "=" + getFlujos() + "\n";
+        a += "\t" + BITACORA + "=" + getCapacidadBitacora() + "\n";
+        a += "\t" + FICHERO_TRAZA + "=" + getFicheroTraza() + "\n";
+        a += "\t" + SEGMENTO_TRAZA + "=" + getSegmentoTraza() + "\n";
+        a += "\t" + FUENTE_LLEGADAS + "=" + getFuenteLlegadas() + "\n";
+        a += "\t" + FICHERO_LLEGADAS + "=" + getFicheroLlegadas();
         return a;
     }
 
+    /**
+     * Parámetros como propiedades, con las mismas etiquetas que el fichero
+     * de parámetros. Modificando alguna y creando unos Parametros nuevos con
+     * ellas se obtiene una variante de estos parámetros (ver Barrido).
+     *
+     * @return todos los parámetros, como propiedades
+     */
+    public Properties getPropiedades() {
+        Properties p = new Properties();
+        p.setProperty(SEMILLA, String.valueOf(getSemilla()));
+        p.setProperty(NUMERO_PISTAS, String.valueOf(getNumeroPistas()));
+        p.setProperty(DURACION_SLOT, String.valueOf(getDuracionSlot()));
+        p.setProperty(FRECUENCIA_LLEGADAS, String.valueOf(getFrecuencia()));
+        p.setProperty(DURACION_MEDIA, String.valueOf(getDuracionMedia()));
+        p.setProperty(DURACION_DESVIACION, String.valueOf(getDuracionDesviacion()));
+        p.setProperty(DURACION_MINIMA, String.valueOf(getDuracionMinima()));
+        p.setProperty(DEMORA_MEDIA, String.valueOf(getDemoraMedia()));
+        p.setProperty(DEMORA_DESVIACION, String.valueOf(getDemoraDesviacion()));
+        p.setProperty(TIPO_COLA, String.valueOf(getTipoCola()));
+        p.setProperty(MOTOR, String.valueOf(getMotor()));
+        p.setProperty(DISTRIBUCION_LLEGADAS, String.valueOf(getDistribucionLlegadas()));
+        p.setProperty(EMPIRICA_LLEGADAS, getEmpiricaLlegadas());
+        p.setProperty(NORMAL, String.valueOf(getNormal()));
+        p.setProperty(VENTANA, String.valueOf(getVentana()));
+        p.setProperty(CAPACIDAD_VENTANAS, String.valueOf(getCapacidadVentanas()));
+        p.setProperty(FICHERO_VENTANAS, getFicheroVentanas());
+        p.setProperty(PUNTO_CONTROL, String.valueOf(getPuntoControl()));
+        p.setProperty(FICHERO_CONTROL, getFicheroControl());
+        p.setProperty(ESPERA, String.valueOf(getEspera()));
+        p.setProperty(POLITICA, String.valueOf(getPolitica()));
+        p.setProperty(LOTE_DESPEGUES, String.valueOf(getLoteDespegues()));
+        p.setProperty(FLUJOS, String.valueOf(getFlujos()));
+        p.setProperty(BITACORA, String.valueOf(getCapacidadBitacora()));
+        p.setProperty(FICHERO_TRAZA, getFicheroTraza());
+        p.setProperty(SEGMENTO_TRAZA, String.valueOf(getSegmentoTraza()));
+        p.setProperty(FUENTE_LLEGADAS, String.valueOf(getFuenteLlegadas()));
+        p.setProperty(FICHERO_LLEGADAS, String.valueOf(getFicheroLlegadas()));
+        return p;
+    }
+
+    /**
+     * Claves de los ficheros que escribe una simulación
+     */
+    private static final String[] FICHEROS_SALIDA = {FICHERO_VENTANAS, FICHERO_CONTROL, FICHERO_TRAZA};
+
+    /**
+     * Parámetros de una de varias simulaciones que se ejecutan a la vez
+     * (réplicas, puntos de un barrido, políticas, bifurcaciones): los mismos,
+     * pero con un sufijo en los ficheros que escribe la simulación (ventanas,
+     * puntos de control y traza), para que cada una escriba los suyos y no
+     * pise los de las demás. El fichero de llegadas solo se lee y no cambia.
+     *
+     * @param sufijo que se añade, tras un punto, a cada fichero de salida que se usa
+     * @return parámetros con ficheros propios, o estos mismos si no escriben ficheros
+     */
+    public Parametros conSufijo(String sufijo) {
+        Properties p = getPropiedades();
+        boolean cambia = false;
+        for (String clave : FICHEROS_SALIDA) {
+            String fichero = p.getProperty(clave);
+            if (!fichero.isEmpty() && (puntoControl > 0 || !clave.equals(FICHERO_CONTROL))) {
+                p.setProperty(clave, fichero + "." + sufijo);
+                cambia = true;
+            }
+        }
+        return cambia ? new Parametros(p) : this;
+    }
+
+    /**
+     * Parámetros de una simulación auxiliar que no debe escribir nada:
+     * los mismos, sin fichero de ventanas, sin traza y sin puntos de control
+     *
+     * @return parámetros sin ficheros de salida
+     */
+    public Parametros sinFicheros() {
+        Properties p = getPropiedades();
+        for (String clave : FICHEROS_SALIDA)
+            p.setProperty(clave, "");
+        p.setProperty(PUNTO_CONTROL, "0");
+        return new Parametros(p);
+    }
+
     /**
      * La semilla puede forzar un comportamiento repetitivo del generador
      * de números aleatorios.
@@ -294,4 +566,188 @@ public class Parametros {
         return demoraDesviacion;
     }
 
+    /**
+     * Implementación de la cola de eventos del simulador
+     *
+     * @return tipo de cola de eventos
+     */
+    public TipoCola getTipoCola() {
+        return tipoCola;
+    }
+
+    /**
+     * Motor del bucle de simulación
+     *
+     * @return motor del bucle de simulación
+     */
+    public TipoMotor getMotor() {
+        return tipoMotor;
+    }
+
+    /**
+     * Distribución del intervalo entre llegadas
+     *
+     * @return distribución del intervalo entre llegadas
+     */
+    public TipoDistribucion getDistribucionLlegadas() {
+        return distribucionLlegadas;
+    }
+
+    /**
+     * Tabla de la distribución empírica del intervalo entre llegadas,
+     * como valor:peso,valor:peso,... (valores en segundos).
+     * Solo se usa con la distribución EMPIRICA.
+     *
+     * @return tabla de la distribución empírica
+     */
+    public String getEmpiricaLlegadas() {
+        return empiricaLlegadas;
+    }
+
+    /**
+     * Método para generar las variables normales (duración en tierra y demoras)
+     *
+     * @return método para generar las variables normales
+     */
+    public TipoNormal getNormal() {
+        return tipoNormal;
+    }
+
+    /**
+     * Duración de las ventanas de la serie temporal de estadísticas
+     * (ver SerieVentanas). Si vale 0, no hay serie.
+     *
+     * @return segundos simulados de cada ventana, 0 si no hay serie
+     */
+    public long getVentana() {
+        return ventana;
+    }
+
+    /**
+     * Número de ventanas que guarda en memoria la serie temporal de estadísticas
+     *
+     * @return número de ventanas que se guardan
+     */
+    public int getCapacidadVentanas() {
+        return capacidadVentanas;
+    }
+
+    /**
+     * Fichero NDJSON en el que se escribe cada ventana de la serie temporal
+     * de estadísticas. Si está vacío, las ventanas solo se guardan en memoria.
+     *
+     * @return nombre del fichero de ventanas, vacío si no hay
+     */
+    public String getFicheroVentanas() {
+        return ficheroVentanas;
+    }
+
+    /**
+     * Cada cuántos segundos simulados se guarda un punto de control de la
+     * simulación (ver PuntoControl). Si vale 0, no se guardan.
+     *
+     * @return segundos simulados entre puntos de control, 0 si no se guardan
+     */
+    public long getPuntoControl() {
+        return puntoControl;
+    }
+
+    /**
+     * Fichero en el que se guarda el punto de control de la simulación.
+     * Cada punto de control sustituye al anterior.
+     *
+     * @return nombre del fichero del punto de control
+     */
+    public String getFicheroControl() {
+        return ficheroControl;
+    }
+
+    /**
+     * Qué se hace con las solicitudes de pista cuando no hay ninguna libre:
+     * reintentar pasada una demora o esperar en una fila (ver TipoEspera)
+     *
+     * @return modo de espera de las solicitudes de pista
+     */
+    public TipoEspera getEspera() {
+        return tipoEspera;
+    }
+
+    /**
+     * Orden en que se atiende a las aeronaves de la fila de espera
+     * (ver PoliticaPistas). Solo se usa si hay fila (ver getEspera).
+     *
+     * @return política de atención de la fila de espera
+     */
+    public PoliticaPistas getPolitica() {
+        return politica;
+    }
+
+    /**
+     * Número de despegues de cada lote, con la política LOTES_DESPEGUE
+     *
+     * @return despegues por lote
+     */
+    public int getLoteDespegues() {
+        return loteDespegues;
+    }
+
+    /**
+     * Flujos de números aleatorios del generador: uno para todo o uno
+     * por propósito (ver TipoFlujos)
+     *
+     * @return flujos de números aleatorios
+     */
+    public TipoFlujos getFlujos() {
+        return flujos;
+    }
+
+    /**
+     * Capacidad del buffer de la bitácora asíncrona, en registros
+     * (0 = los mensajes se escriben en el hilo que los genera)
+     *
+     * @return capacidad de la bitácora asíncrona
+     */
+    public int getCapacidadBitacora() {
+        return capacidadBitacora;
+    }
+
+    /**
+     * Nombre base de los segmentos de la traza binaria de eventos
+     * (vacío = sin traza)
+     *
+     * @return nombre base de la traza
+     */
+    public String getFicheroTraza() {
+        return ficheroTraza;
+    }
+
+    /**
+     * Tamaño de cada segmento de la traza, en bytes
+     *
+     * @return tamaño de cada segmento de la traza
+     */
+    public int getSegmentoTraza() {
+        return segmentoTraza;
+    }
+
+    /**
+     * Origen de las llegadas: generadas al azar, de una traza grabada
+     * o de un programa de vuelos en CSV
+     *
+     * @return origen de las llegadas
+     */
+    public TipoFuenteLlegadas getFuenteLlegadas() {
+        return fuenteLlegadas;
+    }
+
+    /**
+     * Fichero de las llegadas: nombre base de la traza (llegadas.fuente=TRAZA)
+     * o fichero CSV (llegadas.fuente=CSV)
+     *
+     * @return fichero de las llegadas
+     */
+    public String getFicheroLlegadas() {
+        return ficheroLlegadas;
+    }
+
 }
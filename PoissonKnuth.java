@@ -0,0 +1,56 @@
+package aeropuerto;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribución de Poisson por el método multiplicativo de Knuth:
+ * multiplica uniformes hasta que el producto baja de e^-lambda.
+ * Necesita del orden de lambda uniformes por muestra.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class PoissonKnuth implements DistribucionLlegadas {
+    /**
+     * e^-lambda
+     */
+    private final double eLambda;
+
+    /**
+     * Media de la distribución
+     */
+    private final double lambda;
+
+    /**
+     * Constructor
+     *
+     * @param lambda media de la distribución
+     */
+    public PoissonKnuth(double lambda) {
+        this.lambda = lambda;
+        eLambda = Math.exp(-lambda);
+    }
+
+    /**
+     * @return media de la distribución
+     */
+    public double getMedia() {
+        return lambda;
+    }
+
+    /**
+     * Genera una muestra de la distribución
+     *
+     * @param random fuente de números aleatorios
+     * @return muestra
+     */
+    public int muestra(RandomGenerator random) {
+        double producto = 1.0;
+        int resultado = 0;
+        for (int contador = 0; producto >= eLambda; contador++) {
+            producto *= random.nextDouble();
+            resultado = contador;
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,114 @@
+package aeropuerto;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribución de Poisson por rechazo transformado con compresión
+ * (PTRS, W. Hörmann, 1993). Para medias a partir de 10 acepta a la primera
+ * en la gran mayoría de los casos, con dos uniformes por intento, así que su
+ * coste no depende de la media. Para medias menores usa inversión por
+ * búsqueda secuencial, que para esas medias es igual de rápida.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class PoissonPtrs implements DistribucionLlegadas {
+    /**
+     * Media a partir de la cual se usa el rechazo transformado
+     */
+    private static final double MEDIA_MINIMA_PTRS = 10;
+
+    /**
+     * Logaritmo de k! para k de 0 a 9
+     */
+    private static final double[] LOG_FACTORIAL = {
+        0.0, 0.0, 0.69314718055994531, 1.79175946922805500, 3.17805383034794562,
+        4.78749174278204599, 6.57925121201010100, 8.52516136106541430,
+        10.60460290274525023, 12.80182748008146961
+    };
+
+    /**
+     * Media de la distribución
+     */
+    private final double lambda;
+
+    /**
+     * Constantes del método, calculadas una vez
+     */
+    private final double e, logLambda, b, a, logInvAlpha, vr;
+
+    /**
+     * Constructor
+     *
+     * @param lambda media de la distribución
+     */
+    public PoissonPtrs(double lambda) {
+        this.lambda = lambda;
+        e = Math.exp(-lambda);
+        logLambda = Math.log(lambda);
+        b = 0.931 + 2.53 * Math.sqrt(lambda);
+        a = -0.059 + 0.02483 * b;
+        logInvAlpha = Math.log(1.1239 + 1.1328 / (b - 3.4));
+        vr = 0.9277 - 3.6224 / (b - 2);
+    }
+
+    /**
+     * @return media de la distribución
+     */
+    public double getMedia() {
+        return lambda;
+    }
+
+    /**
+     * Genera una muestra de la distribución
+     *
+     * @param random fuente de números aleatorios
+     * @return muestra
+     */
+    public int muestra(RandomGenerator random) {
+        if (lambda < MEDIA_MINIMA_PTRS)
+            return inversion(random);
+        while (true) {
+            double u = random.nextDouble() - 0.5;
+            double v = random.nextDouble();
+            double us = 0.5 - Math.abs(u);
+            long k = (long) Math.floor((2 * a / us + b) * u + lambda + 0.43);
+            // Zona de aceptación inmediata
+            if (us >= 0.07 && v <= vr)
+                return (int) k;
+            if (k < 0 || (us < 0.013 && v > us))
+                continue;
+            if (Math.log(v) + logInvAlpha - Math.log(a / (us * us) + b)
+                    <= -lambda + k * logLambda - logFactorial(k))
+                return (int) k;
+        }
+    }
+
+    /**
+     * Inversión por búsqueda secuencial, para medias pequeñas
+     */
+    private int inversion(RandomGenerator random) {
+        double u = random.nextDouble();
+        double p = e;
+        double acumulada = p;
+        int k = 0;
+        while (u > acumulada && p > 0) {
+            k++;
+            p *= lambda / k;
+            acumulada += p;
+        }
+        return k;
+    }
+
+    /**
+     * Logaritmo de k!, por tabla o por la serie de Stirling
+     */
+    private static double logFactorial(long k) {
+        if (k < LOG_FACTORIAL.length)
+            return LOG_FACTORIAL[(int) k];
+        double x = k;
+        double x2 = x * x;
+        return (x + 0.5) * Math.log(x) - x + 0.91893853320467274
+                + (1.0 / 12 - (1.0 / 360 - 1.0 / (1260 * x2)) / x2) / x;
+    }
+}
@@ -0,0 +1,20 @@
+package aeropuerto;
+
+/**
+ * Orden en que el controlador atiende a las aeronaves de la fila de espera
+ * cuando se libera una pista (solo en los modos de espera con fila):
+ * FIFO = por orden de llegada a la fila;
+ * ATERRIZAJES_PRIMERO = primero los aterrizajes, y los despegues solo si
+ * no espera ningún aterrizaje;
+ * LOTES_DESPEGUE = primero los aterrizajes, pero cuando esperan lote.despegues
+ * despegues (o no espera ningún aterrizaje) se atiende un lote de despegues seguidos.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Controlador
+ * @see aeropuerto.TipoEspera
+ */
+
+public enum PoliticaPistas {
+    FIFO, ATERRIZAJES_PRIMERO, LOTES_DESPEGUE
+}
@@ -0,0 +1,261 @@
+package aeropuerto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Proceso lógico de un aeropuerto en una red de aeropuertos: su propio
+ * motor (con su cola de eventos), su Controlador, su Estadistica y su
+ * Generador. Cada despegue sale de la red, o se convierte en un vuelo hacia
+ * otro aeropuerto elegido al azar, que llega pasado el tiempo de vuelo: el
+ * mínimo más una exponencial. El destino y el tiempo de vuelo salen de un
+ * flujo aleatorio propio del proceso, así que las variables del aeropuerto
+ * son las mismas que si estuviera solo.
+ * <p/>
+ * Los vuelos que llegan se guardan ordenados y se programan en el motor
+ * justo antes de procesar el primer evento de su instante de llegada: el
+ * resultado no depende de cuándo se recibieron, sino solo de qué vuelos
+ * llegan.
+ * <p/>
+ * Los vuelos salientes se guardan hasta que el motor de la red los reparte;
+ * un proceso solo lo usa un hilo a la vez.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.RedAeropuertos
+ */
+public class ProcesoAeropuerto implements DestinoVuelos {
+    /**
+     * Número de este aeropuerto en la red
+     */
+    private final int numero;
+
+    /**
+     * Número de aeropuertos de la red
+     */
+    private final int nroAeropuertos;
+
+    /**
+     * Parámetros del aeropuerto
+     */
+    private final Parametros parametros;
+
+    /**
+     * Controlador del aeropuerto
+     */
+    private Controlador controlador;
+
+    /**
+     * Generador de las llegadas de fuera de la red
+     */
+    private Generador generador;
+
+    /**
+     * Motor de simulación del aeropuerto
+     */
+    private MotorPrimitivo motor;
+
+    /**
+     * Flujo aleatorio de los destinos y los tiempos de vuelo
+     */
+    private final Xoroshiro128 rutas;
+
+    /**
+     * Tiempo de vuelo mínimo, en segundos
+     */
+    private final long vueloMinimo;
+
+    /**
+     * Parte aleatoria del tiempo de vuelo
+     */
+    private final ExponencialInversa vueloExtra;
+
+    /**
+     * Probabilidad de que un despegue salga de la red
+     */
+    private final double salidaRed;
+
+    /**
+     * Vuelos recibidos, ordenados por llegada
+     */
+    private final TreeSet<Vuelo> entrantes = new TreeSet<Vuelo>();
+
+    /**
+     * Vuelos salientes que aún no se han repartido
+     */
+    private final List<Vuelo> salientes = new ArrayList<Vuelo>();
+
+    /**
+     * Número de vuelos salientes generados, para ordenarlos
+     */
+    private long nroVuelos = 0;
+
+    /**
+     * Instante hasta el que se ha simulado (-1 al principio)
+     */
+    private long hasta = -1;
+
+    /**
+     * Constructor
+     *
+     * @param numero         número del aeropuerto en la red (desde 0)
+     * @param nroAeropuertos número de aeropuertos de la red
+     * @param parametros     del aeropuerto
+     * @param semillaRutas   semilla del flujo aleatorio de los destinos y tiempos de vuelo
+     * @param vueloMinimo    tiempo de vuelo mínimo
+     * @param vueloMedio     tiempo de vuelo medio (mayor que el mínimo)
+     * @param salidaRed      probabilidad de que un despegue salga de la red
+     */
+    ProcesoAeropuerto(int numero, int nroAeropuertos, Parametros parametros, long semillaRutas,
+                      long vueloMinimo, double vueloMedio, double salidaRed) {
+        this.numero = numero;
+        this.nroAeropuertos = nroAeropuertos;
+        this.parametros = parametros;
+        this.rutas = new Xoroshiro128(semillaRutas);
+        this.vueloMinimo = vueloMinimo;
+        this.vueloExtra = new ExponencialInversa(vueloMedio - vueloMinimo);
+        this.salidaRed = salidaRed;
+        crea();
+        motor.empieza();
+    }
+
+    /**
+     * Crea el controlador, el generador y el motor, como Simulador
+     */
+    private void crea() {
+        controlador = new Controlador(parametros.getNumeroPistas(), (int) Math.round(parametros.getDuracionSlot()),
+                parametros.getEspera(), parametros.getPolitica(), parametros.getLoteDespegues());
+        generador = new Generador(parametros);
+        motor = new MotorPrimitivo(generador, controlador);
+        motor.setDestino(this);
+    }
+
+    /**
+     * Decide el destino del despegue y, si no sale de la red, guarda el vuelo
+     *
+     * @param cuando   instante del fin del despegue
+     * @param aeronave identificador de la aeronave
+     */
+    public void despega(long cuando, int aeronave) {
+        if (nroAeropuertos < 2 || rutas.nextDouble() < salidaRed)
+            return;
+        // Uno de los otros aeropuertos, al azar
+        int destino = rutas.nextInt(nroAeropuertos - 1);
+        if (destino >= numero)
+            destino++;
+        long llegada = cuando + vueloMinimo + vueloExtra.muestra(rutas);
+        salientes.add(new Vuelo(cuando, llegada, destino, numero, nroVuelos++));
+    }
+
+    /**
+     * Simula hasta el instante indicado, incluido. Cada vuelo recibido se
+     * programa cuando ya se han procesado todos los eventos anteriores a su
+     * llegada, y en el orden de los vuelos.
+     *
+     * @param hastaCuando fin del tramo
+     * @return número de eventos procesados
+     */
+    long simula(long hastaCuando) {
+        long procesados = 0;
+        for (Vuelo vuelo : entrantes.tailSet(Vuelo.desde(hasta + 1))) {
+            if (vuelo.llegada > hastaCuando)
+                break;
+            procesados += motor.simula(vuelo.llegada - 1);
+            motor.programaLlegada(vuelo.llegada);
+        }
+        procesados += motor.simula(hastaCuando);
+        hasta = Math.max(hasta, hastaCuando);
+        return procesados;
+    }
+
+    /**
+     * Recibe un vuelo de otro aeropuerto, que debe llegar después del
+     * instante hasta el que se ha simulado
+     *
+     * @param vuelo que llega
+     */
+    void recibe(Vuelo vuelo) {
+        entrantes.add(vuelo);
+    }
+
+    /**
+     * Olvida los vuelos recibidos que llegaron hasta el instante indicado,
+     * que ya no hacen falta para volver a simular
+     *
+     * @param instante último instante que se olvida
+     */
+    void olvida(long instante) {
+        entrantes.headSet(Vuelo.desde(instante + 1)).clear();
+    }
+
+    /**
+     * @return vuelos salientes pendientes de repartir (se vacía al repartirlos)
+     */
+    List<Vuelo> getSalientes() {
+        return salientes;
+    }
+
+    /**
+     * @return instante del siguiente evento pendiente o del siguiente vuelo recibido
+     */
+    long getCuandoSiguiente() {
+        Vuelo vuelo = entrantes.ceiling(Vuelo.desde(hasta + 1));
+        return Math.min(motor.getCuandoSiguiente(), (vuelo == null) ? Long.MAX_VALUE : vuelo.llegada);
+    }
+
+    /**
+     * @return número del aeropuerto en la red
+     */
+    public int getNumero() {
+        return numero;
+    }
+
+    /**
+     * Estadística del aeropuerto, cerrada en el instante indicado
+     *
+     * @param instante de cierre
+     * @return estadística del aeropuerto
+     */
+    public Estadistica getEstadistica(long instante) {
+        Estadistica esta = controlador.getEstadistica(instante);
+        esta.setLlegadas(generador.getNroLlegadas(), generador.getSumaEntreLlegadas());
+        return esta;
+    }
+
+    /**
+     * Vuelo entre dos aeropuertos de la red. Se ordenan por instante de
+     * llegada, aeropuerto de origen y número de vuelo en el origen, para
+     * que el reparto no dependa de los hilos.
+     */
+    static class Vuelo implements Comparable<Vuelo> {
+        final long salida;
+        final long llegada;
+        final int destino;
+        final int origen;
+        final long secuencia;
+
+        Vuelo(long salida, long llegada, int destino, int origen, long secuencia) {
+            this.salida = salida;
+            this.llegada = llegada;
+            this.destino = destino;
+            this.origen = origen;
+            this.secuencia = secuencia;
+        }
+
+        /**
+         * Vuelo ficticio anterior a todos los que llegan en el instante indicado
+         */
+        static Vuelo desde(long llegada) {
+            return new Vuelo(Long.MIN_VALUE, llegada, -1, Integer.MIN_VALUE, Long.MIN_VALUE);
+        }
+
+        public int compareTo(Vuelo otro) {
+            if (llegada != otro.llegada)
+                return Long.compare(llegada, otro.llegada);
+            if (origen != otro.origen)
+                return Integer.compare(origen, otro.origen);
+            return Long.compare(secuencia, otro.secuencia);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package aeropuerto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fichero binario con el estado de una simulación a medias, para
+ * poder reanudarla y obtener exactamente el mismo resultado que si
+ * no se hubiera detenido.
+ * <p/>
+ * El fichero empieza por un número mágico y una versión del formato;
+ * a continuación va el estado que escribe Simulador.guardaPuntoControl.
+ * Se escribe entero en un fichero temporal y después se renombra, así que
+ * un corte a mitad de escritura nunca deja un punto de control a medias.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Simulador#guardaPuntoControl(String)
+ * @see aeropuerto.Simulador#reanuda(String)
+ */
+public class PuntoControl {
+    /**
+     * Número mágico del formato: "AERP"
+     */
+    static final int MAGICO = 0x41455250;
+
+    /**
+     * Versión del formato
+     */
+    static final short VERSION = 9;
+
+    /**
+     * Contenido del punto de control, que se escribe en memoria
+     * antes de pasarlo al fichero
+     */
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    /**
+     * Salida sobre el contenido
+     */
+    private final DataOutputStream salida = new DataOutputStream(bytes);
+
+    /**
+     * Crea un punto de control vacío, con la cabecera ya escrita
+     *
+     * @throws IOException si hay problemas al escribir
+     */
+    PuntoControl() throws IOException {
+        salida.writeInt(MAGICO);
+        salida.writeShort(VERSION);
+    }
+
+    /**
+     * @return salida donde se escribe el estado
+     */
+    DataOutput getSalida() {
+        return salida;
+    }
+
+    /**
+     * Escribe el punto de control en un fichero, a través de un
+     * fichero temporal que se renombra al terminar
+     *
+     * @param fichero nombre del fichero
+     * @throws IOException si hay problemas al escribir
+     */
+    void guarda(String fichero) throws IOException {
+        salida.flush();
+        Path destino = Paths.get(fichero);
+        Path temporal = Paths.get(fichero + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining())
+                canal.write(buffer);
+            canal.force(true);
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lee un punto de control y comprueba su cabecera
+     *
+     * @param fichero nombre del fichero
+     * @return entrada colocada detrás de la cabecera
+     * @throws IOException si hay problemas al leer o el fichero no es un punto
+     *                     de control de esta versión
+     */
+    static DataInputStream abre(String fichero) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel canal = FileChannel.open(Paths.get(fichero), StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano > Integer.MAX_VALUE)
+                throw new IOException("PuntoControl: fichero demasiado grande " + fichero);
+            buffer = ByteBuffer.allocate((int) tamano);
+            while (buffer.hasRemaining() && canal.read(buffer) >= 0)
+                ;
+        }
+        DataInputStream entrada = new DataInputStream(
+                new ByteArrayInputStream(buffer.array(), 0, buffer.position()));
+        if (entrada.readInt() != MAGICO)
+            throw new IOException("PuntoControl: " + fichero + " no es un punto de control");
+        short version = entrada.readShort();
+        if (version != VERSION)
+            throw new IOException("PuntoControl: version " + version + " no soportada en " + fichero);
+        return entrada;
+    }
+
+    /**
+     * Escribe un evento pendiente
+     *
+     * @param salida        donde se escribe
+     * @param cuando        instante del evento
+     * @param idEvento      identificador del evento (-1 si no tiene)
+     * @param idAeronave    identificador de aeronave
+     * @param tipo          tipo de operación
+     * @param estado        estado de la operación
+     * @param primerIntento instante del primer intento de la operación
+     * @param finAterrizaje instante del fin del aterrizaje de la aeronave
+     * @throws IOException si hay problemas al escribir
+     */
+    static void escribeEvento(DataOutput salida, long cuando, int idEvento, int idAeronave,
+                              TipoOperacion tipo, EstadoOperacion estado,
+                              long primerIntento, long finAterrizaje) throws IOException {
+        salida.writeLong(cuando);
+        salida.writeInt(idEvento);
+        salida.writeInt(idAeronave);
+        salida.writeByte((tipo.ordinal() << 2) | estado.ordinal());
+        salida.writeLong(primerIntento);
+        salida.writeLong(finAterrizaje);
+    }
+
+    /**
+     * Escribe un evento aeroportuario pendiente
+     *
+     * @param salida donde se escribe
+     * @param evento evento a escribir
+     * @throws IOException si hay problemas al escribir
+     */
+    static void escribeEvento(DataOutput salida, EventoAeroportuario evento) throws IOException {
+        escribeEvento(salida, evento.getCuando(), evento.getIdentificador(), evento.getIdAeronave(),
+                evento.getTipo(), evento.getEstado(), evento.getPrimerIntento(), evento.getFinAterrizaje());
+    }
+
+    /**
+     * Lee un evento pendiente como evento aeroportuario
+     *
+     * @param entrada de donde se lee
+     * @return evento leído
+     * @throws IOException si hay problemas al leer
+     */
+    static EventoAeroportuario leeEvento(DataInput entrada) throws IOException {
+        long cuando = entrada.readLong();
+        int idEvento = entrada.readInt();
+        int idAeronave = entrada.readInt();
+        int tipoEstado = entrada.readByte();
+        return EventoAeroportuario.restaura(idEvento, idAeronave,
+                EstadoOperacion.values()[tipoEstado & 3], TipoOperacion.values()[tipoEstado >> 2],
+                cuando, entrada.readLong(), entrada.readLong());
+    }
+}
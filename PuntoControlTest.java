@@ -0,0 +1,121 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Properties;
+
+/**
+ * Comprueba que una simulación reanudada desde un punto de control
+ * termina con la misma estadística que la simulación sin interrumpir.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class PuntoControlTest extends TestCase {
+
+    private File fichero;
+
+    protected void setUp() throws IOException {
+        fichero = File.createTempFile("puntocontrol", ".bin");
+    }
+
+    protected void tearDown() {
+        fichero.delete();
+    }
+
+    /**
+     * Reanuda con los dos motores y los dos métodos de generar normales,
+     * con pistas saturadas para que haya reintentos pendientes.
+     */
+    public void testReanudaConMismaEstadistica() throws IOException {
+        compara("OBJETOS", "POLAR", "MONTICULO", 0, "UNICO");
+        compara("OBJETOS", "ZIGGURAT", "LISTA", 3600, "UNICO");
+        compara("PRIMITIVO", "POLAR", "MONTICULO", 0, "UNICO");
+        compara("PRIMITIVO", "ZIGGURAT", "MONTICULO", 3600, "UNICO");
+    }
+
+    /**
+     * Reanuda con un flujo aleatorio por propósito
+     */
+    public void testReanudaConFlujosSeparados() throws IOException {
+        compara("OBJETOS", "POLAR", "MONTICULO", 0, "SEPARADOS");
+        compara("PRIMITIVO", "ZIGGURAT", "MONTICULO", 0, "SEPARADOS");
+    }
+
+    /**
+     * Las ventanas escritas entre el punto de control y el corte no se
+     * repiten al reanudar, y una simulación nueva vacía el fichero
+     */
+    public void testReanudaFicheroVentanas() throws IOException {
+        File seguido = File.createTempFile("ventanas", ".ndjson");
+        File cortado = File.createTempFile("ventanas", ".ndjson");
+        try {
+            Files.write(seguido.toPath(), "de otra simulacion\n".getBytes());
+            Properties p = new Parametros(7, 2, 120, 0.2, 600, 200, 100, 60, 10).getPropiedades();
+            p.setProperty("ventana.segundos", "3600");
+            p.setProperty("ventana.fichero", seguido.getPath());
+            try (Simulador seguida = new Simulador(new Parametros(p))) {
+                seguida.simulaBucle(100000);
+            }
+
+            p.setProperty("ventana.fichero", cortado.getPath());
+            p.setProperty("control.segundos", "10000");
+            p.setProperty("control.fichero", fichero.getPath());
+            try (Simulador cortada = new Simulador(new Parametros(p))) {
+                cortada.simulaBucle(55000);
+            }
+            try (Simulador reanudada = Simulador.reanuda(fichero.getPath())) {
+                reanudada.simulaBucle(100000);
+            }
+            String esperado = new String(Files.readAllBytes(seguido.toPath()));
+            assertTrue(esperado.startsWith("{\"inicio\":0,"));
+            assertEquals(esperado, new String(Files.readAllBytes(cortado.toPath())));
+        } finally {
+            seguido.delete();
+            cortado.delete();
+        }
+    }
+
+    /**
+     * Un fichero que no es un punto de control se rechaza
+     */
+    public void testFicheroNoValido() throws IOException {
+        Files.write(fichero.toPath(), new byte[]{1, 2, 3, 4, 5, 6});
+        try {
+            Simulador.reanuda(fichero.getPath());
+            fail("Debería rechazar el fichero");
+        } catch (IOException e) {
+            // correcto
+        }
+    }
+
+    private void compara(String motor, String normal, String cola, long ventana, String flujos) throws IOException {
+        long hasta = 100000;
+        Properties p = new Parametros(7, 2, 120, 0.2, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("motor.simulacion", motor);
+        p.setProperty("generador.normal", normal);
+        p.setProperty("cola.eventos", cola);
+        p.setProperty("ventana.segundos", String.valueOf(ventana));
+        p.setProperty("generador.flujos", flujos);
+
+        Simulador seguida = new Simulador(new Parametros(p));
+        seguida.simulaBucle(hasta);
+        String esperado = seguida.calculaEstadistica(hasta).toString();
+
+        p.setProperty("control.segundos", "10000");
+        p.setProperty("control.fichero", fichero.getPath());
+        Simulador cortada = new Simulador(new Parametros(p));
+        cortada.simulaBucle(55000);
+
+        Simulador reanudada = Simulador.reanuda(fichero.getPath());
+        assertEquals(50000 - 1, reanudada.getAhora(), 10000);
+        reanudada.simulaBucle(hasta);
+        assertEquals(motor + " " + normal, esperado, reanudada.calculaEstadistica(hasta).toString());
+        assertEquals(seguida.getEventosProcesados(), reanudada.getEventosProcesados());
+        if (ventana > 0)
+            assertEquals(seguida.getVentanas().getNroAnotadas(), reanudada.getVentanas().getNroAnotadas());
+    }
+}
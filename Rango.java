@@ -0,0 +1,129 @@
+package aeropuerto;
+
+/**
+ * Valores que toma un parámetro en un barrido (ver Barrido).
+ * El parámetro se identifica por su etiqueta en el fichero de parámetros,
+ * por ejemplo <code>numero.pistas</code>.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class Rango {
+    /**
+     * Etiqueta del parámetro
+     */
+    private final String clave;
+
+    /**
+     * Valores del parámetro
+     */
+    private final double[] valores;
+
+    /**
+     * Rango de valores equiespaciados: desde, desde+paso, ... hasta no pasar de hasta.
+     *
+     * @param clave etiqueta del parámetro
+     * @param desde primer valor
+     * @param hasta último valor posible
+     * @param paso  incremento entre valores (mayor que 0)
+     * @throws IllegalArgumentException si el rango está vacío o el paso no es positivo
+     */
+    public Rango(String clave, double desde, double hasta, double paso) {
+        if (clave == null || !(paso > 0) || hasta < desde)
+            throw new IllegalArgumentException("Rango " + clave + "=" + desde + ":" + hasta + ":" + paso);
+        this.clave = clave;
+        // Pequeña tolerancia para que hasta se incluya pese al redondeo
+        int n = (int) Math.floor((hasta - desde) / paso + 1e-9) + 1;
+        valores = new double[n];
+        for (int i = 0; i < n; i++)
+            valores[i] = desde + i * paso;
+    }
+
+    /**
+     * Rango con una lista explícita de valores.
+     *
+     * @param clave   etiqueta del parámetro
+     * @param valores valores del parámetro
+     * @throws IllegalArgumentException si no hay valores
+     */
+    public Rango(String clave, double... valores) {
+        if (clave == null || valores == null || valores.length == 0)
+            throw new IllegalArgumentException("Rango " + clave + " sin valores");
+        this.clave = clave;
+        this.valores = valores.clone();
+    }
+
+    /**
+     * Lee un rango escrito como <code>clave=desde:hasta:paso</code>
+     * o como <code>clave=valor1,valor2,...</code>
+     *
+     * @param texto rango
+     * @return rango leído
+     * @throws IllegalArgumentException si el texto no tiene ninguno de los dos formatos
+     * @throws NumberFormatException    si algún valor está mal escrito
+     */
+    public static Rango lee(String texto) {
+        int igual = texto.indexOf('=');
+        if (igual < 1)
+            throw new IllegalArgumentException("Rango " + texto);
+        String clave = texto.substring(0, igual).trim();
+        String valores = texto.substring(igual + 1).trim();
+        String[] partes = valores.split(":");
+        if (partes.length == 3)
+            return new Rango(clave, Double.parseDouble(partes[0]), Double.parseDouble(partes[1]),
+                    Double.parseDouble(partes[2]));
+        if (partes.length != 1)
+            throw new IllegalArgumentException("Rango " + texto);
+        partes = valores.split(",");
+        double[] lista = new double[partes.length];
+        for (int i = 0; i < partes.length; i++)
+            lista[i] = Double.parseDouble(partes[i]);
+        return new Rango(clave, lista);
+    }
+
+    /**
+     * @return etiqueta del parámetro
+     */
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * @return número de valores del rango
+     */
+    public int getNroValores() {
+        return valores.length;
+    }
+
+    /**
+     * @param i índice del valor
+     * @return valor i-ésimo del rango
+     */
+    public double getValor(int i) {
+        return valores[i];
+    }
+
+    /**
+     * Valor i-ésimo como texto, tal y como se escribiría en el fichero
+     * de parámetros: sin decimales si es entero.
+     *
+     * @param i índice del valor
+     * @return valor i-ésimo, como texto
+     */
+    public String getTexto(int i) {
+        double v = valores[i];
+        if (v == Math.rint(v) && Math.abs(v) < Long.MAX_VALUE)
+            return Long.toString((long) v);
+        return Double.toString(v);
+    }
+
+    /**
+     * @return el rango, como se lee en lee()
+     */
+    public String toString() {
+        String a = clave + "=";
+        for (int i = 0; i < valores.length; i++)
+            a += ((i > 0) ? "," : "") + getTexto(i);
+        return a;
+    }
+}
@@ -0,0 +1,237 @@
+package aeropuerto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Simulación en paralelo de una red de aeropuertos, con un proceso lógico
+ * por aeropuerto (ver ProcesoAeropuerto). Los despegues de un aeropuerto se
+ * convierten en llegadas a otro tras el tiempo de vuelo.
+ * <p/>
+ * Sincronización conservadora por ventanas (YAWNS): el tiempo de vuelo
+ * mínimo es el lookahead, porque ningún aeropuerto puede afectar a otro
+ * antes de ese tiempo. En cada ventana se calcula el instante del siguiente
+ * evento de toda la red, m, y cada aeropuerto simula en su hilo todos sus
+ * eventos hasta m + lookahead - 1 sin esperar a los demás: los vuelos que
+ * genere llegan como pronto en m + lookahead. Al final de la ventana (una
+ * barrera) se reparten los vuelos a sus destinos; cada aeropuerto los
+ * programa por orden de llegada, origen y número de vuelo, así que el
+ * resultado no depende del número de hilos. Cuanto mayor sea el tiempo de vuelo mínimo frente al intervalo
+ * entre eventos, más eventos hay por ventana y mejor escala con los núcleos.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.ProcesoAeropuerto
+ */
+public class RedAeropuertos {
+    /**
+     * Logger
+     */
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.RedAeropuertos");
+
+    /**
+     * Parámetros de cada aeropuerto
+     */
+    private final Parametros[] aeropuertos;
+
+    /**
+     * Tiempo de vuelo mínimo: el lookahead de la sincronización
+     */
+    private final long vueloMinimo;
+
+    /**
+     * Tiempo de vuelo medio
+     */
+    private final double vueloMedio;
+
+    /**
+     * Probabilidad de que un despegue salga de la red
+     */
+    private final double salidaRed;
+
+    /**
+     * Hilos que ejecutan los aeropuertos
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Número de ventanas de la última simulación
+     */
+    private long nroVentanas = 0;
+
+    /**
+     * Número de vuelos entre aeropuertos de la última simulación
+     */
+    private long nroVuelos = 0;
+
+    /**
+     * Constructor. Ejecuta los aeropuertos en el pool común.
+     *
+     * @param aeropuertos parámetros de cada aeropuerto
+     * @param vueloMinimo tiempo de vuelo mínimo, en segundos (mayor que 0)
+     * @param vueloMedio  tiempo de vuelo medio (mayor que el mínimo)
+     * @param salidaRed   probabilidad de que un despegue salga de la red (entre 0 y 1)
+     * @throws IllegalArgumentException si algún argumento está fuera de rango
+     */
+    public RedAeropuertos(Parametros[] aeropuertos, long vueloMinimo, double vueloMedio, double salidaRed) {
+        this(aeropuertos, vueloMinimo, vueloMedio, salidaRed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor con un pool de hilos propio
+     *
+     * @param aeropuertos parámetros de cada aeropuerto
+     * @param vueloMinimo tiempo de vuelo mínimo, en segundos (mayor que 0)
+     * @param vueloMedio  tiempo de vuelo medio (mayor que el mínimo)
+     * @param salidaRed   probabilidad de que un despegue salga de la red (entre 0 y 1)
+     * @param pool        hilos que ejecutan los aeropuertos
+     * @throws IllegalArgumentException si algún argumento está fuera de rango
+     */
+    public RedAeropuertos(Parametros[] aeropuertos, long vueloMinimo, double vueloMedio, double salidaRed,
+                          ForkJoinPool pool) {
+        if (aeropuertos == null || aeropuertos.length < 1 || pool == null || vueloMinimo < 1
+                || !(vueloMedio > vueloMinimo) || !(salidaRed >= 0 && salidaRed <= 1))
+            throw new IllegalArgumentException("RedAeropuertos: vuelo minimo=" + vueloMinimo
+                    + " medio=" + vueloMedio + " salida=" + salidaRed);
+        this.aeropuertos = aeropuertos.clone();
+        this.vueloMinimo = vueloMinimo;
+        this.vueloMedio = vueloMedio;
+        this.salidaRed = salidaRed;
+        this.pool = pool;
+    }
+
+    /**
+     * Simula la red hasta el instante indicado
+     *
+     * @param hastaCuando instante final
+     * @return estadística de cada aeropuerto, en el orden de los parámetros
+     */
+    public Estadistica[] simula(long hastaCuando) {
+        ProcesoAeropuerto[] procesos = creaProcesos(aeropuertos, vueloMinimo, vueloMedio, salidaRed);
+
+        nroVentanas = 0;
+        nroVuelos = 0;
+        List<ProcesoAeropuerto.Vuelo> reparto = new ArrayList<ProcesoAeropuerto.Vuelo>();
+        while (true) {
+            long siguiente = Long.MAX_VALUE;
+            for (ProcesoAeropuerto p : procesos)
+                siguiente = Math.min(siguiente, p.getCuandoSiguiente());
+            if (siguiente > hastaCuando)
+                break;
+            long fin = Math.min(hastaCuando, siguiente + vueloMinimo - 1);
+            ventana(procesos, fin);
+            for (ProcesoAeropuerto p : procesos) {
+                reparto.addAll(p.getSalientes());
+                p.getSalientes().clear();
+                p.olvida(fin);
+            }
+            for (ProcesoAeropuerto.Vuelo vuelo : reparto)
+                procesos[vuelo.destino].recibe(vuelo);
+            nroVuelos += reparto.size();
+            reparto.clear();
+            nroVentanas++;
+        }
+
+        Estadistica[] resultados = new Estadistica[procesos.length];
+        for (int i = 0; i < procesos.length; i++)
+            resultados[i] = procesos[i].getEstadistica(hastaCuando);
+        return resultados;
+    }
+
+    /**
+     * Crea los procesos de los aeropuertos. Las semillas de sus flujos de
+     * rutas salen, en orden, de la semilla del primer aeropuerto.
+     *
+     * @param aeropuertos parámetros de cada aeropuerto
+     * @param vueloMinimo tiempo de vuelo mínimo
+     * @param vueloMedio  tiempo de vuelo medio
+     * @param salidaRed   probabilidad de que un despegue salga de la red
+     * @return un proceso por aeropuerto
+     */
+    static ProcesoAeropuerto[] creaProcesos(Parametros[] aeropuertos, long vueloMinimo, double vueloMedio,
+                                            double salidaRed) {
+        long semilla = aeropuertos[0].getSemilla();
+        SplittableRandom raiz = (semilla == 0) ? new SplittableRandom() : new SplittableRandom(semilla);
+        ProcesoAeropuerto[] procesos = new ProcesoAeropuerto[aeropuertos.length];
+        for (int i = 0; i < procesos.length; i++)
+            procesos[i] = new ProcesoAeropuerto(i, procesos.length, aeropuertos[i], raiz.nextLong(),
+                    vueloMinimo, vueloMedio, salidaRed);
+        return procesos;
+    }
+
+    /**
+     * Simula una ventana: cada aeropuerto en su hilo, hasta el mismo
+     * instante, y espera a que acaben todos
+     *
+     * @param procesos aeropuertos
+     * @param fin      último instante de la ventana
+     */
+    private void ventana(ProcesoAeropuerto[] procesos, long fin) {
+        if (procesos.length == 1) {
+            procesos[0].simula(fin);
+            return;
+        }
+        List<Callable<Long>> tareas = new ArrayList<Callable<Long>>(procesos.length);
+        for (ProcesoAeropuerto p : procesos)
+            tareas.add(() -> p.simula(fin));
+        try {
+            for (Future<Long> f : pool.invokeAll(tareas))
+                f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("RedAeropuertos: interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("RedAeropuertos: error en un aeropuerto", e.getCause());
+        }
+    }
+
+    /**
+     * @return número de ventanas de la última simulación
+     */
+    public long getNroVentanas() {
+        return nroVentanas;
+    }
+
+    /**
+     * @return número de vuelos entre aeropuertos de la última simulación
+     */
+    public long getNroVuelos() {
+        return nroVuelos;
+    }
+
+    /**
+     * Simula una red de aeropuertos e imprime la estadística de cada uno.
+     * Requiere el tiempo de simulación, el tiempo de vuelo mínimo y medio,
+     * la probabilidad de salir de la red y un fichero de parámetros por
+     * aeropuerto.
+     *
+     * @param argumentos [hasta] [vuelo_minimo] [vuelo_medio] [salida_red] [aeropuerto.ini]...
+     * @throws IOException              si hay problemas con los ficheros de parámetros
+     * @throws IllegalArgumentException si algún argumento o parámetro está fuera de rango
+     */
+    public static void main(String[] argumentos)
+            throws IOException {
+        if (argumentos.length < 5) {
+            System.err.println("RedAeropuertos [hasta_cuando] [vuelo_minimo] [vuelo_medio] [salida_red] [aeropuerto.ini]...");
+            System.exit(1);
+        }
+        long finSimulacion = Long.parseLong(argumentos[0]);
+        Parametros[] aeropuertos = new Parametros[argumentos.length - 4];
+        for (int i = 4; i < argumentos.length; i++)
+            aeropuertos[i - 4] = new Parametros(argumentos[i]);
+
+        LOGGER.info("Inicio de red de {} aeropuertos. Duracion={}", aeropuertos.length, finSimulacion);
+        RedAeropuertos red = new RedAeropuertos(aeropuertos, Long.parseLong(argumentos[1]),
+                Double.parseDouble(argumentos[2]), Double.parseDouble(argumentos[3]));
+        Estadistica[] resultados = red.simula(finSimulacion);
+        LOGGER.info("Fin de red. Ventanas={} Vuelos={}", red.getNroVentanas(), red.getNroVuelos());
+        for (int i = 0; i < resultados.length; i++)
+            System.out.println("Aeropuerto " + i + " (" + argumentos[i + 4] + ")\n" + resultados[i]);
+    }
+}
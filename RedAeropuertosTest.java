@@ -0,0 +1,62 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Comprueba la simulación en paralelo de una red de aeropuertos: no depende
+ * del número de hilos, y sin vuelos entre aeropuertos cada uno da lo mismo
+ * que simulado solo.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class RedAeropuertosTest extends TestCase {
+
+    private final Parametros[] red = {parametros(7), parametros(11), parametros(13), parametros(17)};
+
+    /**
+     * Con un hilo o con cuatro, el mismo resultado
+     */
+    public void testMismoResultadoConMasHilos() {
+        ForkJoinPool uno = new ForkJoinPool(1);
+        ForkJoinPool cuatro = new ForkJoinPool(4);
+        try {
+            RedAeropuertos a = new RedAeropuertos(red, 1800, 5400, 0.5, uno);
+            RedAeropuertos b = new RedAeropuertos(red, 1800, 5400, 0.5, cuatro);
+            Estadistica[] ra = a.simula(100000);
+            Estadistica[] rb = b.simula(100000);
+            for (int i = 0; i < red.length; i++)
+                assertEquals(ra[i].toString(), rb[i].toString());
+            assertEquals(a.getNroVuelos(), b.getNroVuelos());
+            assertTrue(a.getNroVuelos() > 0);
+        } finally {
+            uno.shutdown();
+            cuatro.shutdown();
+        }
+    }
+
+    /**
+     * Si todos los despegues salen de la red, cada aeropuerto da lo mismo
+     * que simulado solo; si no, aterrizan más aeronaves
+     */
+    public void testSinVuelosComoSolo() {
+        long hasta = 100000;
+        Estadistica[] cerrada = new RedAeropuertos(red, 1800, 5400, 1).simula(hasta);
+        Estadistica[] abierta = new RedAeropuertos(red, 1800, 5400, 0.5).simula(hasta);
+        for (int i = 0; i < red.length; i++) {
+            Simulador solo = new Simulador(red[i]);
+            solo.simulaBucle(hasta);
+            assertEquals(solo.calculaEstadistica(hasta).toString(), cerrada[i].toString());
+            assertTrue(abierta[i].getFinAterrizajes() > cerrada[i].getFinAterrizajes());
+        }
+    }
+
+    private Parametros parametros(long semilla) {
+        Properties p = new Parametros(semilla, 2, 120, 0.2, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("motor.simulacion", "PRIMITIVO");
+        return new Parametros(p);
+    }
+}
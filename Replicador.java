@@ -0,0 +1,236 @@
+package aeropuerto;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Ejecuta varias réplicas independientes de una simulación en paralelo
+ * y resume sus resultados (ver ResumenReplicas).
+ * <p/>
+ * Cada réplica tiene su propio flujo de números aleatorios, obtenido
+ * dividiendo (split) un SplittableRandom raíz creado con la semilla de los
+ * parámetros. Los flujos se crean en orden antes de lanzar las réplicas, así
+ * que la réplica i recibe siempre el mismo flujo, sea cual sea el hilo que
+ * la ejecute, y los resultados son repetibles.
+ * <p/>
+ * Las réplicas se reparten en un ForkJoinPool: el rango de réplicas se
+ * divide por la mitad hasta llegar a réplicas sueltas, y los hilos libres
+ * roban las mitades pendientes de los demás.
+ * <p/>
+ * Con réplicas antitéticas, las réplicas 2k y 2k+1 comparten semilla y la
+ * segunda usa el flujo antitético de la primera (ver Antitetico). El resumen
+ * trata cada par como una observación y usa la media del intervalo entre
+ * llegadas como variable de control (ver ResumenReplicas).
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class Replicador {
+    /**
+     * Logger
+     */
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.Replicador");
+
+    /**
+     * Parámetros comunes a todas las réplicas
+     */
+    private final Parametros parametros;
+
+    /**
+     * Número de réplicas
+     */
+    private final int nroReplicas;
+
+    /**
+     * Instante fin de cada réplica
+     */
+    private final long hastaCuando;
+
+    /**
+     * Hilos que ejecutan las réplicas
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Si las réplicas van en pares antitéticos
+     */
+    private final boolean antiteticas;
+
+    /**
+     * Constructor. Ejecuta las réplicas en el pool común.
+     *
+     * @param parametros  para todas las réplicas
+     * @param nroReplicas número de réplicas (mayor que 0)
+     * @param hastaCuando tiempo que se simula en cada réplica
+     * @throws IllegalArgumentException si nroReplicas es menor que 1
+     */
+    public Replicador(Parametros parametros, int nroReplicas, long hastaCuando) {
+        this(parametros, nroReplicas, hastaCuando, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor con un pool de hilos propio.
+     *
+     * @param parametros  para todas las réplicas
+     * @param nroReplicas número de réplicas (mayor que 0)
+     * @param hastaCuando tiempo que se simula en cada réplica
+     * @param pool        hilos que ejecutan las réplicas
+     * @throws IllegalArgumentException si nroReplicas es menor que 1
+     */
+    public Replicador(Parametros parametros, int nroReplicas, long hastaCuando, ForkJoinPool pool) {
+        this(parametros, nroReplicas, hastaCuando, pool, false);
+    }
+
+    /**
+     * Constructor con un pool de hilos propio, con réplicas independientes
+     * o en pares antitéticos.
+     *
+     * @param parametros  para todas las réplicas
+     * @param nroReplicas número de réplicas (mayor que 0, y par si son antitéticas)
+     * @param hastaCuando tiempo que se simula en cada réplica
+     * @param pool        hilos que ejecutan las réplicas
+     * @param antiteticas si las réplicas van en pares antitéticos
+     * @throws IllegalArgumentException si nroReplicas es menor que 1, o impar con antitéticas
+     */
+    public Replicador(Parametros parametros, int nroReplicas, long hastaCuando, ForkJoinPool pool,
+                      boolean antiteticas) {
+        if (parametros == null || pool == null || nroReplicas < 1 || (antiteticas && nroReplicas % 2 != 0))
+            throw new IllegalArgumentException("Replicador: " + nroReplicas + " replicas");
+        this.parametros = parametros;
+        this.nroReplicas = nroReplicas;
+        this.hastaCuando = hastaCuando;
+        this.pool = pool;
+        this.antiteticas = antiteticas;
+    }
+
+    /**
+     * Ejecuta las réplicas y resume sus estadísticas, con la media del
+     * intervalo entre llegadas como variable de control.
+     *
+     * @return resumen de las réplicas
+     */
+    public ResumenReplicas ejecuta() {
+        return new ResumenReplicas(simula(), antiteticas, Generador.esperanzaEntreLlegadas(parametros));
+    }
+
+    /**
+     * Ejecuta las réplicas.
+     *
+     * @return estadística de cada réplica, en orden de réplica
+     */
+    public Estadistica[] simula() {
+        RandomGenerator[] flujos = creaFlujos();
+        Estadistica[] resultados = new Estadistica[nroReplicas];
+        pool.invoke(new Tramo(flujos, resultados, 0, nroReplicas));
+        return resultados;
+    }
+
+    /**
+     * Crea un flujo de números aleatorios independiente por réplica, o por
+     * par de réplicas si son antitéticas. Si la semilla es 0, la serie es
+     * diferente en cada ejecución.
+     *
+     * @return flujos, en orden de réplica
+     */
+    RandomGenerator[] creaFlujos() {
+        long semilla = parametros.getSemilla();
+        SplittableRandom raiz = (semilla == 0) ? new SplittableRandom() : new SplittableRandom(semilla);
+        RandomGenerator[] flujos = new RandomGenerator[nroReplicas];
+        if (antiteticas) {
+            for (int i = 0; i < nroReplicas; i += 2) {
+                long semillaPar = raiz.nextLong();
+                flujos[i] = new SplittableRandom(semillaPar);
+                flujos[i + 1] = new Antitetico(new SplittableRandom(semillaPar));
+            }
+        } else {
+            for (int i = 0; i < nroReplicas; i++)
+                flujos[i] = raiz.split();
+        }
+        return flujos;
+    }
+
+    /**
+     * Simula una réplica con su flujo aleatorio, y con sus propios ficheros
+     * de salida (ver Parametros.conSufijo)
+     *
+     * @param replica número de la réplica
+     * @param flujo   números aleatorios de la réplica
+     * @return estadística de la réplica
+     */
+    private Estadistica simulaReplica(int replica, RandomGenerator flujo) {
+        Estadistica estadistica;
+        try (Simulador simulador = new Simulador(parametros.conSufijo("replica" + replica), flujo)) {
+            simulador.simulaBucle(hastaCuando);
+            estadistica = simulador.calculaEstadistica(hastaCuando);
+        }
+        if (estadistica == null)
+            throw new IllegalStateException("Replicador: replica sin estadistica");
+        return estadistica;
+    }
+
+    /**
+     * Tarea que simula un rango de réplicas, dividiéndolo por la mitad
+     * mientras tenga más de una réplica.
+     */
+    private class Tramo extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final RandomGenerator[] flujos;
+        private final Estadistica[] resultados;
+        private final int desde;
+        private final int hasta;
+
+        Tramo(RandomGenerator[] flujos, Estadistica[] resultados, int desde, int hasta) {
+            this.flujos = flujos;
+            this.resultados = resultados;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        protected void compute() {
+            if (hasta - desde == 1) {
+                resultados[desde] = simulaReplica(desde, flujos[desde]);
+                return;
+            }
+            int mitad = (desde + hasta) >>> 1;
+            invokeAll(new Tramo(flujos, resultados, desde, mitad),
+                    new Tramo(flujos, resultados, mitad, hasta));
+        }
+    }
+
+    /**
+     * Prepara y lanza las réplicas. Al acabar imprime el resumen.
+     * Requiere tres argumentos de entrada:
+     * <ol>
+     * <li>tiempo que dura cada réplica (debe ser > 0)
+     * <li>fichero con los parámetros de simulación
+     * <li>número de réplicas (debe ser > 0)
+     * </ol>
+     * y opcionalmente "antiteticas", para simular las réplicas en pares
+     * antitéticos (el número de réplicas debe ser par).
+     *
+     * @param argumentos [tiempo_de_simulación] [fichero_de_parámetros] [replicas] [antiteticas]
+     * @throws IOException              si hay problemas con el fichero de parámetros
+     * @throws IllegalArgumentException si algún argumento o parámetro está fuera de rango
+     * @throws NumberFormatException    si el valor de algún parámetro está mal escrito
+     */
+    public static void main(String[] argumentos)
+            throws IOException {
+        if (argumentos.length != 3 && !(argumentos.length == 4 && argumentos[3].equals("antiteticas"))) {
+            System.err.println("Replicador [hasta_cuando] [fichero_parametros.ini] [replicas] [antiteticas]");
+            System.exit(1);
+        }
+        long finSimulacion = Long.parseLong(argumentos[0]);
+        Parametros parametros = new Parametros(argumentos[1]);
+        int replicas = Integer.parseInt(argumentos[2]);
+        boolean antiteticas = argumentos.length == 4;
+
+        LOGGER.info("Inicio de {} replicas. Duracion={}", replicas, finSimulacion);
+        ResumenReplicas resumen = new Replicador(parametros, replicas, finSimulacion,
+                ForkJoinPool.commonPool(), antiteticas).ejecuta();
+        LOGGER.info("Resultado {}", resumen);
+        System.out.println("Resultado " + resumen);
+    }
+}
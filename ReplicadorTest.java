@@ -0,0 +1,128 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pruebas del Replicador: repetibilidad e independencia de las réplicas.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ReplicadorTest extends TestCase {
+
+    private final Parametros parametros = new Parametros(3, 2, 120, 0.5, 600, 200, 100, 60, 10);
+
+    /**
+     * Con la misma semilla, los resultados no dependen del número de hilos.
+     */
+    public void testRepetibleConDistintosHilos() {
+        Estadistica[] a = new Replicador(parametros, 6, 50000, new ForkJoinPool(1)).simula();
+        Estadistica[] b = new Replicador(parametros, 6, 50000, new ForkJoinPool(4)).simula();
+        for (int i = 0; i < a.length; i++)
+            assertEquals(a[i].toString(), b[i].toString());
+    }
+
+    /**
+     * Cada réplica escribe sus ventanas en su propio fichero, y no en el común
+     */
+    public void testFicherosPorReplica() throws Exception {
+        File directorio = Files.createTempDirectory("replicas").toFile();
+        File comun = new File(directorio, "ventanas.ndjson");
+        Properties p = parametros.getPropiedades();
+        p.setProperty("ventana.segundos", "3600");
+        p.setProperty("ventana.fichero", comun.getPath());
+        try {
+            new Replicador(new Parametros(p), 3, 36000, new ForkJoinPool(3)).simula();
+            assertFalse(comun.exists());
+            for (int i = 0; i < 3; i++) {
+                List<String> lineas = Files.readAllLines(new File(directorio, "ventanas.ndjson.replica" + i).toPath());
+                assertEquals(10, lineas.size());
+                assertTrue(lineas.get(9).contains("36000"));
+            }
+        } finally {
+            for (File f : directorio.listFiles())
+                f.delete();
+            directorio.delete();
+        }
+    }
+
+    /**
+     * Cada réplica tiene su propio flujo aleatorio: no salen todas iguales.
+     */
+    public void testReplicasIndependientes() {
+        ResumenReplicas resumen = new Replicador(parametros, 6, 50000).ejecuta();
+        assertEquals(6, resumen.getNroReplicas());
+        assertTrue(resumen.getDesviacion(Metrica.FIN_ATERRIZAJES) > 0);
+        assertTrue(resumen.getSemiamplitud(Metrica.FIN_ATERRIZAJES) > 0);
+    }
+
+    /**
+     * Con flujos separados, las llegadas no dependen de cuántas demoras
+     * de reintento se pidan
+     */
+    public void testFlujosSeparados() {
+        Parametros separados = new Parametros(separados("POISSON_KNUTH"));
+        Generador a = new Generador(separados, new SplittableRandom(11));
+        Generador b = new Generador(separados, new SplittableRandom(11));
+        for (int i = 0; i < 100; i++) {
+            b.demoraReintento();
+            b.residuoReintento();
+            assertEquals(a.entreLlegadas(), b.entreLlegadas());
+            assertEquals(a.duracionEnTierra(), b.duracionEnTierra());
+        }
+        assertEquals(100, a.getNroLlegadas());
+        assertEquals(a.getSumaEntreLlegadas(), b.getSumaEntreLlegadas());
+    }
+
+    /**
+     * Las dos réplicas de cada par antitético tienen las llegadas
+     * correladas negativamente, y el resumen va por pares
+     */
+    public void testAntiteticas() {
+        Parametros antiteticos = new Parametros(separados("EXPONENCIAL"));
+        Estadistica[] r = new Replicador(antiteticos, 20, 50000, new ForkJoinPool(2), true).simula();
+        double esperanza = Generador.esperanzaEntreLlegadas(antiteticos);
+        double cruzado = 0;
+        for (int i = 0; i < r.length; i += 2)
+            cruzado += (r[i].getMediaEntreLlegadas() - esperanza) * (r[i + 1].getMediaEntreLlegadas() - esperanza);
+        assertTrue(cruzado < 0);
+        ResumenReplicas resumen = new ResumenReplicas(r, true, esperanza);
+        assertEquals(20, resumen.getNroReplicas());
+        assertEquals(10, resumen.getNroObservaciones());
+        try {
+            new Replicador(antiteticos, 5, 50000, new ForkJoinPool(2), true);
+            fail("Deberia rechazar un numero impar de replicas antiteticas");
+        } catch (IllegalArgumentException e) {
+            // correcto
+        }
+    }
+
+    /**
+     * La variable de control estrecha el intervalo de los aterrizajes,
+     * que dependen casi solo de las llegadas
+     */
+    public void testVariableControl() {
+        ResumenReplicas resumen = new Replicador(parametros, 20, 50000).ejecuta();
+        assertTrue(resumen.getSemiamplitudControlada(Metrica.FIN_ATERRIZAJES)
+                < resumen.getSemiamplitud(Metrica.FIN_ATERRIZAJES));
+        assertEquals(Generador.esperanzaEntreLlegadas(parametros),
+                resumen.getMediaControlada(Metrica.MEDIA_ENTRE_LLEGADAS), 1e-9);
+        ResumenReplicas sinControl = new ResumenReplicas(new Replicador(parametros, 4, 50000).simula());
+        assertEquals(sinControl.getMedia(Metrica.FIN_ATERRIZAJES),
+                sinControl.getMediaControlada(Metrica.FIN_ATERRIZAJES));
+    }
+
+    private Properties separados(String llegadas) {
+        Properties p = parametros.getPropiedades();
+        p.setProperty("generador.flujos", "SEPARADOS");
+        p.setProperty("distribucion.llegadas", llegadas);
+        return p;
+    }
+}
@@ -0,0 +1,292 @@
+package aeropuerto;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resumen de las estadísticas de varias réplicas independientes de una
+ * simulación: para cada Metrica, su media, su desviación típica y la
+ * semiamplitud del intervalo de confianza al 95% de la media
+ * (t de Student con n-1 grados de libertad).
+ * <p/>
+ * Con réplicas antitéticas (ver Antitetico) las réplicas van por pares,
+ * 2k y 2k+1, y cada observación es la media de un par: los pares son
+ * independientes entre sí, aunque las dos réplicas de un par no lo sean.
+ * <p/>
+ * Si se da la esperanza del intervalo entre llegadas, se usa además su media
+ * en cada observación (Metrica.MEDIA_ENTRE_LLEGADAS) como variable de
+ * control: la media controlada de una métrica es la media menos
+ * beta*(media de control - esperanza), con beta la pendiente de la regresión
+ * de la métrica sobre la variable de control. Su intervalo usa la varianza
+ * residual de la regresión, con n-2 grados de libertad, y es más estrecho
+ * cuanto más correladas estén la métrica y las llegadas.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Replicador
+ */
+public class ResumenReplicas {
+    /**
+     * Cuantiles 0.975 de la t de Student, de 1 a 30 grados de libertad
+     */
+    private static final double[] T_975 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    /**
+     * Cuantil 0.975 de la normal tipificada
+     */
+    private static final double Z_975 = 1.959964;
+
+    /**
+     * Número de réplicas resumidas
+     */
+    private final int nroReplicas;
+
+    /**
+     * Número de observaciones independientes: réplicas, o pares de réplicas
+     * si son antitéticas
+     */
+    private final int nroObservaciones;
+
+    /**
+     * Si las réplicas son pares antitéticos
+     */
+    private final boolean antiteticas;
+
+    /**
+     * Esperanza de la variable de control, o NaN si no se usa
+     */
+    private final double esperanzaControl;
+
+    /**
+     * Media de cada métrica
+     */
+    private final Map<Metrica, Double> medias = new EnumMap<Metrica, Double>(Metrica.class);
+
+    /**
+     * Desviación típica muestral de cada métrica
+     */
+    private final Map<Metrica, Double> desviaciones = new EnumMap<Metrica, Double>(Metrica.class);
+
+    /**
+     * Media controlada de cada métrica
+     */
+    private final Map<Metrica, Double> mediasControladas = new EnumMap<Metrica, Double>(Metrica.class);
+
+    /**
+     * Semiamplitud del intervalo de confianza de la media controlada de cada métrica
+     */
+    private final Map<Metrica, Double> semiamplitudesControladas = new EnumMap<Metrica, Double>(Metrica.class);
+
+    /**
+     * Resume las estadísticas de réplicas independientes
+     *
+     * @param replicas estadísticas de cada réplica
+     * @throws IllegalArgumentException si no hay ninguna réplica
+     */
+    public ResumenReplicas(Estadistica[] replicas) {
+        this(replicas, false, Double.NaN);
+    }
+
+    /**
+     * Resume las estadísticas de las réplicas, por pares si son antitéticas,
+     * y con variable de control si se da su esperanza
+     *
+     * @param replicas         estadísticas de cada réplica
+     * @param antiteticas      si las réplicas 2k y 2k+1 son un par antitético
+     * @param esperanzaControl esperanza del intervalo entre llegadas, o NaN
+     *                         para no usar variable de control
+     * @throws IllegalArgumentException si no hay ninguna réplica, o son
+     *                                  antitéticas y no van por pares
+     */
+    public ResumenReplicas(Estadistica[] replicas, boolean antiteticas, double esperanzaControl) {
+        if (replicas == null || replicas.length == 0)
+            throw new IllegalArgumentException("ResumenReplicas: sin replicas");
+        if (antiteticas && replicas.length % 2 != 0)
+            throw new IllegalArgumentException("ResumenReplicas: " + replicas.length
+                    + " replicas antiteticas, no van por pares");
+        nroReplicas = replicas.length;
+        this.antiteticas = antiteticas;
+        this.esperanzaControl = esperanzaControl;
+        nroObservaciones = antiteticas ? nroReplicas / 2 : nroReplicas;
+        double[] control = observaciones(replicas, Metrica.MEDIA_ENTRE_LLEGADAS);
+        for (Metrica m : Metrica.values()) {
+            double[] x = observaciones(replicas, m);
+            // Algoritmo de Welford, numéricamente estable
+            double media = 0;
+            double m2 = 0;
+            for (int i = 0; i < nroObservaciones; i++) {
+                double delta = x[i] - media;
+                media += delta / (i + 1);
+                m2 += delta * (x[i] - media);
+            }
+            medias.put(m, media);
+            desviaciones.put(m, (nroObservaciones > 1) ? Math.sqrt(m2 / (nroObservaciones - 1)) : 0.0);
+            controla(m, x, control);
+        }
+    }
+
+    /**
+     * Observaciones independientes de una métrica: su valor en cada réplica,
+     * o la media de cada par si son antitéticas
+     *
+     * @param replicas estadísticas de cada réplica
+     * @param metrica  métrica
+     * @return observaciones
+     */
+    private double[] observaciones(Estadistica[] replicas, Metrica metrica) {
+        double[] x = new double[nroObservaciones];
+        for (int i = 0; i < nroObservaciones; i++)
+            x[i] = antiteticas
+                    ? (metrica.getValor(replicas[2 * i]) + metrica.getValor(replicas[2 * i + 1])) / 2
+                    : metrica.getValor(replicas[i]);
+        return x;
+    }
+
+    /**
+     * Calcula la media controlada de una métrica y su semiamplitud.
+     * Sin variable de control, o con menos de tres observaciones o con la
+     * variable de control constante, son la media y la semiamplitud sin controlar.
+     *
+     * @param metrica métrica
+     * @param x       observaciones de la métrica
+     * @param c       observaciones de la variable de control
+     */
+    private void controla(Metrica metrica, double[] x, double[] c) {
+        double mediaX = medias.get(metrica);
+        double mediaC = 0;
+        for (double ci : c)
+            mediaC += ci / nroObservaciones;
+        double sxx = 0;
+        double scc = 0;
+        double sxc = 0;
+        for (int i = 0; i < nroObservaciones; i++) {
+            sxx += (x[i] - mediaX) * (x[i] - mediaX);
+            scc += (c[i] - mediaC) * (c[i] - mediaC);
+            sxc += (x[i] - mediaX) * (c[i] - mediaC);
+        }
+        if (Double.isNaN(esperanzaControl) || nroObservaciones < 3 || !(scc > 0)) {
+            mediasControladas.put(metrica, mediaX);
+            semiamplitudesControladas.put(metrica, getSemiamplitud(metrica));
+            return;
+        }
+        double beta = sxc / scc;
+        double sesgo = mediaC - esperanzaControl;
+        double residual = Math.max(0, sxx - beta * sxc) / (nroObservaciones - 2);
+        mediasControladas.put(metrica, mediaX - beta * sesgo);
+        semiamplitudesControladas.put(metrica, cuantilT(nroObservaciones - 2)
+                * Math.sqrt(residual * (1.0 / nroObservaciones + sesgo * sesgo / scc)));
+    }
+
+    /**
+     * @return número de réplicas resumidas
+     */
+    public int getNroReplicas() {
+        return nroReplicas;
+    }
+
+    /**
+     * @return número de observaciones independientes: réplicas, o pares si son antitéticas
+     */
+    public int getNroObservaciones() {
+        return nroObservaciones;
+    }
+
+    /**
+     * @param metrica métrica
+     * @return media de la métrica en las réplicas
+     */
+    public double getMedia(Metrica metrica) {
+        return medias.get(metrica);
+    }
+
+    /**
+     * @param metrica métrica
+     * @return desviación típica muestral de la métrica en las observaciones
+     */
+    public double getDesviacion(Metrica metrica) {
+        return desviaciones.get(metrica);
+    }
+
+    /**
+     * Semiamplitud del intervalo de confianza al 95% de la media.
+     * Con una sola réplica no se puede estimar y vale infinito.
+     *
+     * @param metrica métrica
+     * @return semiamplitud del intervalo de confianza
+     */
+    public double getSemiamplitud(Metrica metrica) {
+        if (nroObservaciones < 2)
+            return Double.POSITIVE_INFINITY;
+        return cuantilT(nroObservaciones - 1) * getDesviacion(metrica) / Math.sqrt(nroObservaciones);
+    }
+
+    /**
+     * Media de la métrica corregida con la variable de control.
+     * Sin variable de control es la media.
+     *
+     * @param metrica métrica
+     * @return media controlada
+     */
+    public double getMediaControlada(Metrica metrica) {
+        return mediasControladas.get(metrica);
+    }
+
+    /**
+     * Semiamplitud del intervalo de confianza al 95% de la media controlada.
+     * Sin variable de control es la semiamplitud de la media.
+     *
+     * @param metrica métrica
+     * @return semiamplitud del intervalo de confianza
+     */
+    public double getSemiamplitudControlada(Metrica metrica) {
+        return semiamplitudesControladas.get(metrica);
+    }
+
+    /**
+     * Cuantil 0.975 de la t de Student. Por encima de 30 grados de libertad
+     * usa el desarrollo de Cornish-Fisher a partir del cuantil normal.
+     *
+     * @param gradosLibertad grados de libertad (mayor que 0)
+     * @return cuantil 0.975
+     */
+    static double cuantilT(int gradosLibertad) {
+        if (gradosLibertad <= T_975.length)
+            return T_975[gradosLibertad - 1];
+        double z = Z_975;
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        double v = gradosLibertad;
+        return z + (z3 + z) / (4 * v) + (5 * z5 + 16 * z3 + 3 * z) / (96 * v * v);
+    }
+
+    /**
+     * Devuelve un String con el resumen de todas las métricas.
+     *
+     * @return media ± semiamplitud del intervalo de confianza, por métrica
+     */
+    public String toString() {
+        String a = "Resumen de " + nroReplicas + " replicas"
+                + (antiteticas ? " en pares antiteticos" : "") + " (IC 95%)\n";
+        for (Metrica m : Metrica.values()) {
+            a += "\t" + m + "\tMedia: " + redondea(getMedia(m))
+                    + "\t+/- " + redondea(getSemiamplitud(m))
+                    + "\tDesviacion: " + redondea(getDesviacion(m));
+            if (!Double.isNaN(esperanzaControl))
+                a += "\tControlada: " + redondea(getMediaControlada(m))
+                        + "\t+/- " + redondea(getSemiamplitudControlada(m));
+            a += "\n";
+        }
+        return a;
+    }
+
+    /**
+     * Redondea a dos decimales, como Estadistica
+     */
+    private static double redondea(double x) {
+        return Math.round(x * 100) / 100.0;
+    }
+}
@@ -0,0 +1,463 @@
+package aeropuerto;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serie temporal de estadísticas por ventanas de tiempo simulado.
+ * <p/>
+ * Cada N segundos simulados Estadistica cierra una ventana y la anota aquí:
+ * operaciones terminadas, operaciones iniciadas en hora y con demora, y
+ * ocupación media y máxima del aeropuerto y de las pistas en la ventana.
+ * Así se puede seguir una simulación larga mientras avanza, en lugar de
+ * obtener solo el resultado final.
+ * <p/>
+ * Las últimas ventanas se guardan en un buffer circular de tamaño fijo,
+ * en arrays de primitivos. Si hay un fichero de salida, cada ventana se
+ * escribe además en él en cuanto se cierra, como una línea JSON (NDJSON).
+ * <p/>
+ * No es segura entre hilos: se lee desde el hilo que simula.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Estadistica
+ */
+public class SerieVentanas implements Closeable {
+    /**
+     * Duración de cada ventana, en segundos simulados
+     */
+    private final long anchura;
+
+    /*
+    * Buffer circular de ventanas
+    */
+    private final long[] inicio;
+    private final long[] fin;
+    private final int[] aterrizajes;
+    private final int[] despegues;
+    private final int[] enHora;
+    private final int[] demora;
+    private final double[] mediaAeropuerto;
+    private final int[] maximoAeropuerto;
+    private final double[] mediaPistas;
+    private final int[] maximoPistas;
+
+    /**
+     * Número total de ventanas anotadas
+     */
+    private long nroAnotadas = 0;
+
+    /**
+     * Inicio de la ventana en curso
+     */
+    private long inicioVentana = 0;
+
+    /**
+     * Fin de la ventana en curso
+     */
+    private long finVentana;
+
+    /*
+    * Valores acumulados de Estadistica al inicio de la ventana en curso
+    */
+    private int finAterrizajesAnterior = 0;
+    private int finDespeguesAnterior = 0;
+    private int enHoraAnterior = 0;
+    private int demoraAnterior = 0;
+    private long enAeropuertoAnterior = 0;
+    private long enPistasAnterior = 0;
+
+    /**
+     * Fichero de salida (null si no hay)
+     */
+    private final FileChannel canal;
+
+    /**
+     * Línea JSON que se está escribiendo
+     */
+    private final StringBuilder linea = new StringBuilder(256);
+
+    /**
+     * Bytes de la línea JSON
+     */
+    private ByteBuffer bytes = ByteBuffer.allocate(256);
+
+    /**
+     * Serie sin fichero de salida
+     *
+     * @param anchura   segundos simulados de cada ventana (mayor que 0)
+     * @param capacidad número de ventanas que se guardan (mayor que 0)
+     * @throws IllegalArgumentException si anchura o capacidad no son positivas
+     */
+    public SerieVentanas(long anchura, int capacidad) {
+        this(anchura, capacidad, null);
+    }
+
+    /**
+     * Serie que escribe cada ventana en un fichero NDJSON
+     *
+     * @param anchura   segundos simulados de cada ventana (mayor que 0)
+     * @param capacidad número de ventanas que se guardan (mayor que 0)
+     * @param canal     fichero de salida, o null si no se escribe
+     * @throws IllegalArgumentException si anchura o capacidad no son positivas
+     */
+    public SerieVentanas(long anchura, int capacidad, FileChannel canal) {
+        if (anchura < 1 || capacidad < 1)
+            throw new IllegalArgumentException("SerieVentanas: anchura=" + anchura + " capacidad=" + capacidad);
+        this.anchura = anchura;
+        this.canal = canal;
+        finVentana = anchura;
+        inicio = new long[capacidad];
+        fin = new long[capacidad];
+        aterrizajes = new int[capacidad];
+        despegues = new int[capacidad];
+        enHora = new int[capacidad];
+        demora = new int[capacidad];
+        mediaAeropuerto = new double[capacidad];
+        maximoAeropuerto = new int[capacidad];
+        mediaPistas = new double[capacidad];
+        maximoPistas = new int[capacidad];
+    }
+
+    /**
+     * Crea un fichero NDJSON para escribir ventanas, vaciándolo si ya existe
+     *
+     * @param fichero nombre del fichero
+     * @return canal del fichero
+     * @throws IOException si no se puede abrir el fichero
+     */
+    public static FileChannel abre(String fichero) throws IOException {
+        return abre(fichero, true);
+    }
+
+    /**
+     * Abre un fichero NDJSON para escribir ventanas
+     *
+     * @param fichero nombre del fichero
+     * @param nuevo   FALSE si se continúa desde un punto de control: el
+     *                fichero no se vacía, y lee lo recorta a la longitud
+     *                guardada
+     * @return canal del fichero
+     * @throws IOException si no se puede abrir el fichero
+     */
+    static FileChannel abre(String fichero, boolean nuevo) throws IOException {
+        if (nuevo)
+            return FileChannel.open(Paths.get(fichero), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return FileChannel.open(Paths.get(fichero), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * @return segundos simulados de cada ventana
+     */
+    public long getAnchura() {
+        return anchura;
+    }
+
+    /**
+     * @return instante en que termina la ventana en curso
+     */
+    public long getFinVentana() {
+        return finVentana;
+    }
+
+    /**
+     * @return instante en que empezó la ventana en curso
+     */
+    public long getInicioVentana() {
+        return inicioVentana;
+    }
+
+    /**
+     * Anota una ventana a partir de los valores acumulados de Estadistica
+     * en su instante final. Si el final es el de la ventana en curso empieza
+     * la siguiente; si es anterior (cierre de la estadística a mitad de una
+     * ventana), la ventana anotada es parcial y la siguiente acaba donde
+     * habría acabado la ventana en curso.
+     *
+     * @param hasta         instante final de la ventana
+     * @param finAterriz    aterrizajes terminados, acumulados
+     * @param finDespeg     despegues terminados, acumulados
+     * @param enHoraTotal   operaciones iniciadas en hora, acumuladas
+     * @param demoraTotal   operaciones iniciadas con demora, acumuladas
+     * @param enAeropuerto  producto aeronaves en aeropuerto por tiempo, acumulado
+     * @param maxAeropuerto máximo de aeronaves en el aeropuerto en la ventana
+     * @param enPistas      producto aeronaves en pistas por tiempo, acumulado
+     * @param maxPistas     máximo de aeronaves en pistas en la ventana
+     * @throws IllegalStateException si no se puede escribir en el fichero
+     */
+    void anota(long hasta, int finAterriz, int finDespeg, int enHoraTotal, int demoraTotal,
+               long enAeropuerto, int maxAeropuerto, long enPistas, int maxPistas) {
+        int i = (int) (nroAnotadas % inicio.length);
+        long duracion = hasta - inicioVentana;
+        inicio[i] = inicioVentana;
+        fin[i] = hasta;
+        aterrizajes[i] = finAterriz - finAterrizajesAnterior;
+        despegues[i] = finDespeg - finDespeguesAnterior;
+        enHora[i] = enHoraTotal - enHoraAnterior;
+        demora[i] = demoraTotal - demoraAnterior;
+        mediaAeropuerto[i] = (duracion > 0) ? (double) (enAeropuerto - enAeropuertoAnterior) / duracion : 0;
+        maximoAeropuerto[i] = maxAeropuerto;
+        mediaPistas[i] = (duracion > 0) ? (double) (enPistas - enPistasAnterior) / duracion : 0;
+        maximoPistas[i] = maxPistas;
+        nroAnotadas++;
+
+        finAterrizajesAnterior = finAterriz;
+        finDespeguesAnterior = finDespeg;
+        enHoraAnterior = enHoraTotal;
+        demoraAnterior = demoraTotal;
+        enAeropuertoAnterior = enAeropuerto;
+        enPistasAnterior = enPistas;
+        inicioVentana = hasta;
+        if (hasta >= finVentana)
+            finVentana += anchura;
+
+        if (canal != null)
+            escribe(i);
+    }
+
+    /**
+     * Pone a cero los valores acumulados de los que parte la ventana en
+     * curso, porque Estadistica ha borrado sus acumuladores (ver
+     * Estadistica.reinicia) y vuelve a contar desde cero
+     */
+    void reiniciaAcumulados() {
+        finAterrizajesAnterior = 0;
+        finDespeguesAnterior = 0;
+        enHoraAnterior = 0;
+        demoraAnterior = 0;
+        enAeropuertoAnterior = 0;
+        enPistasAnterior = 0;
+    }
+
+    /**
+     * @return número de ventanas disponibles en el buffer
+     */
+    public int getNroVentanas() {
+        return (int) Math.min(nroAnotadas, inicio.length);
+    }
+
+    /**
+     * @return número total de ventanas anotadas, incluidas las que ya
+     *         no están en el buffer
+     */
+    public long getNroAnotadas() {
+        return nroAnotadas;
+    }
+
+    /**
+     * Posición en el buffer de la ventana k-ésima disponible (0 la más antigua)
+     */
+    private int posicion(int k) {
+        if (k < 0 || k >= getNroVentanas())
+            throw new IndexOutOfBoundsException("SerieVentanas: ventana " + k);
+        return (int) ((nroAnotadas - getNroVentanas() + k) % inicio.length);
+    }
+
+    /**
+     * @param k ventana disponible (0 la más antigua)
+     * @return instante de inicio de la ventana
+     */
+    public long getInicio(int k) {
+        return inicio[posicion(k)];
+    }
+
+    /**
+     * @param k ventana disponible (0 la más antigua)
+     * @return instante de fin de la ventana
+     */
+    public long getFin(int k) {
+        return fin[posicion(k)];
+    }
+
+    /**
+     * @param k ventana disponible (0 la más antigua)
+     * @return operaciones (aterrizajes y despegues) terminadas en la ventana
+     */
+    public int getOperaciones(int k) {
+        int p = posicion(k);
+        return aterrizajes[p] + despegues[p];
+    }
+
+    /**
+     * @param k ventana disponible (0 la más antigua)
+     * @return porcentaje de operaciones iniciadas en hora en la ventana
+     */
+    public double getPuntualidad(int k) {
+        int p = posicion(k);
+        int total = enHora[p] + demora[p];
+        return (total > 0) ? 100.0 * enHora[p] / total : 100;
+    }
+
+    /**
+     * @param k ventana disponible (0 la más antigua)
+     * @return número medio de aeronaves en el aeropuerto en la ventana
+     */
+    public double getMediaEnAeropuerto(int k) {
+        return mediaAeropuerto[posicion(k)];
+    }
+
+    /**
+     * @param k ventana disponible (0 la más antigua)
+     * @return número máximo de aeronaves en el aeropuerto en la ventana
+     */
+    public int getMaximoEnAeropuerto(int k) {
+        return maximoAeropuerto[posicion(k)];
+    }
+
+    /**
+     * @param k ventana disponible (0 la más antigua)
+     * @return número medio de aeronaves en pistas en la ventana
+     */
+    public double getMediaEnPistas(int k) {
+        return mediaPistas[posicion(k)];
+    }
+
+    /**
+     * @param k ventana disponible (0 la más antigua)
+     * @return número máximo de aeronaves en pistas en la ventana
+     */
+    public int getMaximoEnPistas(int k) {
+        return maximoPistas[posicion(k)];
+    }
+
+    /**
+     * Escribe el estado de la serie en un punto de control: ventana en curso,
+     * ventanas disponibles en el buffer, de la más antigua a la más reciente,
+     * y longitud del fichero de salida (-1 si no hay)
+     *
+     * @param salida donde se escribe
+     * @throws IOException si hay problemas al escribir
+     */
+    void escribe(DataOutput salida) throws IOException {
+        salida.writeLong(anchura);
+        salida.writeLong(nroAnotadas);
+        salida.writeLong(inicioVentana);
+        salida.writeLong(finVentana);
+        salida.writeInt(finAterrizajesAnterior);
+        salida.writeInt(finDespeguesAnterior);
+        salida.writeInt(enHoraAnterior);
+        salida.writeInt(demoraAnterior);
+        salida.writeLong(enAeropuertoAnterior);
+        salida.writeLong(enPistasAnterior);
+        int n = getNroVentanas();
+        salida.writeInt(n);
+        for (int k = 0; k < n; k++) {
+            int p = posicion(k);
+            salida.writeLong(inicio[p]);
+            salida.writeLong(fin[p]);
+            salida.writeInt(aterrizajes[p]);
+            salida.writeInt(despegues[p]);
+            salida.writeInt(enHora[p]);
+            salida.writeInt(demora[p]);
+            salida.writeDouble(mediaAeropuerto[p]);
+            salida.writeInt(maximoAeropuerto[p]);
+            salida.writeDouble(mediaPistas[p]);
+            salida.writeInt(maximoPistas[p]);
+        }
+        salida.writeLong((canal == null) ? -1 : canal.position());
+    }
+
+    /**
+     * Lee el estado de la serie de un punto de control. Si el punto de control
+     * tiene más ventanas de las que caben en el buffer, se quedan las últimas.
+     * El fichero de salida se recorta a la longitud guardada y se sigue
+     * escribiendo desde ahí, así que las ventanas escritas después del punto
+     * de control no se repiten. Si el fichero es más corto (por ejemplo,
+     * el recién creado de una bifurcación), se sigue desde su final.
+     *
+     * @param entrada de donde se lee
+     * @throws IOException si hay problemas al leer o la anchura no coincide
+     */
+    void lee(DataInput entrada) throws IOException {
+        if (entrada.readLong() != anchura)
+            throw new IOException("SerieVentanas: anchura distinta en el punto de control");
+        nroAnotadas = entrada.readLong();
+        inicioVentana = entrada.readLong();
+        finVentana = entrada.readLong();
+        finAterrizajesAnterior = entrada.readInt();
+        finDespeguesAnterior = entrada.readInt();
+        enHoraAnterior = entrada.readInt();
+        demoraAnterior = entrada.readInt();
+        enAeropuertoAnterior = entrada.readLong();
+        enPistasAnterior = entrada.readLong();
+        int n = entrada.readInt();
+        for (int k = 0; k < n; k++) {
+            int p = (int) ((nroAnotadas - n + k) % inicio.length);
+            inicio[p] = entrada.readLong();
+            fin[p] = entrada.readLong();
+            aterrizajes[p] = entrada.readInt();
+            despegues[p] = entrada.readInt();
+            enHora[p] = entrada.readInt();
+            demora[p] = entrada.readInt();
+            mediaAeropuerto[p] = entrada.readDouble();
+            maximoAeropuerto[p] = entrada.readInt();
+            mediaPistas[p] = entrada.readDouble();
+            maximoPistas[p] = entrada.readInt();
+        }
+        long longitud = entrada.readLong();
+        if (canal != null && longitud >= 0) {
+            longitud = Math.min(longitud, canal.size());
+            canal.truncate(longitud);
+            canal.position(longitud);
+        } else if (canal != null) {
+            canal.position(canal.size());
+        }
+    }
+
+    /**
+     * Escribe la ventana i del buffer como una línea JSON
+     */
+    private void escribe(int i) {
+        int total = enHora[i] + demora[i];
+        linea.setLength(0);
+        linea.append("{\"inicio\":").append(inicio[i])
+                .append(",\"fin\":").append(fin[i])
+                .append(",\"aterrizajes\":").append(aterrizajes[i])
+                .append(",\"despegues\":").append(despegues[i])
+                .append(",\"enHora\":").append(enHora[i])
+                .append(",\"demora\":").append(demora[i])
+                .append(",\"puntualidad\":").append(redondea((total > 0) ? 100.0 * enHora[i] / total : 100))
+                .append(",\"mediaAeropuerto\":").append(redondea(mediaAeropuerto[i]))
+                .append(",\"maximoAeropuerto\":").append(maximoAeropuerto[i])
+                .append(",\"mediaPistas\":").append(redondea(mediaPistas[i]))
+                .append(",\"maximoPistas\":").append(maximoPistas[i])
+                .append("}\n");
+        if (bytes.capacity() < linea.length())
+            bytes = ByteBuffer.allocate(2 * linea.length());
+        bytes.clear();
+        // La línea es ASCII: un byte por carácter
+        for (int c = 0; c < linea.length(); c++)
+            bytes.put((byte) linea.charAt(c));
+        bytes.flip();
+        try {
+            while (bytes.hasRemaining())
+                canal.write(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("SerieVentanas: no se puede escribir la ventana " + e);
+        }
+    }
+
+    /**
+     * Redondea a dos decimales, como Estadistica
+     */
+    private static double redondea(double x) {
+        return Math.round(x * 100) / 100.0;
+    }
+
+    /**
+     * Cierra el fichero de salida, si lo hay
+     *
+     * @throws IOException si hay problemas al cerrar el fichero
+     */
+    public void close() throws IOException {
+        if (canal != null)
+            canal.close();
+    }
+}
@@ -0,0 +1,128 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Comprueba que las ventanas de SerieVentanas cuadran con la estadística
+ * final de la simulación y que se escriben en el fichero NDJSON.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class SerieVentanasTest extends TestCase {
+
+    private static final long HASTA = 100000;
+    private static final long VENTANA = 3600;
+
+    /**
+     * La suma de las ventanas da los totales, y la media ponderada de las
+     * ocupaciones medias da la ocupación media de toda la simulación
+     */
+    public void testVentanasCuadranConEstadistica() throws Exception {
+        File fichero = File.createTempFile("ventanas", ".ndjson");
+        fichero.deleteOnExit();
+        Properties p = new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("ventana.segundos", Long.toString(VENTANA));
+        p.setProperty("ventana.fichero", fichero.getPath());
+
+        Estadistica estadistica;
+        SerieVentanas serie;
+        try (Simulador simulador = new Simulador(new Parametros(p))) {
+            simulador.simulaBucle(HASTA);
+            estadistica = simulador.calculaEstadistica(HASTA);
+            serie = simulador.getVentanas();
+        }
+        Estadistica sinVentanas = simula(new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10));
+        assertEquals(sinVentanas.toString(), estadistica.toString());
+
+        int nroVentanas = (int) ((HASTA + VENTANA - 1) / VENTANA);
+        assertEquals(nroVentanas, serie.getNroVentanas());
+        assertEquals(HASTA, serie.getFin(nroVentanas - 1));
+        int operaciones = 0;
+        int maximo = 0;
+        double ocupacion = 0;
+        for (int k = 0; k < nroVentanas; k++) {
+            operaciones += serie.getOperaciones(k);
+            maximo = Math.max(maximo, serie.getMaximoEnAeropuerto(k));
+            ocupacion += serie.getMediaEnAeropuerto(k) * (serie.getFin(k) - serie.getInicio(k));
+        }
+        assertEquals(estadistica.getFinAterrizajes() + estadistica.getFinDespegues(), operaciones);
+        assertEquals(estadistica.getMaximoEnAeropuerto(), maximo);
+        assertEquals(estadistica.getMediaEnAeropuerto(), ocupacion / HASTA, 0.01);
+
+        List<String> lineas = Files.readAllLines(fichero.toPath());
+        assertEquals(nroVentanas, lineas.size());
+        assertTrue(lineas.get(0).startsWith("{\"inicio\":0,\"fin\":3600,"));
+    }
+
+    /**
+     * Al reiniciar la estadística a mitad de una ventana se anota la parte
+     * hasta el reinicio y la siguiente empieza desde los acumuladores a cero:
+     * ninguna ventana sale negativa, las dos partes suman la ventana sin
+     * reiniciar y las ventanas desde el reinicio suman la estadística final
+     */
+    public void testReiniciaEstadistica() {
+        Properties p = new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("ventana.segundos", Long.toString(VENTANA));
+        Simulador seguido = new Simulador(new Parametros(p));
+        seguido.simulaBucle(HASTA);
+        seguido.calculaEstadistica(HASTA);
+        SerieVentanas completa = seguido.getVentanas();
+
+        Simulador reiniciado = new Simulador(new Parametros(p));
+        reiniciado.simulaBucle(HASTA / 2);
+        long reinicio = reiniciado.getFinSimulacion();
+        assertTrue(reinicio % VENTANA != 0);
+        reiniciado.reiniciaEstadistica();
+        reiniciado.simulaBucle(HASTA);
+        Estadistica estadistica = reiniciado.calculaEstadistica(HASTA);
+        SerieVentanas serie = reiniciado.getVentanas();
+
+        assertEquals(completa.getNroVentanas() + 1, serie.getNroVentanas());
+        int partida = (int) (reinicio / VENTANA);
+        assertEquals(reinicio, serie.getFin(partida));
+        int desdeReinicio = 0;
+        for (int k = 0; k < serie.getNroVentanas(); k++) {
+            assertTrue(serie.getOperaciones(k) >= 0);
+            assertTrue(serie.getMediaEnAeropuerto(k) >= 0);
+            assertTrue(serie.getMediaEnPistas(k) >= 0);
+            if (k < partida)
+                assertEquals(completa.getOperaciones(k), serie.getOperaciones(k));
+            else if (k == partida)
+                assertEquals(completa.getOperaciones(k), serie.getOperaciones(k) + serie.getOperaciones(k + 1));
+            else if (k > partida + 1)
+                assertEquals(completa.getOperaciones(k - 1), serie.getOperaciones(k));
+            if (k > partida)
+                desdeReinicio += serie.getOperaciones(k);
+        }
+        assertEquals(estadistica.getFinAterrizajes() + estadistica.getFinDespegues(), desdeReinicio);
+    }
+
+    /**
+     * El buffer circular guarda solo las últimas ventanas
+     */
+    public void testBufferCircular() {
+        Properties p = new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("ventana.segundos", "1000");
+        p.setProperty("ventana.capacidad", "8");
+        Simulador simulador = new Simulador(new Parametros(p));
+        simulador.simulaBucle(HASTA);
+        simulador.calculaEstadistica(HASTA);
+        SerieVentanas serie = simulador.getVentanas();
+        assertEquals(100, serie.getNroAnotadas());
+        assertEquals(8, serie.getNroVentanas());
+        assertEquals(92000, serie.getInicio(0));
+        assertEquals(HASTA, serie.getFin(7));
+    }
+
+    private static Estadistica simula(Parametros parametros) {
+        Simulador simulador = new Simulador(parametros);
+        simulador.simulaBucle(HASTA);
+        return simulador.calculaEstadistica(HASTA);
+    }
+}
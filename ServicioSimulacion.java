@@ -0,0 +1,526 @@
+package aeropuerto;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio HTTP local que recibe trabajos de simulación en JSON, para
+ * lanzar muchas simulaciones cortas sin pagar cada vez el arranque de la
+ * JVM, la carga de clases y el calentamiento del JIT.
+ * <p/>
+ * Escucha solo en la interfaz local (loopback), porque los parámetros
+ * pueden escribir ficheros en la máquina (trazas, puntos de control...).
+ * <pre>
+ * POST   /trabajos                {"hasta": 86400, "replicas": 4, "antiteticas": false,
+ *                                  "parametros": {"numero.pistas": 3, "politica.pistas": "FIFO"}}
+ * GET    /trabajos                estado de todos los trabajos
+ * GET    /trabajos/{id}           estado, progreso y, si ha terminado, resultado
+ * GET    /trabajos/{id}/resultado resultado en texto, en el formato de Estadistica
+ * DELETE /trabajos/{id}           cancela el trabajo (u olvida uno acabado)
+ * </pre>
+ * Los parámetros del trabajo son cambios sobre los parámetros base del
+ * servicio; "replicas" (1 por defecto) y "antiteticas" son opcionales.
+ * "hasta" no puede pasar de MAXIMO_HASTA ni "replicas" de MAXIMO_REPLICAS,
+ * porque cada réplica reserva memoria y un hilo al lanzar el trabajo.
+ * Una petición no puede cambiar los parámetros que son nombres de fichero
+ * (CLAVES_FICHERO): los ficheros de un trabajo son los de los parámetros
+ * base, con el sufijo del trabajo y la réplica (ver Parametros.conSufijo).
+ * <p/>
+ * Los trabajos y las peticiones HTTP van en hilos virtuales si la JVM los
+ * tiene (Java 21 o posterior; se buscan por reflexión para compilar con
+ * Java 17), y si no en hilos de plataforma. Lo que se limita es el número
+ * de réplicas que simulan a la vez, con un semáforo de procesadores (ver
+ * TrabajoSimulacion). Se guardan los últimos CONSERVADOS trabajos acabados.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.TrabajoSimulacion
+ */
+public class ServicioSimulacion implements Closeable {
+    /**
+     * Logger
+     */
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.ServicioSimulacion");
+
+    /**
+     * Número de trabajos que se guardan, contando los acabados
+     */
+    static final int CONSERVADOS = 1000;
+
+    /**
+     * Número máximo de réplicas de un trabajo
+     */
+    static final int MAXIMO_REPLICAS = 1000;
+
+    /**
+     * Instante final máximo de un trabajo, en segundos (unos 31 años)
+     */
+    static final long MAXIMO_HASTA = 1000000000L;
+
+    /**
+     * Ruta de los trabajos
+     */
+    private static final String RUTA = "/trabajos";
+
+    /**
+     * Parámetros con nombres de fichero, que una petición no puede cambiar
+     * para no leer ni escribir ficheros cualesquiera de la máquina
+     */
+    static final String[] CLAVES_FICHERO = {"ventana.fichero", "control.fichero", "traza.fichero",
+            "llegadas.fichero"};
+
+    /**
+     * Parámetros base de los trabajos
+     */
+    private final Parametros base;
+
+    /**
+     * Servidor HTTP
+     */
+    private final HttpServer servidor;
+
+    /**
+     * Hilos de las peticiones, los trabajos y sus réplicas
+     */
+    private final ExecutorService hilos;
+
+    /**
+     * Permisos para simular, compartidos por todos los trabajos
+     */
+    private final Semaphore procesadores;
+
+    /**
+     * Último identificador de trabajo asignado
+     */
+    private final AtomicLong contador = new AtomicLong();
+
+    /**
+     * Trabajos por identificador
+     */
+    private final Map<Long, TrabajoSimulacion> trabajos = new ConcurrentHashMap<Long, TrabajoSimulacion>();
+
+    /**
+     * Identificadores de los trabajos por orden de llegada, para olvidar los más antiguos
+     */
+    private final ConcurrentLinkedQueue<Long> llegados = new ConcurrentLinkedQueue<Long>();
+
+    /**
+     * Arranca el servicio
+     *
+     * @param puerto      puerto local en el que escucha (0 = uno libre cualquiera)
+     * @param base        parámetros base de los trabajos
+     * @param simultaneas número máximo de réplicas que simulan a la vez (mayor que 0)
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServicioSimulacion(int puerto, Parametros base, int simultaneas) throws IOException {
+        if (base == null || simultaneas < 1)
+            throw new IllegalArgumentException("ServicioSimulacion: " + simultaneas + " simultaneas");
+        this.base = base;
+        procesadores = new Semaphore(simultaneas);
+        hilos = creaHilos();
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 0);
+        servidor.createContext(RUTA, this::atiende);
+        servidor.setExecutor(hilos);
+        servidor.start();
+    }
+
+    /**
+     * Hilos virtuales, uno por tarea, si la JVM los tiene, o si no un pool
+     * de hilos de plataforma que crece según haga falta
+     *
+     * @return ejecutor de tareas
+     */
+    static ExecutorService creaHilos() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.info("Sin hilos virtuales, se usan hilos de plataforma");
+            return Executors.newCachedThreadPool(tarea -> {
+                Thread hilo = new Thread(tarea, "aeropuerto-trabajo");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+
+    /**
+     * @return puerto en el que escucha el servicio
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Para el servicio y cancela los trabajos que no han acabado
+     */
+    public void close() {
+        servidor.stop(0);
+        for (TrabajoSimulacion trabajo : trabajos.values())
+            trabajo.cancela();
+        hilos.shutdown();
+    }
+
+    /**
+     * Crea un trabajo a partir de su descripción JSON y lo lanza
+     *
+     * @param json descripción del trabajo
+     * @return trabajo lanzado
+     * @throws IllegalArgumentException si la descripción o los parámetros no son correctos
+     */
+    TrabajoSimulacion lanza(String json) {
+        Map<String, Object> peticion = LectorJson.objeto(json);
+        for (String clave : peticion.keySet())
+            if (!clave.equals("hasta") && !clave.equals("replicas") && !clave.equals("antiteticas")
+                    && !clave.equals("parametros"))
+                throw new IllegalArgumentException("ServicioSimulacion: clave desconocida " + clave);
+        if (peticion.get("hasta") == null)
+            throw new IllegalArgumentException("ServicioSimulacion: falta hasta");
+        long hasta = Long.parseLong(String.valueOf(peticion.get("hasta")));
+        int replicas = Integer.parseInt(String.valueOf(peticion.getOrDefault("replicas", "1")));
+        boolean antiteticas = Boolean.parseBoolean(String.valueOf(peticion.getOrDefault("antiteticas", "false")));
+        if (hasta > MAXIMO_HASTA || replicas > MAXIMO_REPLICAS)
+            throw new IllegalArgumentException("ServicioSimulacion: hasta " + hasta + " (maximo " + MAXIMO_HASTA
+                    + "), replicas " + replicas + " (maximo " + MAXIMO_REPLICAS + ")");
+        Properties p = base.getPropiedades();
+        Object cambios = peticion.getOrDefault("parametros", new LinkedHashMap<String, Object>());
+        if (!(cambios instanceof Map))
+            throw new IllegalArgumentException("ServicioSimulacion: parametros no es un objeto");
+        for (Map.Entry<?, ?> cambio : ((Map<?, ?>) cambios).entrySet()) {
+            if (!p.containsKey(cambio.getKey()) || cambio.getValue() instanceof Map)
+                throw new IllegalArgumentException("ServicioSimulacion: parametro incorrecto " + cambio.getKey());
+            for (String clave : CLAVES_FICHERO)
+                if (clave.equals(cambio.getKey()))
+                    throw new IllegalArgumentException("ServicioSimulacion: no se puede cambiar " + clave);
+            p.setProperty((String) cambio.getKey(), String.valueOf(cambio.getValue()));
+        }
+        TrabajoSimulacion trabajo = new TrabajoSimulacion(contador.incrementAndGet(), new Parametros(p),
+                hasta, replicas, antiteticas, hilos, procesadores);
+        trabajos.put(trabajo.getId(), trabajo);
+        llegados.add(trabajo.getId());
+        olvida();
+        hilos.execute(trabajo);
+        return trabajo;
+    }
+
+    /**
+     * Olvida los trabajos acabados más antiguos mientras haya más de CONSERVADOS
+     */
+    private void olvida() {
+        while (trabajos.size() > CONSERVADOS) {
+            Long id = llegados.peek();
+            TrabajoSimulacion trabajo = (id == null) ? null : trabajos.get(id);
+            if (trabajo != null && !trabajo.isAcabado())
+                return;
+            if (llegados.remove(id) && id != null)
+                trabajos.remove(id);
+        }
+    }
+
+    /**
+     * Atiende una petición HTTP sobre los trabajos
+     */
+    private void atiende(HttpExchange intercambio) throws IOException {
+        try {
+            String metodo = intercambio.getRequestMethod();
+            String[] ruta = intercambio.getRequestURI().getPath().substring(RUTA.length()).split("/");
+            if (ruta.length == 0 || (ruta.length == 1 && ruta[0].isEmpty())) {
+                if (metodo.equals("POST")) {
+                    TrabajoSimulacion trabajo = lanza(lee(intercambio.getRequestBody()));
+                    intercambio.getResponseHeaders().set("Location", RUTA + "/" + trabajo.getId());
+                    responde(intercambio, 202, json(trabajo));
+                } else if (metodo.equals("GET")) {
+                    StringBuilder a = new StringBuilder("[");
+                    for (Long id : llegados) {
+                        TrabajoSimulacion trabajo = trabajos.get(id);
+                        if (trabajo != null)
+                            a.append((a.length() > 1) ? "," : "").append(json(trabajo, false));
+                    }
+                    responde(intercambio, 200, a.append(']').toString());
+                } else {
+                    responde(intercambio, 405, error("metodo no permitido"));
+                }
+                return;
+            }
+            TrabajoSimulacion trabajo = (ruta.length > 3 || !ruta[0].isEmpty()) ? null : trabajos.get(Long.parseLong(ruta[1]));
+            if (trabajo == null) {
+                responde(intercambio, 404, error("no existe el trabajo"));
+            } else if (ruta.length == 3 && ruta[2].equals("resultado") && metodo.equals("GET")) {
+                String resultado = trabajo.getResultado();
+                if (resultado == null)
+                    responde(intercambio, 409, error("el trabajo esta " + trabajo.getEstado()));
+                else
+                    responde(intercambio, 200, "text/plain", resultado);
+            } else if (ruta.length == 2 && metodo.equals("GET")) {
+                responde(intercambio, 200, json(trabajo));
+            } else if (ruta.length == 2 && metodo.equals("DELETE")) {
+                if (trabajo.isAcabado()) {
+                    trabajos.remove(trabajo.getId());
+                    llegados.remove(trabajo.getId());
+                } else
+                    trabajo.cancela();
+                responde(intercambio, 200, json(trabajo, false));
+            } else {
+                responde(intercambio, 405, error("metodo no permitido"));
+            }
+        } catch (IllegalArgumentException e) {
+            responde(intercambio, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            LOGGER.warning("Error en la peticion {} {}", intercambio.getRequestURI(), e);
+            responde(intercambio, 500, error(String.valueOf(e)));
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    /**
+     * Estado de un trabajo en JSON, con el resultado si ha terminado
+     */
+    private static String json(TrabajoSimulacion trabajo) {
+        return json(trabajo, true);
+    }
+
+    /**
+     * Estado de un trabajo en JSON
+     *
+     * @param trabajo   trabajo
+     * @param resultado si se incluye el resultado, cuando lo hay
+     */
+    private static String json(TrabajoSimulacion trabajo, boolean resultado) {
+        StringBuilder a = new StringBuilder();
+        a.append("{\"id\":").append(trabajo.getId())
+                .append(",\"estado\":\"").append(trabajo.getEstado()).append('"')
+                .append(",\"replicas\":").append(trabajo.getNroReplicas())
+                .append(",\"acabadas\":").append(trabajo.getReplicasAcabadas())
+                .append(",\"progreso\":").append(Math.round(trabajo.getProgreso() * 10000) / 10000.0);
+        if (trabajo.getError() != null)
+            a.append(",\"error\":").append(cadena(trabajo.getError()));
+        if (resultado && trabajo.getResultado() != null)
+            a.append(",\"resultado\":").append(cadena(trabajo.getResultado()));
+        return a.append('}').toString();
+    }
+
+    private static String error(String mensaje) {
+        return "{\"error\":" + cadena(mensaje) + "}";
+    }
+
+    /**
+     * Cadena JSON, entre comillas y con los caracteres especiales escapados
+     */
+    static String cadena(String texto) {
+        StringBuilder a = new StringBuilder(texto.length() + 16).append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"' || c == '\\')
+                a.append('\\').append(c);
+            else if (c == '\n')
+                a.append("\\n");
+            else if (c == '\t')
+                a.append("\\t");
+            else if (c < ' ')
+                a.append(String.format("\\u%04x", (int) c));
+            else
+                a.append(c);
+        }
+        return a.append('"').toString();
+    }
+
+    private static String lee(InputStream entrada) throws IOException {
+        return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static void responde(HttpExchange intercambio, int codigo, String json) throws IOException {
+        responde(intercambio, codigo, "application/json", json);
+    }
+
+    private static void responde(HttpExchange intercambio, int codigo, String tipo, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", tipo + "; charset=utf-8");
+        intercambio.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    /**
+     * Lector de JSON mínimo para las peticiones: objetos, cadenas, números,
+     * true, false y null (sin arrays). Los números se devuelven con su texto,
+     * que es como los esperan los parámetros.
+     */
+    static final class LectorJson {
+        private final String texto;
+        private int i = 0;
+
+        private LectorJson(String texto) {
+            this.texto = texto;
+        }
+
+        /**
+         * Lee un texto que debe ser un objeto JSON
+         *
+         * @param texto JSON
+         * @return claves y valores del objeto, en orden
+         * @throws IllegalArgumentException si el texto no es un objeto JSON
+         */
+        static Map<String, Object> objeto(String texto) {
+            LectorJson lector = new LectorJson(texto);
+            lector.blancos();
+            Map<String, Object> objeto = lector.leeObjeto();
+            lector.blancos();
+            if (lector.i != texto.length())
+                throw lector.incorrecto();
+            return objeto;
+        }
+
+        private Map<String, Object> leeObjeto() {
+            espera('{');
+            Map<String, Object> objeto = new LinkedHashMap<String, Object>();
+            blancos();
+            if (actual() == '}') {
+                i++;
+                return objeto;
+            }
+            while (true) {
+                blancos();
+                String clave = leeCadena();
+                blancos();
+                espera(':');
+                objeto.put(clave, leeValor());
+                blancos();
+                if (actual() == '}') {
+                    i++;
+                    return objeto;
+                }
+                espera(',');
+            }
+        }
+
+        private Object leeValor() {
+            blancos();
+            char c = actual();
+            if (c == '{')
+                return leeObjeto();
+            if (c == '"')
+                return leeCadena();
+            if (texto.startsWith("true", i)) {
+                i += 4;
+                return Boolean.TRUE;
+            }
+            if (texto.startsWith("false", i)) {
+                i += 5;
+                return Boolean.FALSE;
+            }
+            if (texto.startsWith("null", i)) {
+                i += 4;
+                return null;
+            }
+            int desde = i;
+            while (i < texto.length() && "+-.eE0123456789".indexOf(texto.charAt(i)) >= 0)
+                i++;
+            if (i == desde)
+                throw incorrecto();
+            return texto.substring(desde, i);
+        }
+
+        private String leeCadena() {
+            espera('"');
+            StringBuilder a = new StringBuilder();
+            while (true) {
+                char c = actual();
+                i++;
+                if (c == '"')
+                    return a.toString();
+                if (c != '\\') {
+                    a.append(c);
+                    continue;
+                }
+                char e = actual();
+                i++;
+                switch (e) {
+                    case 'n':
+                        a.append('\n');
+                        break;
+                    case 't':
+                        a.append('\t');
+                        break;
+                    case 'r':
+                        a.append('\r');
+                        break;
+                    case 'b':
+                        a.append('\b');
+                        break;
+                    case 'f':
+                        a.append('\f');
+                        break;
+                    case 'u':
+                        if (i + 4 > texto.length())
+                            throw incorrecto();
+                        a.append((char) Integer.parseInt(texto.substring(i, i + 4), 16));
+                        i += 4;
+                        break;
+                    default:
+                        a.append(e);
+                }
+            }
+        }
+
+        private char actual() {
+            if (i >= texto.length())
+                throw incorrecto();
+            return texto.charAt(i);
+        }
+
+        private void espera(char c) {
+            if (actual() != c)
+                throw incorrecto();
+            i++;
+        }
+
+        private void blancos() {
+            while (i < texto.length() && Character.isWhitespace(texto.charAt(i)))
+                i++;
+        }
+
+        private IllegalArgumentException incorrecto() {
+            return new IllegalArgumentException("ServicioSimulacion: JSON incorrecto en la posicion " + i);
+        }
+    }
+
+    /**
+     * Arranca el servicio y lo deja atendiendo peticiones hasta que se para la JVM.
+     * Requiere como argumentos el puerto y el fichero de parámetros base, y
+     * admite el número de réplicas que simulan a la vez (por defecto, uno por procesador).
+     *
+     * @param argumentos [puerto] [fichero_de_parámetros] [simultaneas]
+     * @throws IOException si hay problemas con el fichero de parámetros o el puerto
+     */
+    public static void main(String[] argumentos)
+            throws IOException {
+        if (argumentos.length != 2 && argumentos.length != 3) {
+            System.err.println("ServicioSimulacion [puerto] [fichero_parametros.ini] [simultaneas]");
+            System.exit(1);
+        }
+        int simultaneas = (argumentos.length == 3) ? Integer.parseInt(argumentos[2])
+                : Runtime.getRuntime().availableProcessors();
+        ServicioSimulacion servicio = new ServicioSimulacion(Integer.parseInt(argumentos[0]),
+                new Parametros(argumentos[1]), simultaneas);
+        Runtime.getRuntime().addShutdownHook(new Thread(servicio::close));
+        LOGGER.info("Servicio de simulacion en el puerto {}, {} simultaneas", servicio.getPuerto(), simultaneas);
+    }
+}
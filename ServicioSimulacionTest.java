@@ -0,0 +1,133 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Comprueba el servicio de simulación: un trabajo da el mismo resultado
+ * que Simulador o Replicador, se puede cancelar y las peticiones mal
+ * formadas se rechazan.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ServicioSimulacionTest extends TestCase {
+
+    private final Parametros base = new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10);
+
+    private ServicioSimulacion servicio;
+
+    protected void setUp() throws IOException {
+        servicio = new ServicioSimulacion(0, base, 2);
+    }
+
+    protected void tearDown() {
+        servicio.close();
+    }
+
+    /**
+     * Una réplica da lo que Simulador con la semilla, y varias lo que Replicador
+     */
+    public void testMismoResultado() throws Exception {
+        Properties p = base.getPropiedades();
+        p.setProperty("numero.pistas", "3");
+        Parametros tresPistas = new Parametros(p);
+        String esperado;
+        try (Simulador simulador = new Simulador(tresPistas)) {
+            simulador.simulaBucle(50000);
+            esperado = "Resultado " + simulador.calculaEstadistica(50000);
+        }
+        long id = lanza("{\"hasta\": 50000, \"parametros\": {\"numero.pistas\": 3}}");
+        assertEquals(EstadoTrabajo.TERMINADO.name(), espera(id));
+        assertEquals(esperado, pide("GET", "/trabajos/" + id + "/resultado", null, 200));
+        Map<String, Object> estado = ServicioSimulacion.LectorJson.objeto(pide("GET", "/trabajos/" + id, null, 200));
+        assertEquals(esperado, estado.get("resultado"));
+        assertEquals("1.0", estado.get("progreso"));
+
+        Estadistica[] replicas = new Replicador(tresPistas, 4, 50000).simula();
+        id = lanza("{\"hasta\": 50000, \"replicas\": 4, \"parametros\": {\"numero.pistas\": \"3\"}}");
+        assertEquals(EstadoTrabajo.TERMINADO.name(), espera(id));
+        String resultado = pide("GET", "/trabajos/" + id + "/resultado", null, 200);
+        for (int i = 0; i < replicas.length; i++)
+            assertTrue(resultado.contains("Replica " + i + " " + replicas[i]));
+    }
+
+    /**
+     * Un trabajo largo se cancela mientras simula, y deja sitio a otro
+     */
+    public void testCancela() throws Exception {
+        long largo = lanza("{\"hasta\": 1000000000, \"replicas\": 2}");
+        long antes = System.currentTimeMillis();
+        while (!pide("GET", "/trabajos/" + largo, null, 200).contains("EJECUTANDO"))
+            assertTrue(System.currentTimeMillis() - antes < 10000);
+        pide("DELETE", "/trabajos/" + largo, null, 200);
+        assertEquals(EstadoTrabajo.CANCELADO.name(), espera(largo));
+        pide("GET", "/trabajos/" + largo + "/resultado", null, 409);
+        assertEquals(EstadoTrabajo.TERMINADO.name(), espera(lanza("{\"hasta\": 1000}")));
+        pide("DELETE", "/trabajos/" + largo, null, 200);
+        pide("GET", "/trabajos/" + largo, null, 404);
+    }
+
+    /**
+     * JSON mal formado, claves o parámetros desconocidos, valores incorrectos
+     * o demasiado grandes y parámetros con nombres de fichero
+     */
+    public void testPeticionesIncorrectas() throws Exception {
+        pide("POST", "/trabajos", "{\"hasta\": 1000", 400);
+        pide("POST", "/trabajos", "{\"hasta\": 1000, \"otra\": 1}", 400);
+        pide("POST", "/trabajos", "{\"hasta\": 1000, \"parametros\": {\"no.existe\": 1}}", 400);
+        pide("POST", "/trabajos", "{\"hasta\": 1000, \"parametros\": {\"numero.pistas\": 0}}", 400);
+        pide("POST", "/trabajos", "{\"hasta\": 1000, \"replicas\": 3, \"antiteticas\": true}", 400);
+        pide("POST", "/trabajos", "{\"hasta\": 1000, \"replicas\": " + (ServicioSimulacion.MAXIMO_REPLICAS + 1) + "}", 400);
+        pide("POST", "/trabajos", "{\"hasta\": 1000, \"replicas\": 200000000}", 400);
+        pide("POST", "/trabajos", "{\"hasta\": " + (ServicioSimulacion.MAXIMO_HASTA + 1) + "}", 400);
+        for (String clave : ServicioSimulacion.CLAVES_FICHERO)
+            pide("POST", "/trabajos", "{\"hasta\": 1000, \"parametros\": {\"" + clave + "\": \"/tmp/x\"}}", 400);
+        pide("GET", "/trabajos/99", null, 404);
+        pide("PUT", "/trabajos", "{}", 405);
+    }
+
+    private long lanza(String json) throws IOException {
+        Map<String, Object> estado = ServicioSimulacion.LectorJson.objeto(pide("POST", "/trabajos", json, 202));
+        return Long.parseLong((String) estado.get("id"));
+    }
+
+    /**
+     * Espera a que el trabajo acabe
+     *
+     * @return estado final
+     */
+    private String espera(long id) throws Exception {
+        long antes = System.currentTimeMillis();
+        while (true) {
+            String estado = (String) ServicioSimulacion.LectorJson.objeto(pide("GET", "/trabajos/" + id, null, 200)).get("estado");
+            if (!estado.equals("EN_COLA") && !estado.equals("EJECUTANDO"))
+                return estado;
+            assertTrue("El trabajo " + id + " no acaba", System.currentTimeMillis() - antes < 60000);
+            Thread.sleep(20);
+        }
+    }
+
+    private String pide(String metodo, String ruta, String cuerpo, int codigo) throws IOException {
+        HttpURLConnection conexion = (HttpURLConnection) new URL("http://127.0.0.1:" + servicio.getPuerto() + ruta).openConnection();
+        conexion.setRequestMethod(metodo);
+        if (cuerpo != null) {
+            conexion.setDoOutput(true);
+            try (OutputStream salida = conexion.getOutputStream()) {
+                salida.write(cuerpo.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(metodo + " " + ruta, codigo, conexion.getResponseCode());
+        try (InputStream entrada = (codigo < 400) ? conexion.getInputStream() : conexion.getErrorStream()) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package aeropuerto;
 
-import log.Logger;
-
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.util.Properties;
+import java.util.random.RandomGenerator;
 
 /**
  * Prepara una simulacion, la lanza
@@ -13,12 +22,17 @@ import java.io.IOException;
  * @author Javier López Medina
  * @version 1.0
  */
-public class Simulador {
+public class Simulador implements AutoCloseable {
 	
     /**
      * Logger
      */
-    private static final Logger LOGGER = Logger.getLogger("aeropuerto.Simulador");
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.Simulador");
+
+    /**
+     * Parámetros de la simulación
+     */
+    private Parametros parametros;
 
     /**
      * Generador aleatorio
@@ -40,6 +54,57 @@ public class Simulador {
      */
     private long ahora = 0;
 
+    /**
+     * Número de eventos procesados
+     */
+    private long eventosProcesados = 0;
+
+    /**
+     * Serie temporal de estadísticas por ventanas (null si no hay)
+     */
+    private SerieVentanas ventanas;
+
+    /**
+     * Traza binaria de los eventos procesados (null si no hay)
+     */
+    private TrazaEventos traza;
+
+    /**
+     * Cola de eventos pendientes del bucle con objetos
+     * (null hasta que empieza la simulación)
+     */
+    private ColaEventos cola;
+
+    /**
+     * Siguiente evento que procesará el bucle con objetos, ya extraído de la cola
+     */
+    private EventoAeroportuario siguiente;
+
+    /**
+     * Bucle sin objetos evento (null hasta que empieza la simulación)
+     */
+    private MotorPrimitivo motor;
+
+    /**
+     * Instante del próximo punto de control (0 si no hay)
+     */
+    private long proximoControl;
+
+    /**
+     * Seguimiento y control del bucle por JMX
+     */
+    private final MonitorSimulador monitor = new MonitorSimulador();
+
+    /**
+     * TRUE si el monitor se ha registrado en JMX (en la primera llamada a simulaBucle)
+     */
+    private boolean registrado = false;
+
+    /**
+     * Número de bifurcaciones sacadas de esta simulación, para el sufijo de sus ficheros
+     */
+    private int nroBifurcaciones = 0;
+
     /**
      * Constructor.
      * Inicializa el generador aleatorio, el controlador y el instante fin de simulacion.
@@ -47,9 +112,89 @@ public class Simulador {
      * @param parametros para la simulación
      */
     public Simulador(Parametros parametros) {
-        generador = new Generador(parametros);
-        controlador = new Controlador(parametros.getNumeroPistas(), (int) Math.round(parametros.getDuracionSlot()));
+        this(parametros, new Generador(parametros));
+    }
+
+    /**
+     * Constructor con un flujo de números aleatorios propio,
+     * en lugar del que indica la semilla de los parámetros.
+     *
+     * @param parametros para la simulación
+     * @param random     flujo de números aleatorios
+     * @see aeropuerto.Replicador
+     */
+    public Simulador(Parametros parametros, RandomGenerator random) {
+        this(parametros, new Generador(parametros, random));
+    }
+
+    /**
+     * Constructor con el generador aleatorio ya creado
+     *
+     * @param parametros para la simulación
+     * @param generador  generador aleatorio
+     * @see aeropuerto.EvaluadorPoliticas
+     */
+    Simulador(Parametros parametros, Generador generador) {
+        this(parametros, generador, true);
+    }
+
+    /**
+     * Constructor con el generador aleatorio ya creado
+     *
+     * @param parametros para la simulación
+     * @param generador  generador aleatorio
+     * @param nuevos     FALSE si la traza de eventos no se crea aquí y el
+     *                   fichero de ventanas no se vacía, porque se van a
+     *                   continuar desde un punto de control
+     */
+    private Simulador(Parametros parametros, Generador generador, boolean nuevos) {
+        this.parametros = parametros;
+        this.generador = generador;
+        controlador = new Controlador(parametros.getNumeroPistas(), (int) Math.round(parametros.getDuracionSlot()),
+                parametros.getEspera(), parametros.getPolitica(), parametros.getLoteDespegues());
         finSimulacion = 0;
+        if (parametros.getVentana() > 0) {
+            ventanas = new SerieVentanas(parametros.getVentana(), parametros.getCapacidadVentanas(),
+                    abreFicheroVentanas(parametros.getFicheroVentanas(), nuevos));
+            controlador.setVentanas(ventanas);
+        }
+        if (nuevos && !parametros.getFicheroTraza().isEmpty())
+            traza = abreTraza(parametros.getFicheroTraza(), parametros.getSegmentoTraza());
+        proximoControl = parametros.getPuntoControl();
+    }
+
+    /**
+     * Crea la traza de eventos
+     *
+     * @param base    nombre base de sus segmentos
+     * @param tamano  tamaño de cada segmento
+     * @return traza
+     * @throws IllegalArgumentException si no se puede crear el primer segmento
+     */
+    private static TrazaEventos abreTraza(String base, int tamano) {
+        try {
+            return new TrazaEventos(base, tamano);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("traza.fichero= " + base + " " + e);
+        }
+    }
+
+    /**
+     * Abre el fichero de ventanas, si se ha indicado alguno
+     *
+     * @param fichero nombre del fichero, vacío si no hay
+     * @param nuevo   FALSE si se continúa desde un punto de control (ver SerieVentanas.abre)
+     * @return canal del fichero, o null si no hay
+     * @throws IllegalArgumentException si no se puede abrir el fichero
+     */
+    private static FileChannel abreFicheroVentanas(String fichero, boolean nuevo) {
+        if (fichero.isEmpty())
+            return null;
+        try {
+            return SerieVentanas.abre(fichero, nuevo);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("ventana.fichero= " + fichero + " " + e);
+        }
     }
 
     /**
@@ -66,24 +211,137 @@ public class Simulador {
         return ahora;
     }
 
+    /**
+     * @return serie temporal de estadísticas por ventanas, o null si
+     *         los parámetros no la piden (ventana.segundos = 0)
+     */
+    public SerieVentanas getVentanas() {
+        return ventanas;
+    }
+
+    /**
+     * Quita el monitor de JMX y cierra el fichero de ventanas y la traza de
+     * eventos, si los hay
+     */
+    public void close() {
+        if (registrado) {
+            monitor.desregistra();
+            registrado = false;
+        }
+        if (ventanas != null) {
+            try {
+                ventanas.close();
+            } catch (IOException e) {
+                LOGGER.warning("Error al cerrar el fichero de ventanas.{}", e);
+            }
+        }
+        if (traza != null) {
+            try {
+                traza.close();
+            } catch (IOException e) {
+                LOGGER.warning("Error al cerrar la traza de eventos.{}", e);
+            }
+        }
+    }
+
+    /**
+     * @return traza de los eventos procesados, o null si los parámetros
+     *         no la piden (traza.fichero vacío)
+     */
+    public TrazaEventos getTraza() {
+        return traza;
+    }
+
+    /**
+     * Monitor del bucle, que se registra en JMX en la primera llamada a
+     * simulaBucle y sigue registrado hasta close. Permite pausar, reanudar
+     * o terminar la simulación desde otro hilo.
+     *
+     * @return monitor de la simulación
+     */
+    public MonitorSimulador getMonitor() {
+        return monitor;
+    }
+
+    /**
+     * @return número de eventos procesados por el bucle de simulación
+     */
+    public long getEventosProcesados() {
+        return eventosProcesados;
+    }
+
     /**
      * Calcula y devuelve la estadistica de la simulacion
      *
+     * La estadística queda cerrada en ese instante y, si hay serie de ventanas,
+     * se anota en ella la ventana parcial; para consultar la estadística a mitad
+     * de simulación sin cerrarla, usar getInstantanea.
+     * Si la simulación se terminó antes de tiempo (ver MonitorSimulador.termina),
+     * la estadística se cierra como mucho en el instante en que se detuvo.
+     *
      * @param instante instante en el que se calculan estadísticas
      * @return estadistica de la simulacion
      * @throws IllegalArgumentException si cuando es anterior al instante actual de simulacion
      */
     public Estadistica calculaEstadistica(long instante) {
         Estadistica esta = null;
+        if (monitor.isTerminado() && instante > finSimulacion)
+            instante = finSimulacion;
         try {
             esta = controlador.getEstadistica(instante);
+            esta.setLlegadas(generador.getNroLlegadas(), generador.getSumaEntreLlegadas());
         }
         catch (Exception e) {
-            LOGGER.warning("Error al calcular estadistica." + e);
+            LOGGER.warning("Error al calcular estadistica.{}", e);
         }
 
         return esta;
     }
+    /**
+     * Instantánea de la estadística de la simulación, sin cerrarla, en el
+     * instante hasta el que se ha simulado. La simulación puede continuar
+     * después con simulaHasta y su resultado no cambia.
+     *
+     * @return copia de la estadistica de la simulacion
+     * @see aeropuerto.Estadistica#getInstantanea(long)
+     */
+    public Estadistica getInstantanea() {
+        Estadistica instantanea = controlador.getInstantanea(finSimulacion);
+        instantanea.setLlegadas(generador.getNroLlegadas(), generador.getSumaEntreLlegadas());
+        return instantanea;
+    }
+
+    /**
+     * Borra los acumuladores de la estadística en el instante hasta el que
+     * se ha simulado, para descartar el periodo transitorio: la estadística
+     * final cuenta solo desde aquí. La simulación sigue igual.
+     *
+     * @see aeropuerto.Estadistica#reinicia(long)
+     * @see aeropuerto.AnalizadorEstacionario
+     */
+    public void reiniciaEstadistica() {
+        controlador.reiniciaEstadistica(finSimulacion);
+        generador.reiniciaLlegadas();
+    }
+
+    /**
+     * Avanza la simulación desde el instante hasta el que ya se ha simulado
+     * hasta el indicado. Solo se procesan los eventos nuevos, así que se puede
+     * llamar repetidamente para avanzar a pasos cortos.
+     *
+     * @param hastaCuando nuevo instante final de la simulación
+     * @return número de eventos procesados en este avance
+     * @throws IllegalArgumentException si hastaCuando es anterior a lo ya simulado
+     */
+    public long simulaHasta(long hastaCuando) {
+        if (hastaCuando < finSimulacion)
+            throw new IllegalArgumentException("Simulador.simulaHasta: " + hastaCuando
+                    + " < " + finSimulacion + " (ya simulado)");
+        long antes = eventosProcesados;
+        simulaBucle(hastaCuando);
+        return eventosProcesados - antes;
+    }
+
     /**
      * Lógica del simulador.
      * Este método es la lógica que debe seguir cada evento en el simulador.
@@ -92,35 +350,79 @@ public class Simulador {
      */
     private EventoAeroportuario logica(EventoAeroportuario miEvento) {
     	EventoAeroportuario eventoOtro = null;
+    	if (miEvento.isReintento() && controlador.getEspera() != TipoEspera.REINTENTO) {
+    		// Aeronave de la fila de espera, con pista reservada
+    		controlador.ocupaPistaReservada(miEvento.getCuando(), miEvento.getTipo(), miEvento.getPrimerIntento());
+    		return EventoAeroportuario.generaFin(miEvento, controlador.getSlotAeroportuario());
+    	}
     	if( (miEvento.isAterrizaje() && miEvento.isIntento()) || (miEvento.isReintento() && miEvento.isAterrizaje()) ) {
     		if(controlador.getPistasLibres() > 0){
     			controlador.ocupaPista(miEvento);
     			eventoOtro = EventoAeroportuario.generaFin(miEvento, controlador.getSlotAeroportuario());
     		}else{
-    			eventoOtro = EventoAeroportuario.generaReintento(miEvento, generador);
+    			eventoOtro = espera(miEvento);
     		}
     	}
     	if (miEvento.isFin() && miEvento.isAterrizaje()){
 			controlador.liberaPista(miEvento);
 			eventoOtro = EventoAeroportuario.generaSalida(miEvento, generador);
+			atiendeEspera(miEvento.getCuando());
     	}
     	if( (miEvento.isDespegue() && miEvento.isIntento()) || (miEvento.isDespegue()&& miEvento.isReintento()) ){
     		if(controlador.getPistasLibres()>0){
     			controlador.ocupaPista(miEvento);
     			eventoOtro = EventoAeroportuario.generaFin(miEvento, controlador.getSlotAeroportuario());
     		}else{
-    			eventoOtro = EventoAeroportuario.generaReintento(miEvento, generador);
+    			eventoOtro = espera(miEvento);
     		}
     	}
     	if(miEvento.isFin()&& miEvento.isDespegue()){
     		controlador.liberaPista(miEvento);
+    		atiendeEspera(miEvento.getCuando());
     	}
     	return eventoOtro;
     	
     }
+
+    /**
+     * Solicitud sin pista libre: según el modo de espera, genera su reintento
+     * o la pone en la fila de espera del controlador.
+     *
+     * @param solicitud evento que no ha obtenido pista
+     * @return evento de reintento, o null si la aeronave queda en la fila
+     */
+    private EventoAeroportuario espera(EventoAeroportuario solicitud) {
+        if (controlador.getEspera() == TipoEspera.REINTENTO)
+            return EventoAeroportuario.generaReintento(solicitud, generador);
+        controlador.esperaPista(solicitud.getIdAeronave(), solicitud.getTipo(),
+                solicitud.getPrimerIntento(), solicitud.getFinAterrizaje());
+        return null;
+    }
+
+    /**
+     * Tras liberar una pista, la reserva para la primera aeronave de la fila
+     * de espera, si hay alguna, y programa cuándo la ocupa.
+     *
+     * @param cuando instante en que se libera la pista
+     */
+    private void atiendeEspera(long cuando) {
+        int aeronave = controlador.reservaPista();
+        if (aeronave == 0)
+            return;
+        if (controlador.getEspera() == TipoEspera.FIFO_DEMORA)
+            cuando += generador.residuoReintento();
+        cola.inserta(EventoAeroportuario.generaAtencion(aeronave, controlador.getReservaTipo(), cuando,
+                controlador.getReservaPrimerIntento(), controlador.getReservaFinAterrizaje()));
+    }
     /**
      * Simulador.
      * Este método es el bucle que utiliza la lógica para cada evento.
+     * Si los parámetros piden el motor PRIMITIVO, el bucle lo ejecuta MotorPrimitivo.
+     * En la primera llamada se registra el monitor de la simulación en JMX,
+     * y sigue registrado entre llamadas hasta close.
+     * Si los parámetros piden puntos de control (control.segundos), cada vez que
+     * se alcanza uno se guarda el estado de la simulación en control.fichero.
+     * Se puede volver a llamar con un instante posterior para continuar la simulación.
      * Saltan las siguiente excepciones si hay algún problema y la simulación termina.
      * @throws IllegalArgumentException si algún valor está fuera de rango, según el método Parametros.compruebaParametros().
      * @throws NumberFormatException si algún valor está mal escrito.
@@ -128,12 +430,71 @@ public class Simulador {
      * @param hastaCuando es el tiempo que vamos a simular
      */
     public void simulaBucle(long hastaCuando){
-    	LOGGER.info("Comienza la simulacion");
-        ColaEventos cola = new ColaEventos();
-        EventoAeroportuario miEvento;
-        miEvento = EventoAeroportuario.generaLlegada(null,generador);
-        while (miEvento.getCuando() <= hastaCuando){
+        if (!registrado) {
+            LOGGER.info("Comienza la simulacion");
+            registrado = monitor.registra();
+        }
+        monitor.empieza();
+        int enCola = tramo(hastaCuando);
+        while (proximoControl > 0 && proximoControl <= hastaCuando && !monitor.isTerminado()) {
+            try {
+                guardaPuntoControl(parametros.getFicheroControl());
+            } catch (IOException e) {
+                LOGGER.warning("Error al guardar el punto de control.{}", e);
+            }
+            proximoControl += parametros.getPuntoControl();
+            enCola = tramo(hastaCuando);
+        }
+        finSimulacion = monitor.isTerminado() ? ahora : hastaCuando;
+        monitor.acaba(ahora, eventosProcesados, enCola, controlador.getPistasLibres());
+        LOGGER.fine("Simulado hasta {}", finSimulacion);
+    }
+
+    /**
+     * Simula hasta el instante indicado o, si antes hay un punto de control,
+     * hasta justo antes de él
+     *
+     * @param hastaCuando es el tiempo que vamos a simular
+     * @return número de eventos pendientes
+     */
+    private int tramo(long hastaCuando) {
+        long hasta = (proximoControl > 0 && proximoControl <= hastaCuando) ? proximoControl - 1 : hastaCuando;
+        if (parametros.getMotor() != TipoMotor.PRIMITIVO)
+            return bucleObjetos(hasta);
+        if (motor == null) {
+            motor = new MotorPrimitivo(generador, controlador, monitor);
+            motor.setTraza(traza);
+        }
+        eventosProcesados += motor.simula(hasta);
+        ahora = motor.getAhora();
+        return motor.getNroEventos();
+    }
+
+    /**
+     * Bucle de simulación con objetos evento.
+     * Continúa desde donde se quedó la llamada anterior.
+     *
+     * @param hastaCuando es el tiempo que vamos a simular
+     * @return número de eventos pendientes
+     */
+    private int bucleObjetos(long hastaCuando) {
+        if (cola == null) {
+            cola = new ColaEventos(parametros.getTipoCola());
+            siguiente = EventoAeroportuario.generaLlegada(null,generador);
+        }
+        EventoAeroportuario miEvento = siguiente;
+        while (miEvento != null && miEvento.getCuando() <= hastaCuando
+                && monitor.sigue(miEvento.getCuando(), eventosProcesados, cola.getNroEventos(),
+                controlador.getPistasLibres())){
+        	ahora = miEvento.getCuando();
+        	EventoJfrDespacho despacho = new EventoJfrDespacho();
+        	despacho.begin();
         	EventoAeroportuario evento2= logica(miEvento);
+        	boolean concedida = !miEvento.isFin() && evento2 != null && evento2.isFin();
+        	despacho.graba(miEvento.getTipo(), miEvento.getEstado(), miEvento.getIdAeronave(), ahora, concedida);
+        	if (traza != null)
+        	    traza.graba(ahora, miEvento.getIdAeronave(), miEvento.getTipo(), miEvento.getEstado(), concedida);
+        	eventosProcesados++;
         	cola.inserta(evento2);
         	if (miEvento.isAterrizaje() && miEvento.isIntento()){
         		EventoAeroportuario eventoOtro = EventoAeroportuario.generaLlegada(miEvento,generador);
@@ -141,8 +502,213 @@ public class Simulador {
         	}
         	miEvento = (EventoAeroportuario) cola.extrae();
         }
-        LOGGER.info("Ha concluido la simulacion");
+        siguiente = miEvento;
+        return cola.getNroEventos() + ((siguiente != null) ? 1 : 0);
+    }
+
+    /**
+     * Guarda el estado de la simulación en un punto de control, para
+     * continuarla después con reanuda. Se guardan los parámetros, los
+     * contadores del simulador, el estado del generador aleatorio, el
+     * contador de identificadores de evento, el controlador con su
+     * estadística y los eventos pendientes.
+     *
+     * @param fichero nombre del fichero
+     * @throws IOException si hay problemas al escribir o el flujo aleatorio
+     *                     no se puede guardar
+     * @see aeropuerto.PuntoControl
+     */
+    public void guardaPuntoControl(String fichero) throws IOException {
+        PuntoControl punto = new PuntoControl();
+        DataOutput salida = punto.getSalida();
+        StringWriter texto = new StringWriter();
+        parametros.getPropiedades().store(texto, null);
+        salida.writeUTF(texto.toString());
+        escribeEstado(salida);
+        salida.writeBoolean(traza != null);
+        if (traza != null)
+            traza.escribe(salida);
+        punto.guarda(fichero);
+    }
+
+    /**
+     * Crea un simulador con el estado guardado en un punto de control.
+     * Llamando a simulaBucle con el mismo instante final se obtiene la
+     * misma estadística que si la simulación no se hubiera detenido. Si hay
+     * traza de eventos, se sigue escribiendo desde el segmento y la posición
+     * guardados, y el fichero de ventanas desde la longitud guardada, así
+     * que al acabar son los mismos que sin detenerse.
+     *
+     * @param fichero punto de control escrito por guardaPuntoControl
+     * @return simulador listo para continuar
+     * @throws IOException si hay problemas al leer o el fichero no es un punto de control válido
+     */
+    public static Simulador reanuda(String fichero) throws IOException {
+        DataInput entrada = PuntoControl.abre(fichero);
+        Properties propiedades = new Properties();
+        propiedades.load(new StringReader(entrada.readUTF()));
+        Parametros parametros = new Parametros(propiedades);
+        Simulador sim = new Simulador(parametros, new Generador(parametros), false);
+        EventoAeroportuario.setContadorEventos(sim.leeEstado(entrada));
+        if (entrada.readBoolean())
+            sim.traza = new TrazaEventos(parametros.getFicheroTraza(), parametros.getSegmentoTraza(), entrada);
+        else if (!parametros.getFicheroTraza().isEmpty())
+            sim.traza = abreTraza(parametros.getFicheroTraza(), parametros.getSegmentoTraza());
+        if (sim.motor != null)
+            sim.motor.setTraza(sim.traza);
+        return sim;
+    }
+
+    /**
+     * Crea una bifurcación de esta simulación: un simulador nuevo, con los
+     * parámetros indicados, que continúa desde el estado actual de este.
+     * Los dos simuladores son independientes a partir de aquí, así que la
+     * parte común solo se simula una vez y cada bifurcación puede probar
+     * una alternativa (por ejemplo, menos pistas) en su propio hilo.
+     * <p/>
+     * Los parámetros deben usar el mismo motor, el mismo método de generar
+     * normales, los mismos flujos aleatorios, el mismo modo de espera y la
+     * misma anchura de ventana. Cada bifurcación escribe sus propios ficheros
+     * de salida, con el sufijo bifurcacionN (ver Parametros.conSufijo), para no
+     * pisar los de la simulación base ni los de las demás. Si hay menos pistas, las que estén ocupadas
+     * terminan su operación, pero no se conceden más hasta que haya libres.
+     * Si hay más y espera alguien en la fila, las nuevas se le reservan en
+     * el instante de la bifurcación, como si se acabaran de liberar.
+     *
+     * @param otros parámetros de la bifurcación
+     * @return simulador que continúa desde el estado actual
+     * @throws IllegalArgumentException si los parámetros no son compatibles
+     * @throws IllegalStateException    si el estado no se puede copiar (ver Generador)
+     * @see aeropuerto.Bifurcador
+     */
+    public Simulador bifurca(Parametros otros) {
+        compruebaBifurcacion(otros);
+        Simulador copia = new Simulador(otros.conSufijo("bifurcacion" + (++nroBifurcaciones)));
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            escribeEstado(new DataOutputStream(bytes));
+            copia.leeEstado(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        } catch (IOException e) {
+            copia.close();
+            throw new IllegalStateException("Simulador.bifurca: " + e.getMessage(), e);
+        }
+        copia.atiendeFila();
+        long intervalo = otros.getPuntoControl();
+        copia.proximoControl = (intervalo > 0) ? (finSimulacion / intervalo + 1) * intervalo : 0;
+        return copia;
+    }
+
+    /**
+     * Comprueba que se puede bifurcar con los parámetros indicados (ver bifurca)
+     *
+     * @param otros parámetros de la bifurcación
+     * @throws IllegalArgumentException si los parámetros no son compatibles
+     */
+    void compruebaBifurcacion(Parametros otros) {
+        if (otros.getMotor() != parametros.getMotor() || otros.getNormal() != parametros.getNormal()
+                || otros.getFlujos() != parametros.getFlujos() || otros.getEspera() != parametros.getEspera())
+            throw new IllegalArgumentException("Simulador.bifurca: motor, normal, flujos o espera distintos "
+                    + otros.getMotor() + " " + otros.getNormal() + " " + otros.getFlujos() + " " + otros.getEspera());
+    }
+
+    /**
+     * Con fila de espera, reserva las pistas libres para las aeronaves que
+     * esperan, como al liberarse una pista (ver atiendeEspera), en el
+     * instante hasta el que se ha simulado. Solo hace algo tras bifurcar con
+     * más pistas: en la simulación normal no hay pistas libres mientras
+     * alguien espera.
+     */
+    private void atiendeFila() {
+        if (controlador.getEspera() == TipoEspera.REINTENTO || controlador.getNroEsperando() == 0
+                || controlador.getPistasLibres() == 0)
+            return;
+        if (motor != null) {
+            motor.atiendeFila(finSimulacion);
+        } else if (cola != null) {
+            // Las atenciones van antes que los eventos pendientes del mismo instante
+            ColaEventos pendientes = cola;
+            cola = new ColaEventos(parametros.getTipoCola());
+            while (controlador.getPistasLibres() > 0 && controlador.getNroEsperando() > 0)
+                atiendeEspera(finSimulacion);
+            if (siguiente != null)
+                cola.inserta(siguiente);
+            for (Evento e : pendientes.getEventos())
+                cola.inserta(e);
+            siguiente = (EventoAeroportuario) cola.extrae();
+        }
+    }
+
+    /**
+     * Escribe el estado de la simulación, sin los parámetros
+     *
+     * @param salida donde se escribe
+     * @throws IOException si hay problemas al escribir o el flujo aleatorio
+     *                     no se puede guardar
+     */
+    private void escribeEstado(DataOutput salida) throws IOException {
+        salida.writeLong(ahora);
+        salida.writeLong(finSimulacion);
+        salida.writeLong(eventosProcesados);
+        salida.writeLong(proximoControl);
+        generador.escribe(salida);
+        salida.writeInt(EventoAeroportuario.getContadorEventos());
+        controlador.escribe(salida);
+        salida.writeByte(parametros.getMotor().ordinal());
+        if (parametros.getMotor() == TipoMotor.PRIMITIVO) {
+            salida.writeBoolean(motor != null);
+            if (motor != null)
+                motor.escribe(salida);
+        } else {
+            salida.writeBoolean(cola != null);
+            if (cola != null) {
+                salida.writeInt(cola.getNroEventos() + ((siguiente != null) ? 1 : 0));
+                if (siguiente != null)
+                    PuntoControl.escribeEvento(salida, siguiente);
+                for (Evento e : cola.getEventos())
+                    PuntoControl.escribeEvento(salida, (EventoAeroportuario) e);
+            }
+        }
     }
+
+    /**
+     * Lee el estado de la simulación escrito por escribeEstado.
+     * No cambia el contador de identificadores de evento, que es común
+     * a todas las simulaciones; solo lo devuelve.
+     *
+     * @param entrada de donde se lee
+     * @return contador de identificadores de evento guardado
+     * @throws IOException si hay problemas al leer o el estado no corresponde a los parámetros
+     */
+    private int leeEstado(DataInput entrada) throws IOException {
+        ahora = entrada.readLong();
+        finSimulacion = entrada.readLong();
+        eventosProcesados = entrada.readLong();
+        proximoControl = entrada.readLong();
+        generador.lee(entrada);
+        int contadorEventos = entrada.readInt();
+        controlador.lee(entrada);
+        if (entrada.readByte() != parametros.getMotor().ordinal())
+            throw new IOException("Simulador: motor distinto en el estado guardado");
+        if (parametros.getMotor() == TipoMotor.PRIMITIVO) {
+            if (entrada.readBoolean()) {
+                motor = new MotorPrimitivo(generador, controlador, monitor);
+                motor.setTraza(traza);
+                motor.lee(entrada);
+            }
+        } else if (entrada.readBoolean()) {
+            cola = new ColaEventos(parametros.getTipoCola());
+            int nroPendientes = entrada.readInt();
+            for (int i = 0; i < nroPendientes; i++) {
+                EventoAeroportuario e = PuntoControl.leeEvento(entrada);
+                if (i == 0)
+                    siguiente = e;
+                else
+                    cola.inserta(e);
+            }
+        }
+        return contadorEventos;
+    }
+
     /**
      * Prepara y lanza la simulación.
      * Al acabar imprime las estadísticas.
@@ -151,6 +717,8 @@ public class Simulador {
      * <li>tiempo que dura la simulación (debe ser > 0)
      * <li>fichero con los parámetros de simulación
      * </ol>
+     * Para continuar una simulación desde un punto de control, en lugar del
+     * fichero de parámetros se indica -reanuda y el fichero del punto de control.
      *
      * @param argumentos [tiempo_de_simulación] [fichero_de_par�metros]
      * @throws IOException              si hay problemas con el fichero de parámetros
@@ -160,8 +728,10 @@ public class Simulador {
      */
     public static void main(String[] argumentos)
             throws IOException {
-        if (argumentos.length != 2) {
+        boolean reanuda = argumentos.length == 3 && argumentos[1].equals("-reanuda");
+        if (argumentos.length != 2 && !reanuda) {
             System.err.println("Simulador [hasta_cuando] [fichero_parametros.ini]");
+            System.err.println("Simulador [hasta_cuando] -reanuda [fichero_punto_control]");
             System.exit(1);
         }
 
@@ -170,12 +740,15 @@ public class Simulador {
         */
         
         long finSimulacion = Long.parseLong(argumentos[0]);
-        Parametros parametros = new Parametros(argumentos[1]);
+        Simulador sim = reanuda ? reanuda(argumentos[2]) : new Simulador(new Parametros(argumentos[1]));
+        Parametros parametros = sim.parametros;
+        if (parametros.getCapacidadBitacora() > 0)
+            Bitacora.setAsincrona(new AnotadorAsincrono(parametros.getCapacidadBitacora()));
 
-        LOGGER.info("Inicio de simulacion. Duraci�n=" + finSimulacion);
-        LOGGER.info("Par�metros de simulacion = " + parametros);
-
-        Simulador sim = new Simulador(parametros);
+        LOGGER.info("Inicio de simulacion. Duraci�n={}", finSimulacion);
+        if (reanuda)
+            LOGGER.info("Se reanuda en {} desde {}", sim.getAhora(), argumentos[2]);
+        LOGGER.info("Par�metros de simulacion = {}", parametros);
 
         /*
         * Ejecuci�n del bucle de simulación
@@ -189,7 +762,13 @@ public class Simulador {
         */
         
         Estadistica estadistica = sim.calculaEstadistica(finSimulacion);
-        LOGGER.info("Resultado " + estadistica);
+        sim.close();
+        LOGGER.info("Resultado {}", estadistica);
+        AnotadorAsincrono asincrona = Bitacora.getAsincrona();
+        if (asincrona != null) {
+            Bitacora.setAsincrona(null);
+            asincrona.close();
+        }
         System.out.println("Resultado " + estadistica);
     }
 }
@@ -0,0 +1,101 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.util.Properties;
+
+/**
+ * Comprueba que la simulación se puede avanzar a pasos con simulaHasta,
+ * y consultar a mitad con getInstantanea, sin cambiar el resultado.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class SimuladorTest extends TestCase {
+
+    /**
+     * Avanzar a pasos da lo mismo que de una vez, con los dos motores
+     */
+    public void testAvanceAPasos() {
+        compara("OBJETOS");
+        compara("PRIMITIVO");
+    }
+
+    /**
+     * La instantánea coincide con la estadística cerrada en ese instante
+     * y no anota ventanas parciales
+     */
+    public void testInstantanea() {
+        Parametros parametros = parametros("OBJETOS", 3600);
+        Simulador hastaMitad = new Simulador(parametros);
+        hastaMitad.simulaBucle(50000);
+        String esperado = hastaMitad.calculaEstadistica(50000).toString();
+
+        Simulador sim = new Simulador(parametros);
+        sim.simulaHasta(50000);
+        long anotadas = sim.getVentanas().getNroAnotadas();
+        assertEquals(esperado, sim.getInstantanea().toString());
+        assertEquals(anotadas, sim.getVentanas().getNroAnotadas());
+        assertEquals(esperado, sim.getInstantanea().toString());
+    }
+
+    /**
+     * No se puede volver atrás
+     */
+    public void testNoRetrocede() {
+        Simulador sim = new Simulador(parametros("OBJETOS", 0));
+        sim.simulaHasta(1000);
+        try {
+            sim.simulaHasta(999);
+            fail("Debería rechazar un instante anterior");
+        } catch (IllegalArgumentException e) {
+            // correcto
+        }
+    }
+
+    /**
+     * Con pistas saturadas, la fila de espera atiende a las mismas aeronaves
+     * con muchos menos eventos que los reintentos
+     */
+    public void testFilaEsperaMenosEventos() {
+        long hasta = 200000;
+        Properties p = new Parametros(7, 1, 120, 0.45, 600, 200, 100, 60, 10).getPropiedades();
+        Simulador reintentos = new Simulador(new Parametros(p));
+        reintentos.simulaHasta(hasta);
+        p.setProperty("espera.pistas", "FIFO");
+        Simulador fila = new Simulador(new Parametros(p));
+        fila.simulaHasta(hasta);
+
+        assertTrue(fila.getEventosProcesados() * 2 < reintentos.getEventosProcesados());
+        Estadistica conReintentos = reintentos.calculaEstadistica(hasta);
+        Estadistica conFila = fila.calculaEstadistica(hasta);
+        assertEquals(conReintentos.getFinAterrizajes(), conFila.getFinAterrizajes(),
+                conReintentos.getFinAterrizajes() / 20);
+        assertTrue(conFila.getAterrizajesDemora() > 0);
+    }
+
+    private void compara(String motor) {
+        long hasta = 100000;
+        Simulador seguida = new Simulador(parametros(motor, 3600));
+        seguida.simulaBucle(hasta);
+        String esperado = seguida.calculaEstadistica(hasta).toString();
+
+        Simulador aPasos = new Simulador(parametros(motor, 3600));
+        long eventos = 0;
+        for (long t = 0; t <= hasta; t += 7777) {
+            eventos += aPasos.simulaHasta(t);
+            aPasos.getInstantanea();
+        }
+        eventos += aPasos.simulaHasta(hasta);
+        assertEquals(seguida.getEventosProcesados(), eventos);
+        assertEquals(motor, esperado, aPasos.calculaEstadistica(hasta).toString());
+        assertEquals(seguida.getVentanas().getNroAnotadas(), aPasos.getVentanas().getNroAnotadas());
+    }
+
+    private Parametros parametros(String motor, long ventana) {
+        Properties p = new Parametros(7, 2, 120, 0.2, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("motor.simulacion", motor);
+        p.setProperty("ventana.segundos", String.valueOf(ventana));
+        return new Parametros(p);
+    }
+}
@@ -0,0 +1,133 @@
+package aeropuerto;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribución discreta empírica, dada por una tabla de valores y pesos,
+ * muestreada con el método alias de Walker (construcción de Vose).
+ * Cada muestra cuesta un entero y una uniforme, sea cual sea el tamaño
+ * de la tabla.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class TablaAlias implements DistribucionLlegadas {
+    /**
+     * Valores de la distribución
+     */
+    private final int[] valores;
+
+    /**
+     * Probabilidad de quedarse con el valor de cada columna
+     */
+    private final double[] probabilidad;
+
+    /**
+     * Columna alternativa (alias) de cada columna
+     */
+    private final int[] alias;
+
+    /**
+     * Media de la distribución
+     */
+    private final double media;
+
+    /**
+     * Constructor
+     *
+     * @param valores valores de la distribución
+     * @param pesos   peso de cada valor (no negativos, con suma positiva)
+     * @throws IllegalArgumentException si la tabla está vacía o los pesos no son válidos
+     */
+    public TablaAlias(int[] valores, double[] pesos) {
+        int n = valores.length;
+        if (n == 0 || pesos.length != n)
+            throw new IllegalArgumentException("TablaAlias: tabla vacia o incompleta");
+        double suma = 0;
+        for (double p : pesos) {
+            if (!(p >= 0))
+                throw new IllegalArgumentException("TablaAlias: peso " + p);
+            suma += p;
+        }
+        if (!(suma > 0))
+            throw new IllegalArgumentException("TablaAlias: pesos nulos");
+        this.valores = valores.clone();
+        double ponderada = 0;
+        for (int i = 0; i < n; i++)
+            ponderada += valores[i] * pesos[i];
+        media = ponderada / suma;
+        probabilidad = new double[n];
+        alias = new int[n];
+
+        // Reparte las columnas en pequeñas (< 1) y grandes (>= 1)
+        double[] escalada = new double[n];
+        int[] pequenas = new int[n];
+        int[] grandes = new int[n];
+        int nPequenas = 0;
+        int nGrandes = 0;
+        for (int i = 0; i < n; i++) {
+            escalada[i] = pesos[i] * n / suma;
+            if (escalada[i] < 1)
+                pequenas[nPequenas++] = i;
+            else
+                grandes[nGrandes++] = i;
+        }
+        // Cada columna pequeña se completa con una grande
+        while (nPequenas > 0 && nGrandes > 0) {
+            int p = pequenas[--nPequenas];
+            int g = grandes[--nGrandes];
+            probabilidad[p] = escalada[p];
+            alias[p] = g;
+            escalada[g] = (escalada[g] + escalada[p]) - 1;
+            if (escalada[g] < 1)
+                pequenas[nPequenas++] = g;
+            else
+                grandes[nGrandes++] = g;
+        }
+        // Las que quedan valen 1, salvo errores de redondeo
+        while (nGrandes > 0)
+            probabilidad[grandes[--nGrandes]] = 1;
+        while (nPequenas > 0)
+            probabilidad[pequenas[--nPequenas]] = 1;
+    }
+
+    /**
+     * Lee una tabla escrita como <code>valor:peso,valor:peso,...</code>
+     *
+     * @param texto tabla
+     * @return distribución empírica
+     * @throws IllegalArgumentException si la tabla no es válida
+     * @throws NumberFormatException    si algún valor está mal escrito
+     */
+    public static TablaAlias lee(String texto) {
+        String[] pares = texto.trim().split(",");
+        int[] valores = new int[pares.length];
+        double[] pesos = new double[pares.length];
+        for (int i = 0; i < pares.length; i++) {
+            String[] par = pares[i].split(":");
+            if (par.length != 2)
+                throw new IllegalArgumentException("TablaAlias: " + pares[i]);
+            valores[i] = Integer.parseInt(par[0].trim());
+            pesos[i] = Double.parseDouble(par[1]);
+        }
+        return new TablaAlias(valores, pesos);
+    }
+
+    /**
+     * Genera una muestra de la distribución
+     *
+     * @param random fuente de números aleatorios
+     * @return muestra
+     */
+    public int muestra(RandomGenerator random) {
+        int i = random.nextInt(valores.length);
+        return (random.nextDouble() < probabilidad[i]) ? valores[i] : valores[alias[i]];
+    }
+
+    /**
+     * @return media de la distribución, ponderada por los pesos
+     */
+    public double getMedia() {
+        return media;
+    }
+}
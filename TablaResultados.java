@@ -0,0 +1,194 @@
+package aeropuerto;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.DoublePredicate;
+
+/**
+ * Tabla de resultados numéricos guardada por columnas: un array de double
+ * por columna, con nombre. Se puede ordenar y filtrar por cualquier columna,
+ * lo que devuelve una tabla nueva, y exportar a CSV.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Barrido
+ */
+public class TablaResultados {
+    /**
+     * Nombre de cada columna
+     */
+    private final String[] columnas;
+
+    /**
+     * Valores de cada columna
+     */
+    private final double[][] datos;
+
+    /**
+     * Número de filas
+     */
+    private final int nroFilas;
+
+    /**
+     * Crea una tabla con todos sus valores a 0
+     *
+     * @param columnas nombre de cada columna
+     * @param nroFilas número de filas
+     */
+    public TablaResultados(String[] columnas, int nroFilas) {
+        this.columnas = columnas.clone();
+        this.nroFilas = nroFilas;
+        datos = new double[columnas.length][nroFilas];
+    }
+
+    /**
+     * @return número de filas
+     */
+    public int getNroFilas() {
+        return nroFilas;
+    }
+
+    /**
+     * @return nombre de las columnas
+     */
+    public String[] getColumnas() {
+        return columnas.clone();
+    }
+
+    /**
+     * Da valor a una celda
+     *
+     * @param columna nombre de la columna
+     * @param fila    índice de la fila
+     * @param valor   valor de la celda
+     * @throws IllegalArgumentException si no existe la columna
+     */
+    public void pon(String columna, int fila, double valor) {
+        datos[indice(columna)][fila] = valor;
+    }
+
+    /**
+     * @param columna nombre de la columna
+     * @param fila    índice de la fila
+     * @return valor de la celda
+     * @throws IllegalArgumentException si no existe la columna
+     */
+    public double getValor(String columna, int fila) {
+        return datos[indice(columna)][fila];
+    }
+
+    /**
+     * @param columna nombre de la columna
+     * @return copia de los valores de la columna
+     * @throws IllegalArgumentException si no existe la columna
+     */
+    public double[] getColumna(String columna) {
+        return datos[indice(columna)].clone();
+    }
+
+    /**
+     * Ordena las filas por una columna. El orden es estable: las filas
+     * con el mismo valor conservan su orden relativo.
+     *
+     * @param columna    nombre de la columna
+     * @param ascendente TRUE para orden ascendente
+     * @return tabla nueva, ordenada
+     * @throws IllegalArgumentException si no existe la columna
+     */
+    public TablaResultados ordena(String columna, final boolean ascendente) {
+        final double[] clave = datos[indice(columna)];
+        Integer[] filas = new Integer[nroFilas];
+        for (int i = 0; i < nroFilas; i++)
+            filas[i] = i;
+        Arrays.sort(filas, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                int c = Double.compare(clave[a], clave[b]);
+                return ascendente ? c : -c;
+            }
+        });
+        int[] seleccion = new int[nroFilas];
+        for (int i = 0; i < nroFilas; i++)
+            seleccion[i] = filas[i];
+        return selecciona(seleccion, nroFilas);
+    }
+
+    /**
+     * Se queda con las filas cuyo valor en una columna cumple una condición.
+     *
+     * @param columna   nombre de la columna
+     * @param condicion condición sobre el valor
+     * @return tabla nueva, con las filas que cumplen la condición
+     * @throws IllegalArgumentException si no existe la columna
+     */
+    public TablaResultados filtra(String columna, DoublePredicate condicion) {
+        double[] valores = datos[indice(columna)];
+        int[] seleccion = new int[nroFilas];
+        int n = 0;
+        for (int i = 0; i < nroFilas; i++)
+            if (condicion.test(valores[i]))
+                seleccion[n++] = i;
+        return selecciona(seleccion, n);
+    }
+
+    /**
+     * Exporta la tabla en formato CSV: una cabecera con los nombres
+     * de las columnas y una línea por fila.
+     *
+     * @param salida donde se escribe la tabla
+     * @throws IOException si hay problemas al escribir
+     */
+    public void exportaCsv(Writer salida) throws IOException {
+        StringBuilder linea = new StringBuilder();
+        for (int c = 0; c < columnas.length; c++)
+            linea.append((c > 0) ? "," : "").append(columnas[c]);
+        salida.write(linea.append('\n').toString());
+        for (int f = 0; f < nroFilas; f++) {
+            linea.setLength(0);
+            for (int c = 0; c < columnas.length; c++)
+                linea.append((c > 0) ? "," : "").append(datos[c][f]);
+            salida.write(linea.append('\n').toString());
+        }
+        salida.flush();
+    }
+
+    /**
+     * Exporta la tabla a un fichero CSV
+     *
+     * @param fichero nombre del fichero
+     * @throws IOException si hay problemas con el fichero
+     */
+    public void exportaCsv(String fichero) throws IOException {
+        try (Writer salida = new BufferedWriter(new FileWriter(fichero))) {
+            exportaCsv(salida);
+        }
+    }
+
+    /**
+     * Índice de una columna
+     *
+     * @param columna nombre de la columna
+     * @return índice de la columna
+     * @throws IllegalArgumentException si no existe la columna
+     */
+    private int indice(String columna) {
+        for (int c = 0; c < columnas.length; c++)
+            if (columnas[c].equals(columna))
+                return c;
+        throw new IllegalArgumentException("TablaResultados: no existe la columna " + columna);
+    }
+
+    /**
+     * Tabla nueva con las filas indicadas, en ese orden
+     */
+    private TablaResultados selecciona(int[] filas, int n) {
+        TablaResultados tabla = new TablaResultados(columnas, n);
+        for (int c = 0; c < columnas.length; c++)
+            for (int i = 0; i < n; i++)
+                tabla.datos[c][i] = datos[c][filas[i]];
+        return tabla;
+    }
+}
@@ -0,0 +1,17 @@
+package aeropuerto;
+
+/**
+ * Tipo de implementación de la cola de eventos:
+ * LISTA = lista ordenada, inserción lineal (implementación original);
+ * MONTICULO = montículo d-ario, inserción y extracción en O(log n);
+ * RADIX = montículo radix monótono, coste amortizado constante. Exige que
+ * ningún evento se inserte antes del último extraído.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.ColaEventos
+ */
+
+public enum TipoCola {
+    LISTA, MONTICULO, RADIX
+}
@@ -0,0 +1,20 @@
+package aeropuerto;
+
+/**
+ * Distribución del intervalo entre llegadas:
+ * POISSON_KNUTH = Poisson por el método multiplicativo de Knuth,
+ * coste proporcional a la media (el método original);
+ * POISSON_PTRS = Poisson por rechazo transformado (PTRS), coste constante;
+ * EXPONENCIAL = exponencial por inversión de la función de distribución,
+ * redondeada al segundo, coste constante;
+ * EMPIRICA = distribución discreta dada por una tabla de valores y pesos,
+ * muestreada con el método alias, coste constante.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.DistribucionLlegadas
+ */
+
+public enum TipoDistribucion {
+    POISSON_KNUTH, POISSON_PTRS, EXPONENCIAL, EMPIRICA
+}
@@ -0,0 +1,20 @@
+package aeropuerto;
+
+/**
+ * Qué hace el controlador con una solicitud de pista cuando no hay ninguna libre:
+ * REINTENTO = la aeronave vuelve a pedir pista pasada una demora aleatoria,
+ * tantas veces como haga falta;
+ * FIFO = la aeronave espera en una fila y obtiene pista en cuanto se libera una,
+ * por orden de llegada;
+ * FIFO_DEMORA = como FIFO, pero la aeronave tarda en ocupar la pista liberada
+ * lo que le faltaba para su siguiente reintento, lo que emula en media el
+ * tiempo de espera del modo REINTENTO sin generar un evento por cada reintento.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Controlador
+ */
+
+public enum TipoEspera {
+    REINTENTO, FIFO, FIFO_DEMORA
+}
@@ -0,0 +1,20 @@
+package aeropuerto;
+
+/**
+ * Flujos de números aleatorios del generador:
+ * UNICO = un solo flujo para todas las variables aleatorias, en el orden en
+ * que se piden;
+ * SEPARADOS = un flujo independiente para cada propósito (intervalo entre
+ * llegadas, asistencia en tierra y demora de reintento), de modo que cambiar
+ * cuántas demoras de reintento se piden no altera las llegadas ni las
+ * asistencias en tierra. Es lo que sincroniza las réplicas antitéticas
+ * (ver Antitetico) y reduce la varianza al comparar configuraciones.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Generador
+ */
+
+public enum TipoFlujos {
+    UNICO, SEPARADOS
+}
@@ -0,0 +1,16 @@
+package aeropuerto;
+
+/**
+ * Origen de las llegadas de aeronaves:
+ * GENERADOR = intervalos aleatorios según distribucion.llegadas (ver Generador);
+ * TRAZA = instantes de llegada de una traza binaria grabada (ver LlegadasTraza);
+ * CSV = instantes de llegada de un programa de vuelos en CSV (ver LlegadasCsv).
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.FuenteLlegadas
+ */
+
+public enum TipoFuenteLlegadas {
+    GENERADOR, TRAZA, CSV
+}
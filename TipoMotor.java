@@ -0,0 +1,15 @@
+package aeropuerto;
+
+/**
+ * Motor del bucle de simulación:
+ * OBJETOS = un objeto EventoAeroportuario por evento, en una ColaEventos;
+ * PRIMITIVO = eventos en arrays de primitivos reutilizados (ver MotorPrimitivo).
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.Simulador
+ */
+
+public enum TipoMotor {
+    OBJETOS, PRIMITIVO
+}
@@ -0,0 +1,16 @@
+package aeropuerto;
+
+/**
+ * Método para generar las variables normales de Generador:
+ * POLAR = nextGaussian de java.util.Random, método polar (el original);
+ * ZIGGURAT = método ziggurat sobre un generador xoroshiro128++,
+ * generando las normales por bloques.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.ZigguratNormal
+ */
+
+public enum TipoNormal {
+    POLAR, ZIGGURAT
+}
@@ -0,0 +1,301 @@
+package aeropuerto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * Trabajo del servicio de simulación: una o varias réplicas de una
+ * simulación con los mismos parámetros y el mismo instante final.
+ * <p/>
+ * Cada réplica va en su propio hilo, pero solo simula mientras tiene uno
+ * de los permisos del semáforo de procesadores, que comparten todos los
+ * trabajos del servicio: así se pueden recibir cientos de trabajos sin
+ * tener más simulaciones a la vez que procesadores. Con una réplica el
+ * resultado es el de Simulador con la semilla de los parámetros; con
+ * varias, el de Replicador con los mismos flujos aleatorios.
+ * <p/>
+ * El progreso se lee de los monitores de las réplicas que están simulando
+ * (ver MonitorSimulador), y cancelar termina sus bucles con el mismo
+ * mecanismo que la orden termina del monitor.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.ServicioSimulacion
+ */
+public class TrabajoSimulacion implements Runnable {
+    /**
+     * Logger
+     */
+    private static final Bitacora LOGGER = Bitacora.getBitacora("aeropuerto.TrabajoSimulacion");
+
+    /**
+     * Identificador del trabajo
+     */
+    private final long id;
+
+    /**
+     * Parámetros de todas las réplicas
+     */
+    private final Parametros parametros;
+
+    /**
+     * Instante final de cada réplica
+     */
+    private final long hastaCuando;
+
+    /**
+     * Número de réplicas
+     */
+    private final int nroReplicas;
+
+    /**
+     * Si las réplicas van en pares antitéticos
+     */
+    private final boolean antiteticas;
+
+    /**
+     * Hilos en los que se lanzan las réplicas
+     */
+    private final ExecutorService hilos;
+
+    /**
+     * Permisos para simular, uno por procesador, compartidos con los demás trabajos
+     */
+    private final Semaphore procesadores;
+
+    /**
+     * Simulador de cada réplica mientras simula (null antes y después)
+     */
+    private final AtomicReferenceArray<Simulador> enCurso;
+
+    /**
+     * Estadística de cada réplica acabada
+     */
+    private final Estadistica[] resultados;
+
+    /**
+     * Número de réplicas acabadas
+     */
+    private final AtomicInteger acabadas = new AtomicInteger();
+
+    /**
+     * Estado del trabajo
+     */
+    private volatile EstadoTrabajo estado = EstadoTrabajo.EN_COLA;
+
+    /**
+     * Si se ha pedido cancelar el trabajo
+     */
+    private volatile boolean cancelado = false;
+
+    /**
+     * Error de la réplica que ha fallado (null si ninguna)
+     */
+    private volatile String error;
+
+    /**
+     * Constructor
+     *
+     * @param id           identificador del trabajo
+     * @param parametros   de todas las réplicas
+     * @param hastaCuando  instante final de cada réplica
+     * @param nroReplicas  número de réplicas (mayor que 0, y par si son antitéticas)
+     * @param antiteticas  si las réplicas van en pares antitéticos
+     * @param hilos        hilos en los que se lanzan las réplicas
+     * @param procesadores permisos para simular
+     * @throws IllegalArgumentException si hastaCuando o el número de réplicas no son válidos
+     */
+    public TrabajoSimulacion(long id, Parametros parametros, long hastaCuando, int nroReplicas,
+                             boolean antiteticas, ExecutorService hilos, Semaphore procesadores) {
+        if (parametros == null || hastaCuando <= 0 || nroReplicas < 1 || (antiteticas && nroReplicas % 2 != 0))
+            throw new IllegalArgumentException("TrabajoSimulacion: hasta " + hastaCuando + ", "
+                    + nroReplicas + " replicas");
+        this.id = id;
+        this.parametros = parametros;
+        this.hastaCuando = hastaCuando;
+        this.nroReplicas = nroReplicas;
+        this.antiteticas = antiteticas;
+        this.hilos = hilos;
+        this.procesadores = procesadores;
+        enCurso = new AtomicReferenceArray<Simulador>(nroReplicas);
+        resultados = new Estadistica[nroReplicas];
+    }
+
+    /**
+     * Lanza las réplicas, cada una en su hilo, y espera a que acaben
+     */
+    public void run() {
+        if (cancelado) {
+            estado = EstadoTrabajo.CANCELADO;
+            return;
+        }
+        estado = EstadoTrabajo.EJECUTANDO;
+        LOGGER.info("Trabajo {}: {} replicas hasta {}", id, nroReplicas, hastaCuando);
+        RandomGenerator[] flujos = (nroReplicas == 1 && !antiteticas) ? null
+                : new Replicador(parametros, nroReplicas, hastaCuando, ForkJoinPool.commonPool(), antiteticas).creaFlujos();
+        List<Future<?>> replicas = new ArrayList<Future<?>>(nroReplicas);
+        for (int i = 0; i < nroReplicas; i++) {
+            final int replica = i;
+            final RandomGenerator flujo = (flujos == null) ? null : flujos[i];
+            replicas.add(hilos.submit(() -> simulaReplica(replica, flujo)));
+        }
+        try {
+            for (Future<?> replica : replicas)
+                replica.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancela();
+        } catch (ExecutionException e) {
+            falla(e.getCause());
+        }
+        if (error != null)
+            estado = EstadoTrabajo.FALLIDO;
+        else if (cancelado)
+            estado = EstadoTrabajo.CANCELADO;
+        else
+            estado = EstadoTrabajo.TERMINADO;
+        LOGGER.info("Trabajo {}: {}", id, estado);
+    }
+
+    /**
+     * Simula una réplica cuando consigue procesador
+     *
+     * @param replica número de la réplica
+     * @param flujo   números aleatorios de la réplica, o null para los de la semilla de los parámetros
+     */
+    private void simulaReplica(int replica, RandomGenerator flujo) {
+        try {
+            procesadores.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancela();
+            return;
+        }
+        Parametros propios = parametros.conSufijo("trabajo" + id + ".replica" + replica);
+        try (Simulador simulador = (flujo == null) ? new Simulador(propios) : new Simulador(propios, flujo)) {
+            enCurso.set(replica, simulador);
+            if (cancelado)
+                return;
+            simulador.simulaBucle(hastaCuando);
+            if (!cancelado) {
+                resultados[replica] = simulador.calculaEstadistica(hastaCuando);
+                acabadas.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            falla(e);
+        } finally {
+            enCurso.set(replica, null);
+            procesadores.release();
+        }
+    }
+
+    /**
+     * Anota el fallo de una réplica y cancela las demás
+     */
+    private void falla(Throwable causa) {
+        if (error == null)
+            error = String.valueOf(causa);
+        LOGGER.warning("Trabajo {}: fallo en una replica {}", id, causa);
+        cancela();
+    }
+
+    /**
+     * Cancela el trabajo: las réplicas que simulan terminan en el próximo
+     * evento y las que esperan procesador ya no empiezan
+     */
+    public void cancela() {
+        cancelado = true;
+        for (int i = 0; i < nroReplicas; i++) {
+            Simulador simulador = enCurso.get(i);
+            if (simulador != null)
+                simulador.getMonitor().termina();
+        }
+    }
+
+    /**
+     * @return identificador del trabajo
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return estado del trabajo
+     */
+    public EstadoTrabajo getEstado() {
+        return estado;
+    }
+
+    /**
+     * @return TRUE si el trabajo ya no va a avanzar (terminado, cancelado o fallido)
+     */
+    public boolean isAcabado() {
+        return estado != EstadoTrabajo.EN_COLA && estado != EstadoTrabajo.EJECUTANDO;
+    }
+
+    /**
+     * @return número de réplicas
+     */
+    public int getNroReplicas() {
+        return nroReplicas;
+    }
+
+    /**
+     * @return número de réplicas acabadas
+     */
+    public int getReplicasAcabadas() {
+        return acabadas.get();
+    }
+
+    /**
+     * Fracción del tiempo simulado total (todas las réplicas) que ya se ha
+     * simulado, según los últimos indicadores publicados por los monitores
+     *
+     * @return progreso, entre 0 y 1
+     */
+    public double getProgreso() {
+        if (estado == EstadoTrabajo.TERMINADO)
+            return 1;
+        double simulado = (double) acabadas.get() * hastaCuando;
+        for (int i = 0; i < nroReplicas; i++) {
+            Simulador simulador = enCurso.get(i);
+            if (simulador != null)
+                simulado += Math.min(simulador.getMonitor().getTiempoSimulado(), hastaCuando);
+        }
+        return Math.min(1, simulado / ((double) nroReplicas * hastaCuando));
+    }
+
+    /**
+     * @return error de la réplica que ha fallado, o null si ninguna
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Resultado del trabajo en el formato de Estadistica: con una réplica,
+     * como lo escribe Simulador; con varias, el resumen de las réplicas
+     * (ver ResumenReplicas) seguido de la estadística de cada una
+     *
+     * @return resultado, o null si el trabajo no ha terminado
+     */
+    public String getResultado() {
+        if (estado != EstadoTrabajo.TERMINADO)
+            return null;
+        if (nroReplicas == 1)
+            return "Resultado " + resultados[0];
+        StringBuilder a = new StringBuilder(new ResumenReplicas(resultados, antiteticas,
+                Generador.esperanzaEntreLlegadas(parametros)).toString());
+        for (int i = 0; i < nroReplicas; i++)
+            a.append("Replica ").append(i).append(' ').append(resultados[i]);
+        return a.toString();
+    }
+}
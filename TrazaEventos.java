@@ -0,0 +1,329 @@
+package aeropuerto;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Traza binaria de los eventos procesados por la simulación, para
+ * auditarla después con LectorTraza.
+ * <p/>
+ * Cada evento ocupa entre 3 y 16 bytes: un byte con el tipo de operación,
+ * el estado y si obtuvo pista (tipo << 3 | estado << 1 | concedida), el
+ * intervalo desde el evento anterior como varint sin signo y la diferencia
+ * con la aeronave anterior como varint zigzag. Los eventos se procesan en
+ * orden de tiempo y las aeronaves se numeran seguidas, así que casi todos
+ * los eventos ocupan 3 o 4 bytes.
+ * <p/>
+ * Se escribe en segmentos de tamaño fijo (base.000000, base.000001...)
+ * proyectados en memoria con un MappedByteBuffer: escribir un evento no
+ * hace llamadas al sistema. Cuando un segmento se llena se cierra y se
+ * abre el siguiente. Cada segmento empieza con una cabecera con el instante
+ * y la aeronave de los que parten sus diferencias, así que se puede leer
+ * por separado, y al cerrarlo se anotan en ella su número de eventos, su
+ * longitud y si es el último. El fichero conserva el tamaño proyectado
+ * (no se puede recortar mientras siga proyectado): LectorTraza solo lee
+ * hasta la longitud de la cabecera y se detiene en el último segmento.
+ * <p/>
+ * Cada segmento nuevo sustituye al fichero que hubiera con su nombre, y al
+ * cerrar la traza se borran los segmentos que siguen al último, que serían
+ * de una traza anterior más larga. Un punto de control guarda el segmento
+ * y la posición en curso (ver escribe), para que la simulación reanudada
+ * siga escribiendo la misma traza.
+ * <p/>
+ * No es segura entre hilos: la escribe el hilo que simula.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.LectorTraza
+ */
+public class TrazaEventos implements Closeable {
+    /**
+     * Marca del principio de cada segmento ("ATR2")
+     */
+    static final int MAGICO = 0x41545232;
+
+    /**
+     * Tamaño de la cabecera de cada segmento: marca, instante y aeronave
+     * de partida, número de eventos, longitud y si es el último
+     */
+    static final int CABECERA = 4 + 8 + 4 + 8 + 8 + 4;
+
+    /**
+     * Posición del número de eventos en la cabecera
+     */
+    static final int POSICION_EVENTOS = 16;
+
+    /**
+     * Posición de la longitud en la cabecera
+     */
+    static final int POSICION_LONGITUD = 24;
+
+    /**
+     * Posición de la marca de último segmento en la cabecera
+     */
+    static final int POSICION_ULTIMO = 32;
+
+    /**
+     * Tamaño máximo de un evento: byte de tipo, varint de 64 bits y varint de 32 bits
+     */
+    static final int MAXIMO_EVENTO = 1 + 10 + 5;
+
+    /**
+     * Tamaño mínimo de un segmento
+     */
+    public static final int SEGMENTO_MINIMO = 1024;
+
+    /**
+     * Nombre base de los segmentos
+     */
+    private final String base;
+
+    /**
+     * Tamaño de cada segmento, en bytes
+     */
+    private final int tamanoSegmento;
+
+    /**
+     * Segmento en curso (null si está cerrada)
+     */
+    private MappedByteBuffer segmento;
+
+    /**
+     * Canal del segmento en curso
+     */
+    private FileChannel canal;
+
+    /**
+     * Número de segmentos abiertos (el en curso es el nroSegmentos - 1)
+     */
+    private int nroSegmentos = 0;
+
+    /**
+     * Eventos del segmento en curso
+     */
+    private long eventosSegmento = 0;
+
+    /**
+     * Eventos escritos en total
+     */
+    private long nroEventos = 0;
+
+    /**
+     * Instante del último evento escrito
+     */
+    private long ultimoInstante = 0;
+
+    /**
+     * Aeronave del último evento escrito
+     */
+    private int ultimaAeronave = 0;
+
+    /**
+     * Crea la traza y abre su primer segmento
+     *
+     * @param base           nombre base de los segmentos
+     * @param tamanoSegmento tamaño de cada segmento, en bytes (al menos SEGMENTO_MINIMO)
+     * @throws IOException              si no se puede crear el primer segmento
+     * @throws IllegalArgumentException si el tamaño es menor que el mínimo
+     */
+    public TrazaEventos(String base, int tamanoSegmento) throws IOException {
+        if (tamanoSegmento < SEGMENTO_MINIMO)
+            throw new IllegalArgumentException("TrazaEventos: segmento de " + tamanoSegmento + " bytes");
+        this.base = base;
+        this.tamanoSegmento = tamanoSegmento;
+        abreSegmento();
+    }
+
+    /**
+     * Continúa una traza desde la posición guardada en un punto de control:
+     * vuelve a proyectar el segmento que estaba en curso y sigue escribiendo
+     * detrás del último evento de antes del punto de control. Lo que hubiera
+     * escrito después la simulación interrumpida se sobrescribe o, si está
+     * en segmentos posteriores, se borra al cerrar.
+     *
+     * @param base           nombre base de los segmentos
+     * @param tamanoSegmento tamaño de cada segmento, en bytes (al menos SEGMENTO_MINIMO)
+     * @param entrada        estado escrito por escribe
+     * @throws IOException              si hay problemas al leer el estado o el segmento
+     *                                  en curso no existe o no es de una traza
+     * @throws IllegalArgumentException si el tamaño es menor que el mínimo
+     */
+    public TrazaEventos(String base, int tamanoSegmento, DataInput entrada) throws IOException {
+        if (tamanoSegmento < SEGMENTO_MINIMO)
+            throw new IllegalArgumentException("TrazaEventos: segmento de " + tamanoSegmento + " bytes");
+        this.base = base;
+        this.tamanoSegmento = tamanoSegmento;
+        nroSegmentos = entrada.readInt();
+        int posicion = entrada.readInt();
+        eventosSegmento = entrada.readLong();
+        nroEventos = entrada.readLong();
+        ultimoInstante = entrada.readLong();
+        ultimaAeronave = entrada.readInt();
+        if (nroSegmentos < 1 || posicion < CABECERA || posicion > tamanoSegmento)
+            throw new IOException("TrazaEventos: segmento " + nroSegmentos + " posicion " + posicion + " no validos");
+        Path fichero = Paths.get(nombreSegmento(base, nroSegmentos - 1));
+        canal = FileChannel.open(fichero, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+        if (segmento.getInt(0) != MAGICO) {
+            segmento = null;
+            canal.close();
+            throw new IOException("TrazaEventos: " + fichero + " no es un segmento de traza");
+        }
+        segmento.position(posicion);
+    }
+
+    /**
+     * Nombre de un segmento
+     *
+     * @param base   nombre base de la traza
+     * @param numero número del segmento (desde 0)
+     * @return nombre del fichero del segmento
+     */
+    static String nombreSegmento(String base, int numero) {
+        return String.format("%s.%06d", base, numero);
+    }
+
+    /**
+     * Escribe un evento procesado
+     *
+     * @param cuando    instante del evento
+     * @param aeronave  identificador de la aeronave
+     * @param tipo      tipo de operación
+     * @param estado    estado de la operación
+     * @param concedida TRUE si el evento era una solicitud y obtuvo pista
+     * @throws IllegalStateException si no se puede abrir el siguiente segmento, o la traza está cerrada
+     */
+    public void graba(long cuando, int aeronave, TipoOperacion tipo, EstadoOperacion estado, boolean concedida) {
+        if (segmento == null)
+            throw new IllegalStateException("TrazaEventos: cerrada");
+        if (segmento.remaining() < MAXIMO_EVENTO) {
+            try {
+                cierraSegmento(false);
+                abreSegmento();
+            } catch (IOException e) {
+                throw new IllegalStateException("TrazaEventos: " + e.getMessage(), e);
+            }
+        }
+        segmento.put((byte) (tipo.ordinal() << 3 | estado.ordinal() << 1 | (concedida ? 1 : 0)));
+        escribeVarint(segmento, cuando - ultimoInstante);
+        int diferencia = aeronave - ultimaAeronave;
+        escribeVarint(segmento, ((diferencia << 1) ^ (diferencia >> 31)) & 0xFFFFFFFFL);
+        ultimoInstante = cuando;
+        ultimaAeronave = aeronave;
+        eventosSegmento++;
+        nroEventos++;
+    }
+
+    /**
+     * Escribe un valor sin signo en grupos de 7 bits, del menos al más
+     * significativo, con el bit alto a 1 si sigue otro grupo
+     */
+    private static void escribeVarint(MappedByteBuffer buffer, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            buffer.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        buffer.put((byte) valor);
+    }
+
+    /**
+     * Crea y proyecta el siguiente segmento, con su cabecera. El fichero que
+     * hubiera con su nombre se borra antes, en lugar de recortarlo, por si
+     * alguien lo tiene proyectado.
+     */
+    private void abreSegmento() throws IOException {
+        Path fichero = Paths.get(nombreSegmento(base, nroSegmentos));
+        Files.deleteIfExists(fichero);
+        canal = FileChannel.open(fichero, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+        segmento.putInt(MAGICO);
+        segmento.putLong(ultimoInstante);
+        segmento.putInt(ultimaAeronave);
+        segmento.putLong(0);
+        segmento.putLong(0);
+        segmento.putInt(0);
+        eventosSegmento = 0;
+        nroSegmentos++;
+    }
+
+    /**
+     * Anota en la cabecera el número de eventos, la longitud del segmento
+     * en curso y si es el último, y lo escribe en disco
+     *
+     * @param ultimo TRUE si la traza se cierra con este segmento
+     */
+    private void cierraSegmento(boolean ultimo) throws IOException {
+        segmento.putLong(POSICION_EVENTOS, eventosSegmento);
+        segmento.putLong(POSICION_LONGITUD, segmento.position());
+        segmento.putInt(POSICION_ULTIMO, ultimo ? 1 : 0);
+        segmento.force();
+        segmento = null;
+        canal.close();
+        canal = null;
+    }
+
+    /**
+     * Escribe en disco lo grabado hasta ahora y el estado de la traza
+     * (segmento y posición en curso, y los valores de los que parten las
+     * diferencias), para continuarla con el constructor que lo lee
+     *
+     * @param salida donde se escribe
+     * @throws IOException           si hay problemas al escribir
+     * @throws IllegalStateException si la traza está cerrada
+     */
+    public void escribe(DataOutput salida) throws IOException {
+        if (segmento == null)
+            throw new IllegalStateException("TrazaEventos: cerrada");
+        segmento.force();
+        salida.writeInt(nroSegmentos);
+        salida.writeInt(segmento.position());
+        salida.writeLong(eventosSegmento);
+        salida.writeLong(nroEventos);
+        salida.writeLong(ultimoInstante);
+        salida.writeInt(ultimaAeronave);
+    }
+
+    /**
+     * @return número de eventos escritos
+     */
+    public long getNroEventos() {
+        return nroEventos;
+    }
+
+    /**
+     * @return número de segmentos escritos
+     */
+    public int getNroSegmentos() {
+        return nroSegmentos;
+    }
+
+    /**
+     * @return nombre base de los segmentos
+     */
+    public String getBase() {
+        return base;
+    }
+
+    /**
+     * Cierra el segmento en curso como último y borra los segmentos que lo
+     * siguen, si los hay. La traza no se puede seguir escribiendo.
+     *
+     * @throws IOException si hay problemas al escribir el segmento o borrar los siguientes
+     */
+    public void close() throws IOException {
+        if (segmento == null)
+            return;
+        cierraSegmento(true);
+        for (int i = nroSegmentos; Files.deleteIfExists(Paths.get(nombreSegmento(base, i))); i++)
+            ;
+    }
+}
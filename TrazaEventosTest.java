@@ -0,0 +1,165 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Comprueba la traza binaria de eventos: se lee lo mismo que se escribe,
+ * aunque ocupe varios segmentos, la simulación escribe un evento por
+ * cada evento procesado y la traza sigue igual al reanudar desde un
+ * punto de control.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class TrazaEventosTest extends TestCase {
+
+    private File directorio;
+
+    protected void setUp() throws Exception {
+        directorio = Files.createTempDirectory("traza").toFile();
+    }
+
+    protected void tearDown() {
+        File[] ficheros = directorio.listFiles();
+        if (ficheros != null)
+            for (File f : ficheros)
+                f.delete();
+        directorio.delete();
+    }
+
+    /**
+     * Eventos con saltos de tiempo grandes y aeronaves que retroceden,
+     * en segmentos del tamaño mínimo
+     */
+    public void testIdaYVuelta() throws Exception {
+        String base = new File(directorio, "prueba").getPath();
+        Random random = new Random(3);
+        long[] cuando = new long[2000];
+        int[] aeronave = new int[cuando.length];
+        TrazaEventos traza = new TrazaEventos(base, TrazaEventos.SEGMENTO_MINIMO);
+        for (int i = 0; i < cuando.length; i++) {
+            cuando[i] = (i == 0 ? 0 : cuando[i - 1]) + ((i % 100 == 0) ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(200));
+            aeronave[i] = (i % 7 == 0) ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(50);
+            traza.graba(cuando[i], aeronave[i], TipoOperacion.values()[i % 2], EstadoOperacion.values()[i % 3], i % 5 == 0);
+        }
+        traza.close();
+        assertTrue(traza.getNroSegmentos() > 1);
+
+        try (LectorTraza lector = new LectorTraza(base)) {
+            for (int i = 0; i < cuando.length; i++) {
+                assertTrue(lector.siguiente());
+                assertEquals(cuando[i], lector.getCuando());
+                assertEquals(aeronave[i], lector.getAeronave());
+                assertEquals(TipoOperacion.values()[i % 2], lector.getTipo());
+                assertEquals(EstadoOperacion.values()[i % 3], lector.getEstado());
+                assertEquals(i % 5 == 0, lector.isConcedida());
+            }
+            assertFalse(lector.siguiente());
+        }
+    }
+
+    /**
+     * Una traza más corta escrita con el mismo nombre base no deja leer
+     * los segmentos que sobran de la anterior, y estos se borran
+     */
+    public void testTrazaMasCorta() throws Exception {
+        String base = new File(directorio, "prueba").getPath();
+        TrazaEventos larga = new TrazaEventos(base, TrazaEventos.SEGMENTO_MINIMO);
+        for (int i = 0; i < 2000; i++)
+            larga.graba(i, i, TipoOperacion.ATERRIZAJE, EstadoOperacion.INTENTO, false);
+        larga.close();
+        assertTrue(larga.getNroSegmentos() > 3);
+
+        TrazaEventos corta = new TrazaEventos(base, TrazaEventos.SEGMENTO_MINIMO);
+        for (int i = 0; i < 300; i++)
+            corta.graba(5000 + i, i, TipoOperacion.DESPEGUE, EstadoOperacion.INTENTO, true);
+        corta.close();
+        assertTrue(corta.getNroSegmentos() < larga.getNroSegmentos());
+        assertFalse(new File(TrazaEventos.nombreSegmento(base, corta.getNroSegmentos())).exists());
+
+        try (LectorTraza lector = new LectorTraza(base)) {
+            while (lector.siguiente())
+                assertEquals(TipoOperacion.DESPEGUE, lector.getTipo());
+            assertEquals(300, lector.getNroLeidos());
+        }
+    }
+
+    /**
+     * Una simulación reanudada desde un punto de control continúa la traza
+     * donde estaba, aunque la interrumpida siguiera escribiendo después
+     */
+    public void testReanuda() throws Exception {
+        String seguida = new File(directorio, "seguida").getPath();
+        String cortada = new File(directorio, "cortada").getPath();
+        String control = new File(directorio, "control").getPath();
+        Properties p = new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("motor.simulacion", "PRIMITIVO");
+        p.setProperty("traza.segmento", "4096");
+        p.setProperty("traza.fichero", seguida);
+        long procesados;
+        try (Simulador simulador = new Simulador(new Parametros(p))) {
+            simulador.simulaBucle(100000);
+            procesados = simulador.getEventosProcesados();
+        }
+
+        p.setProperty("traza.fichero", cortada);
+        p.setProperty("control.segundos", "30000");
+        p.setProperty("control.fichero", control);
+        Simulador interrumpida = new Simulador(new Parametros(p));
+        interrumpida.simulaBucle(80000);
+        try (Simulador reanudada = Simulador.reanuda(control)) {
+            reanudada.simulaBucle(100000);
+        }
+        assertEquals(resume(seguida, procesados), resume(cortada, procesados));
+    }
+
+    /**
+     * Los dos motores escriben la misma traza, con un evento por evento procesado
+     */
+    public void testSimulacion() throws Exception {
+        assertEquals(traza("OBJETOS"), traza("PRIMITIVO"));
+    }
+
+    /**
+     * Simula con traza y la resume
+     */
+    private String traza(String motor) throws Exception {
+        String base = new File(directorio, motor).getPath();
+        Properties p = new Parametros(7, 2, 120, 0.5, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("motor.simulacion", motor);
+        p.setProperty("traza.fichero", base);
+        p.setProperty("traza.segmento", "65536");
+        long procesados;
+        try (Simulador simulador = new Simulador(new Parametros(p))) {
+            simulador.simulaBucle(200000);
+            procesados = simulador.getEventosProcesados();
+            assertTrue(simulador.getTraza().getNroSegmentos() > 1);
+        }
+        return resume(base, procesados);
+    }
+
+    /**
+     * Lee una traza y la resume: eventos, aterrizajes concedidos y suma de instantes y aeronaves
+     */
+    private String resume(String base, long procesados) throws Exception {
+        long concedidos = 0;
+        long suma = 0;
+        long anterior = 0;
+        try (LectorTraza lector = new LectorTraza(base)) {
+            while (lector.siguiente()) {
+                assertTrue(lector.getCuando() >= anterior);
+                anterior = lector.getCuando();
+                if (lector.isConcedida() && lector.getTipo() == TipoOperacion.ATERRIZAJE)
+                    concedidos++;
+                suma = suma * 31 + lector.getCuando() * 17 + lector.getAeronave();
+            }
+            assertEquals(procesados, lector.getNroLeidos());
+            return procesados + " " + concedidos + " " + suma;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package aeropuerto;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Números aleatorios comunes para comparar varias políticas del controlador
+ * con el mismo tráfico.
+ * <p/>
+ * Un solo generador saca, aeronave a aeronave, el intervalo hasta su llegada
+ * y la duración de su asistencia en tierra, y los guarda. Cada política lee
+ * esos valores con su propio Generador (ver creaGenerador), así que todas
+ * ven exactamente las mismas llegadas y las mismas estancias en tierra por
+ * aeronave, aunque las atiendan en distinto orden. Las diferencias entre
+ * políticas se deben solo a la política, y se miden con menos varianza que
+ * con simulaciones independientes.
+ * <p/>
+ * Las demoras de reintento no se pueden compartir por aeronave (su número
+ * depende de la política); cada generador las saca de su propio flujo, con
+ * la misma semilla para todos. No es seguro usarlo desde varios hilos.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ * @see aeropuerto.EvaluadorPoliticas
+ */
+public class VariablesComunes {
+    /**
+     * Capacidad inicial de los arrays
+     */
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    /**
+     * Parámetros de los que salen las variables
+     */
+    private final Parametros parametros;
+
+    /**
+     * Generador del que salen las variables
+     */
+    private final Generador generador;
+
+    /**
+     * Intervalo hasta la llegada de cada aeronave (la aeronave n en la posición n-1)
+     */
+    private int[] entreLlegadas = new int[CAPACIDAD_INICIAL];
+
+    /**
+     * Duración de la asistencia en tierra de cada aeronave
+     */
+    private int[] enTierra = new int[CAPACIDAD_INICIAL];
+
+    /**
+     * Número de aeronaves generadas
+     */
+    private int nroAeronaves = 0;
+
+    /**
+     * Constructor
+     *
+     * @param parametros de las distribuciones de llegadas y asistencia en tierra
+     */
+    public VariablesComunes(Parametros parametros) {
+        this.parametros = parametros;
+        generador = new Generador(parametros);
+    }
+
+    /**
+     * Intervalo entre la llegada de la aeronave anterior y la indicada
+     *
+     * @param aeronave identificador de la aeronave (desde 1)
+     * @return intervalo entre llegadas
+     */
+    public int getEntreLlegadas(int aeronave) {
+        genera(aeronave);
+        return entreLlegadas[aeronave - 1];
+    }
+
+    /**
+     * Duración de la asistencia en tierra de la aeronave indicada
+     *
+     * @param aeronave identificador de la aeronave (desde 1)
+     * @return duración de asistencia en tierra
+     */
+    public int getDuracionEnTierra(int aeronave) {
+        genera(aeronave);
+        return enTierra[aeronave - 1];
+    }
+
+    /**
+     * @return número de aeronaves generadas hasta ahora
+     */
+    public int getNroAeronaves() {
+        return nroAeronaves;
+    }
+
+    /**
+     * Crea un generador que lee estas variables, para simular una política.
+     * Los parámetros de la política deben tener las mismas llegadas y
+     * asistencias en tierra que los de las variables.
+     *
+     * @param politica parámetros de la política
+     * @return generador para la simulación de la política
+     */
+    public Generador creaGenerador(Parametros politica) {
+        return new Lector(politica, this);
+    }
+
+    /**
+     * @return parámetros de los que salen las variables
+     */
+    public Parametros getParametros() {
+        return parametros;
+    }
+
+    /**
+     * Genera las variables de las aeronaves que faltan hasta la indicada
+     */
+    private void genera(int aeronave) {
+        if (aeronave < 1)
+            throw new IllegalArgumentException("VariablesComunes: aeronave " + aeronave);
+        while (nroAeronaves < aeronave) {
+            if (nroAeronaves == entreLlegadas.length) {
+                entreLlegadas = Arrays.copyOf(entreLlegadas, nroAeronaves * 2);
+                enTierra = Arrays.copyOf(enTierra, nroAeronaves * 2);
+            }
+            entreLlegadas[nroAeronaves] = generador.entreLlegadas();
+            enTierra[nroAeronaves] = generador.duracionEnTierra();
+            nroAeronaves++;
+        }
+    }
+
+    /**
+     * Generador de una política, que lee las variables comunes
+     */
+    private static class Lector extends Generador {
+        /**
+         * Variables comunes
+         */
+        private final VariablesComunes comunes;
+
+        /**
+         * Última aeronave cuya llegada se ha leído
+         */
+        private int llegadas = 0;
+
+        Lector(Parametros parametros, VariablesComunes comunes) {
+            super(parametros, new Xoroshiro128(parametros.getSemilla()));
+            this.comunes = comunes;
+        }
+
+        public int entreLlegadas() {
+            return comunes.getEntreLlegadas(++llegadas);
+        }
+
+        public int duracionEnTierra(int aeronave) {
+            return comunes.getDuracionEnTierra(aeronave);
+        }
+
+        void escribe(DataOutput salida) throws IOException {
+            throw new IOException("VariablesComunes: no se puede guardar el estado de una politica");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package aeropuerto;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generador de números aleatorios xoroshiro128++ (Blackman y Vigna).
+ * <p/>
+ * Es mucho más rápido que java.util.Random, porque no sincroniza ni usa
+ * operaciones atómicas: cada instancia debe usarla un solo hilo.
+ * Su estado son dos long, que se pueden leer y restaurar.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class Xoroshiro128 implements RandomGenerator {
+    /**
+     * Estado del generador
+     */
+    private long s0, s1;
+
+    /**
+     * Crea un generador a partir de una semilla, que se expande
+     * con SplitMix64 para obtener el estado inicial.
+     *
+     * @param semilla semilla
+     */
+    public Xoroshiro128(long semilla) {
+        s0 = mezcla(semilla += 0x9e3779b97f4a7c15L);
+        s1 = mezcla(semilla + 0x9e3779b97f4a7c15L);
+        if ((s0 | s1) == 0)
+            s1 = 1;
+    }
+
+    /**
+     * Crea un generador con el estado indicado.
+     *
+     * @param s0 primera palabra de estado
+     * @param s1 segunda palabra de estado
+     * @throws IllegalArgumentException si las dos palabras valen 0
+     */
+    public Xoroshiro128(long s0, long s1) {
+        if ((s0 | s1) == 0)
+            throw new IllegalArgumentException("Xoroshiro128: estado nulo");
+        this.s0 = s0;
+        this.s1 = s1;
+    }
+
+    /**
+     * @return siguiente long aleatorio
+     */
+    public long nextLong() {
+        long a = s0;
+        long b = s1;
+        long resultado = Long.rotateLeft(a + b, 17) + a;
+        b ^= a;
+        s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+        s1 = Long.rotateLeft(b, 28);
+        return resultado;
+    }
+
+    /**
+     * @return siguiente double aleatorio en [0, 1)
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return siguiente normal tipificada, por el método ziggurat
+     */
+    public double nextGaussian() {
+        return ZigguratNormal.muestra(this);
+    }
+
+    /**
+     * @return primera palabra de estado
+     */
+    public long getEstado0() {
+        return s0;
+    }
+
+    /**
+     * @return segunda palabra de estado
+     */
+    public long getEstado1() {
+        return s1;
+    }
+
+    /**
+     * Función de mezcla de SplitMix64
+     */
+    private static long mezcla(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
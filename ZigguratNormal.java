@@ -0,0 +1,137 @@
+package aeropuerto;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Normal tipificada por el método ziggurat (Marsaglia y Tsang, 2000),
+ * con 128 capas.
+ * <p/>
+ * En más del 98% de los casos cada muestra cuesta un entero aleatorio, una
+ * comparación y una multiplicación; solo en los bordes de las capas y en la
+ * cola se recurre a exponenciales y logaritmos. El método llena() genera
+ * muchas muestras seguidas sobre un array de primitivos, para que quien las
+ * consume no tenga que llamar al generador por cada una.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public final class ZigguratNormal {
+    /**
+     * Inicio de la cola de la normal (borde de la última capa)
+     */
+    private static final double R = 3.442619855899;
+
+    /**
+     * Área de cada capa
+     */
+    private static final double V = 9.91256303526217e-3;
+
+    /**
+     * Escala de los enteros de 32 bits
+     */
+    private static final double M1 = 2147483648.0;
+
+    /**
+     * Umbrales de aceptación inmediata de cada capa
+     */
+    private static final long[] KN = new long[128];
+
+    /**
+     * Anchura de cada capa, escalada a enteros de 32 bits
+     */
+    private static final double[] WN = new double[128];
+
+    /**
+     * Densidad en el borde de cada capa
+     */
+    private static final double[] FN = new double[128];
+
+    static {
+        double dn = R;
+        double tn = dn;
+        double q = V / Math.exp(-0.5 * dn * dn);
+        KN[0] = (long) ((dn / q) * M1);
+        KN[1] = 0;
+        WN[0] = q / M1;
+        WN[127] = dn / M1;
+        FN[0] = 1.0;
+        FN[127] = Math.exp(-0.5 * dn * dn);
+        for (int i = 126; i >= 1; i--) {
+            dn = Math.sqrt(-2.0 * Math.log(V / dn + Math.exp(-0.5 * dn * dn)));
+            KN[i + 1] = (long) ((dn / tn) * M1);
+            tn = dn;
+            FN[i] = Math.exp(-0.5 * dn * dn);
+            WN[i] = dn / M1;
+        }
+    }
+
+    /**
+     * No se instancia
+     */
+    private ZigguratNormal() {
+    }
+
+    /**
+     * Genera una normal tipificada
+     *
+     * @param random fuente de números aleatorios
+     * @return muestra de la normal N(0,1)
+     */
+    public static double muestra(RandomGenerator random) {
+        int hz = (int) random.nextLong();
+        int iz = hz & 127;
+        if (Math.abs((long) hz) < KN[iz])
+            return hz * WN[iz];
+        return corrige(hz, iz, random);
+    }
+
+    /**
+     * Llena un array con normales tipificadas
+     *
+     * @param destino array a llenar
+     * @param random  fuente de números aleatorios
+     */
+    public static void llena(double[] destino, RandomGenerator random) {
+        llena(destino, 0, destino.length, random);
+    }
+
+    /**
+     * Llena parte de un array con normales tipificadas
+     *
+     * @param destino array a llenar
+     * @param desde   primera posición a llenar
+     * @param hasta   posición siguiente a la última a llenar
+     * @param random  fuente de números aleatorios
+     */
+    public static void llena(double[] destino, int desde, int hasta, RandomGenerator random) {
+        for (int i = desde; i < hasta; i++) {
+            int hz = (int) random.nextLong();
+            int iz = hz & 127;
+            destino[i] = (Math.abs((long) hz) < KN[iz]) ? hz * WN[iz] : corrige(hz, iz, random);
+        }
+    }
+
+    /**
+     * Caso lento: el punto cae en el borde de una capa o en la cola
+     */
+    private static double corrige(int hz, int iz, RandomGenerator random) {
+        while (true) {
+            double x = hz * WN[iz];
+            if (iz == 0) {
+                // Cola de la normal, más allá de R
+                double y;
+                do {
+                    x = -Math.log(1.0 - random.nextDouble()) / R;
+                    y = -Math.log(1.0 - random.nextDouble());
+                } while (y + y < x * x);
+                return (hz > 0) ? R + x : -R - x;
+            }
+            if (FN[iz] + random.nextDouble() * (FN[iz - 1] - FN[iz]) < Math.exp(-0.5 * x * x))
+                return x;
+            hz = (int) random.nextLong();
+            iz = hz & 127;
+            if (Math.abs((long) hz) < KN[iz])
+                return hz * WN[iz];
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package aeropuerto;
+
+import junit.framework.TestCase;
+
+/**
+ * Comprueba que el método ziggurat genera una normal tipificada:
+ * media, varianza y proporción de muestras en las colas.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class ZigguratNormalTest extends TestCase {
+
+    private static final int N = 1000000;
+
+    /**
+     * Momentos y colas de las muestras generadas por bloques.
+     */
+    public void testMomentosYColas() {
+        double[] x = new double[N];
+        ZigguratNormal.llena(x, new Xoroshiro128(1));
+        double suma = 0;
+        double suma2 = 0;
+        int mas2 = 0;
+        int masR = 0;
+        for (double v : x) {
+            suma += v;
+            suma2 += v * v;
+            if (Math.abs(v) > 2)
+                mas2++;
+            if (Math.abs(v) > 3.442619855899)
+                masR++;
+        }
+        assertEquals(0.0, suma / N, 0.005);
+        assertEquals(1.0, suma2 / N, 0.005);
+        // P(|Z| > 2) = 0.0455; P(|Z| > 3.4426) = 0.000576
+        assertEquals(0.0455, mas2 / (double) N, 0.001);
+        assertEquals(0.000576, masR / (double) N, 0.0001);
+    }
+
+    /**
+     * Con el mismo estado, muestras sueltas y por bloques coinciden.
+     */
+    public void testMuestraYLlenaCoinciden() {
+        double[] x = new double[1000];
+        ZigguratNormal.llena(x, new Xoroshiro128(7));
+        Xoroshiro128 random = new Xoroshiro128(7);
+        for (double v : x)
+            assertEquals(v, ZigguratNormal.muestra(random));
+    }
+}
@@ -0,0 +1,50 @@
+package aeropuerto.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lanza los benchmarks del simulador con las opciones de JMH que se pasen
+ * como argumentos. Si no se indica otra cosa, guarda los resultados en JSON,
+ * en jmh-resultados.json, para comparar unas versiones con otras.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+public class Benchmarks {
+    /**
+     * Fichero de resultados por defecto
+     */
+    private static final String RESULTADOS = "jmh-resultados.json";
+
+    /**
+     * No se instancia
+     */
+    private Benchmarks() {
+    }
+
+    /**
+     * @param argumentos opciones de JMH
+     * @throws Exception si JMH no puede ejecutar los benchmarks
+     */
+    public static void main(String[] argumentos) throws Exception {
+        CommandLineOptions linea = new CommandLineOptions(argumentos);
+        if (linea.shouldHelp()) {
+            linea.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder opciones = new OptionsBuilder().parent(linea);
+        if (!linea.getResultFormat().hasValue())
+            opciones.resultFormat(ResultFormatType.JSON);
+        if (!linea.getResult().hasValue())
+            opciones.result(RESULTADOS);
+        Runner runner = new Runner(opciones.build());
+        if (linea.shouldList())
+            runner.list();
+        else
+            runner.run();
+    }
+}
@@ -0,0 +1,100 @@
+package aeropuerto.jmh;
+
+import aeropuerto.ColaEventos;
+import aeropuerto.Evento;
+import aeropuerto.TipoCola;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de ColaEventos.inserta y extrae, con cada implementación
+ * y con distintas profundidades de cola.
+ * <p/>
+ * Usa el modelo "hold": cada operación extrae el primer evento y lo vuelve
+ * a insertar más adelante en el tiempo, así que la profundidad de la cola
+ * se mantiene y los tiempos nunca retroceden, como en el simulador.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColaEventosBenchmark {
+
+    @Param({"LISTA", "MONTICULO", "RADIX"})
+    public TipoCola tipo;
+
+    @Param({"16", "256", "4096"})
+    public int profundidad;
+
+    /**
+     * Incrementos de tiempo, precalculados
+     */
+    private final long[] incrementos = new long[1024];
+
+    private ColaEventos cola;
+    private int siguiente;
+
+    @Setup
+    public void prepara() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < incrementos.length; i++)
+            incrementos[i] = 1 + random.nextInt(2 * profundidad);
+        cola = new ColaEventos(tipo);
+        for (int i = 0; i < profundidad; i++)
+            cola.inserta(new EventoMovil(random.nextInt(2 * profundidad)));
+    }
+
+    /**
+     * Extrae el primer evento y lo reinserta más tarde
+     *
+     * @return evento reinsertado
+     */
+    @Benchmark
+    public Evento extraeEInserta() {
+        EventoMovil e = (EventoMovil) cola.extrae();
+        e.cuando += incrementos[siguiente++ & (incrementos.length - 1)];
+        cola.inserta(e);
+        return e;
+    }
+
+    /**
+     * Evento cuyo instante se puede cambiar mientras está fuera de la cola,
+     * para no crear objetos durante la medida
+     */
+    static final class EventoMovil implements Evento {
+        long cuando;
+
+        EventoMovil(long cuando) {
+            this.cuando = cuando;
+        }
+
+        public int getIdentificador() {
+            return 0;
+        }
+
+        public long getCuando() {
+            return cuando;
+        }
+
+        public boolean antesQue(Evento otro) {
+            return cuando < otro.getCuando();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package aeropuerto.jmh;
+
+import aeropuerto.Estadistica;
+import aeropuerto.EventoAeroportuario;
+import aeropuerto.Generador;
+import aeropuerto.Parametros;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de Estadistica.registraEvento, con una secuencia precalculada
+ * de eventos (aterrizaje, fin, despegue, fin) de varias aeronaves.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstadisticaBenchmark {
+
+    /**
+     * Número de aeronaves de la secuencia (potencia de 2)
+     */
+    private static final int AERONAVES = 1024;
+
+    private final EventoAeroportuario[] eventos = new EventoAeroportuario[4 * AERONAVES];
+    private Estadistica estadistica;
+    private int siguiente;
+
+    @Setup
+    public void prepara() {
+        Generador generador = new Generador(new Parametros(1, 2, 120, 0.5, 600, 200, 100, 60, 10));
+        EventoAeroportuario llegada = null;
+        for (int i = 0; i < AERONAVES; i++) {
+            llegada = EventoAeroportuario.generaLlegada(llegada, generador);
+            EventoAeroportuario finAterrizaje = EventoAeroportuario.generaFin(llegada, 120);
+            EventoAeroportuario salida = EventoAeroportuario.generaSalida(finAterrizaje, generador);
+            eventos[4 * i] = llegada;
+            eventos[4 * i + 1] = finAterrizaje;
+            eventos[4 * i + 2] = salida;
+            eventos[4 * i + 3] = EventoAeroportuario.generaFin(salida, 120);
+        }
+        estadistica = new Estadistica();
+    }
+
+    @Benchmark
+    public Estadistica registraEvento() {
+        estadistica.registraEvento(eventos[siguiente++ & (eventos.length - 1)]);
+        return estadistica;
+    }
+}
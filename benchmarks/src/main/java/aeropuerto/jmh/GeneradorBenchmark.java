@@ -0,0 +1,72 @@
+package aeropuerto.jmh;
+
+import aeropuerto.Generador;
+import aeropuerto.Parametros;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de cada método de muestreo de Generador, con cada distribución
+ * de llegadas y cada método de generación de normales.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneradorBenchmark {
+
+    @Param({"POISSON_KNUTH", "POISSON_PTRS", "EXPONENCIAL", "EMPIRICA"})
+    public String distribucion;
+
+    @Param({"POLAR", "ZIGGURAT"})
+    public String normal;
+
+    /**
+     * Llegadas por minuto; con 0.5, media de 120 segundos entre llegadas
+     */
+    @Param({"0.5"})
+    public double frecuencia;
+
+    private Generador generador;
+
+    @Setup
+    public void prepara() {
+        Properties p = new Parametros(1, 2, 120, frecuencia, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("distribucion.llegadas", distribucion);
+        p.setProperty("empirica.llegadas", "60:1,90:2,120:4,150:2,180:1");
+        p.setProperty("generador.normal", normal);
+        generador = new Generador(new Parametros(p));
+    }
+
+    @Benchmark
+    public int entreLlegadas() {
+        return generador.entreLlegadas();
+    }
+
+    @Benchmark
+    public int duracionEnTierra() {
+        return generador.duracionEnTierra();
+    }
+
+    @Benchmark
+    public int demoraReintento() {
+        return generador.demoraReintento();
+    }
+}
@@ -0,0 +1,90 @@
+package aeropuerto.jmh;
+
+import aeropuerto.Parametros;
+import aeropuerto.Simulador;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de extremo a extremo de Simulador.simulaBucle, con tráfico
+ * bajo, nominal y saturado, y con cada motor y cada cola de eventos.
+ * Además de simulaciones por segundo, el contador auxiliar "eventos"
+ * da los eventos procesados por segundo.
+ *
+ * @author Javier López Medina
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimuladorBenchmark {
+
+    /**
+     * Llegadas por minuto: bajo (0.1), nominal (0.5) y saturado (1.0),
+     * con dos pistas y slots de 120 segundos
+     */
+    @Param({"0.1", "0.5", "1.0"})
+    public double frecuencia;
+
+    @Param({"OBJETOS", "PRIMITIVO"})
+    public String motor;
+
+    @Param({"MONTICULO", "RADIX"})
+    public String cola;
+
+    /**
+     * Segundos simulados en cada llamada
+     */
+    @Param({"86400"})
+    public long horizonte;
+
+    private Parametros parametros;
+
+    @Setup
+    public void prepara() {
+        Properties p = new Parametros(1, 2, 120, frecuencia, 600, 200, 100, 60, 10).getPropiedades();
+        p.setProperty("motor.simulacion", motor);
+        p.setProperty("cola.eventos", cola);
+        parametros = new Parametros(p);
+    }
+
+    /**
+     * Eventos procesados, que JMH informa como eventos por segundo
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contadores {
+        public long eventos;
+
+        @Setup(Level.Iteration)
+        public void reinicia() {
+            eventos = 0;
+        }
+    }
+
+    @Benchmark
+    public Simulador simulaBucle(Contadores contadores) {
+        try (Simulador simulador = new Simulador(parametros)) {
+            simulador.simulaBucle(horizonte);
+            contadores.eventos += simulador.getEventosProcesados();
+            return simulador;
+        }
+    }
+}